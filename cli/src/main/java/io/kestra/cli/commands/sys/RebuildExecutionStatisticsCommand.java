@@ -0,0 +1,44 @@
+package io.kestra.cli.commands.sys;
+
+import io.kestra.cli.AbstractCommand;
+import io.kestra.jdbc.repository.AbstractJdbcExecutionRepository;
+import io.micronaut.context.ApplicationContext;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import picocli.CommandLine;
+
+import java.util.Optional;
+
+@CommandLine.Command(
+    name = "rebuild-execution-statistics",
+    description = {"Rebuild the execution statistics",
+        "The pre-aggregated statistics used by the dashboards are emptied and computed again from all the executions. The dashboards stay correct while they are rebuilt, but slower."
+    }
+)
+@Slf4j
+public class RebuildExecutionStatisticsCommand extends AbstractCommand {
+    @Inject
+    private ApplicationContext applicationContext;
+
+    @Override
+    public Integer call() throws Exception {
+        super.call();
+
+        Optional<String> repositoryType = applicationContext.getProperty("kestra.repository.type", String.class);
+        if (repositoryType.isEmpty()) {
+            stdOut("Unable to rebuild the execution statistics, the 'kestra.repository.type' configuration is not set");
+            return 0;
+        }
+
+        if (repositoryType.get().equals("postgres") || repositoryType.get().equals("mysql") || repositoryType.get().equals("h2")) {
+            applicationContext.getBean(AbstractJdbcExecutionRepository.class).rebuildStatistics();
+        }
+        else {
+            stdOut("Unable to rebuild the execution statistics, the 'kestra.repository.type' is set to '{0}' which has no execution statistics", repositoryType.get());
+            return 1;
+        }
+
+        stdOut("Successfully rebuilt the execution statistics");
+        return 0;
+    }
+}
@@ -13,5 +13,8 @@ public class MetricConfig {
 
     @MapFormat(transformation = MapFormat.MapTransformation.FLAT)
     Map<String, String> tags;
+
+    // maximum number of distinct tag values of a metric, new tag values above it are not reported, unlimited if not set
+    Integer maxTagCardinality;
 }
 
@@ -2,6 +2,7 @@ package io.kestra.core.metrics;
 
 import io.kestra.core.models.executions.Execution;
 import io.kestra.core.models.executions.ExecutionKilled;
+import io.kestra.core.models.executions.TaskRun;
 import io.kestra.core.models.tasks.Task;
 import io.kestra.core.models.triggers.AbstractTrigger;
 import io.kestra.core.models.triggers.TriggerContext;
@@ -9,12 +10,21 @@ import io.kestra.core.runners.*;
 import io.kestra.core.schedulers.SchedulerExecutionWithTrigger;
 import io.micrometer.core.instrument.*;
 import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.noop.NoopCounter;
+import io.micrometer.core.instrument.noop.NoopDistributionSummary;
+import io.micrometer.core.instrument.noop.NoopTimer;
 import io.micrometer.core.instrument.search.Search;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Singleton
 @Slf4j
 public class MetricRegistry {
@@ -50,6 +60,12 @@ public class MetricRegistry {
     public static final String METRIC_WORKER_TRIGGER_EXECUTION_COUNT_DESCRIPTION = "The total number of triggers evaluated by the Worker";
     public static final String METRIC_WORKER_KILLED_COUNT = "worker.killed.count";
     public static final String METRIC_WORKER_KILLED_COUNT_DESCRIPTION = "The total number of executions killed events received the Executor";
+    public static final String METRIC_WORKER_TASK_CACHE_HIT_COUNT = "worker.task.cache.hit.count";
+    public static final String METRIC_WORKER_TASK_CACHE_HIT_COUNT_DESCRIPTION = "The total number of task output cache entries found by the Worker";
+    public static final String METRIC_WORKER_TASK_CACHE_MISS_COUNT = "worker.task.cache.miss.count";
+    public static final String METRIC_WORKER_TASK_CACHE_MISS_COUNT_DESCRIPTION = "The total number of task output cache entries not found by the Worker";
+    public static final String METRIC_WORKER_TASK_CACHE_DURATION = "worker.task.cache.duration";
+    public static final String METRIC_WORKER_TASK_CACHE_DURATION_DESCRIPTION = "Task output cache lookup duration inside the Worker";
 
     public static final String METRIC_EXECUTOR_THREAD_COUNT = "executor.thread.count";
     public static final String METRIC_EXECUTOR_THREAD_COUNT_DESCRIPTION = "The number of executor threads";
@@ -85,6 +101,14 @@ public class MetricRegistry {
     public static final String METRIC_EXECUTOR_EXECUTION_QUEUED_COUNT_DESCRIPTION = "The total number of executions queued by the Executor";
     public static final String METRIC_EXECUTOR_EXECUTION_POPPED_COUNT = "executor.execution.popped.count";
     public static final String METRIC_EXECUTOR_EXECUTION_POPPED_COUNT_DESCRIPTION = "The total number of executions popped by the Executor";
+    public static final String METRIC_EXECUTOR_FLOW_CACHE_HIT_COUNT = "executor.flow.cache.hit.count";
+    public static final String METRIC_EXECUTOR_FLOW_CACHE_HIT_COUNT_DESCRIPTION = "The total number of flows with plugin defaults found in the Executor cache";
+    public static final String METRIC_EXECUTOR_FLOW_CACHE_MISS_COUNT = "executor.flow.cache.miss.count";
+    public static final String METRIC_EXECUTOR_FLOW_CACHE_MISS_COUNT_DESCRIPTION = "The total number of flows with plugin defaults not found in the Executor cache and parsed again";
+    public static final String METRIC_EXECUTOR_FLOW_CACHE_EVICTION_COUNT = "executor.flow.cache.eviction.count";
+    public static final String METRIC_EXECUTOR_FLOW_CACHE_EVICTION_COUNT_DESCRIPTION = "The total number of flows with plugin defaults evicted from the Executor cache due to its size";
+    public static final String METRIC_EXECUTOR_WORKER_TASK_RESULT_COALESCED_COUNT = "executor.worker.task.result.coalesced.count";
+    public static final String METRIC_EXECUTOR_WORKER_TASK_RESULT_COALESCED_COUNT_DESCRIPTION = "The total number of worker task results joined to their execution together with other results of the same execution, saving an execution lock and persist";
 
     public static final String METRIC_INDEXER_REQUEST_COUNT = "indexer.request.count";
     public static final String METRIC_INDEXER_REQUEST_COUNT_DESCRIPTION = "Total number of batches of records received by the Indexer";
@@ -132,6 +156,17 @@ public class MetricRegistry {
     public static final String METRIC_QUEUE_RECEIVE_DURATION_DESCRIPTION = "Queue duration to receive and consume a batch of messages";
     public static final String METRIC_QUEUE_POLL_SIZE = "queue.poll.size";
     public static final String METRIC_QUEUE_POLL_SIZE_DESCRIPTION = "Size of a poll to the queue (message batch size)";
+    public static final String METRIC_QUEUE_BATCH_SIZE = "queue.batch.size";
+    public static final String METRIC_QUEUE_BATCH_SIZE_DESCRIPTION = "Number of messages inserted in a single batch by the asynchronous producer";
+    public static final String METRIC_QUEUE_BATCH_FLUSH_DURATION = "queue.batch.flush.duration";
+    public static final String METRIC_QUEUE_BATCH_FLUSH_DURATION_DESCRIPTION = "Duration to insert a batch of messages by the asynchronous producer";
+
+    public static final String METRIC_PEBBLE_JQ_CACHE_HIT_COUNT = "pebble.jq.cache.hit.count";
+    public static final String METRIC_PEBBLE_JQ_CACHE_HIT_COUNT_DESCRIPTION = "The total number of jq expressions found already compiled in the cache of the 'jq' filter";
+    public static final String METRIC_PEBBLE_JQ_CACHE_MISS_COUNT = "pebble.jq.cache.miss.count";
+    public static final String METRIC_PEBBLE_JQ_CACHE_MISS_COUNT_DESCRIPTION = "The total number of jq expressions not found in the cache of the 'jq' filter and compiled";
+    public static final String METRIC_PEBBLE_JQ_CACHE_EVICTION_COUNT = "pebble.jq.cache.eviction.count";
+    public static final String METRIC_PEBBLE_JQ_CACHE_EVICTION_COUNT_DESCRIPTION = "The total number of compiled jq expressions evicted from the cache of the 'jq' filter due to its size";
 
     public static final String TAG_TASK_TYPE = "task_type";
     public static final String TAG_TRIGGER_TYPE = "trigger_type";
@@ -146,12 +181,28 @@ public class MetricRegistry {
     public static final String TAG_QUEUE_CONSUMER = "consumer";
     public static final String TAG_QUEUE_CONSUMER_GROUP = "consumer_group";
     public static final String TAG_QUEUE_TYPE = "queue_type";
+    public static final String TAG_CACHE_TIER = "cache_tier";
 
-    @Inject
-    private MeterRegistry meterRegistry;
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    // returned once a metric reached its maximum tag cardinality, they are never registered so a single instance is enough
+    private static final Counter NOOP_COUNTER = new NoopCounter(noopId(Meter.Type.COUNTER));
+    private static final Timer NOOP_TIMER = new NoopTimer(noopId(Meter.Type.TIMER));
+    private static final DistributionSummary NOOP_SUMMARY = new NoopDistributionSummary(noopId(Meter.Type.DISTRIBUTION_SUMMARY));
+
+    private final MeterRegistry meterRegistry;
+    private final MetricConfig metricConfig;
+
+    // registering a meter builds its id, sorts its tags and looks it up in the registry, so meters are cached by name and tags
+    private final Map<MeterKey, Meter> meters = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> cardinalities = new ConcurrentHashMap<>();
+    private final Set<String> cappedMetrics = ConcurrentHashMap.newKeySet();
 
     @Inject
-    private MetricConfig metricConfig;
+    public MetricRegistry(MeterRegistry meterRegistry, MetricConfig metricConfig) {
+        this.meterRegistry = meterRegistry;
+        this.metricConfig = metricConfig;
+    }
 
     /**
      * Tracks a monotonically increasing value.
@@ -162,10 +213,7 @@ public class MetricRegistry {
      * @return A new or existing counter.
      */
     public Counter counter(String name, String description, String... tags) {
-        return Counter.builder(metricName(name))
-            .description(description)
-            .tags(tags)
-            .register(this.meterRegistry);
+        return (Counter) this.meter(Meter.Type.COUNTER, name, description, tags, false);
     }
 
     /**
@@ -196,10 +244,21 @@ public class MetricRegistry {
      * @return A new or existing timer.
      */
     public Timer timer(String name, String description, String... tags) {
-        return Timer.builder(metricName(name))
-            .description(description)
-            .tags(tags)
-            .register(this.meterRegistry);
+        return (Timer) this.meter(Meter.Type.TIMER, name, description, tags, false);
+    }
+
+    /**
+     * Measures the time taken for short tasks like {@link #timer(String, String, String...)}, also publishing
+     * the 50th, 95th and 99th percentiles of the duration.
+     * A timer must always be retrieved with the same method, as the percentiles are only set when it's registered.
+     *
+     * @param name The base metric name
+     * @param description The metric description
+     * @param tags MUST be an even number of arguments representing key/value pairs of tags.
+     * @return A new or existing timer.
+     */
+    public Timer percentileTimer(String name, String description, String... tags) {
+        return (Timer) this.meter(Meter.Type.TIMER, name, description, tags, true);
     }
 
     /**
@@ -211,10 +270,59 @@ public class MetricRegistry {
      * @return A new or existing distribution summary.
      */
     public DistributionSummary summary(String name, String description, String... tags) {
-        return DistributionSummary.builder(metricName(name))
-            .description(description)
-            .tags(tags)
-            .register(this.meterRegistry);
+        return (DistributionSummary) this.meter(Meter.Type.DISTRIBUTION_SUMMARY, name, description, tags, false);
+    }
+
+    private Meter meter(Meter.Type type, String name, String description, String[] tags, boolean percentiles) {
+        Meter meter = this.meters.get(new MeterKey(type, name, tags));
+        if (meter != null) {
+            return meter;
+        }
+
+        return this.register(type, name, description, tags, percentiles);
+    }
+
+    private Meter register(Meter.Type type, String name, String description, String[] tags, boolean percentiles) {
+        AtomicInteger cardinality = this.cardinalities.computeIfAbsent(name, k -> new AtomicInteger());
+        Integer maxTagCardinality = this.metricConfig.getMaxTagCardinality();
+        if (maxTagCardinality != null && cardinality.get() >= maxTagCardinality) {
+            if (this.cappedMetrics.add(name)) {
+                log.warn("Metric '{}' reached the maximum tag cardinality of {}, new tag values will not be reported", name, maxTagCardinality);
+            }
+
+            return switch (type) {
+                case COUNTER -> NOOP_COUNTER;
+                case TIMER -> NOOP_TIMER;
+                default -> NOOP_SUMMARY;
+            };
+        }
+
+        Meter meter = switch (type) {
+            case COUNTER -> Counter.builder(metricName(name))
+                .description(description)
+                .tags(tags)
+                .register(this.meterRegistry);
+            case TIMER -> Timer.builder(metricName(name))
+                .description(description)
+                .tags(tags)
+                .publishPercentiles(percentiles ? PERCENTILES : null)
+                .register(this.meterRegistry);
+            default -> DistributionSummary.builder(metricName(name))
+                .description(description)
+                .tags(tags)
+                .register(this.meterRegistry);
+        };
+
+        // the tags are copied as the caller may reuse its array
+        if (this.meters.putIfAbsent(new MeterKey(type, name, tags.clone()), meter) == null) {
+            cardinality.incrementAndGet();
+        }
+
+        return meter;
+    }
+
+    private static Meter.Id noopId(Meter.Type type) {
+        return new Meter.Id("noop", Tags.empty(), null, null, type);
     }
 
     /**
@@ -276,16 +384,16 @@ public class MetricRegistry {
      * @return tags to apply to metrics
      */
     public String[] tags(WorkerTask workerTask, String workerGroup, String... tags) {
-        var baseTags = ArrayUtils.addAll(
-            ArrayUtils.addAll(
-                this.tags(workerTask.getTask()),
-                tags
-            ),
-            TAG_NAMESPACE_ID, workerTask.getTaskRun().getNamespace(),
-            TAG_FLOW_ID, workerTask.getTaskRun().getFlowId()
-        );
-        baseTags = workerGroup == null ? baseTags : ArrayUtils.addAll(baseTags, TAG_WORKER_GROUP, workerGroup);
-        return workerTask.getTaskRun().getTenantId() == null ? baseTags : ArrayUtils.addAll(baseTags, TAG_TENANT_ID, workerTask.getTaskRun().getTenantId());
+        TaskRun taskRun = workerTask.getTaskRun();
+
+        return new TagsBuilder(tags.length + 6 + (workerGroup == null ? 0 : 2) + (taskRun.getTenantId() == null ? 0 : 2))
+            .add(TAG_TASK_TYPE, workerTask.getTask().getType())
+            .add(tags)
+            .add(TAG_NAMESPACE_ID, taskRun.getNamespace())
+            .add(TAG_FLOW_ID, taskRun.getFlowId())
+            .addIfNotNull(TAG_WORKER_GROUP, workerGroup)
+            .addIfNotNull(TAG_TENANT_ID, taskRun.getTenantId())
+            .build();
     }
 
     /**
@@ -317,13 +425,15 @@ public class MetricRegistry {
      * @return tags to apply to metrics
      */
     public String[] tags(WorkerTaskResult workerTaskResult, String... tags) {
-        var baseTags = ArrayUtils.addAll(
-            tags,
-            TAG_NAMESPACE_ID, workerTaskResult.getTaskRun().getNamespace(),
-            TAG_FLOW_ID, workerTaskResult.getTaskRun().getFlowId(),
-            TAG_STATE, workerTaskResult.getTaskRun().getState().getCurrent().name()
-        );
-        return workerTaskResult.getTaskRun().getTenantId() == null ? baseTags : ArrayUtils.addAll(baseTags, TAG_TENANT_ID, workerTaskResult.getTaskRun().getTenantId());
+        TaskRun taskRun = workerTaskResult.getTaskRun();
+
+        return new TagsBuilder(tags.length + 6 + (taskRun.getTenantId() == null ? 0 : 2))
+            .add(tags)
+            .add(TAG_NAMESPACE_ID, taskRun.getNamespace())
+            .add(TAG_FLOW_ID, taskRun.getFlowId())
+            .add(TAG_STATE, taskRun.getState().getCurrent().name())
+            .addIfNotNull(TAG_TENANT_ID, taskRun.getTenantId())
+            .build();
     }
 
     /**
@@ -373,12 +483,12 @@ public class MetricRegistry {
      * @return tags to apply to metrics
      */
     public String[] tags(Execution execution) {
-        var baseTags = new String[]{
-            TAG_FLOW_ID, execution.getFlowId(),
-            TAG_NAMESPACE_ID, execution.getNamespace(),
-            TAG_STATE, execution.getState().getCurrent().name(),
-        };
-        return execution.getTenantId() == null ? baseTags : ArrayUtils.addAll(baseTags, TAG_TENANT_ID, execution.getTenantId());
+        return new TagsBuilder(6 + (execution.getTenantId() == null ? 0 : 2))
+            .add(TAG_FLOW_ID, execution.getFlowId())
+            .add(TAG_NAMESPACE_ID, execution.getNamespace())
+            .add(TAG_STATE, execution.getState().getCurrent().name())
+            .addIfNotNull(TAG_TENANT_ID, execution.getTenantId())
+            .build();
     }
 
     /**
@@ -443,5 +553,51 @@ public class MetricRegistry {
             log.warn("Error on metrics", e);
         }
     }
-}
 
+    private record MeterKey(Meter.Type type, String name, String[] tags) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof MeterKey other &&
+                this.type == other.type &&
+                this.name.equals(other.name) &&
+                Arrays.equals(this.tags, other.tags);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * this.type.hashCode() + this.name.hashCode()) + Arrays.hashCode(this.tags);
+        }
+    }
+
+    /**
+     * Fills a tag array of a known size, without the intermediate copies of successive concatenations.
+     */
+    private static final class TagsBuilder {
+        private final String[] tags;
+        private int size = 0;
+
+        private TagsBuilder(int capacity) {
+            this.tags = new String[capacity];
+        }
+
+        private TagsBuilder add(String key, String value) {
+            this.tags[this.size++] = key;
+            this.tags[this.size++] = value;
+            return this;
+        }
+
+        private TagsBuilder add(String[] tags) {
+            System.arraycopy(tags, 0, this.tags, this.size, tags.length);
+            this.size += tags.length;
+            return this;
+        }
+
+        private TagsBuilder addIfNotNull(String key, String value) {
+            return value == null ? this : this.add(key, value);
+        }
+
+        private String[] build() {
+            return this.tags;
+        }
+    }
+}
@@ -272,20 +272,18 @@ public class Execution implements DeletedInterface, TenantInterface {
     }
 
     public Execution withTaskRun(TaskRun taskRun) throws InternalException {
-        ArrayList<TaskRun> newTaskRunList = new ArrayList<>(this.taskRunList);
+        TaskRunIndex index = TaskRunIndex.of(this.taskRunList);
+        int position = this.positionOf(index, taskRun.getId());
 
-        boolean b = Collections.replaceAll(
-            newTaskRunList,
-            this.findTaskRunByTaskRunId(taskRun.getId()),
-            taskRun
-        );
-
-        if (!b) {
-            throw new IllegalStateException(
-                "Can't replace taskRun '" + taskRun.getId() + "' on execution'" + this.getId()
-                    + "'");
+        if (position < 0) {
+            throw new InternalException(
+                "Can't find taskrun with taskrunId '" + taskRun.getId() + "' on execution '" + this.id + "' "
+                    + this.toStringState());
         }
 
+        // only the replaced task run is copied, the index of the current list is kept for the new one
+        List<TaskRun> newTaskRunList = TaskRunIndex.replace(this.taskRunList, index, position, taskRun);
+
         return new Execution(
             this.tenantId,
             this.id,
@@ -369,6 +367,11 @@ public class Execution implements DeletedInterface, TenantInterface {
             return Collections.emptyList();
         }
 
+        TaskRunIndex index = TaskRunIndex.of(this.taskRunList);
+        if (index != null) {
+            return index.byTaskId(this.taskRunList, id);
+        }
+
         return this.taskRunList
             .stream()
             .filter(taskRun -> taskRun.getTaskId().equals(id))
@@ -376,19 +379,29 @@ public class Execution implements DeletedInterface, TenantInterface {
     }
 
     public TaskRun findTaskRunByTaskRunId(String id) throws InternalException {
-        Optional<TaskRun> find = (this.taskRunList == null ? Collections.<TaskRun>emptyList()
-            : this.taskRunList)
-            .stream()
-            .filter(taskRun -> taskRun.getId().equals(id))
-            .findFirst();
+        int position = this.taskRunList == null ? -1 : this.positionOf(TaskRunIndex.of(this.taskRunList), id);
 
-        if (find.isEmpty()) {
+        if (position < 0) {
             throw new InternalException(
                 "Can't find taskrun with taskrunId '" + id + "' on execution '" + this.id + "' "
                     + this.toStringState());
         }
 
-        return find.get();
+        return this.taskRunList.get(position);
+    }
+
+    private int positionOf(@Nullable TaskRunIndex index, String id) {
+        if (index != null) {
+            return index.positionOf(this.taskRunList, id);
+        }
+
+        for (int i = 0; i < this.taskRunList.size(); i++) {
+            if (this.taskRunList.get(i).getId().equals(id)) {
+                return i;
+            }
+        }
+
+        return -1;
     }
 
     public TaskRun findTaskRunByTaskIdAndValue(String id, List<String> values)
@@ -734,13 +747,11 @@ public class Execution implements DeletedInterface, TenantInterface {
             return true;
         }
 
-        TaskRun current = this.taskRunList
-            .stream()
-            .filter(r -> r.isSame(taskRun))
-            .findFirst()
-            .orElse(null);
+        // task run ids are unique, so the task run with the same id is the only candidate
+        int position = this.positionOf(TaskRunIndex.of(this.taskRunList), taskRun.getId());
+        TaskRun current = position < 0 ? null : this.taskRunList.get(position);
 
-        if (current == null) {
+        if (current == null || !current.isSame(taskRun)) {
             return true;
         }
 
@@ -932,9 +943,16 @@ public class Execution implements DeletedInterface, TenantInterface {
             .filter(taskRun -> taskRun.getOutputs() != null)
             .collect(Collectors.groupingBy(taskRun -> taskRun.getTaskId()))
             .forEach((taskId, taskRuns) -> {
+                if (taskRuns.size() == 1 && taskRuns.getFirst().getIteration() == null) {
+                    // keep the outputs as is, so outputs stored in the internal storage are only loaded when accessed
+                    TaskRun current = taskRuns.getFirst();
+                    result.put(taskId, hasOutputs(current) ? outputs(current, byIds) : new HashMap<>());
+                    return;
+                }
+
                 Map<String, Object> taskOutputs = new HashMap<>();
                 for (TaskRun current : taskRuns) {
-                    if (!MapUtils.isEmpty(current.getOutputs())) {
+                    if (hasOutputs(current)) {
                         if (current.getIteration() != null) {
                             taskOutputs = MapUtils.merge(taskOutputs, outputs(current, byIds));
                         } else {
@@ -948,6 +966,13 @@ public class Execution implements DeletedInterface, TenantInterface {
         return result;
     }
 
+    private static boolean hasOutputs(TaskRun taskRun) {
+        if (taskRun.getOutputs() instanceof Variables.InStorageVariables inStorage) {
+            return !inStorage.isStoredEmpty();
+        }
+        return !MapUtils.isEmpty(taskRun.getOutputs());
+    }
+
     private Map<String, Object> outputs(TaskRun taskRun, Map<String, TaskRun> byIds) {
         List<TaskRun> parents = findParents(taskRun, byIds)
             .stream()
@@ -1021,18 +1046,15 @@ public class Execution implements DeletedInterface, TenantInterface {
             return Collections.emptyList();
         }
 
+        TaskRunIndex index = TaskRunIndex.of(this.taskRunList);
         ArrayList<TaskRun> result = new ArrayList<>();
         boolean ended = false;
         while (!ended) {
-            final TaskRun finalTaskRun = taskRun;
-            Optional<TaskRun> find = this.taskRunList
-                .stream()
-                .filter(t -> t.getId().equals(finalTaskRun.getParentTaskRunId()))
-                .findFirst();
+            int position = taskRun.getParentTaskRunId() == null ? -1 : this.positionOf(index, taskRun.getParentTaskRunId());
 
-            if (find.isPresent()) {
-                result.add(find.get());
-                taskRun = find.get();
+            if (position >= 0) {
+                taskRun = this.taskRunList.get(position);
+                result.add(taskRun);
             } else {
                 ended = true;
             }
@@ -1076,6 +1098,11 @@ public class Execution implements DeletedInterface, TenantInterface {
      * Find all children of this {@link TaskRun}.
      */
     public List<TaskRun> findChildren(TaskRun parentTaskRun) {
+        TaskRunIndex index = TaskRunIndex.of(this.taskRunList);
+        if (index != null) {
+            return index.byParentId(this.taskRunList, parentTaskRun.getId());
+        }
+
         return taskRunList.stream()
             .filter(taskRun -> parentTaskRun.getId().equals(taskRun.getParentTaskRunId()))
             .toList();
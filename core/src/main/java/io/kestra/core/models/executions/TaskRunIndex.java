@@ -0,0 +1,140 @@
+package io.kestra.core.models.executions;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * An immutable index of the positions of the task runs of an {@link Execution}, by task run id, task id and parent task run id.
+ * <p>
+ * The index is lazily built the first time a task run list is searched, and attached to the list instance,
+ * so it doesn't change the JSON shape of the execution and is shared by all the executions using the same list.
+ * As positions are indexed, not task runs, replacing a task run by a newer version of itself keeps the index valid,
+ * see {@link #replace(List, TaskRunIndex, int, TaskRun)}.
+ * A list modified in place is detected when its size changed, or when a lookup finds a task run that doesn't match at an indexed position:
+ * the index is then rebuilt.
+ * <p>
+ * Small lists are not indexed as a scan is cheaper than a lookup in the index cache.
+ */
+final class TaskRunIndex {
+    static final int MIN_SIZE = 16;
+
+    // weak keys use identity, so the index is only reused for the very same list instance
+    private static final Cache<List<TaskRun>, TaskRunIndex> INDEXES = Caffeine.newBuilder()
+        .weakKeys()
+        .build();
+
+    private final int size;
+    private final Map<String, Integer> positionById;
+    private final Map<String, int[]> positionsByTaskId;
+    private final Map<String, int[]> positionsByParentId;
+
+    private TaskRunIndex(List<TaskRun> taskRuns) {
+        this.size = taskRuns.size();
+        this.positionById = HashMap.newHashMap(this.size);
+
+        Map<String, List<Integer>> byTaskId = new HashMap<>();
+        Map<String, List<Integer>> byParentId = new HashMap<>();
+        for (int i = 0; i < this.size; i++) {
+            TaskRun taskRun = taskRuns.get(i);
+            this.positionById.putIfAbsent(taskRun.getId(), i);
+            byTaskId.computeIfAbsent(taskRun.getTaskId(), k -> new ArrayList<>()).add(i);
+            if (taskRun.getParentTaskRunId() != null) {
+                byParentId.computeIfAbsent(taskRun.getParentTaskRunId(), k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        this.positionsByTaskId = toArrays(byTaskId);
+        this.positionsByParentId = toArrays(byParentId);
+    }
+
+    /**
+     * @return the index of this list, or <code>null</code> if the list is too small to be indexed
+     */
+    static TaskRunIndex of(List<TaskRun> taskRuns) {
+        if (taskRuns.size() < MIN_SIZE) {
+            return null;
+        }
+
+        TaskRunIndex index = INDEXES.get(taskRuns, TaskRunIndex::new);
+        if (index.size != taskRuns.size()) {
+            // the list was modified in place since it was indexed
+            index = new TaskRunIndex(taskRuns);
+            INDEXES.put(taskRuns, index);
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns a copy of the list with the task run at the given position replaced, sharing the index of the original list if it exists.
+     */
+    static List<TaskRun> replace(List<TaskRun> taskRuns, TaskRunIndex index, int position, TaskRun taskRun) {
+        ArrayList<TaskRun> copy = new ArrayList<>(taskRuns);
+        TaskRun previous = copy.set(position, taskRun);
+
+        if (index != null &&
+            Objects.equals(previous.getTaskId(), taskRun.getTaskId()) &&
+            Objects.equals(previous.getParentTaskRunId(), taskRun.getParentTaskRunId())
+        ) {
+            INDEXES.put(copy, index);
+        }
+
+        return copy;
+    }
+
+    /**
+     * @return the position of the first task run with this id, or -1
+     */
+    int positionOf(List<TaskRun> taskRuns, String id) {
+        Integer position = this.positionById.get(id);
+        if (position != null && taskRuns.get(position).getId().equals(id)) {
+            return position;
+        }
+
+        // either the task run doesn't exist, or a task run was replaced in place since the list was indexed
+        for (int i = 0; i < taskRuns.size(); i++) {
+            if (taskRuns.get(i).getId().equals(id)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    List<TaskRun> byTaskId(List<TaskRun> taskRuns, String taskId) {
+        return resolve(taskRuns, this.positionsByTaskId.get(taskId), taskRun -> taskId.equals(taskRun.getTaskId()));
+    }
+
+    List<TaskRun> byParentId(List<TaskRun> taskRuns, String parentId) {
+        return resolve(taskRuns, this.positionsByParentId.get(parentId), taskRun -> parentId.equals(taskRun.getParentTaskRunId()));
+    }
+
+    private static List<TaskRun> resolve(List<TaskRun> taskRuns, int[] positions, Predicate<TaskRun> predicate) {
+        if (positions == null) {
+            return Collections.emptyList();
+        }
+
+        List<TaskRun> result = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            TaskRun taskRun = taskRuns.get(position);
+            if (!predicate.test(taskRun)) {
+                // a task run was replaced in place by one of another task or parent since the list was indexed
+                INDEXES.put(taskRuns, new TaskRunIndex(taskRuns));
+                return taskRuns.stream().filter(predicate).toList();
+            }
+            result.add(taskRun);
+        }
+
+        return Collections.unmodifiableList(result);
+    }
+
+    private static Map<String, int[]> toArrays(Map<String, List<Integer>> positions) {
+        Map<String, int[]> result = HashMap.newHashMap(positions.size());
+        positions.forEach((key, value) -> result.put(key, value.stream().mapToInt(Integer::intValue).toArray()));
+
+        return result;
+    }
+}
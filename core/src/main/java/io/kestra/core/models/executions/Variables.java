@@ -16,6 +16,8 @@ import io.kestra.core.storages.Storage;
 import io.kestra.core.storages.StorageInterface;
 import io.kestra.core.utils.MapUtils;
 import io.kestra.core.utils.ReadOnlyDelegatingMap;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.DeferredFileOutputStream;
 
 import java.io.*;
 import java.net.URI;
@@ -74,6 +76,21 @@ public sealed interface Variables extends Map<String, Object> {
         return new InStorageVariables(storage, outputs);
     }
 
+    /**
+     * Creates an InStorageVariables with a {@link Storage} and an output map if the output map, as serialized for the internal storage,
+     * reaches the given size. Creates an InMemoryVariables otherwise.
+     * The output map is serialized once: in memory until it reaches the size, then in the file that is stored inside the internal storage.
+     *
+     * @see InStorageVariables
+     * @see io.kestra.core.services.VariablesService
+     */
+    static Variables inStorageFrom(Storage storage, Map<String, Object> outputs, long threshold) {
+        if (MapUtils.isEmpty(outputs)) {
+            return empty();
+        }
+        return InStorageVariables.from(storage, outputs, threshold);
+    }
+
     /**
      * Creates an InStorageVariables with an internal storage URI.
      * The output map will be read lazily from the internal storage URI at access time.
@@ -120,8 +137,12 @@ public sealed interface Variables extends Map<String, Object> {
             if (!MapUtils.isEmpty(outputs)) {
                 try {
                     File file = Files.createTempFile("output-", ".ion").toFile();
-                    ION_MAPPER.writeValue(file, outputs);
-                    this.storageUri = storage.putFile(file);
+                    try {
+                        ION_MAPPER.writeValue(file, outputs);
+                        this.storageUri = storage.putFile(file);
+                    } finally {
+                        Files.deleteIfExists(file.toPath());
+                    }
                 } catch (IOException e) {
                     // FIXME check if we should not declare it
                     throw new UncheckedIOException(e);
@@ -137,10 +158,51 @@ public sealed interface Variables extends Map<String, Object> {
             this.storageContext = storageContext;
         }
 
+        private InStorageVariables(Storage storage, Map<String, Object> outputs, URI storageUri) {
+            this.delegate = expand(outputs);
+            this.state = State.DEFLATED;
+            this.storageContext = new StorageContext(storage.namespace().tenantId(), storage.namespace().namespace());
+            this.storageUri = storageUri;
+        }
+
+        private static Variables from(Storage storage, Map<String, Object> outputs, long threshold) {
+            // switches from memory to a temporary file, only created once the threshold is reached
+            DeferredFileOutputStream output = DeferredFileOutputStream.builder()
+                .setThreshold((int) Math.max(0, Math.min(threshold - 1, Integer.MAX_VALUE)))
+                .setPrefix("output-")
+                .setSuffix(".ion")
+                .setDirectory(FileUtils.getTempDirectory())
+                .get();
+            try {
+                try (output) {
+                    ION_MAPPER.writeValue(output, outputs);
+                }
+
+                if (output.isInMemory()) {
+                    return new InMemoryVariables(outputs);
+                }
+
+                return new InStorageVariables(storage, outputs, storage.putFile(output.getFile()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                if (output.getFile() != null) {
+                    FileUtils.deleteQuietly(output.getFile());
+                }
+            }
+        }
+
         URI getStorageUri() {
             return storageUri;
         }
 
+        /**
+         * Whether the outputs are empty, without loading them from the internal storage.
+         */
+        boolean isStoredEmpty() {
+            return this.state == State.INIT ? storageUri == null : MapUtils.isEmpty(delegate);
+        }
+
         StorageContext getStorageContext() {
             return storageContext;
         }
@@ -158,14 +220,12 @@ public sealed interface Variables extends Map<String, Object> {
 
                 StorageInterface storage = KestraContext.getContext().getStorageInterface();
                 try (InputStream file = storage.get(storageContext.tenantId(), storageContext.namespace(), storageUri)) {
-                    delegate = ION_MAPPER.readValue(file, JacksonMapper.MAP_TYPE_REFERENCE);
+                    // check all entries to possibly deflate them also
+                    delegate = expand(ION_MAPPER.readValue(file, JacksonMapper.MAP_TYPE_REFERENCE));
                     state = State.DEFLATED;
                 } catch (IOException e) {
                     throw new UncheckedIOException(e);
                 }
-
-                // check all entries to possibly deflate them also
-                return MapUtils.emptyOnNull(expand(delegate));
             }
 
             return MapUtils.emptyOnNull(delegate);
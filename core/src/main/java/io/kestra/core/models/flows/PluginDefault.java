@@ -5,6 +5,7 @@ import io.micronaut.core.annotation.Introspected;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 import java.util.Map;
@@ -12,6 +13,7 @@ import java.util.Map;
 @Getter
 @Builder(toBuilder = true)
 @AllArgsConstructor
+@EqualsAndHashCode
 @Introspected
 @PluginDefaultValidation
 public class PluginDefault {
@@ -31,6 +31,11 @@ public class PluginResolver {
         return lowerCased.endsWith(".jar") || lowerCased.endsWith(".zip");
     }
 
+    private static boolean isHidden(final Path path) {
+        // e.g. the plugin scan index directory
+        return path.getFileName().toString().startsWith(".");
+    }
+
     private static boolean isClassFile(final Path path) {
         return path.toString().toLowerCase().endsWith(".class");
     }
@@ -40,7 +45,7 @@ public class PluginResolver {
         try (
             final DirectoryStream<Path> paths = Files.newDirectoryStream(
                 pluginPath,
-                entry -> Files.isDirectory(entry) || isArchiveFile(entry)
+                entry -> !isHidden(entry) && (Files.isDirectory(entry) || isArchiveFile(entry))
             )
         ) {
             for (Path path : paths) {
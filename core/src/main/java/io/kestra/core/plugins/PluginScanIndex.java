@@ -0,0 +1,201 @@
+package io.kestra.core.plugins;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.kestra.core.models.Plugin;
+import io.kestra.core.serializers.JacksonMapper;
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+
+/**
+ * The result of the scan of an external plugin, stored on disk so the next startups don't have to scan it again.
+ * <p>
+ * An index holds the names of the plugin classes by group, the aliases, the guides and the manifest of the plugin.
+ * It is only used if all the files of the plugin still have the same size and last modified time,
+ * and if it was written by the same version of Kestra.
+ * The plugin classes are then loaded from their names without being initialized, instead of instantiating
+ * all the plugins through a {@link java.util.ServiceLoader}.
+ *
+ * @param version       the version of Kestra that wrote the index.
+ * @param files         the files of the plugin when it was scanned.
+ * @param classes       the plugin class names by group, see {@link RegisteredPlugin#allClassGrouped()}.
+ * @param aliases       the plugin class names by alias.
+ * @param guides        the guides of the plugin.
+ * @param manifest      the main attributes of the manifest of the plugin, if any.
+ */
+@Slf4j
+record PluginScanIndex(
+    @Nullable String version,
+    List<IndexedFile> files,
+    Map<String, List<String>> classes,
+    Map<String, String> aliases,
+    List<String> guides,
+    @Nullable Map<String, String> manifest
+) {
+    static final String INDEX_DIRECTORY = ".index";
+
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+    private static final String VERSION = "1-" + Plugin.class.getPackage().getImplementationVersion();
+
+    /**
+     * Whether a plugin can be indexed: only plugins made of archives are, as the changes of class files in a directory can't be detected cheaply.
+     */
+    static boolean isIndexable(final ExternalPlugin externalPlugin) {
+        return externalPlugin.getResources().length > 0 && Arrays.stream(externalPlugin.getResources())
+            .allMatch(resource -> "file".equals(resource.getProtocol()) && !resource.getPath().endsWith("/"));
+    }
+
+    /**
+     * Builds the registered plugin from the index of the given plugin, if there is one and it is still valid.
+     */
+    static Optional<RegisteredPlugin> read(final Path pluginPaths, final ExternalPlugin externalPlugin, final ClassLoader classLoader) {
+        Path path = indexPath(pluginPaths, externalPlugin);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+
+        try {
+            PluginScanIndex index = MAPPER.readValue(path.toFile(), PluginScanIndex.class);
+            if (!VERSION.equals(index.version()) || !index.files().equals(files(externalPlugin))) {
+                log.debug("Outdated plugin index '{}' for '{}'", path, externalPlugin.getLocation());
+                return Optional.empty();
+            }
+
+            return Optional.of(index.toRegisteredPlugin(externalPlugin, classLoader));
+        } catch (IOException | URISyntaxException | ClassNotFoundException | LinkageError e) {
+            log.warn("Unable to use the plugin index '{}' for '{}', the plugin will be scanned", path, externalPlugin.getLocation(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the index of a scanned plugin, silently skipped if the plugin directory is not writable.
+     */
+    static void write(final Path pluginPaths, final RegisteredPlugin plugin) {
+        Path path = indexPath(pluginPaths, plugin.getExternalPlugin());
+
+        try {
+            Map<String, List<String>> classes = plugin.allClassGrouped()
+                .entrySet()
+                .stream()
+                .collect(Collectors.toMap(
+                    Map.Entry::getKey,
+                    e -> e.getValue().stream().map(Class::getName).toList()
+                ));
+
+            Map<String, String> aliases = plugin.getAliases()
+                .values()
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().getName()));
+
+            Map<String, String> manifest = plugin.getManifest() == null ? null : plugin.getManifest()
+                .getMainAttributes()
+                .entrySet()
+                .stream()
+                .collect(Collectors.toMap(e -> e.getKey().toString(), e -> e.getValue().toString()));
+
+            PluginScanIndex index = new PluginScanIndex(
+                VERSION,
+                files(plugin.getExternalPlugin()),
+                classes,
+                aliases,
+                plugin.getGuides(),
+                manifest
+            );
+
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            MAPPER.writeValue(temp.toFile(), index);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | URISyntaxException e) {
+            log.debug("Unable to write the plugin index '{}' for '{}'", path, plugin.getExternalPlugin().getLocation(), e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private RegisteredPlugin toRegisteredPlugin(final ExternalPlugin externalPlugin, final ClassLoader classLoader) throws ClassNotFoundException {
+        Map<String, List> loaded = new HashMap<>();
+        for (Map.Entry<String, List<String>> group : this.classes.entrySet()) {
+            List<Class<?>> groupClasses = new ArrayList<>();
+            for (String name : group.getValue()) {
+                groupClasses.add(Class.forName(name, false, classLoader));
+            }
+            loaded.put(group.getKey(), groupClasses);
+        }
+
+        Map<String, Map.Entry<String, Class<?>>> aliases = new HashMap<>();
+        for (Map.Entry<String, String> alias : this.aliases.entrySet()) {
+            aliases.put(alias.getKey().toLowerCase(), new AbstractMap.SimpleEntry<>(alias.getKey(), Class.forName(alias.getValue(), false, classLoader)));
+        }
+
+        Manifest manifest = null;
+        if (this.manifest != null) {
+            manifest = new Manifest();
+            Attributes attributes = manifest.getMainAttributes();
+            this.manifest.forEach(attributes::putValue);
+        }
+
+        return RegisteredPlugin.builder()
+            .externalPlugin(externalPlugin)
+            .manifest(manifest)
+            .classLoader(classLoader)
+            .tasks(loaded.getOrDefault(RegisteredPlugin.TASKS_GROUP_NAME, List.of()))
+            .triggers(loaded.getOrDefault(RegisteredPlugin.TRIGGERS_GROUP_NAME, List.of()))
+            .conditions(loaded.getOrDefault(RegisteredPlugin.CONDITIONS_GROUP_NAME, List.of()))
+            .storages(loaded.getOrDefault(RegisteredPlugin.STORAGES_GROUP_NAME, List.of()))
+            .secrets(loaded.getOrDefault(RegisteredPlugin.SECRETS_GROUP_NAME, List.of()))
+            .apps(loaded.getOrDefault(RegisteredPlugin.APPS_GROUP_NAME, List.of()))
+            .appBlocks(loaded.getOrDefault(RegisteredPlugin.APP_BLOCKS_GROUP_NAME, List.of()))
+            .taskRunners(loaded.getOrDefault(RegisteredPlugin.TASK_RUNNERS_GROUP_NAME, List.of()))
+            .charts(loaded.getOrDefault(RegisteredPlugin.CHARTS_GROUP_NAME, List.of()))
+            .dataFilters(loaded.getOrDefault(RegisteredPlugin.DATA_FILTERS_GROUP_NAME, List.of()))
+            .dataFiltersKPI(loaded.getOrDefault(RegisteredPlugin.DATA_FILTERS_KPI_GROUP_NAME, List.of()))
+            .logExporters(loaded.getOrDefault(RegisteredPlugin.LOG_EXPORTERS_GROUP_NAME, List.of()))
+            .additionalPlugins(loaded.getOrDefault(RegisteredPlugin.ADDITIONAL_PLUGINS_GROUP_NAME, List.of()))
+            .guides(this.guides)
+            .aliases(aliases)
+            .build();
+    }
+
+    private static List<IndexedFile> files(final ExternalPlugin externalPlugin) throws IOException, URISyntaxException {
+        List<IndexedFile> files = new ArrayList<>();
+        for (URL resource : externalPlugin.getResources()) {
+            Path path = Path.of(resource.toURI());
+            files.add(new IndexedFile(path.toString(), Files.size(path), Files.getLastModifiedTime(path).toMillis()));
+        }
+        return files;
+    }
+
+    private static Path indexPath(final Path pluginPaths, final ExternalPlugin externalPlugin) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String name = HexFormat.of().formatHex(digest.digest(externalPlugin.getLocation().toString().getBytes(StandardCharsets.UTF_8)));
+            return pluginPaths.resolve(INDEX_DIRECTORY).resolve(name + ".json");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    record IndexedFile(String path, long size, long lastModifiedTime) {
+    }
+}
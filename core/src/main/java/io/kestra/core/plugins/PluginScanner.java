@@ -42,6 +42,8 @@ public class PluginScanner {
 
     /**
      * Scans the specified top-level plugin directory for plugins.
+     * The result of the scan of each plugin is indexed in the directory when possible, so the next scans don't have to
+     * instantiate all its plugins, see {@link PluginScanIndex}.
      *
      * @param pluginPaths the absolute path to a top-level plugin directory.
      */
@@ -65,7 +67,16 @@ public class PluginScanner {
                     classLoader
                 );
 
-                return scanClassLoader(classLoader, plugin, null);
+                if (!PluginScanIndex.isIndexable(plugin)) {
+                    return scanClassLoader(classLoader, plugin, null);
+                }
+
+                return PluginScanIndex.read(pluginPaths, plugin, classLoader)
+                    .orElseGet(() -> {
+                        RegisteredPlugin scanned = scanClassLoader(classLoader, plugin, null);
+                        PluginScanIndex.write(pluginPaths, scanned);
+                        return scanned;
+                    });
             })
             .filter(RegisteredPlugin::isValid)
             .toList();
@@ -5,8 +5,17 @@ import io.kestra.core.runners.WorkerJob;
 import io.kestra.core.utils.Either;
 
 import java.util.function.Consumer;
+import java.util.function.IntSupplier;
 
 public interface WorkerJobQueueInterface extends QueueInterface<WorkerJob> {
-    
-    Runnable subscribe(String workerId, String workerGroup, Consumer<Either<WorkerJob, DeserializationException>> consumer);
+
+    default Runnable subscribe(String workerId, String workerGroup, Consumer<Either<WorkerJob, DeserializationException>> consumer) {
+        return this.subscribe(workerId, workerGroup, () -> Integer.MAX_VALUE, consumer);
+    }
+
+    /**
+     * Subscribes to the worker jobs, claiming at most <code>capacity</code> jobs at a time.
+     * The capacity is evaluated before each poll, no jobs are claimed while it is zero or less.
+     */
+    Runnable subscribe(String workerId, String workerGroup, IntSupplier capacity, Consumer<Either<WorkerJob, DeserializationException>> consumer);
 }
@@ -5,42 +5,31 @@ import io.kestra.core.models.flows.FlowWithSource;
 import io.kestra.core.repositories.FlowRepositoryInterface;
 import io.kestra.core.services.FlowListenersInterface;
 import jakarta.inject.Singleton;
-import java.util.Objects;
-import lombok.Setter;
 
 import java.util.Collection;
-import java.util.List;
 import java.util.Optional;
 
 @Singleton
 public class DefaultFlowMetaStore implements FlowMetaStoreInterface {
+    private final FlowListenersInterface flowListeners;
     private final FlowRepositoryInterface flowRepository;
 
-    @Setter
-    private List<FlowWithSource> allFlows;
-
     public DefaultFlowMetaStore(FlowListenersInterface flowListeners, FlowRepositoryInterface flowRepository) {
+        this.flowListeners = flowListeners;
         this.flowRepository = flowRepository;
-        flowListeners.listen(flows -> allFlows = flows);
     }
 
     @Override
     public Collection<FlowWithSource> allLastVersion() {
-        return this.allFlows;
+        return this.flowListeners.catalog().flows();
     }
 
     @Override
     @SuppressWarnings({"unchecked", "rawtypes"})
     public Optional<FlowInterface> findById(String tenantId, String namespace, String id, Optional<Integer> revision) {
-        Optional<FlowInterface> find = this.allFlows
-            .stream()
-            .filter(flow -> ((flow.getTenantId() == null && tenantId == null) || Objects.equals(flow.getTenantId(), tenantId)) &&
-                flow.getNamespace().equals(namespace) &&
-                flow.getId().equals(id) &&
-                (revision.isEmpty() || revision.get().equals(flow.getRevision()))
-            )
-            .map(it -> (FlowInterface)it)
-            .findFirst();
+        Optional<FlowInterface> find = this.flowListeners.catalog()
+            .find(tenantId, namespace, id, revision)
+            .map(it -> (FlowInterface) it);
 
         if (find.isPresent()) {
             return find;
@@ -260,11 +260,7 @@ public final class ExecutableUtils {
         }
 
         // update the state to success if terminatedIterations == numberOfBatches
-        int terminatedIterations = iterations.getOrDefault(State.Type.SUCCESS.toString(), 0) +
-            iterations.getOrDefault(State.Type.FAILED.toString(), 0) +
-            iterations.getOrDefault(State.Type.KILLED.toString(), 0) +
-            iterations.getOrDefault(State.Type.WARNING.toString(), 0) +
-            iterations.getOrDefault(State.Type.CANCELLED.toString(), 0);
+        int terminatedIterations = terminatedIterations(iterations);
 
         if (terminatedIterations == numberOfBatches) {
             State.Type state = transmitFailed ? findTerminalState(iterations, allowFailure, allowWarning) : State.Type.SUCCESS;
@@ -289,6 +285,17 @@ public final class ExecutableUtils {
             )));
     }
 
+    /**
+     * @return the number of iterations in a terminated state
+     */
+    public static int terminatedIterations(Map<String, Integer> iterations) {
+        return iterations.getOrDefault(State.Type.SUCCESS.toString(), 0) +
+            iterations.getOrDefault(State.Type.FAILED.toString(), 0) +
+            iterations.getOrDefault(State.Type.KILLED.toString(), 0) +
+            iterations.getOrDefault(State.Type.WARNING.toString(), 0) +
+            iterations.getOrDefault(State.Type.CANCELLED.toString(), 0);
+    }
+
     private static State.Type findTerminalState(Map<String, Integer> iterations, boolean allowFailure, boolean allowWarning) {
         if (iterations.getOrDefault(State.Type.FAILED.toString(), 0) > 0) {
             return allowFailure ? allowWarning ? State.Type.SUCCESS : State.Type.WARNING : State.Type.FAILED;
@@ -21,6 +21,7 @@ import io.kestra.core.trace.propagation.RunContextTextMapSetter;
 import io.kestra.core.utils.ListUtils;
 import io.kestra.core.utils.MapUtils;
 import io.kestra.core.utils.TruthUtils;
+import io.kestra.plugin.core.flow.ForEachItem;
 import io.kestra.plugin.core.flow.LoopUntil;
 import io.kestra.plugin.core.flow.Pause;
 import io.kestra.plugin.core.flow.Subflow;
@@ -1006,22 +1007,7 @@ public class ExecutorService {
                         );
                     } else {
                         executions.addAll(subflowExecutions);
-                        Optional<FlowInterface> flow = flowExecutorInterface.findByExecution(subflowExecutions.getFirst().getExecution());
-                        if (flow.isPresent()) {
-                            // add SubflowExecutionResults to notify parents
-                            for (SubflowExecution<?> subflowExecution : subflowExecutions) {
-                                Optional<SubflowExecutionResult> subflowExecutionResult = executableTask.createSubflowExecutionResult(
-                                    runContext,
-                                    // if we didn't wait for the execution, we directly set the state to SUCCESS
-                                    executableTask.waitForExecution() ? subflowExecution.getParentTaskRun() : subflowExecution.getParentTaskRun().withState(State.Type.SUCCESS),
-                                    flow.get(),
-                                    subflowExecution.getExecution()
-                                );
-                                subflowExecutionResult.ifPresent(subflowExecutionResults::add);
-                            }
-                        } else {
-                            log.error("Unable to find flow for execution {}", subflowExecutions.getFirst().getExecution().getId());
-                        }
+                        subflowExecutionResults.addAll(this.createSubflowExecutionResults(executableTask, runContext, subflowExecutions));
                     }
                 } catch (Exception e) {
                     try {
@@ -1048,6 +1034,45 @@ public class ExecutorService {
         return resultExecutor;
     }
 
+    /**
+     * Creates the next subflow executions of a {@link ForEachItem} with a window of concurrent iterations, once one of its subflow executions has ended.
+     *
+     * @param taskRun the task run of the executable task, with the iterations updated with the ended subflow execution
+     */
+    public Executor handleExecutableTaskNextIterations(Executor executor, ForEachItem.ForEachItemExecutable executableTask, RunContext runContext, TaskRun taskRun) throws InternalException {
+        List<SubflowExecution<?>> subflowExecutions = executableTask.createNextSubflowExecutions(runContext, flowExecutorInterface(), executor.getFlow(), executor.getExecution(), taskRun);
+        if (subflowExecutions.isEmpty()) {
+            return executor;
+        }
+
+        return executor
+            .withSubflowExecutions(subflowExecutions, "handleExecutableTaskNextIterations")
+            .withSubflowExecutionResults(this.createSubflowExecutionResults(executableTask, runContext, subflowExecutions), "handleExecutableTaskNextIterations");
+    }
+
+    private <T extends Task & ExecutableTask<?>> List<SubflowExecutionResult> createSubflowExecutionResults(T executableTask, RunContext runContext, List<SubflowExecution<?>> subflowExecutions) {
+        Optional<FlowInterface> flow = flowExecutorInterface().findByExecution(subflowExecutions.getFirst().getExecution());
+        if (flow.isEmpty()) {
+            log.error("Unable to find flow for execution {}", subflowExecutions.getFirst().getExecution().getId());
+            return Collections.emptyList();
+        }
+
+        // add SubflowExecutionResults to notify parents
+        List<SubflowExecutionResult> subflowExecutionResults = new ArrayList<>();
+        for (SubflowExecution<?> subflowExecution : subflowExecutions) {
+            Optional<SubflowExecutionResult> subflowExecutionResult = executableTask.createSubflowExecutionResult(
+                runContext,
+                // if we didn't wait for the execution, we directly set the state to SUCCESS
+                executableTask.waitForExecution() ? subflowExecution.getParentTaskRun() : subflowExecution.getParentTaskRun().withState(State.Type.SUCCESS),
+                flow.get(),
+                subflowExecution.getExecution()
+            );
+            subflowExecutionResult.ifPresent(subflowExecutionResults::add);
+        }
+
+        return subflowExecutionResults;
+    }
+
     private Executor handleExecutionUpdatingTask(final Executor executor) throws InternalException {
         List<WorkerTaskResult> workerTaskResults = new ArrayList<>();
 
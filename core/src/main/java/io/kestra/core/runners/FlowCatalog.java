@@ -0,0 +1,103 @@
+package io.kestra.core.runners;
+
+import io.kestra.core.models.flows.FlowId;
+import io.kestra.core.models.flows.FlowWithSource;
+
+import java.util.*;
+
+/**
+ * An immutable snapshot of the last revision of all flows, indexed by tenant, namespace and flow id.
+ * <p>
+ * A change never modifies a catalog, it returns a new one with an incremented version, so a snapshot
+ * can be shared with any number of readers and iterated without being copied, even while flows are updated.
+ * The cost of a change is paid once by the writer instead of by every reader.
+ */
+public final class FlowCatalog {
+    public static final FlowCatalog EMPTY = new FlowCatalog(0, new LinkedHashMap<>());
+
+    private final long version;
+    private final Map<FlowId, FlowWithSource> byId;
+    private final List<FlowWithSource> flows;
+
+    private FlowCatalog(long version, LinkedHashMap<FlowId, FlowWithSource> byId) {
+        this.version = version;
+        this.byId = Collections.unmodifiableMap(byId);
+        this.flows = List.copyOf(byId.values());
+    }
+
+    public static FlowCatalog of(Collection<FlowWithSource> flows) {
+        LinkedHashMap<FlowId, FlowWithSource> byId = LinkedHashMap.newLinkedHashMap(flows.size());
+        flows.forEach(flow -> byId.put(key(flow), flow));
+
+        return new FlowCatalog(0, byId);
+    }
+
+    /**
+     * @return a new catalog with this flow added, or replacing the previous revision of the same flow
+     */
+    public FlowCatalog upsert(FlowWithSource flow) {
+        LinkedHashMap<FlowId, FlowWithSource> copy = new LinkedHashMap<>(this.byId);
+        FlowId key = key(flow);
+        // an updated flow goes to the end, as new flows do
+        copy.remove(key);
+        copy.put(key, flow);
+
+        return new FlowCatalog(this.version + 1, copy);
+    }
+
+    /**
+     * @return a new catalog without this flow, or this catalog if the flow is not in it
+     */
+    public FlowCatalog remove(FlowId flow) {
+        FlowId key = key(flow);
+        if (!this.byId.containsKey(key)) {
+            return this;
+        }
+
+        LinkedHashMap<FlowId, FlowWithSource> copy = new LinkedHashMap<>(this.byId);
+        copy.remove(key);
+
+        return new FlowCatalog(this.version + 1, copy);
+    }
+
+    /**
+     * @return the last revision of the flow with the same tenant, namespace and id
+     */
+    public Optional<FlowWithSource> get(FlowId flow) {
+        return Optional.ofNullable(this.byId.get(key(flow)));
+    }
+
+    /**
+     * @return the flow if its last revision is the expected one, or any revision if none is expected
+     */
+    public Optional<FlowWithSource> find(String tenantId, String namespace, String id, Optional<Integer> revision) {
+        FlowWithSource flow = this.byId.get(FlowId.of(tenantId, namespace, id, null));
+        if (flow == null || (revision.isPresent() && !revision.get().equals(flow.getRevision()))) {
+            return Optional.empty();
+        }
+
+        return Optional.of(flow);
+    }
+
+    /**
+     * @return all the flows, in the order they were added; the list is immutable
+     */
+    public List<FlowWithSource> flows() {
+        return this.flows;
+    }
+
+    public int size() {
+        return this.flows.size();
+    }
+
+    /**
+     * @return the number of changes applied since the catalog was created
+     */
+    public long version() {
+        return this.version;
+    }
+
+    private static FlowId key(FlowId flow) {
+        return FlowId.of(flow.getTenantId(), flow.getNamespace(), flow.getId(), null);
+    }
+}
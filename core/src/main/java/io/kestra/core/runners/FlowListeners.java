@@ -5,7 +5,6 @@ import io.kestra.core.models.flows.FlowInterface;
 import io.kestra.core.models.flows.FlowWithException;
 import io.kestra.core.models.flows.FlowWithSource;
 import io.kestra.core.services.PluginDefaultService;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import io.kestra.core.queues.QueueFactoryInterface;
 import io.kestra.core.queues.QueueInterface;
@@ -14,7 +13,6 @@ import io.kestra.core.services.FlowListenersInterface;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
@@ -29,7 +27,8 @@ public class FlowListeners implements FlowListenersInterface {
 
     private final AtomicBoolean isStarted = new AtomicBoolean(false);
     private final QueueInterface<FlowInterface> flowQueue;
-    private final List<FlowWithSource> flows;
+    // replaced on each change, so readers get a consistent snapshot without copying it
+    private volatile FlowCatalog catalog;
     private final List<Consumer<List<FlowWithSource>>> consumers = new ArrayList<>();
     private final List<BiConsumer<FlowWithSource, FlowWithSource>> consumersEach = new ArrayList<>();
 
@@ -42,7 +41,7 @@ public class FlowListeners implements FlowListenersInterface {
         PluginDefaultService pluginDefaultService
     ) {
         this.flowQueue = flowQueue;
-        this.flows = new ArrayList<>(flowRepository.findAllWithSourceForAllTenants());
+        this.catalog = FlowCatalog.of(flowRepository.findAllWithSourceForAllTenants());
         this.pluginDefaultService = pluginDefaultService;
     }
 
@@ -67,7 +66,7 @@ public class FlowListeners implements FlowListenersInterface {
                         return;
                     }
 
-                    final FlowWithSource previous = this.previous(flow).orElse(null);
+                    final FlowWithSource previous = this.catalog.get(flow).orElse(null);
 
                     if (flow.isDeleted()) {
                         this.remove(flow);
@@ -89,7 +88,7 @@ public class FlowListeners implements FlowListenersInterface {
                 });
 
                 if (log.isTraceEnabled()) {
-                    log.trace("FlowListenersService started with {} flows", flows.size());
+                    log.trace("FlowListenersService started with {} flows", this.catalog.size());
                 }
             }
 
@@ -97,14 +96,11 @@ public class FlowListeners implements FlowListenersInterface {
         }
     }
 
-    private Optional<FlowWithSource> previous(final FlowWithSource flow) {
-        List<FlowWithSource> copy = new ArrayList<>(flows);
-        return copy.stream().filter(r -> r.isSameId(flow)).findFirst();
-    }
-
     private boolean remove(FlowInterface flow) {
         synchronized (this) {
-            boolean remove = flows.removeIf(r -> r.isSameId(flow));
+            FlowCatalog removed = this.catalog.remove(flow);
+            boolean remove = removed != this.catalog;
+            this.catalog = removed;
             if (!remove && flow.isDeleted()) {
                 log.warn("Can't remove flow {}.{}", flow.getNamespace(), flow.getId());
             }
@@ -115,14 +111,14 @@ public class FlowListeners implements FlowListenersInterface {
 
     private void upsert(FlowWithSource flow) {
         synchronized (this) {
-            this.remove(flow);
-            this.flows.add(flow);
+            this.catalog = this.catalog.upsert(flow);
         }
     }
 
     private void notifyConsumers() {
         synchronized (this) {
-            this.consumers.forEach(consumer -> consumer.accept(new ArrayList<>(this.flows)));
+            List<FlowWithSource> flows = this.catalog.flows();
+            this.consumers.forEach(consumer -> consumer.accept(flows));
         }
     }
 
@@ -137,7 +133,7 @@ public class FlowListeners implements FlowListenersInterface {
     public void listen(Consumer<List<FlowWithSource>> consumer) {
         synchronized (this) {
             consumers.add(consumer);
-            consumer.accept(new ArrayList<>(this.flows()));
+            consumer.accept(this.flows());
         }
     }
 
@@ -148,10 +144,14 @@ public class FlowListeners implements FlowListenersInterface {
         }
     }
 
-    @SneakyThrows
     @Override
     public List<FlowWithSource> flows() {
-        // we forced a deep clone to avoid concurrency where instance are changed during iteration (especially scheduler).
-        return new ArrayList<>(this.flows);
+        // the catalog is immutable, so its list can be iterated while flows are changed (especially by the scheduler).
+        return this.catalog.flows();
+    }
+
+    @Override
+    public FlowCatalog catalog() {
+        return this.catalog;
     }
 }
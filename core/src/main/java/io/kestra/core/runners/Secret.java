@@ -1,7 +1,9 @@
 package io.kestra.core.runners;
 
 import io.kestra.core.encryption.EncryptionService;
+import io.kestra.core.models.executions.Variables;
 import io.kestra.core.models.tasks.common.EncryptedString;
+import io.kestra.core.utils.ReadOnlyDelegatingMap;
 import org.slf4j.Logger;
 
 import java.security.GeneralSecurityException;
@@ -43,7 +45,10 @@ final class Secret {
     Map<String, Object> decrypt(final Map<String, Object> data) {
         Map<String, Object> decryptedMap = new HashMap<>(data);
         for (var entry: data.entrySet()) {
-            if (entry.getValue() instanceof Map map) {
+            if (entry.getValue() instanceof Variables.InStorageVariables inStorage) {
+                // outputs stored in the internal storage are only loaded, and decrypted, when accessed
+                decryptedMap.put(entry.getKey(), new LazyDecryptedMap(inStorage));
+            } else if (entry.getValue() instanceof Map map) {
                 // if some value are of type EncryptedString we decode them and replace the object
                 if (EncryptedString.TYPE.equalsIgnoreCase((String)map.get("type"))) {
                     try {
@@ -62,4 +67,21 @@ final class Secret {
         }
         return decryptedMap;
     }
+
+    private final class LazyDecryptedMap extends ReadOnlyDelegatingMap<String, Object> {
+        private final Map<String, Object> encrypted;
+        private Map<String, Object> decrypted;
+
+        private LazyDecryptedMap(Map<String, Object> encrypted) {
+            this.encrypted = encrypted;
+        }
+
+        @Override
+        protected Map<String, Object> getDelegate() {
+            if (decrypted == null) {
+                decrypted = decrypt(encrypted);
+            }
+            return decrypted;
+        }
+    }
 }
@@ -1,5 +1,8 @@
 package io.kestra.core.runners;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.kestra.core.cache.NoopCache;
 import io.kestra.core.exceptions.IllegalVariableEvaluationException;
 import io.kestra.core.runners.pebble.*;
 import io.kestra.core.runners.pebble.functions.RenderingFunctionInterface;
@@ -27,10 +30,14 @@ import java.util.stream.Collectors;
 @Singleton
 public class VariableRenderer {
     private static final Pattern RAW_PATTERN = Pattern.compile("(\\{%-*\\s*raw\\s*-*%}(.*?)\\{%-*\\s*endraw\\s*-*%})");
+    // a single variable lookup like '{{ outputs.task.value }}', that can be resolved without Pebble
+    private static final Pattern SIMPLE_LOOKUP_PATTERN = Pattern.compile("^\\{\\{\\s*([A-Za-z_][A-Za-z0-9_]*(?:\\.[A-Za-z_][A-Za-z0-9_]*)*)\\s*}}$");
+    private static final Set<String> PEBBLE_LITERALS = Set.of("true", "false", "null", "none");
     public static final int MAX_RENDERING_AMOUNT = 100;
 
     private final PebbleEngine pebbleEngine;
     private final VariableConfiguration variableConfiguration;
+    private final Cache<String, PreparedTemplate> preparedTemplates;
 
     @Inject
     public VariableRenderer(ApplicationContext applicationContext, @Nullable VariableConfiguration variableConfiguration) {
@@ -43,7 +50,8 @@ public class VariableRenderer {
         PebbleEngine.Builder pebbleBuilder = new PebbleEngine.Builder()
             .registerExtensionCustomizer(ExtensionCustomizer::new)
             .strictVariables(true)
-            .cacheActive(this.variableConfiguration.getCacheEnabled())
+            // compiled templates are cached with their prepared template, see preparedTemplates
+            .cacheActive(false)
             .newLineTrimming(false)
             .autoEscaping(false);
 
@@ -55,11 +63,13 @@ public class VariableRenderer {
 
         extensions.forEach(pebbleBuilder::extension);
 
-        if (this.variableConfiguration.getCacheEnabled()) {
-            pebbleBuilder.templateCache(new PebbleLruCache(this.variableConfiguration.getCacheSize()));
-        }
-
         this.pebbleEngine = pebbleBuilder.build();
+
+        this.preparedTemplates = this.variableConfiguration.getCacheEnabled() ?
+            Caffeine.newBuilder()
+                .maximumSize(this.variableConfiguration.getCacheSize())
+                .build() :
+            new NoopCache<>();
     }
 
     private Extension extensionWithMaskedFunctions(Extension initialExtension, List<String> maskedFunctions) {
@@ -155,7 +165,8 @@ public class VariableRenderer {
             ? renderRecursively(inline, variables, stringify)
             : renderOnce(inline, variables, stringify);
 
-        if (render instanceof String renderStr) {
+        // a raw tag can only be there if there is a Pebble tag
+        if (render instanceof String renderStr && renderStr.contains("{%")) {
             return RAW_PATTERN.matcher(renderStr).replaceAll("$2");
         }
 
@@ -163,20 +174,21 @@ public class VariableRenderer {
     }
 
     public Object renderOnce(Object inline, Map<String, Object> variables, boolean stringify) throws IllegalVariableEvaluationException {
-        Object result = inline;
+        Object result;
         Map<String, String> replacers = null;
-        if (inline instanceof String inlineStr) {
-            // pre-process raw tags
-            Matcher rawMatcher = RAW_PATTERN.matcher(inlineStr);
-            replacers = new HashMap<>((int) Math.ceil(rawMatcher.groupCount() / 0.75));
-            result = replaceRawTags(rawMatcher, replacers);
-        }
 
         try {
-            PebbleTemplate compiledTemplate = this.pebbleEngine.getLiteralTemplate((String) result);
+            // raw tags are replaced and the template is compiled only once per expression
+            PreparedTemplate prepared = this.preparedTemplates.get((String) inline, this::prepare);
+            replacers = prepared.rawTags();
 
             OutputWriter writer = stringify ? new JsonWriter() : new TypedObjectWriter();
-            compiledTemplate.evaluate(writer, variables);
+            Object value = prepared.lookup() != null ? lookup(prepared.lookup(), variables) : null;
+            if (value != null) {
+                writer.write(value);
+            } else {
+                prepared.compiled(this.pebbleEngine).evaluate(writer, variables);
+            }
             result = writer.output();
         } catch (IOException | PebbleException e) {
             String alternativeRender = this.alternativeRender(e, (String) inline, variables);
@@ -190,7 +202,7 @@ public class VariableRenderer {
             }
         }
 
-        if (result instanceof String stringValue && replacers != null) {
+        if (result instanceof String stringValue && replacers != null && !replacers.isEmpty()) {
             // post-process raw tags
             result = putBackRawTags(replacers, stringValue);
         }
@@ -198,6 +210,47 @@ public class VariableRenderer {
         return result;
     }
 
+    private PreparedTemplate prepare(String inline) {
+        // pre-process raw tags
+        Map<String, String> replacers = new HashMap<>();
+        String source = inline.contains("{%") ? replaceRawTags(RAW_PATTERN.matcher(inline), replacers) : inline;
+
+        Matcher lookupMatcher = SIMPLE_LOOKUP_PATTERN.matcher(source);
+        List<String> lookup = null;
+        if (lookupMatcher.matches()) {
+            lookup = List.of(lookupMatcher.group(1).split("\\."));
+            if (PEBBLE_LITERALS.contains(lookup.getFirst())) {
+                lookup = null;
+            }
+        }
+
+        return new PreparedTemplate(source, Map.copyOf(replacers), lookup);
+    }
+
+    /**
+     * Resolves a simple variable lookup directly on the variables.
+     *
+     * @return the value, or <code>null</code> if the lookup must be done by Pebble, for example because a variable is
+     * missing and the error must be the one of Pebble
+     */
+    @SuppressWarnings("rawtypes")
+    private static Object lookup(List<String> path, Map<String, Object> variables) {
+        Object current = variables;
+        for (String name : path) {
+            if (!(current instanceof Map map)) {
+                // Pebble may resolve it as a getter or a method
+                return null;
+            }
+
+            current = map.get(name);
+            if (current == null) {
+                return null;
+            }
+        }
+
+        return current;
+    }
+
     /**
      * This method can be used in fallback for rendering an input string.
      *
@@ -322,6 +375,41 @@ public class VariableRenderer {
         return result;
     }
 
+    /**
+     * A template ready to be rendered: its raw tags are replaced by placeholders, and it is compiled on first use,
+     * unless it is a simple variable lookup that can be resolved without Pebble.
+     */
+    private static final class PreparedTemplate {
+        private final String source;
+        private final Map<String, String> rawTags;
+        private final List<String> lookup;
+        private volatile PebbleTemplate compiled;
+
+        private PreparedTemplate(String source, Map<String, String> rawTags, @Nullable List<String> lookup) {
+            this.source = source;
+            this.rawTags = rawTags;
+            this.lookup = lookup;
+        }
+
+        Map<String, String> rawTags() {
+            return this.rawTags;
+        }
+
+        List<String> lookup() {
+            return this.lookup;
+        }
+
+        PebbleTemplate compiled(PebbleEngine pebbleEngine) {
+            PebbleTemplate template = this.compiled;
+            if (template == null) {
+                template = pebbleEngine.getLiteralTemplate(this.source);
+                this.compiled = template;
+            }
+
+            return template;
+        }
+    }
+
     @Getter
     @ConfigurationProperties("kestra.variables")
     public static class VariableConfiguration {
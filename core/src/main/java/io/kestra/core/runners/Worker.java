@@ -1,6 +1,5 @@
 package io.kestra.core.runners;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Throwables;
@@ -30,6 +29,7 @@ import io.kestra.core.trace.TracerFactory;
 import io.kestra.core.utils.*;
 import io.kestra.plugin.core.flow.WorkingDirectory;
 import io.micronaut.context.annotation.Parameter;
+import io.micronaut.context.annotation.Value;
 import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.core.annotation.Introspected;
 import io.micronaut.core.annotation.Nullable;
@@ -45,14 +45,8 @@ import org.apache.commons.lang3.time.StopWatch;
 import org.slf4j.Logger;
 import org.slf4j.event.Level;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URI;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -65,9 +59,6 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
-import java.util.zip.ZipOutputStream;
 
 import static io.kestra.core.models.flows.State.Type.*;
 import static io.kestra.core.server.Service.ServiceState.TERMINATED_FORCED;
@@ -130,6 +121,9 @@ public class Worker implements Service, Runnable, AutoCloseable {
     @Inject
     private RunContextLoggerFactory runContextLoggerFactory;
 
+    @Inject
+    private WorkerTaskCache workerTaskCache;
+
     @Inject
     private WorkerSecurityService workerSecurityService;
 
@@ -171,6 +165,10 @@ public class Worker implements Service, Runnable, AutoCloseable {
     private final AtomicInteger pendingJobCount = new AtomicInteger(0);
     private final AtomicInteger runningJobCount = new AtomicInteger(0);
 
+    // how many jobs a worker can hold per thread, jobs above the number of threads wait in the pending queue of the worker
+    @Value("${kestra.worker.prefetch-factor:1.0}")
+    private double prefetchFactor = 1.0;
+
     @Inject
     private TracerFactory tracerFactory;
     private Tracer tracer;
@@ -217,6 +215,16 @@ public class Worker implements Service, Runnable, AutoCloseable {
         }
     }
 
+    /**
+     * @return the number of jobs this worker can still claim, so a busy worker leaves the jobs to the other workers of its group
+     */
+    @VisibleForTesting
+    int freeCapacity() {
+        int maxJobs = Math.max(1, (int) Math.ceil(numThreads * prefetchFactor));
+
+        return maxJobs - pendingJobCount.get() - runningJobCount.get();
+    }
+
     @Override
     public Set<Metric> getMetrics() {
         if (this.metricRegistry == null) {
@@ -277,11 +285,13 @@ public class Worker implements Service, Runnable, AutoCloseable {
         this.receiveCancellations.addFirst(this.workerJobQueue.subscribe(
             this.id,
             this.workerGroup,
+            this::freeCapacity,
             either -> {
                 pendingJobCount.incrementAndGet();
                 executorService.execute(() -> {
-                    pendingJobCount.decrementAndGet();
+                    // incremented first so the job is always counted when computing the free capacity
                     runningJobCount.incrementAndGet();
+                    pendingJobCount.decrementAndGet();
 
                     try {
                         if (either.isRight()) {
@@ -325,6 +335,11 @@ public class Worker implements Service, Runnable, AutoCloseable {
         }
 
         ClusterEvent clusterEvent = either.getLeft();
+        // K/V changes are frequent, and only handled by the K/V store cache
+        if (clusterEvent.eventType() == ClusterEvent.EventType.KV_CHANGED) {
+            return;
+        }
+
         log.info("Cluster event received: {}", clusterEvent);
         switch (clusterEvent.eventType()) {
             case MAINTENANCE_ENTER -> enterMaintenance();
@@ -693,29 +708,23 @@ public class Worker implements Service, Runnable, AutoCloseable {
         Optional<String> hash = Optional.empty();
         if (workerTask.getTask().getTaskCache() != null && workerTask.getTask().getTaskCache().getEnabled()) {
             runContext.logger().debug("Task output caching is enabled for task '{}''", workerTask.getTask().getId());
-            hash = hashTask(runContext, workerTask.getTask());
+            hash = workerTaskCache.hash(runContext, workerTask);
             if (hash.isPresent()) {
                 try {
-                    Optional<InputStream> cacheFile = runContext.storage().getCacheFile(hash.get(), workerTask.getTaskRun().getValue(), workerTask.getTask().getTaskCache().getTtl());
-                    if (cacheFile.isPresent()) {
+                    Optional<Map<String, Object>> outputMap = workerTaskCache.get(workerTask, hash.get());
+                    if (outputMap.isPresent()) {
                         runContext.logger().info("Skipping task execution for task '{}' as there is an existing cache entry for it", workerTask.getTask().getId());
-                        try (ZipInputStream archive = new ZipInputStream(cacheFile.get())) {
-                            if (archive.getNextEntry() != null) {
-                                byte[] cache = archive.readAllBytes();
-                                Map<String, Object> outputMap = JacksonMapper.ofIon().readValue(cache, JacksonMapper.MAP_TYPE_REFERENCE);
-                                Variables variables = variablesService.of(StorageContext.forTask(workerTask.getTaskRun()), outputMap);
-
-                                TaskRunAttempt attempt = TaskRunAttempt.builder()
-                                    .state(new io.kestra.core.models.flows.State().withState(SUCCESS))
-                                    .workerId(this.id)
-                                    .build();
-                                List<TaskRunAttempt> attempts = this.addAttempt(workerTask, attempt);
-                                TaskRun taskRun = workerTask.getTaskRun().withAttempts(attempts).withOutputs(variables).withState(SUCCESS);
-                                WorkerTaskResult workerTaskResult = new WorkerTaskResult(taskRun);
-                                this.workerTaskResultQueue.emit(workerTaskResult);
-                                return workerTaskResult;
-                            }
-                        }
+                        Variables variables = variablesService.of(StorageContext.forTask(workerTask.getTaskRun()), outputMap.get());
+
+                        TaskRunAttempt attempt = TaskRunAttempt.builder()
+                            .state(new io.kestra.core.models.flows.State().withState(SUCCESS))
+                            .workerId(this.id)
+                            .build();
+                        List<TaskRunAttempt> attempts = this.addAttempt(workerTask, attempt);
+                        TaskRun taskRun = workerTask.getTaskRun().withAttempts(attempts).withOutputs(variables).withState(SUCCESS);
+                        WorkerTaskResult workerTaskResult = new WorkerTaskResult(taskRun);
+                        this.workerTaskResultQueue.emit(workerTaskResult);
+                        return workerTaskResult;
                     }
                 } catch (IOException | RuntimeException | QueueException e) {
                     // in case of any exception, log an error and continue
@@ -768,16 +777,8 @@ public class Worker implements Service, Runnable, AutoCloseable {
                 (state == State.Type.SUCCESS || state == State.Type.WARNING)) {
                 runContext.logger().info("Uploading a cache entry for task '{}'", workerTask.getTask().getId());
 
-                try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
-                     ZipOutputStream archive = new ZipOutputStream(bos)) {
-                    var zipEntry = new ZipEntry("outputs.ion");
-                    archive.putNextEntry(zipEntry);
-                    archive.write(JacksonMapper.ofIon().writeValueAsBytes(workerTask.getTaskRun().getOutputs()));
-                    archive.closeEntry();
-                    archive.finish();
-                    Path archiveFile = runContext.workingDir().createTempFile( ".zip");
-                    Files.write(archiveFile, bos.toByteArray());
-                    URI uri = runContext.storage().putCacheFile(archiveFile.toFile(), hash.get(), workerTask.getTaskRun().getValue());
+                try {
+                    URI uri = workerTaskCache.put(runContext, workerTask, hash.get(), workerTask.getTaskRun().getOutputs());
                     runContext.logger().debug("Caching entry uploaded in URI {}", uri);
                 } catch (IOException | RuntimeException e) {
                     // in case of any exception, log an error and continue
@@ -816,26 +817,6 @@ public class Worker implements Service, Runnable, AutoCloseable {
         }
     }
 
-    private Optional<String> hashTask(RunContext runContext, Task task) {
-        try {
-            var map = JacksonMapper.toMap(task);
-            // If there are task provided variables, rendering the task may fail.
-            // The best we can do is to add a fake 'workingDir' as it's an often added variables,
-            // and it should not be part of the task hash.
-            Map<String, Object> variables = Map.of("workingDir", "workingDir");
-            var rMap = runContext.render(map, variables);
-            var json = JacksonMapper.ofJson().writeValueAsBytes(rMap);
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            digest.update(json);
-            byte[] bytes = digest.digest();
-            return Optional.of(HexFormat.of().formatHex(bytes));
-        } catch (RuntimeException | IllegalVariableEvaluationException | JsonProcessingException |
-                 NoSuchAlgorithmException e) {
-            runContext.logger().error("Unable to create the cache key for the task '{}'", task.getId(), e);
-            return Optional.empty();
-        }
-    }
-
     private List<TaskRun> dynamicWorkerResults(List<WorkerTaskResult> dynamicWorkerResults) {
         return dynamicWorkerResults
             .stream()
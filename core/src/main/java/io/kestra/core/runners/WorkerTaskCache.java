@@ -0,0 +1,421 @@
+package io.kestra.core.runners;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.metrics.MetricRegistry;
+import io.kestra.core.models.executions.TaskRun;
+import io.kestra.core.models.tasks.Task;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.services.PluginDefaultService;
+import io.kestra.core.storages.FileAttributes;
+import io.kestra.core.storages.StorageContext;
+import io.kestra.core.storages.StorageInterface;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.convert.format.ReadableBytes;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.ArrayUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * The task output cache of the Worker, see {@link Task#getTaskCache()}.
+ * <p>
+ * The cache entries are stored in the internal storage, under a hash of the rendered task.
+ * This server keeps the last used entries in front of the storage: in memory, then in its own directory on the local disk.
+ * A local entry is used until the TTL of the task, counted from the creation of the entry in the storage,
+ * and only while the entry still exists unchanged in the storage: a local hit costs a metadata request instead of a download.
+ * Local entries are also evicted after a configurable time.
+ * <p>
+ * To compute the hash of a task, the properties without any expression are hashed once by task definition,
+ * only the other properties are rendered for each task run. A task definition is identified by its flow revision and the plugin defaults applied on it.
+ */
+@Slf4j
+@Singleton
+public class WorkerTaskCache {
+    private static final ObjectMapper ION_MAPPER = JacksonMapper.ofIon();
+    private static final ObjectMapper JSON_MAPPER = JacksonMapper.ofJson();
+    private static final String ENTRY_NAME = "outputs.ion";
+    private static final int MAXIMUM_DEFINITIONS = 1000;
+
+    private final StorageInterface storageInterface;
+    private final MetricRegistry metricRegistry;
+    private final PluginDefaultService pluginDefaultService;
+    private final boolean enabled;
+    private final boolean templatesEnabled;
+    private final Path directory;
+    private final Cache<String, CachedOutputs> memory;
+    private final Cache<String, CachedFile> disk;
+    private final Cache<String, TaskDefinition> definitions;
+
+    @Inject
+    public WorkerTaskCache(
+        StorageInterface storageInterface,
+        MetricRegistry metricRegistry,
+        PluginDefaultService pluginDefaultService,
+        @Value("${kestra.tasks.cache.enabled:true}") boolean enabled,
+        @Value("${kestra.tasks.cache.memory-size:64MB}") @ReadableBytes long memorySize,
+        @Value("${kestra.tasks.cache.disk-size:1GB}") @ReadableBytes long diskSize,
+        @Value("${kestra.tasks.cache.expire-after-write:PT1H}") Duration expireAfterWrite,
+        @Value("${kestra.tasks.cache.path}") Optional<String> path,
+        @Value("${kestra.templates.enabled:false}") boolean templatesEnabled
+    ) {
+        this.storageInterface = storageInterface;
+        this.metricRegistry = metricRegistry;
+        this.pluginDefaultService = pluginDefaultService;
+        this.enabled = enabled;
+        this.templatesEnabled = templatesEnabled;
+        this.memory = Caffeine.newBuilder()
+            .maximumWeight(memorySize)
+            .weigher((String key, CachedOutputs outputs) -> outputs.outputs().length)
+            .expireAfterWrite(expireAfterWrite)
+            .build();
+        this.disk = Caffeine.newBuilder()
+            .maximumWeight(diskSize)
+            .weigher((String key, CachedFile file) -> (int) Math.min(file.size(), Integer.MAX_VALUE))
+            .expireAfterWrite(expireAfterWrite)
+            .removalListener((String key, CachedFile file, RemovalCause cause) -> {
+                if (file != null && cause != RemovalCause.REPLACED) {
+                    this.delete(file.path());
+                }
+            })
+            .build();
+        this.definitions = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_DEFINITIONS)
+            .build();
+
+        Path directory = null;
+        if (enabled) {
+            Path parent = Path.of(path.orElse(System.getProperty("java.io.tmpdir")));
+            try {
+                // a directory per process, as several workers may share the same parent
+                Files.createDirectories(parent);
+                directory = Files.createTempDirectory(parent, "kestra-task-cache-");
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to create the task cache directory in " + parent, e);
+            }
+        }
+        this.directory = directory;
+    }
+
+    /**
+     * Computes the hash of a task, used as the cache identifier of its outputs.
+     */
+    public Optional<String> hash(RunContext runContext, WorkerTask workerTask) {
+        Task task = workerTask.getTask();
+        try {
+            TaskDefinition definition = this.definition(runContext, task);
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(definition.staticHash());
+            if (!definition.dynamicProperties().isEmpty()) {
+                // If there are task provided variables, rendering the task may fail.
+                // The best we can do is to add a fake 'workingDir' as it's an often added variables,
+                // and it should not be part of the task hash.
+                Map<String, Object> variables = Map.of("workingDir", "workingDir");
+                digest.update(JSON_MAPPER.writeValueAsBytes(runContext.render(definition.dynamicProperties(), variables)));
+            }
+            return Optional.of(HexFormat.of().formatHex(digest.digest()));
+        } catch (RuntimeException | IllegalVariableEvaluationException | JsonProcessingException |
+                 NoSuchAlgorithmException e) {
+            runContext.logger().error("Unable to create the cache key for the task '{}'", task.getId(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Gets the cached outputs of a task, from this server if possible, from the internal storage otherwise.
+     */
+    public Optional<Map<String, Object>> get(WorkerTask workerTask, String hash) throws IOException {
+        long start = System.nanoTime();
+        TaskRun taskRun = workerTask.getTaskRun();
+        Duration ttl = workerTask.getTask().getTaskCache().getTtl();
+        URI uri = StorageContext.forTask(taskRun).getCacheURI(hash, taskRun.getValue());
+        String key = localKey(taskRun, uri);
+
+        String tier = null;
+        byte[] outputs = null;
+        if (this.enabled) {
+            CachedOutputs cachedOutputs = this.memory.getIfPresent(key);
+            if (cachedOutputs != null) {
+                if (isExpired(cachedOutputs.createdAt(), ttl) || !this.isStored(taskRun, uri, cachedOutputs.createdAt())) {
+                    this.memory.invalidate(key);
+                    this.disk.invalidate(key);
+                } else {
+                    tier = "memory";
+                    outputs = cachedOutputs.outputs();
+                }
+            }
+
+            if (outputs == null) {
+                CachedFile cachedFile = this.disk.getIfPresent(key);
+                if (cachedFile != null) {
+                    if (isExpired(cachedFile.createdAt(), ttl) || !this.isStored(taskRun, uri, cachedFile.createdAt())) {
+                        this.disk.invalidate(key);
+                    } else {
+                        try {
+                            outputs = Files.readAllBytes(cachedFile.path());
+                            tier = "disk";
+                            this.memory.put(key, new CachedOutputs(outputs, cachedFile.createdAt()));
+                        } catch (NoSuchFileException e) {
+                            // evicted in the meantime
+                            this.disk.invalidate(key);
+                        }
+                    }
+                }
+            }
+        }
+
+        if (outputs == null) {
+            Optional<CachedOutputs> loaded = this.load(taskRun, uri, ttl);
+            if (loaded.isPresent()) {
+                tier = "storage";
+                outputs = loaded.get().outputs();
+                this.putLocal(key, loaded.get());
+            }
+        }
+
+        String[] tags = this.metricRegistry.tags(workerTask.getTask());
+        this.metricRegistry
+            .timer(MetricRegistry.METRIC_WORKER_TASK_CACHE_DURATION, MetricRegistry.METRIC_WORKER_TASK_CACHE_DURATION_DESCRIPTION, tags)
+            .record(Duration.ofNanos(System.nanoTime() - start));
+
+        if (outputs == null) {
+            this.metricRegistry
+                .counter(MetricRegistry.METRIC_WORKER_TASK_CACHE_MISS_COUNT, MetricRegistry.METRIC_WORKER_TASK_CACHE_MISS_COUNT_DESCRIPTION, tags)
+                .increment();
+            return Optional.empty();
+        }
+
+        this.metricRegistry
+            .counter(MetricRegistry.METRIC_WORKER_TASK_CACHE_HIT_COUNT, MetricRegistry.METRIC_WORKER_TASK_CACHE_HIT_COUNT_DESCRIPTION, ArrayUtils.addAll(tags, MetricRegistry.TAG_CACHE_TIER, tier))
+            .increment();
+        return Optional.of(ION_MAPPER.readValue(outputs, JacksonMapper.MAP_TYPE_REFERENCE));
+    }
+
+    /**
+     * Caches the outputs of a task, in the internal storage and on this server.
+     *
+     * @return the URI of the cache entry in the internal storage.
+     */
+    public URI put(RunContext runContext, WorkerTask workerTask, String hash, @Nullable Map<String, Object> outputs) throws IOException {
+        TaskRun taskRun = workerTask.getTaskRun();
+        // outputs stored in the internal storage are copied, as the cache may outlive them
+        byte[] serialized = ION_MAPPER.writeValueAsBytes(outputs == null ? Map.of() : new HashMap<>(outputs));
+
+        try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
+             ZipOutputStream archive = new ZipOutputStream(bos)) {
+            archive.putNextEntry(new ZipEntry(ENTRY_NAME));
+            archive.write(serialized);
+            archive.closeEntry();
+            archive.finish();
+            Path archiveFile = runContext.workingDir().createTempFile(".zip");
+            Files.write(archiveFile, bos.toByteArray());
+
+            URI uri = runContext.storage().putCacheFile(archiveFile.toFile(), hash, taskRun.getValue());
+            if (this.enabled) {
+                this.putLocal(taskRun, StorageContext.forTask(taskRun).getCacheURI(hash, taskRun.getValue()), serialized);
+            }
+            return uri;
+        }
+    }
+
+    private Optional<CachedOutputs> load(TaskRun taskRun, URI uri, @Nullable Duration ttl) throws IOException {
+        try {
+            // a single metadata request tells both whether the entry exists and whether it is expired
+            FileAttributes attributes = this.storageInterface.getAttributes(taskRun.getTenantId(), taskRun.getNamespace(), uri);
+            Instant createdAt = Instant.ofEpochMilli(attributes.getLastModifiedTime());
+            if (isExpired(createdAt, ttl)) {
+                log.debug("Cache is expired for '{}' and ttl={}, deleting it", uri, ttl.toMillis());
+                this.storageInterface.delete(taskRun.getTenantId(), taskRun.getNamespace(), uri);
+                return Optional.empty();
+            }
+
+            try (InputStream file = this.storageInterface.get(taskRun.getTenantId(), taskRun.getNamespace(), uri);
+                 ZipInputStream archive = new ZipInputStream(file)) {
+                if (archive.getNextEntry() == null) {
+                    return Optional.empty();
+                }
+                return Optional.of(new CachedOutputs(archive.readAllBytes(), createdAt));
+            }
+        } catch (FileNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Whether the entry of the internal storage a local entry was read from is still there, and not replaced by another one.
+     */
+    private boolean isStored(TaskRun taskRun, URI uri, Instant createdAt) throws IOException {
+        try {
+            FileAttributes attributes = this.storageInterface.getAttributes(taskRun.getTenantId(), taskRun.getNamespace(), uri);
+            return attributes.getLastModifiedTime() == createdAt.toEpochMilli();
+        } catch (FileNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Keeps an entry just stored in the internal storage on this server.
+     * The entry is already stored, so failing to keep it locally only means that the next hit will read it from the storage.
+     */
+    private void putLocal(TaskRun taskRun, URI uri, byte[] outputs) {
+        try {
+            // the creation of the entry as known by the storage, so a local hit can check that it's still the same entry
+            FileAttributes attributes = this.storageInterface.getAttributes(taskRun.getTenantId(), taskRun.getNamespace(), uri);
+            this.putLocal(localKey(taskRun, uri), new CachedOutputs(outputs, Instant.ofEpochMilli(attributes.getLastModifiedTime())));
+        } catch (IOException e) {
+            log.warn("Unable to keep the task cache entry {} on this server", uri, e);
+        }
+    }
+
+    private void putLocal(String key, CachedOutputs outputs) {
+        if (!this.enabled) {
+            return;
+        }
+
+        this.memory.put(key, outputs);
+
+        Path path = this.directory.resolve(sha256(key));
+        try {
+            Path temp = Files.createTempFile(this.directory, path.getFileName().toString(), ".tmp");
+            Files.write(temp, outputs.outputs());
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.disk.put(key, new CachedFile(path, outputs.outputs().length, outputs.createdAt()));
+        } catch (IOException e) {
+            log.warn("Unable to write the task cache entry {} on disk", path, e);
+        }
+    }
+
+    private TaskDefinition definition(RunContext runContext, Task task) throws JsonProcessingException, NoSuchAlgorithmException {
+        RunContext.FlowInfo flowInfo = runContext.flowInfo();
+
+        // a flow revision can't change, so the definition of its tasks neither, except for the plugin defaults applied on it.
+        // The tasks of a template can change without a new revision of the flow using it, and they can't be told apart from the others here.
+        if (flowInfo == null || flowInfo.revision() == null || this.templatesEnabled) {
+            return TaskDefinition.of(task);
+        }
+
+        String key = String.join("|",
+            flowInfo.tenantId(),
+            flowInfo.namespace(),
+            flowInfo.id(),
+            String.valueOf(flowInfo.revision()),
+            this.pluginDefaultService.defaultsFingerprint(flowInfo.tenantId(), flowInfo.namespace()),
+            task.getId(),
+            task.getType()
+        );
+        TaskDefinition definition = this.definitions.getIfPresent(key);
+        if (definition == null) {
+            definition = TaskDefinition.of(task);
+            this.definitions.put(key, definition);
+        }
+        return definition;
+    }
+
+    private void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Unable to delete the task cache entry {}", path, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        this.memory.invalidateAll();
+        this.disk.invalidateAll();
+        this.disk.cleanUp();
+
+        if (this.directory != null) {
+            try {
+                FileUtils.deleteDirectory(this.directory.toFile());
+            } catch (IOException e) {
+                log.warn("Unable to delete the task cache directory {}", this.directory, e);
+            }
+        }
+    }
+
+    private static String localKey(TaskRun taskRun, URI uri) {
+        return taskRun.getTenantId() + "|" + uri;
+    }
+
+    private static boolean isExpired(Instant createdAt, @Nullable Duration ttl) {
+        return ttl != null && Instant.now().isAfter(createdAt.plus(ttl));
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean hasExpression(Object value) {
+        return switch (value) {
+            case String string -> string.contains("{{") || string.contains("{%") || string.contains("{#");
+            case Map<?, ?> map -> map.entrySet().stream().anyMatch(entry -> hasExpression(entry.getKey()) || (entry.getValue() != null && hasExpression(entry.getValue())));
+            case Collection<?> collection -> collection.stream().anyMatch(item -> item != null && hasExpression(item));
+            default -> false;
+        };
+    }
+
+    /**
+     * A task definition split in the hash of its properties without any expression, and its properties with expressions.
+     */
+    private record TaskDefinition(byte[] staticHash, Map<String, Object> dynamicProperties) {
+        static TaskDefinition of(Task task) throws JsonProcessingException, NoSuchAlgorithmException {
+            Map<String, Object> staticProperties = new LinkedHashMap<>();
+            Map<String, Object> dynamicProperties = new LinkedHashMap<>();
+            JacksonMapper.toMap(task).forEach((key, value) -> {
+                if (value != null && hasExpression(value)) {
+                    dynamicProperties.put(key, value);
+                } else {
+                    staticProperties.put(key, value);
+                }
+            });
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return new TaskDefinition(digest.digest(JSON_MAPPER.writeValueAsBytes(staticProperties)), dynamicProperties);
+        }
+    }
+
+    private record CachedOutputs(byte[] outputs, Instant createdAt) {
+    }
+
+    private record CachedFile(Path path, long size, Instant createdAt) {
+    }
+}
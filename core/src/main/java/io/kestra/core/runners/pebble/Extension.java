@@ -61,6 +61,10 @@ public class Extension extends AbstractExtension {
     @Inject
     private HttpFunction httpFunction;
 
+    @Inject
+    @Nullable
+    private JqFilter jqFilter;
+
     @Override
     public List<TokenParser> getTokenParsers() {
         return null;
@@ -95,7 +99,7 @@ public class Extension extends AbstractExtension {
         filters.put("timestampMicro", new TimestampMicroFilter());
         filters.put("timestampMilli", new TimestampMilliFilter());
         filters.put("timestampNano", new TimestampNanoFilter());
-        filters.put("jq", new JqFilter());
+        filters.put("jq", jqFilter != null ? jqFilter : new JqFilter());
         filters.put("escapeChar", new EscapeCharFilter());
         filters.put("json", new JsonFilter());
         filters.put("toJson", new ToJsonFilter());
@@ -2,28 +2,73 @@ package io.kestra.core.runners.pebble.filters;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.*;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.kestra.core.metrics.MetricRegistry;
 import io.kestra.core.serializers.JacksonMapper;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
 import io.pebbletemplates.pebble.error.PebbleException;
 import io.pebbletemplates.pebble.extension.Filter;
 import io.pebbletemplates.pebble.template.EvaluationContext;
 import io.pebbletemplates.pebble.template.PebbleTemplate;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
 import net.thisptr.jackson.jq.BuiltinFunctionLoader;
 import net.thisptr.jackson.jq.JsonQuery;
 import net.thisptr.jackson.jq.Scope;
 import net.thisptr.jackson.jq.Versions;
+import net.thisptr.jackson.jq.exception.JsonQueryException;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.io.IOException;
+import java.util.*;
 
+/**
+ * The <code>jq</code> filter.
+ * <p>
+ * Compiling a jq expression is costly, and the same expressions are evaluated again and again (for example on each iteration
+ * of a ForEach), so compiled expressions are kept in a bounded cache. The builtin functions are loaded once in a root scope
+ * shared by all evaluations, as a compiled query doesn't modify the scope it is applied on.
+ * <p>
+ * The input converted to a {@link JsonNode} is also reused when the same object is queried several times during the same rendering.
+ */
+@Singleton
 public class JqFilter implements Filter {
+    private static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
     private final Scope scope;
     private final List<String> argumentNames = new ArrayList<>();
+    private final MetricRegistry metricRegistry;
+    private final Cache<String, JsonQuery> queries;
+
+    // weak keys use identity: the converted inputs only live as long as the evaluation context of the rendering
+    private final Cache<EvaluationContext, Map<Object, JsonNode>> inputs = Caffeine.newBuilder()
+        .weakKeys()
+        .build();
 
     public JqFilter() {
-        scope = Scope.newEmptyScope();
-        BuiltinFunctionLoader.getInstance().loadFunctions(Versions.JQ_1_6, scope);
+        this(null, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    @Inject
+    public JqFilter(
+        @Nullable MetricRegistry metricRegistry,
+        @Value("${kestra.pebble.jq-cache.maximum-size:1000}") long maximumSize
+    ) {
+        this.scope = Scope.newEmptyScope();
+        BuiltinFunctionLoader.getInstance().loadFunctions(Versions.JQ_1_6, this.scope);
         this.argumentNames.add("expression");
+
+        this.metricRegistry = metricRegistry;
+        this.queries = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .removalListener((String key, JsonQuery value, RemovalCause cause) -> {
+                if (cause.wasEvicted()) {
+                    this.increment(MetricRegistry.METRIC_PEBBLE_JQ_CACHE_EVICTION_COUNT, MetricRegistry.METRIC_PEBBLE_JQ_CACHE_EVICTION_COUNT_DESCRIPTION);
+                }
+            })
+            .build();
     }
 
     @Override
@@ -43,18 +88,10 @@ public class JqFilter implements Filter {
 
         String pattern = (String) args.get("expression");
 
-        Scope rootScope = Scope.newEmptyScope();
-        BuiltinFunctionLoader.getInstance().loadFunctions(Versions.JQ_1_6, rootScope);
         try {
+            JsonQuery q = this.compile(pattern);
 
-            JsonQuery q = JsonQuery.compile(pattern, Versions.JQ_1_6);
-
-            JsonNode in;
-            if (input instanceof String stringValue) {
-                in = JacksonMapper.ofJson().readTree(stringValue);
-            } else {
-                in = JacksonMapper.ofJson().valueToTree(input);
-            }
+            JsonNode in = this.toJsonNode(input, context);
 
             final List<Object> out = new ArrayList<>();
 
@@ -85,4 +122,49 @@ public class JqFilter implements Filter {
             throw new PebbleException(e, "Unable to parse jq value '" + input + "' with type '" + input.getClass().getName() + "'", lineNumber, self.getName());
         }
     }
+
+    private JsonQuery compile(String pattern) throws JsonQueryException {
+        JsonQuery cached = this.queries.getIfPresent(pattern);
+        if (cached != null) {
+            this.increment(MetricRegistry.METRIC_PEBBLE_JQ_CACHE_HIT_COUNT, MetricRegistry.METRIC_PEBBLE_JQ_CACHE_HIT_COUNT_DESCRIPTION);
+            return cached;
+        }
+
+        this.increment(MetricRegistry.METRIC_PEBBLE_JQ_CACHE_MISS_COUNT, MetricRegistry.METRIC_PEBBLE_JQ_CACHE_MISS_COUNT_DESCRIPTION);
+
+        // invalid expressions are not cached, so they fail the same way on each evaluation
+        JsonQuery compiled = JsonQuery.compile(pattern, Versions.JQ_1_6);
+        this.queries.put(pattern, compiled);
+
+        return compiled;
+    }
+
+    private JsonNode toJsonNode(Object input, EvaluationContext context) throws IOException {
+        if (context == null) {
+            return convert(input);
+        }
+
+        Map<Object, JsonNode> converted = this.inputs.get(context, k -> Collections.synchronizedMap(new IdentityHashMap<>()));
+        JsonNode in = converted.get(input);
+        if (in == null) {
+            in = convert(input);
+            converted.put(input, in);
+        }
+
+        return in;
+    }
+
+    private static JsonNode convert(Object input) throws IOException {
+        if (input instanceof String stringValue) {
+            return JacksonMapper.ofJson().readTree(stringValue);
+        }
+
+        return JacksonMapper.ofJson().valueToTree(input);
+    }
+
+    private void increment(String name, String description) {
+        if (this.metricRegistry != null) {
+            this.metricRegistry.counter(name, description).increment();
+        }
+    }
 }
@@ -2,6 +2,7 @@ package io.kestra.core.runners.pebble.functions;
 
 import io.kestra.core.runners.LocalPath;
 import io.kestra.core.storages.StorageContext;
+import io.kestra.core.storages.StorageRange;
 import io.pebbletemplates.pebble.template.EvaluationContext;
 import jakarta.inject.Singleton;
 
@@ -15,7 +16,7 @@ public class FileExistsFunction extends AbstractFileFunction {
     @Override
     protected Object fileFunction(EvaluationContext context, URI path, String namespace, String tenantId) throws IOException {
         return switch (path.getScheme()) {
-            case StorageContext.KESTRA_SCHEME -> storageInterface.exists(tenantId, namespace, path);
+            case StorageContext.KESTRA_SCHEME -> StorageRange.exists(storageInterface, tenantId, namespace, path);
             case LocalPath.FILE_SCHEME -> localPathFactory.createLocalPath().exists(path);
             default -> throw new IllegalArgumentException(SCHEME_NOT_SUPPORTED_ERROR.formatted(path));
         };
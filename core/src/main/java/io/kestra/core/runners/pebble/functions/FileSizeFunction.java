@@ -1,8 +1,8 @@
 package io.kestra.core.runners.pebble.functions;
 
 import io.kestra.core.runners.LocalPath;
-import io.kestra.core.storages.FileAttributes;
 import io.kestra.core.storages.StorageContext;
+import io.kestra.core.storages.StorageRange;
 import io.pebbletemplates.pebble.template.EvaluationContext;
 import jakarta.inject.Singleton;
 import java.io.IOException;
@@ -16,10 +16,7 @@ public class FileSizeFunction extends AbstractFileFunction {
     @Override
     protected Object fileFunction(EvaluationContext context, URI path, String namespace, String tenantId) throws IOException {
         return switch (path.getScheme()) {
-            case StorageContext.KESTRA_SCHEME -> {
-                FileAttributes fileAttributes = storageInterface.getAttributes(tenantId, namespace, path);
-                yield fileAttributes.getSize();
-            }
+            case StorageContext.KESTRA_SCHEME -> StorageRange.size(storageInterface, tenantId, namespace, path);
             case LocalPath.FILE_SCHEME -> {
                 BasicFileAttributes fileAttributes = localPathFactory.createLocalPath().getAttributes(path);
                 yield fileAttributes.size();
@@ -2,6 +2,7 @@ package io.kestra.core.runners.pebble.functions;
 
 import io.kestra.core.runners.LocalPath;
 import io.kestra.core.storages.StorageContext;
+import io.kestra.core.storages.StorageRange;
 import io.pebbletemplates.pebble.template.EvaluationContext;
 import jakarta.inject.Singleton;
 import java.io.IOException;
@@ -17,7 +18,7 @@ public class ReadFileFunction extends AbstractFileFunction {
     protected Object fileFunction(EvaluationContext context, URI path, String namespace, String tenantId) throws IOException {
         return switch (path.getScheme()) {
             case StorageContext.KESTRA_SCHEME -> {
-                try (InputStream inputStream = storageInterface.get(tenantId, namespace, path)) {
+                try (InputStream inputStream = StorageRange.get(storageInterface, tenantId, namespace, path)) {
                     yield new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
                 }
             }
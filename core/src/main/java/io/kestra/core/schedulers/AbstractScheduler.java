@@ -14,7 +14,6 @@ import io.kestra.core.models.conditions.ConditionContext;
 import io.kestra.core.models.executions.Execution;
 import io.kestra.core.models.executions.ExecutionKilled;
 import io.kestra.core.models.executions.ExecutionKilledTrigger;
-import io.kestra.core.models.flows.FlowId;
 import io.kestra.core.models.flows.FlowInterface;
 import io.kestra.core.models.flows.FlowWithException;
 import io.kestra.core.models.flows.FlowWithSource;
@@ -79,6 +78,7 @@ public abstract class AbstractScheduler implements Scheduler, Service {
     private final MetricRegistry metricRegistry;
     private final ConditionService conditionService;
     private final PluginDefaultService pluginDefaultService;
+    private final FlowWithDefaultsCache flowWithDefaultsCache;
     private final WorkerGroupService workerGroupService;
     private final LogService logService;
     protected SchedulerExecutionStateInterface executionState;
@@ -131,6 +131,7 @@ public abstract class AbstractScheduler implements Scheduler, Service {
         this.metricRegistry = applicationContext.getBean(MetricRegistry.class);
         this.conditionService = applicationContext.getBean(ConditionService.class);
         this.pluginDefaultService = applicationContext.getBean(PluginDefaultService.class);
+        this.flowWithDefaultsCache = applicationContext.getBean(FlowWithDefaultsCache.class);
         this.workerGroupService = applicationContext.getBean(WorkerGroupService.class);
         this.logService = applicationContext.getBean(LogService.class);
         this.serviceStateEventPublisher = applicationContext.getBean(ApplicationEventPublisher.class);
@@ -403,6 +404,11 @@ public abstract class AbstractScheduler implements Scheduler, Service {
         }
 
         ClusterEvent clusterEvent = either.getLeft();
+        // K/V changes are frequent, and only handled by the K/V store cache
+        if (clusterEvent.eventType() == ClusterEvent.EventType.KV_CHANGED) {
+            return;
+        }
+
         log.info("Cluster event received: {}", clusterEvent);
         switch (clusterEvent.eventType()) {
             case MAINTENANCE_ENTER -> enterMaintenance();
@@ -466,42 +472,44 @@ public abstract class AbstractScheduler implements Scheduler, Service {
         }
     }
 
-    private List<FlowWithTriggers> computeSchedulable(List<FlowWithSource> flows, List<Trigger> triggerContextsToEvaluate, ScheduleContextInterface scheduleContext) {
-        List<String> flowToKeep = triggerContextsToEvaluate.stream().map(Trigger::getFlowId).toList();
-        List<String> flowIds = flows.stream().map(FlowId::uidWithoutRevision).toList();
-        Map<String, Trigger> triggerById = triggerContextsToEvaluate.stream().collect(Collectors.toMap(HasUID::uid, Function.identity()));
+    private List<FlowWithTriggers> computeSchedulable(FlowCatalog catalog, List<Trigger> triggerContextsToEvaluate, ScheduleContextInterface scheduleContext) {
+        List<FlowWithTriggers> schedulable = new ArrayList<>(triggerContextsToEvaluate.size());
+
+        // only the due triggers are visited, their flow is looked up in the catalog
+        for (Trigger lastTrigger : triggerContextsToEvaluate) {
+            FlowWithSource lastVersion = catalog.find(lastTrigger.getTenantId(), lastTrigger.getNamespace(), lastTrigger.getFlowId(), Optional.empty()).orElse(null);
 
-        // delete trigger which flow has been deleted
-        triggerContextsToEvaluate.stream()
-            .filter(trigger -> !flowIds.contains(FlowId.uid(trigger)))
-            .forEach(trigger -> {
+            // delete trigger which flow has been deleted
+            if (lastVersion == null) {
                 try {
-                    this.triggerState.delete(trigger);
+                    this.triggerState.delete(lastTrigger);
                 } catch (QueueException e) {
-                    log.error("Unable to delete the trigger: {}.{}.{}", trigger.getNamespace(), trigger.getFlowId(), trigger.getTriggerId(), e);
+                    log.error("Unable to delete the trigger: {}.{}.{}", lastTrigger.getNamespace(), lastTrigger.getFlowId(), lastTrigger.getTriggerId(), e);
                 }
-            });
+                continue;
+            }
 
-        return flows
-            .stream()
-            .filter(flow -> flowToKeep.contains(flow.getId()))
-            .filter(flow -> flow.getTriggers() != null && !flow.getTriggers().isEmpty())
-            .filter(flow -> !flow.isDisabled() && !(flow instanceof FlowWithException))
-            .map(flow -> pluginDefaultService.injectAllDefaults(flow, log))
-            .filter(Objects::nonNull) // can occur if injecting default fail
-            .flatMap(flow -> flow.getTriggers()
+            if (lastVersion.getTriggers() == null || lastVersion.getTriggers().isEmpty() || lastVersion.isDisabled() || lastVersion instanceof FlowWithException) {
+                continue;
+            }
+
+            FlowWithSource flow = flowWithDefaultsCache.injectAllDefaults(lastVersion, log);
+            if (flow == null) {
+                // can occur if injecting default fail
+                continue;
+            }
+
+            ListUtils.emptyOnNull(flow.getTriggers())
                 .stream()
+                .filter(abstractTrigger -> abstractTrigger.getId().equals(lastTrigger.getTriggerId()))
                 .filter(abstractTrigger -> !abstractTrigger.isDisabled() && abstractTrigger instanceof WorkerTriggerInterface)
+                .findFirst()
                 .map(abstractTrigger -> {
                     RunContext runContext = runContextFactory.of(flow, abstractTrigger);
                     ConditionContext conditionContext = conditionService.conditionContext(runContext, flow, null);
                     Trigger triggerContext;
-                    Trigger lastTrigger = triggerById.get(Trigger.uid(flow, abstractTrigger));
-                    // If a trigger is not found in triggers to evaluate, then we ignore it
-                    if (lastTrigger == null) {
-                        return null;
-                        // Backwards compatibility: we add a next execution date that we compute, this avoids re-triggering all existing triggers
-                    } else if (lastTrigger.getNextExecutionDate() == null) {
+                    // Backwards compatibility: we add a next execution date that we compute, this avoids re-triggering all existing triggers
+                    if (lastTrigger.getNextExecutionDate() == null) {
                         try {
                             triggerContext = lastTrigger.toBuilder()
                                 .nextExecutionDate(this.nextEvaluationDate(abstractTrigger, conditionContext, Optional.of(lastTrigger)))
@@ -525,8 +533,10 @@ public abstract class AbstractScheduler implements Scheduler, Service {
                             ))
                     );
                 })
-            )
-            .filter(Objects::nonNull).toList();
+                .ifPresent(schedulable::add);
+        }
+
+        return schedulable;
     }
 
     abstract public void handleNext(List<FlowWithSource> flows, ZonedDateTime now, BiConsumer<List<Trigger>, ScheduleContextInterface> consumer);
@@ -559,9 +569,10 @@ public abstract class AbstractScheduler implements Scheduler, Service {
 
         ZonedDateTime now = now();
 
-        final List<FlowWithSource> flows = this.flowListeners.flows();
+        // the same snapshot of the flows is used by all the shards of this loop
+        final FlowCatalog catalog = this.flowListeners.catalog();
 
-        this.handleNext(flows, now, (triggers, scheduleContext) -> {
+        this.handleNext(catalog.flows(), now, (triggers, scheduleContext) -> {
             if (triggers.isEmpty()) {
                 return;
             }
@@ -570,7 +581,7 @@ public abstract class AbstractScheduler implements Scheduler, Service {
                 .filter(trigger -> Boolean.FALSE.equals(trigger.getDisabled()))
                 .toList();
 
-            List<FlowWithTriggers> schedulable = this.computeSchedulable(flows, triggerContextsToEvaluate, scheduleContext);
+            List<FlowWithTriggers> schedulable = this.computeSchedulable(catalog, triggerContextsToEvaluate, scheduleContext);
 
             metricRegistry
                 .counter(MetricRegistry.METRIC_SCHEDULER_LOOP_COUNT, MetricRegistry.METRIC_SCHEDULER_LOOP_COUNT_DESCRIPTION)
@@ -581,7 +592,7 @@ public abstract class AbstractScheduler implements Scheduler, Service {
                     "Scheduler next iteration for {} with {} schedulables of {} flows",
                     now,
                     schedulable.size(),
-                    this.flowListeners.flows().size()
+                    catalog.size()
                 );
             }
 
@@ -699,7 +710,7 @@ public abstract class AbstractScheduler implements Scheduler, Service {
                 });
         });
         metricRegistry
-            .timer(MetricRegistry.METRIC_SCHEDULER_EVALUATION_LOOP_DURATION, MetricRegistry.METRIC_SCHEDULER_EVALUATION_LOOP_DURATION_DESCRIPTION)
+            .percentileTimer(MetricRegistry.METRIC_SCHEDULER_EVALUATION_LOOP_DURATION, MetricRegistry.METRIC_SCHEDULER_EVALUATION_LOOP_DURATION_DESCRIPTION)
             .record(Duration.between(now, ZonedDateTime.now()));
     }
 
@@ -1,6 +1,7 @@
 package io.kestra.core.services;
 
 import io.kestra.core.models.flows.FlowWithSource;
+import io.kestra.core.runners.FlowCatalog;
 
 import java.util.List;
 import java.util.function.BiConsumer;
@@ -14,4 +15,10 @@ public interface FlowListenersInterface {
     void listen(BiConsumer<FlowWithSource, FlowWithSource> consumer);
 
     List<FlowWithSource> flows();
+
+    /**
+     * @return an immutable snapshot of the current flows, indexed by their id.
+     * It's called on hot paths, so implementations must keep it up to date when flows change instead of building it on each call.
+     */
+    FlowCatalog catalog();
 }
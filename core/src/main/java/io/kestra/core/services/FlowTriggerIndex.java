@@ -0,0 +1,60 @@
+package io.kestra.core.services;
+
+import io.kestra.core.models.flows.Flow;
+import io.kestra.core.models.flows.State;
+
+import java.util.*;
+
+/**
+ * The enabled {@link io.kestra.plugin.core.trigger.Flow} triggers of a list of flows, by the execution state they listen to.
+ * <p>
+ * Most flows have no flow trigger, and a flow trigger only listens to a few states, so looking up the triggers
+ * to evaluate for an execution state change is done in constant time instead of visiting all flows.
+ * The index is immutable, it must be rebuilt when the flows change, see {@link FlowTriggerService#index(List)}.
+ */
+public final class FlowTriggerIndex {
+    public static final FlowTriggerIndex EMPTY = new FlowTriggerIndex(Map.of(), 0);
+
+    private final Map<State.Type, List<FlowTriggerService.FlowWithFlowTrigger>> byState;
+    private final int size;
+
+    private FlowTriggerIndex(Map<State.Type, List<FlowTriggerService.FlowWithFlowTrigger>> byState, int size) {
+        this.byState = byState;
+        this.size = size;
+    }
+
+    static FlowTriggerIndex of(List<FlowTriggerService.FlowWithFlowTrigger> flowTriggers) {
+        Map<State.Type, List<FlowTriggerService.FlowWithFlowTrigger>> byState = new EnumMap<>(State.Type.class);
+        for (FlowTriggerService.FlowWithFlowTrigger flowTrigger : flowTriggers) {
+            List<State.Type> states = flowTrigger.getTrigger().getStates();
+            if (states == null) {
+                continue;
+            }
+
+            // a trigger may list the same state twice, it must still be evaluated once
+            EnumSet<State.Type> listened = EnumSet.noneOf(State.Type.class);
+            listened.addAll(states);
+            for (State.Type state : listened) {
+                byState.computeIfAbsent(state, k -> new ArrayList<>()).add(flowTrigger);
+            }
+        }
+
+        byState.replaceAll((state, list) -> List.copyOf(list));
+
+        return new FlowTriggerIndex(Collections.unmodifiableMap(byState), flowTriggers.size());
+    }
+
+    /**
+     * @return the flow triggers listening to this execution state, in the order of the flows they were indexed from
+     */
+    public List<FlowTriggerService.FlowWithFlowTrigger> listening(State.Type state) {
+        return this.byState.getOrDefault(state, Collections.emptyList());
+    }
+
+    /**
+     * @return the number of indexed flow triggers
+     */
+    public int size() {
+        return this.size;
+    }
+}
@@ -50,18 +50,35 @@ public class FlowTriggerService {
             .map(io.kestra.plugin.core.trigger.Flow.class::cast);
     }
 
-    public List<Execution> computeExecutionsFromFlowTriggers(Execution execution, List<? extends Flow> allFlows, Optional<MultipleConditionStorageInterface> multipleConditionStorage) {
-        List<FlowWithFlowTrigger> validTriggersBeforeMultipleConditionEval = allFlows.stream()
-            // prevent recursive flow triggers
-            .filter(flow -> flowService.removeUnwanted(flow, execution))
-            // filter out Test Executions
-            .filter(flow -> execution.getKind() == null)
+    /**
+     * Indexes the enabled flow triggers of the given flows by the execution states they listen to.
+     * The index must be rebuilt each time the flows change.
+     */
+    public FlowTriggerIndex index(List<? extends Flow> allFlows) {
+        return FlowTriggerIndex.of(allFlows.stream()
             // ensure flow & triggers are enabled
             .filter(flow -> !flow.isDisabled() && !(flow instanceof FlowWithException))
             .filter(flow -> flow.getTriggers() != null && !flow.getTriggers().isEmpty())
             .flatMap(flow -> flowTriggers(flow).map(trigger -> new FlowWithFlowTrigger(flow, trigger)))
-            // filter on the execution state the flow listen to
-            .filter(flowWithFlowTrigger -> flowWithFlowTrigger.getTrigger().getStates().contains(execution.getState().getCurrent()))
+            .toList()
+        );
+    }
+
+    public List<Execution> computeExecutionsFromFlowTriggers(Execution execution, List<? extends Flow> allFlows, Optional<MultipleConditionStorageInterface> multipleConditionStorage) {
+        return this.computeExecutionsFromFlowTriggers(execution, this.index(allFlows), multipleConditionStorage);
+    }
+
+    public List<Execution> computeExecutionsFromFlowTriggers(Execution execution, FlowTriggerIndex flowTriggerIndex, Optional<MultipleConditionStorageInterface> multipleConditionStorage) {
+        // filter out Test Executions
+        if (execution.getKind() != null) {
+            return Collections.emptyList();
+        }
+
+        // only the flow triggers listening to the execution state
+        List<FlowWithFlowTrigger> validTriggersBeforeMultipleConditionEval = flowTriggerIndex.listening(execution.getState().getCurrent())
+            .stream()
+            // prevent recursive flow triggers
+            .filter(flowWithFlowTrigger -> flowService.removeUnwanted(flowWithFlowTrigger.getFlow(), execution))
             // validate flow triggers conditions excluding multiple conditions
             .filter(flowWithFlowTrigger -> conditionService.valid(
                 flowWithFlowTrigger.getFlow(),
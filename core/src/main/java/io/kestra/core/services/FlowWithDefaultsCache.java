@@ -0,0 +1,161 @@
+package io.kestra.core.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.kestra.core.cache.NoopCache;
+import io.kestra.core.metrics.MetricRegistry;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.flows.FlowInterface;
+import io.kestra.core.models.flows.FlowWithException;
+import io.kestra.core.models.flows.FlowWithSource;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.runtime.context.scope.refresh.RefreshEvent;
+import io.micronaut.runtime.event.annotation.EventListener;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of parsed {@link FlowWithSource} with all plugin defaults injected.
+ * <p>
+ * Injecting defaults means reading the flow source, applying defaults on the resulting map and parsing it again,
+ * which is far too costly to be done on each message handled by the Executor.
+ * As a flow revision is immutable, the result is cached by flow revision, source, and fingerprint of the global
+ * plugin defaults so a change of the configured defaults is never served from the cache.
+ * <p>
+ * Entries are invalidated when the flow is updated or deleted, and when the configuration is refreshed.
+ */
+@Singleton
+public class FlowWithDefaultsCache {
+    private final PluginDefaultService pluginDefaultService;
+    private final MetricRegistry metricRegistry;
+    private final Cache<CacheKey, FlowWithSource> cache;
+
+    @Inject
+    public FlowWithDefaultsCache(
+        PluginDefaultService pluginDefaultService,
+        MetricRegistry metricRegistry,
+        FlowListenersInterface flowListeners,
+        @Value("${kestra.executor.flow-cache.enabled:true}") boolean enabled,
+        @Value("${kestra.executor.flow-cache.maximum-size:1000}") long maximumSize
+    ) {
+        this.pluginDefaultService = pluginDefaultService;
+        this.metricRegistry = metricRegistry;
+        this.cache = enabled ?
+            Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .removalListener((CacheKey key, FlowWithSource value, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        this.metricRegistry
+                            .counter(MetricRegistry.METRIC_EXECUTOR_FLOW_CACHE_EVICTION_COUNT, MetricRegistry.METRIC_EXECUTOR_FLOW_CACHE_EVICTION_COUNT_DESCRIPTION)
+                            .increment();
+                    }
+                })
+                .build() :
+            new NoopCache<>();
+
+        flowListeners.listen((flow, previous) -> this.invalidate(flow));
+    }
+
+    /**
+     * Gets the given flow with all plugin defaults injected, parsing it only if not already in the cache.
+     * <p>
+     * Like {@link PluginDefaultService#injectDefaults(FlowInterface, Execution)}, if an exception occurs during parsing,
+     * the flow is returned without defaults and the exception is logged for the passed {@code execution}.
+     * Such results are never cached.
+     *
+     * @param flow the flow to be parsed
+     * @param execution the execution the flow is loaded for
+     * @return a parsed {@link FlowWithSource}
+     */
+    public FlowWithSource injectDefaults(FlowInterface flow, Execution execution) {
+        return this.inject(flow, () -> pluginDefaultService.injectDefaults(flow, execution));
+    }
+
+    /**
+     * Gets the given flow with all plugin defaults injected, parsing it only if not already in the cache.
+     * <p>
+     * Like {@link PluginDefaultService#injectAllDefaults(FlowInterface, Logger)}, if an exception occurs during parsing,
+     * the flow is returned without defaults and the exception is logged with the passed {@code logger}.
+     * Such results are never cached.
+     *
+     * @param flow the flow to be parsed
+     * @param logger the logger used to log a parsing error
+     * @return a parsed {@link FlowWithSource}
+     */
+    public FlowWithSource injectAllDefaults(FlowInterface flow, Logger logger) {
+        return this.inject(flow, () -> pluginDefaultService.injectAllDefaults(flow, logger));
+    }
+
+    private FlowWithSource inject(FlowInterface flow, Supplier<FlowWithSource> fallback) {
+        if (flow instanceof FlowWithException || flow.getRevision() == null) {
+            return fallback.get();
+        }
+
+        CacheKey key = new CacheKey(
+            flow.getTenantId(),
+            flow.getNamespace(),
+            flow.getId(),
+            flow.getRevision(),
+            Objects.hashCode(flow.getSource()),
+            pluginDefaultService.defaultsFingerprint(flow.getTenantId(), flow.getNamespace())
+        );
+
+        FlowWithSource cached = cache.getIfPresent(key);
+        if (cached != null) {
+            metricRegistry
+                .counter(MetricRegistry.METRIC_EXECUTOR_FLOW_CACHE_HIT_COUNT, MetricRegistry.METRIC_EXECUTOR_FLOW_CACHE_HIT_COUNT_DESCRIPTION)
+                .increment();
+            return cached;
+        }
+
+        metricRegistry
+            .counter(MetricRegistry.METRIC_EXECUTOR_FLOW_CACHE_MISS_COUNT, MetricRegistry.METRIC_EXECUTOR_FLOW_CACHE_MISS_COUNT_DESCRIPTION)
+            .increment();
+
+        FlowWithSource withDefaults;
+        try {
+            withDefaults = pluginDefaultService.injectAllDefaults(flow, false);
+        } catch (Exception e) {
+            // let the service log the error and fall back on the flow without defaults
+            return fallback.get();
+        }
+
+        cache.put(key, withDefaults);
+        return withDefaults;
+    }
+
+    /**
+     * Invalidates all cached revisions of the given flow.
+     *
+     * @param flow the flow to invalidate
+     */
+    public void invalidate(FlowInterface flow) {
+        cache.asMap().keySet().removeIf(key -> key.isSameFlow(flow));
+    }
+
+    /**
+     * Invalidates all cached flows, for example after a change of the global plugin defaults.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @EventListener
+    void onRefresh(final RefreshEvent event) {
+        // global plugin defaults may have been changed
+        this.invalidateAll();
+    }
+
+    record CacheKey(String tenantId, String namespace, String id, int revision, int sourceHash, String defaultsFingerprint) {
+        boolean isSameFlow(FlowInterface flow) {
+            return Objects.equals(tenantId, flow.getTenantId()) &&
+                Objects.equals(namespace, flow.getNamespace()) &&
+                Objects.equals(id, flow.getId());
+        }
+    }
+}
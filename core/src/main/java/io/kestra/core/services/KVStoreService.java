@@ -3,6 +3,7 @@ package io.kestra.core.services;
 import io.kestra.core.storages.StorageInterface;
 import io.kestra.core.storages.kv.InternalKVStore;
 import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVStoreCache;
 import io.kestra.core.storages.kv.KVStoreException;
 import jakarta.annotation.Nullable;
 import jakarta.inject.Inject;
@@ -16,6 +17,9 @@ public class KVStoreService {
     @Inject
     private StorageInterface storageInterface;
 
+    @Inject
+    private KVStoreCache kvStoreCache;
+
     @Inject
     private FlowService flowService;
 
@@ -46,7 +50,7 @@ public class KVStoreService {
         boolean checkIfNamespaceExists = fromNamespace == null || isNotParentNamespace(namespace, fromNamespace);
         if (checkIfNamespaceExists && !namespaceService.isNamespaceExists(tenant, namespace)) {
             // if it didn't exist, we still check if there are KV as you can add KV without creating a namespace in DB or having flows in it
-            KVStore kvStore = new InternalKVStore(tenant, namespace, storageInterface);
+            KVStore kvStore = new InternalKVStore(tenant, namespace, storageInterface, kvStoreCache);
             try {
                 if (kvStore.list().isEmpty()) {
                     throw new KVStoreException(String.format(
@@ -60,7 +64,7 @@ public class KVStoreService {
             return kvStore;
         }
 
-        return new InternalKVStore(tenant, namespace, storageInterface);
+        return new InternalKVStore(tenant, namespace, storageInterface, kvStoreCache);
     }
 
     private static boolean isNotParentNamespace(final String parentNamespace, final String childNamespace) {
@@ -23,6 +23,7 @@ import io.kestra.core.queues.QueueInterface;
 import io.kestra.core.runners.RunContextLogger;
 import io.kestra.core.serializers.JacksonMapper;
 import io.kestra.core.serializers.YamlParser;
+import io.kestra.core.utils.Hashing;
 import io.kestra.core.utils.MapUtils;
 import io.kestra.plugin.core.flow.Template;
 import io.micronaut.context.annotation.Value;
@@ -46,6 +47,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -92,6 +94,8 @@ public class PluginDefaultService {
 
     private final AtomicBoolean warnOnce = new AtomicBoolean(false);
 
+    private final Map<String, Map.Entry<List<PluginDefault>, String>> defaultsFingerprints = new ConcurrentHashMap<>();
+
     @PostConstruct
     void validateGlobalPluginDefault() {
         List<PluginDefault> mergedDefaults = new ArrayList<>();
@@ -159,6 +163,40 @@ public class PluginDefaultService {
         return defaults;
     }
 
+    /**
+     * Gets a fingerprint of the defaults that are applied to flows of the given namespace on top of
+     * the flow-level defaults (which are part of the flow source).
+     * <p>
+     * Two calls returning the same fingerprint means that injecting defaults into the same flow source
+     * will produce the same result, so it can safely be used as part of a cache key.
+     *
+     * @param tenantId  the tenant identifier.
+     * @param namespace the namespace of the flow.
+     * @return the fingerprint of the applicable non-flow defaults.
+     */
+    public String defaultsFingerprint(@Nullable final String tenantId, final String namespace) {
+        // without any flow-level defaults, all the defaults are the ones applied on top of the flow source
+        List<PluginDefault> defaults = getAllDefaults(tenantId, namespace, Map.of());
+
+        // defaults only change on configuration refresh or update of the tenant or namespace, they are compared by value
+        // as they may be new instances with the same values on each call
+        String key = tenantId + "|" + namespace;
+        Map.Entry<List<PluginDefault>, String> current = defaultsFingerprints.get(key);
+        if (current != null && current.getKey().equals(defaults)) {
+            return current.getValue();
+        }
+
+        String fingerprint;
+        try {
+            fingerprint = Hashing.hashToString(OBJECT_MAPPER.writeValueAsString(defaults));
+        } catch (JsonProcessingException e) {
+            throw new KestraRuntimeException("Unable to compute plugin defaults fingerprint", e);
+        }
+
+        defaultsFingerprints.put(key, new AbstractMap.SimpleImmutableEntry<>(List.copyOf(defaults), fingerprint));
+        return fingerprint;
+    }
+
     /**
      * Parses the given abstract flow and injects all default values, returning a parsed {@link FlowWithSource}.
      *
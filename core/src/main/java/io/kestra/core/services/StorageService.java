@@ -2,119 +2,467 @@ package io.kestra.core.services;
 
 import io.kestra.core.exceptions.IllegalVariableEvaluationException;
 import io.kestra.core.runners.RunContext;
+import io.kestra.core.storages.StorageRange;
 import io.kestra.core.storages.StorageSplitInterface;
+import io.kestra.core.utils.IdUtils;
 import io.micronaut.core.convert.format.ReadableBytesTypeConverter;
+import org.apache.commons.io.input.BoundedInputStream;
 
-import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.RandomAccessFile;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.URI;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.BiFunction;
-
-import static io.kestra.core.utils.Rethrow.throwConsumer;
-import static io.kestra.core.utils.Rethrow.throwFunction;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 public abstract class StorageService {
+    static final int BUFFER_SIZE = 1024 * 1024;
+    private static final int MAX_PARALLEL_UPLOADS = 8;
+    private static final int BOUNDARY_WINDOW_SIZE = 64 * 1024;
 
+    /**
+     * Splits a file in multiple files, each of them stored in the internal storage.
+     * <p>
+     * The file is read once, row by row, each row being rewritten with the separator. A split is uploaded as soon as it is complete,
+     * in parallel with the reading of the next ones. Partitions are contiguous ranges of rows of about the same size: as their boundaries
+     * depend on the size of the whole file, it is rewritten once locally and each partition is uploaded from its range of this file.
+     */
     public static List<URI> split(RunContext runContext, StorageSplitInterface storageSplitInterface, URI from) throws IOException, IllegalVariableEvaluationException {
-        String fromPath = from.getPath();
-        String extension = ".tmp";
-        if (fromPath.indexOf('.') >= 0) {
-            extension = fromPath.substring(fromPath.lastIndexOf('.'));
-        }
-
-        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(from)))) {
-            List<Path> splited;
-
-            if (storageSplitInterface.getBytes() != null) {
-                ReadableBytesTypeConverter readableBytesTypeConverter = new ReadableBytesTypeConverter();
-                Number convert = readableBytesTypeConverter.convert(runContext.render(storageSplitInterface.getBytes()).as(String.class).orElseThrow(), Number.class)
-                    .orElseThrow(() -> new IllegalArgumentException("Invalid size with value '" + storageSplitInterface.getBytes() + "'"));
-
-                splited = StorageService.split(runContext, extension, runContext.render(storageSplitInterface.getSeparator()).as(String.class).orElseThrow(),
-                    bufferedReader, (bytes, size) -> bytes >= convert.longValue());
-            } else if (storageSplitInterface.getPartitions() != null) {
-                splited = StorageService.partition(runContext, extension, runContext.render(storageSplitInterface.getSeparator()).as(String.class).orElseThrow(),
-                    bufferedReader, runContext.render(storageSplitInterface.getPartitions()).as(Integer.class).orElseThrow());
-            } else if (storageSplitInterface.getRows() != null) {
-                Integer renderedRows = runContext.render(storageSplitInterface.getRows()).as(Integer.class).orElseThrow();
-                splited = StorageService.split(runContext, extension, runContext.render(storageSplitInterface.getSeparator()).as(String.class).orElseThrow(),
-                    bufferedReader, (bytes, size) -> size >= renderedRows);
+        String extension = extension(from);
+        byte[] separator = separator(runContext, storageSplitInterface);
+
+        try (Uploader uploader = new Uploader(runContext)) {
+            if (storageSplitInterface.getPartitions() != null) {
+                Integer partitions = runContext.render(storageSplitInterface.getPartitions()).as(Integer.class).orElseThrow();
+                Path path = runContext.workingDir().createTempFile(extension);
+
+                try {
+                    try (InputStream input = runContext.storage().getFile(from)) {
+                        StorageService.split(input, separator, (bytes, rows) -> false, () -> path, p -> {});
+                    }
+
+                    // each partition is uploaded from its range of the file, without copying it to another file
+                    for (StorageRange range : StorageService.partition(path, partitions, separator)) {
+                        uploader.upload(() -> read(path, range), IdUtils.create() + extension);
+                    }
+
+                    return uploader.await();
+                } finally {
+                    Files.deleteIfExists(path);
+                }
             } else {
-                throw new IllegalArgumentException("Invalid configuration with no size, count, nor rows");
+                SplitPredicate predicate = predicate(runContext, storageSplitInterface);
+
+                try (InputStream input = runContext.storage().getFile(from)) {
+                    StorageService.split(input, separator, predicate, () -> runContext.workingDir().createTempFile(extension), uploader::upload);
+                }
             }
 
-            return splited
-                .stream()
-                .map(throwFunction(path -> runContext.storage().putFile(path.toFile())))
-                .toList();
+            return uploader.await();
         }
     }
 
-    private static List<Path> split(RunContext runContext, String extension, String separator, BufferedReader bufferedReader, BiFunction<Integer, Integer, Boolean> predicate) throws IOException {
-        List<Path> files = new ArrayList<>();
-        RandomAccessFile write = null;
-        int totalBytes = 0;
+    /**
+     * Splits a file like {@link #split(RunContext, StorageSplitInterface, URI)} but, instead of storing each split as a file,
+     * stores all the rows once in a single file and passes a {@link StorageRange} reference to each split to the consumer, in order.
+     * <p>
+     * References are built with {@link StorageRange#onFixedWidth(URI)}, so they all have the same length.
+     *
+     * @return the number of splits
+     */
+    public static int splitRanges(RunContext runContext, StorageSplitInterface storageSplitInterface, URI from, RangeConsumer onRange) throws IOException, IllegalVariableEvaluationException {
+        byte[] separator = separator(runContext, storageSplitInterface);
+        Path path = runContext.workingDir().createTempFile(extension(from));
+        List<StorageRange> ranges = new ArrayList<>();
+
+        if (storageSplitInterface.getPartitions() != null) {
+            Integer partitions = runContext.render(storageSplitInterface.getPartitions()).as(Integer.class).orElseThrow();
+            try (InputStream input = runContext.storage().getFile(from)) {
+                StorageService.split(input, separator, (bytes, rows) -> false, () -> path, p -> {});
+            }
+            ranges.addAll(StorageService.partition(path, partitions, separator));
+        } else {
+            SplitPredicate predicate = predicate(runContext, storageSplitInterface);
+            try (InputStream input = runContext.storage().getFile(from)) {
+                // all the splits are appended to the same file, and their ranges recorded
+                long[] offset = {0};
+                StorageService.split(input, separator, predicate, () -> path, p -> {
+                    long size = Files.size(p);
+                    ranges.add(new StorageRange(offset[0], size - offset[0]));
+                    offset[0] = size;
+                });
+            }
+        }
+
+        if (ranges.isEmpty()) {
+            Files.deleteIfExists(path);
+            return 0;
+        }
+
+        URI uri = runContext.storage().putFile(path.toFile());
+        for (StorageRange range : ranges) {
+            onRange.accept(range.onFixedWidth(uri));
+        }
+
+        return ranges.size();
+    }
+
+    /**
+     * Reads the rows of the input, and writes them with the separator to a new file each time the predicate is true.
+     * The same file can be returned by the supplier to append all the splits to it.
+     *
+     * @param onSplit called with each split once it is complete
+     */
+    static void split(InputStream input, byte[] separator, SplitPredicate predicate, PathSupplier newFile, SplitConsumer onSplit) throws IOException {
+        RowReader reader = new RowReader(input);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        FileChannel channel = null;
+        Path path = null;
+        long totalBytes = 0;
         int totalRows = 0;
-        String row;
 
-        while ((row = bufferedReader.readLine()) != null) {
-            if (write == null || predicate.apply(totalBytes, totalRows)) {
-                if (write != null) {
-                    write.close();
+        try {
+            while (reader.next()) {
+                if (channel == null || predicate.test(totalBytes, totalRows)) {
+                    if (channel != null) {
+                        flush(buffer, channel);
+                        channel.close();
+                        onSplit.accept(path);
+                    }
+
+                    totalBytes = 0;
+                    totalRows = 0;
+
+                    path = newFile.get();
+                    channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
                 }
 
-                totalBytes = 0;
-                totalRows = 0;
+                write(buffer, channel, reader.row(), reader.length());
+                write(buffer, channel, separator, separator.length);
 
-                Path path = runContext.workingDir().createTempFile(extension);
-                files.add(path);
-                write = new RandomAccessFile(path.toFile(), "rw");
+                totalBytes = totalBytes + reader.length() + separator.length;
+                totalRows = totalRows + 1;
+            }
+
+            if (channel != null) {
+                flush(buffer, channel);
+                channel.close();
+                onSplit.accept(path);
+            }
+        } finally {
+            if (channel != null && channel.isOpen()) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Cuts a file in contiguous ranges of rows of about the same size, the boundaries are found by mapping the file around them in memory.
+     *
+     * @param separator the separator written after each row of the file
+     */
+    static List<StorageRange> partition(Path path, int partitions, byte[] separator) throws IOException {
+        List<StorageRange> ranges = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = 0;
+
+            for (int i = 1; i <= partitions && start < size; i++) {
+                long end = i == partitions ? size : rowEnd(channel, Math.max(start, (size * i) / partitions), size, separator);
+                if (end > start) {
+                    ranges.add(new StorageRange(start, end - start));
+                }
+                start = end;
+            }
+        }
+
+        return ranges;
+    }
+
+    /**
+     * @return the position following the separator ending the row including the given position
+     */
+    private static long rowEnd(FileChannel channel, long position, long size, byte[] separator) throws IOException {
+        if (position == 0 || separator.length == 0) {
+            return position;
+        }
+
+        // the row including the previous byte ends on the position if a separator ends on it, so the search starts where this separator would start
+        long current = Math.max(0, position - separator.length);
+        while (current < size) {
+            long length = Math.min(BOUNDARY_WINDOW_SIZE, size - current);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, current, length);
+
+            for (int i = 0; i + separator.length <= length; i++) {
+                if (startsWith(window, i, separator)) {
+                    return current + i + separator.length;
+                }
+            }
+
+            if (current + length >= size) {
+                break;
+            }
+
+            // windows overlap so that a separator across two of them is found
+            current = current + Math.max(1, length - separator.length + 1);
+        }
+
+        return size;
+    }
+
+    private static boolean startsWith(MappedByteBuffer window, int index, byte[] separator) {
+        for (int i = 0; i < separator.length; i++) {
+            if (window.get(index + i) != separator[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static InputStream read(Path path, StorageRange range) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ).position(range.offset());
+
+        return BoundedInputStream.builder()
+            .setInputStream(Channels.newInputStream(channel))
+            .setMaxCount(range.length())
+            .get();
+    }
+
+    private static void write(ByteBuffer buffer, FileChannel channel, byte[] bytes, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            if (!buffer.hasRemaining()) {
+                flush(buffer, channel);
             }
 
-            byte[] bytes = (row + separator).getBytes(StandardCharsets.UTF_8);
+            int count = Math.min(buffer.remaining(), length - offset);
+            buffer.put(bytes, offset, count);
+            offset = offset + count;
+        }
+    }
+
+    private static void flush(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static SplitPredicate predicate(RunContext runContext, StorageSplitInterface storageSplitInterface) throws IllegalVariableEvaluationException {
+        if (storageSplitInterface.getBytes() != null) {
+            ReadableBytesTypeConverter readableBytesTypeConverter = new ReadableBytesTypeConverter();
+            Number convert = readableBytesTypeConverter.convert(runContext.render(storageSplitInterface.getBytes()).as(String.class).orElseThrow(), Number.class)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid size with value '" + storageSplitInterface.getBytes() + "'"));
 
-            write.getChannel().write(ByteBuffer.wrap(bytes));
+            return (bytes, size) -> bytes >= convert.longValue();
+        } else if (storageSplitInterface.getRows() != null) {
+            Integer renderedRows = runContext.render(storageSplitInterface.getRows()).as(Integer.class).orElseThrow();
 
-            totalBytes = totalBytes + bytes.length;
-            totalRows = totalRows + 1;
+            return (bytes, size) -> size >= renderedRows;
         }
 
-        if (write != null) {
-            write.close();
+        throw new IllegalArgumentException("Invalid configuration with no size, count, nor rows");
+    }
+
+    private static byte[] separator(RunContext runContext, StorageSplitInterface storageSplitInterface) throws IllegalVariableEvaluationException {
+        return runContext.render(storageSplitInterface.getSeparator()).as(String.class).orElseThrow().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String extension(URI from) {
+        String fromPath = from.getPath();
+        if (fromPath.indexOf('.') >= 0) {
+            return fromPath.substring(fromPath.lastIndexOf('.'));
         }
 
-        return files;
+        return ".tmp";
     }
 
-    private static List<Path> partition(RunContext runContext, String extension, String separator, BufferedReader bufferedReader, int partition) throws IOException {
-        List<Path> files = new ArrayList<>();
-        List<RandomAccessFile> writers = new ArrayList<>();
+    @FunctionalInterface
+    interface SplitPredicate {
+        boolean test(long bytes, int rows);
+    }
+
+    @FunctionalInterface
+    interface PathSupplier {
+        Path get() throws IOException;
+    }
+
+    @FunctionalInterface
+    interface SplitConsumer {
+        void accept(Path path) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface RangeConsumer {
+        void accept(URI uri) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface InputStreamSupplier {
+        InputStream get() throws IOException;
+    }
+
+    /**
+     * Reads rows ended by a line feed, a carriage return or both, like {@link java.io.BufferedReader#readLine()} does,
+     * but without decoding them as the separators are never part of a multibyte UTF-8 character.
+     */
+    static final class RowReader {
+        private final InputStream input;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private int limit;
+        private byte[] row = new byte[1024];
+        private int length;
+        private boolean skipLineFeed;
+
+        RowReader(InputStream input) {
+            this.input = input;
+        }
+
+        /**
+         * @return true if a row was read, false at the end of the input
+         */
+        boolean next() throws IOException {
+            this.length = 0;
+
+            while (true) {
+                if (this.position >= this.limit) {
+                    this.limit = this.input.read(this.buffer, 0, this.buffer.length);
+                    this.position = 0;
+
+                    if (this.limit <= 0) {
+                        this.limit = 0;
+                        return this.length > 0;
+                    }
+                }
+
+                if (this.skipLineFeed) {
+                    this.skipLineFeed = false;
+                    if (this.buffer[this.position] == '\n') {
+                        this.position++;
+                        continue;
+                    }
+                }
 
-        for (int i = 0; i < partition; i++) {
-            Path path = runContext.workingDir().createTempFile(extension);
-            files.add(path);
+                int start = this.position;
+                while (this.position < this.limit && this.buffer[this.position] != '\n' && this.buffer[this.position] != '\r') {
+                    this.position++;
+                }
+                this.append(start, this.position - start);
 
-            writers.add(new RandomAccessFile(path.toFile(), "rw"));
+                if (this.position < this.limit) {
+                    this.skipLineFeed = this.buffer[this.position] == '\r';
+                    this.position++;
+                    return true;
+                }
+            }
         }
 
-        String row;
-        int index = 0;
-        while ((row = bufferedReader.readLine()) != null) {
-            writers.get(index).getChannel().write(ByteBuffer.wrap((row + separator).getBytes(StandardCharsets.UTF_8)));
+        byte[] row() {
+            return this.row;
+        }
 
-            index = index >= writers.size() - 1 ? 0 : index + 1;
+        int length() {
+            return this.length;
         }
 
-        writers.forEach(throwConsumer(RandomAccessFile::close));
+        private void append(int start, int count) {
+            if (this.length + count > this.row.length) {
+                byte[] grown = new byte[Math.max(this.row.length * 2, this.length + count)];
+                System.arraycopy(this.row, 0, grown, 0, this.length);
+                this.row = grown;
+            }
 
-        return files.stream().filter(p -> p.toFile().length() > 0).toList();
+            System.arraycopy(this.buffer, start, this.row, this.length, count);
+            this.length = this.length + count;
+        }
     }
 
+    /**
+     * Uploads files to the internal storage in parallel, waiting for a slot when too many uploads are in progress.
+     */
+    private static final class Uploader implements Closeable {
+        private final RunContext runContext;
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        private final Semaphore permits = new Semaphore(MAX_PARALLEL_UPLOADS);
+        private final List<Future<URI>> uris = new ArrayList<>();
+
+        private Uploader(RunContext runContext) {
+            this.runContext = runContext;
+        }
+
+        void upload(Path path) throws IOException {
+            this.submit(path.toString(), () -> this.runContext.storage().putFile(path.toFile()));
+        }
+
+        void upload(InputStreamSupplier input, String name) throws IOException {
+            this.submit(name, () -> {
+                try (InputStream inputStream = input.get()) {
+                    return this.runContext.storage().putFile(inputStream, name);
+                }
+            });
+        }
+
+        private void submit(String name, Callable<URI> upload) throws IOException {
+            try {
+                this.permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to upload " + name);
+            }
+
+            this.uris.add(this.executor.submit(() -> {
+                try {
+                    return upload.call();
+                } finally {
+                    this.permits.release();
+                }
+            }));
+        }
+
+        /**
+         * @return the URIs of the uploaded files, in the order they were submitted
+         */
+        List<URI> await() throws IOException {
+            List<URI> result = new ArrayList<>(this.uris.size());
+            for (Future<URI> uri : this.uris) {
+                try {
+                    result.add(uri.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for uploads");
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException ioException) {
+                        throw ioException;
+                    }
+                    throw new IOException(e.getCause());
+                }
+            }
+
+            return result;
+        }
+
+        @Override
+        public void close() {
+            this.executor.close();
+        }
+    }
 }
@@ -2,7 +2,13 @@ package io.kestra.core.services;
 
 import io.kestra.core.models.executions.Variables;
 import io.kestra.core.models.tasks.Output;
+import io.kestra.core.storages.InternalStorage;
 import io.kestra.core.storages.StorageContext;
+import io.kestra.core.storages.StorageInterface;
+import io.kestra.core.utils.MapUtils;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.convert.format.ReadableBytes;
+import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
 import java.util.Collections;
@@ -12,10 +18,25 @@ import java.util.Map;
  * Service for working with {@link Variables}.
  * It allows easily creating a {@link Variables} object.
  * <p>
- * Note: Outputs in internal storage is an EE feature so on OSS it always return an InMemory variable.
+ * Outputs are kept in memory, unless offloading is enabled and their size, as serialized for the internal storage, reaches the configured threshold:
+ * they are then stored once in the internal storage and replaced by a reference, loaded lazily when accessed.
  */
 @Singleton
 public class VariablesService {
+    private final StorageInterface storageInterface;
+    private final boolean offloadEnabled;
+    private final long offloadThreshold;
+
+    @Inject
+    public VariablesService(
+        StorageInterface storageInterface,
+        @Value("${kestra.outputs.offload.enabled:false}") boolean offloadEnabled,
+        @Value("${kestra.outputs.offload.threshold:1MB}") @ReadableBytes long offloadThreshold
+    ) {
+        this.storageInterface = storageInterface;
+        this.offloadEnabled = offloadEnabled;
+        this.offloadThreshold = offloadThreshold;
+    }
 
     /**
      * Creates a {@link Variables} from a StorageContext and an Output.
@@ -28,6 +49,14 @@ public class VariablesService {
      * Creates a {@link Variables} from a StorageContext and an Output map.
      */
     public Variables of(StorageContext context, Map<String, Object> outputs) {
+        if (outputs instanceof Variables.InStorageVariables variables) {
+            return variables;
+        }
+
+        if (this.offloadEnabled && !MapUtils.isEmpty(outputs)) {
+            return Variables.inStorageFrom(new InternalStorage(context, this.storageInterface), outputs, this.offloadThreshold);
+        }
+
         return Variables.inMemory(outputs);
     }
 }
@@ -11,6 +11,7 @@ import org.slf4j.LoggerFactory;
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -88,7 +89,7 @@ public class InternalStorage implements Storage {
      **/
     @Override
     public boolean isFileExist(URI uri) {
-        return this.storage.exists(context.getTenantId(), context.getNamespace(), uri);
+        return this.storage.exists(context.getTenantId(), context.getNamespace(), StorageRange.file(uri));
     }
 
     /**
@@ -98,8 +99,7 @@ public class InternalStorage implements Storage {
     public InputStream getFile(final URI uri) throws IOException {
         uriGuard(uri);
 
-        return this.storage.get(context.getTenantId(), context.getNamespace(), uri);
-
+        return StorageRange.get(this.storage, context.getTenantId(), context.getNamespace(), uri);
     }
 
     /**
@@ -195,31 +195,25 @@ public class InternalStorage implements Storage {
     public Optional<InputStream> getCacheFile(final String cacheId,
                                               final @Nullable String objectId,
                                               final @Nullable Duration ttl) throws IOException {
-        if (ttl != null) {
-            var maybeLastModifiedTime = getCacheFileLastModifiedTime(cacheId, objectId);
-            if (maybeLastModifiedTime.isPresent()) {
-                if (Instant.now().isAfter(Instant.ofEpochMilli(maybeLastModifiedTime.get()).plus(ttl))) {
+        URI uri = context.getCacheURI(cacheId, objectId);
+        try {
+            if (ttl != null) {
+                // a single metadata request tells both whether the cache exists and whether it is expired
+                FileAttributes attributes = this.storage.getAttributes(context.getTenantId(), context.getNamespace(), uri);
+                if (Instant.now().isAfter(Instant.ofEpochMilli(attributes.getLastModifiedTime()).plus(ttl))) {
                     logger.debug("Cache is expired for cache-id={}, object-id={}, and ttl={}, deleting it",
                         cacheId,
                         objectId,
                         ttl.toMillis()
                     );
-                    deleteCacheFile(cacheId, objectId);
+                    this.storage.delete(context.getTenantId(), context.getNamespace(), uri);
                     return Optional.empty();
                 }
             }
+            return Optional.of(this.storage.get(context.getTenantId(), context.getNamespace(), uri));
+        } catch (FileNotFoundException e) {
+            return Optional.empty();
         }
-        URI uri = context.getCacheURI(cacheId, objectId);
-        return isFileExist(uri) ?
-            Optional.of(storage.get(context.getTenantId(), context.getNamespace(), uri)) :
-            Optional.empty();
-    }
-
-    private Optional<Long> getCacheFileLastModifiedTime(String cacheId, @Nullable String objectId) throws IOException {
-        URI uri = context.getCacheURI(cacheId, objectId);
-        return isFileExist(uri) ?
-            Optional.of(this.storage.getAttributes(context.getTenantId(), context.getNamespace(), uri).getLastModifiedTime()) :
-            Optional.empty();
     }
 
     /**
@@ -4,6 +4,7 @@ import io.kestra.core.annotations.Retryable;
 import io.kestra.core.models.Plugin;
 import io.kestra.core.models.executions.Execution;
 import jakarta.annotation.Nullable;
+import org.apache.commons.io.input.BoundedInputStream;
 
 import java.io.BufferedInputStream;
 import java.io.File;
@@ -54,6 +55,37 @@ public interface StorageInterface extends AutoCloseable, Plugin {
     @Retryable(includes = {IOException.class}, excludes = {FileNotFoundException.class})
     InputStream get(String tenantId, @Nullable String namespace, URI uri) throws IOException;
 
+    /**
+     * Retrieves an input stream for a range of bytes of the given storage URI.
+     * <p>
+     * The default implementation skips the bytes before the range, implementations should override it
+     * when their backend supports ranged reads natively.
+     *
+     * @param tenantId  the tenant identifier
+     * @param namespace the namespace of the object (may be null)
+     * @param uri       the URI of the object to retrieve
+     * @param offset    the position of the first byte to read
+     * @param length    the maximum number of bytes to read
+     * @return an InputStream to read the range of the object's contents
+     * @throws IOException if the object cannot be read
+     * @see StorageRange
+     */
+    @Retryable(includes = {IOException.class}, excludes = {FileNotFoundException.class})
+    default InputStream get(String tenantId, @Nullable String namespace, URI uri, long offset, long length) throws IOException {
+        InputStream inputStream = this.get(tenantId, namespace, uri);
+        try {
+            inputStream.skipNBytes(offset);
+        } catch (IOException e) {
+            inputStream.close();
+            throw e;
+        }
+
+        return BoundedInputStream.builder()
+            .setInputStream(inputStream)
+            .setMaxCount(length)
+            .get();
+    }
+
     /**
      * Retrieves an input stream of a instance resource for the given storage URI.
      * An instance resource is a resource stored outside any tenant storage, accessible for the whole instance
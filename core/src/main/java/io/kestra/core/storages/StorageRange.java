@@ -0,0 +1,111 @@
+package io.kestra.core.storages;
+
+import jakarta.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Optional;
+
+/**
+ * A range of bytes of a file of the internal storage.
+ * <p>
+ * A range is referenced by adding a <code>bytes=offset-length</code> fragment to the URI of the file,
+ * for example <code>kestra:///namespace/flow/executions/id/file.txt#bytes=1024-512</code> references the 512 bytes starting at the offset 1024.
+ * This allows to reference a part of a file without storing it as another file.
+ *
+ * @param offset the position of the first byte of the range
+ * @param length the number of bytes of the range
+ */
+public record StorageRange(long offset, long length) {
+    private static final String FRAGMENT_PREFIX = "bytes=";
+
+    public StorageRange {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Invalid storage range, got offset " + offset + " and length " + length);
+        }
+    }
+
+    /**
+     * @return the range referenced by this URI, or empty if the URI references the whole file
+     */
+    public static Optional<StorageRange> of(URI uri) {
+        String fragment = uri.getRawFragment();
+        if (fragment == null || !fragment.startsWith(FRAGMENT_PREFIX)) {
+            return Optional.empty();
+        }
+
+        String range = fragment.substring(FRAGMENT_PREFIX.length());
+        int separator = range.indexOf('-');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Invalid storage range, got uri '" + uri + "'");
+        }
+
+        try {
+            return Optional.of(new StorageRange(
+                Long.parseLong(range.substring(0, separator)),
+                Long.parseLong(range.substring(separator + 1))
+            ));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid storage range, got uri '" + uri + "'", e);
+        }
+    }
+
+    /**
+     * @return the URI of the whole file referenced by this URI
+     */
+    public static URI file(URI uri) {
+        if (uri.getRawFragment() == null) {
+            return uri;
+        }
+
+        String value = uri.toString();
+        return URI.create(value.substring(0, value.indexOf('#')));
+    }
+
+    /**
+     * Opens the file, or the range of the file, referenced by this URI.
+     */
+    public static InputStream get(StorageInterface storage, String tenantId, @Nullable String namespace, URI uri) throws IOException {
+        Optional<StorageRange> range = StorageRange.of(uri);
+        if (range.isEmpty()) {
+            return storage.get(tenantId, namespace, uri);
+        }
+
+        return storage.get(tenantId, namespace, file(uri), range.get().offset(), range.get().length());
+    }
+
+    /**
+     * Checks that the file referenced by this URI exists, whether the URI references a range of it or not.
+     */
+    public static boolean exists(StorageInterface storage, String tenantId, @Nullable String namespace, URI uri) throws IOException {
+        return storage.exists(tenantId, namespace, file(uri));
+    }
+
+    /**
+     * @return the size of the file, or the length of the range of the file, referenced by this URI
+     */
+    public static long size(StorageInterface storage, String tenantId, @Nullable String namespace, URI uri) throws IOException {
+        Optional<StorageRange> range = StorageRange.of(uri);
+        if (range.isPresent()) {
+            return range.get().length();
+        }
+
+        return storage.getAttributes(tenantId, namespace, uri).getSize();
+    }
+
+    /**
+     * @return the URI referencing this range of the given file
+     */
+    public URI on(URI uri) {
+        return URI.create(file(uri) + "#" + FRAGMENT_PREFIX + this.offset + "-" + this.length);
+    }
+
+    /**
+     * @return the URI referencing this range of the given file, with the offset and the length padded with zeros
+     * so that the references to any range of the same file have the same length
+     */
+    public URI onFixedWidth(URI uri) {
+        return URI.create(file(uri) + "#" + FRAGMENT_PREFIX + String.format("%019d-%019d", this.offset, this.length));
+    }
+}
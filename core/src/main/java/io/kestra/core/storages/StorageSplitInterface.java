@@ -12,7 +12,8 @@ public interface StorageSplitInterface {
     Property<String> getBytes();
 
     @Schema(
-        title = "Split a file into a fixed number of partitioned files. For example, if you have a file with 1000 lines and you set `partitions` to 10, the file will be split into 10 files with 100 lines each."
+        title = "Split a file into a fixed number of partitioned files of about the same size in bytes. For example, if you have a file of 1000 lines of the same length and you set `partitions` to 10, the file will be split into 10 files with 100 lines each.",
+        description = "Each partition is a contiguous range of rows of about the same size in bytes, so the order of the rows is kept."
     )
     Property<Integer> getPartitions();
 
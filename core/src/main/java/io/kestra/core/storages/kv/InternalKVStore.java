@@ -32,6 +32,8 @@ public class InternalKVStore implements KVStore {
     private final String namespace;
     private final String tenant;
     private final StorageInterface storage;
+    @Nullable
+    private final KVStoreCache cache;
 
     /**
      * Creates a new {@link InternalKVStore} instance.
@@ -41,9 +43,22 @@ public class InternalKVStore implements KVStore {
      * @param storage   The storage.
      */
     public InternalKVStore(@Nullable final String tenant, final String namespace, final StorageInterface storage) {
+        this(tenant, namespace, storage, null);
+    }
+
+    /**
+     * Creates a new {@link InternalKVStore} instance reading the values through a cache.
+     *
+     * @param namespace The namespace
+     * @param tenant    The tenant.
+     * @param storage   The storage.
+     * @param cache     The cache of the values, or {@code null} to always read them from the storage.
+     */
+    public InternalKVStore(@Nullable final String tenant, final String namespace, final StorageInterface storage, @Nullable final KVStoreCache cache) {
         this.namespace = Objects.requireNonNull(namespace, "namespace cannot be null");
         this.storage = Objects.requireNonNull(storage, "storage cannot be null");
         this.tenant = tenant;
+        this.cache = cache;
     }
 
     /**
@@ -72,6 +87,7 @@ public class InternalKVStore implements KVStore {
             value.metadataAsMap(),
             new ByteArrayInputStream(serialized)
         ));
+        this.invalidate(key);
     }
 
     /**
@@ -91,6 +107,19 @@ public class InternalKVStore implements KVStore {
     public Optional<String> getRawValue(String key) throws IOException, ResourceExpiredException {
         KVStore.validateKey(key);
 
+        Optional<KVStoreCache.CachedValue> value = this.cache == null ?
+            this.loadRawValue(key) :
+            this.cache.get(this.tenant, this.namespace, key, () -> this.loadRawValue(key));
+
+        // deleted outside the loading, as it invalidates the cache entry being loaded
+        if (value.isPresent() && value.get().isExpired()) {
+            this.delete(key);
+            throw new ResourceExpiredException("The requested value has expired");
+        }
+        return value.map(KVStoreCache.CachedValue::raw);
+    }
+
+    private Optional<KVStoreCache.CachedValue> loadRawValue(String key) throws IOException {
         StorageObject withMetadata;
         try {
             withMetadata = this.storage.getWithMetadata(this.tenant, this.namespace, this.storageUri(key));
@@ -99,12 +128,7 @@ public class InternalKVStore implements KVStore {
         }
         KVValueAndMetadata kvStoreValueWrapper = KVValueAndMetadata.from(withMetadata);
 
-        Instant expirationDate = kvStoreValueWrapper.metadata().getExpirationDate();
-        if (expirationDate != null && Instant.now().isAfter(expirationDate)) {
-            this.delete(key);
-            throw new ResourceExpiredException("The requested value has expired");
-        }
-        return Optional.of((String)(kvStoreValueWrapper.value()));
+        return Optional.of(new KVStoreCache.CachedValue((String) kvStoreValueWrapper.value(), kvStoreValueWrapper.metadata().getExpirationDate()));
     }
 
     /**
@@ -115,12 +139,16 @@ public class InternalKVStore implements KVStore {
         KVStore.validateKey(key);
         URI uri = this.storageUri(key);
         boolean deleted = this.storage.delete(this.tenant, this.namespace, uri);
-        URI metadataURI = URI.create(uri.getPath() + ".metadata");
-        if (this.storage.exists(this.tenant, this.namespace, metadataURI)){
-            this.storage.delete(this.tenant, this.namespace, metadataURI);
-        }
+        // deleting a missing file is a no-op, so no need to check for its existence first
+        this.storage.delete(this.tenant, this.namespace, URI.create(uri.getPath() + ".metadata"));
+        this.invalidate(key);
         return deleted;
+    }
 
+    private void invalidate(String key) {
+        if (this.cache != null) {
+            this.cache.invalidate(this.tenant, this.namespace, key);
+        }
     }
 
     /**
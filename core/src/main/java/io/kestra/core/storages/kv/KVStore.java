@@ -5,7 +5,9 @@ import io.kestra.core.storages.StorageContext;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.regex.Pattern;
 
@@ -62,6 +64,25 @@ public interface KVStore {
      */
     Optional<KVValue> getValue(String key) throws IOException, ResourceExpiredException;
 
+    /**
+     * Finds the entry values for the given keys.
+     *
+     * @param keys The entry keys - cannot be {@code null}.
+     * @return The {@link KVValue} by key, in the order of the given keys, without the keys for which no entry exist.
+     * @throws IOException              if an error occurred while executing the operation on the K/V store.
+     * @throws ResourceExpiredException if one of the entries expired.
+     */
+    default Map<String, KVValue> getValues(List<String> keys) throws IOException, ResourceExpiredException {
+        Map<String, KVValue> values = new LinkedHashMap<>();
+        for (String key : keys) {
+            Optional<KVValue> value = getValue(key);
+            if (value.isPresent()) {
+                values.put(key, value.get());
+            }
+        }
+        return values;
+    }
+
     /**
      * Deletes the K/V store entry for the given key.
      *
@@ -0,0 +1,174 @@
+package io.kestra.core.storages.kv;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.kestra.core.exceptions.DeserializationException;
+import io.kestra.core.queues.QueueException;
+import io.kestra.core.queues.QueueFactoryInterface;
+import io.kestra.core.queues.QueueInterface;
+import io.kestra.core.server.ClusterEvent;
+import io.kestra.core.utils.Either;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.convert.format.ReadableBytes;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A cache, local to this server, of the raw values of the K/V stores, so a value read by many tasks is only fetched once from the storage.
+ * <p>
+ * A cached value is never served after the expiration date of its entry.
+ * Writes and deletes through an {@link InternalKVStore} invalidate the entry locally, and on the other servers through a
+ * {@link ClusterEvent.EventType#KV_CHANGED} cluster event when the cluster event queue exists.
+ * Entries are also evicted after a configurable time, so a change made without any cluster event is eventually seen.
+ */
+@Slf4j
+@Singleton
+public class KVStoreCache {
+    private final boolean enabled;
+    private final Cache<String, CachedValue> cache;
+    private final Optional<QueueInterface<ClusterEvent>> clusterEventQueue;
+    // incremented on each invalidation, so a value loaded while an invalidation happened is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private Runnable queueConsumer;
+
+    @Inject
+    public KVStoreCache(
+        @Value("${kestra.kv.cache.enabled:true}") boolean enabled,
+        @Value("${kestra.kv.cache.maximum-size:64MB}") @ReadableBytes long maximumSize,
+        @Value("${kestra.kv.cache.expire-after-write:PT5M}") Duration expireAfterWrite,
+        @Named(QueueFactoryInterface.CLUSTER_EVENT_NAMED) Optional<QueueInterface<ClusterEvent>> clusterEventQueue
+    ) {
+        this.enabled = enabled;
+        this.clusterEventQueue = clusterEventQueue;
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maximumSize)
+            .weigher((String key, CachedValue value) -> value.raw().length() * 2)
+            .expireAfterWrite(expireAfterWrite)
+            .build();
+    }
+
+    @PostConstruct
+    void startQueueConsumer() {
+        if (this.enabled) {
+            this.queueConsumer = this.clusterEventQueue.map(queue -> queue.receive(this::clusterEventQueue)).orElse(null);
+        }
+    }
+
+    /**
+     * Gets the value of an entry, from the cache if present and not expired, from the loader otherwise.
+     * An expired value is returned as is but never cached, so the caller can deal with it outside the cache.
+     */
+    Optional<CachedValue> get(@Nullable String tenant, String namespace, String key, Loader loader) throws IOException {
+        if (!this.enabled) {
+            return loader.load();
+        }
+
+        String cacheKey = key(tenant, namespace, key);
+        CachedValue cached = this.cache.getIfPresent(cacheKey);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return Optional.of(cached);
+            }
+
+            this.cache.asMap().remove(cacheKey, cached);
+        }
+
+        // loaded atomically with the invalidations of the same key, and not kept if anything was invalidated while loading
+        AtomicReference<Optional<CachedValue>> loaded = new AtomicReference<>(Optional.empty());
+        CachedValue value;
+        try {
+            value = this.cache.get(cacheKey, k -> {
+                long generation = this.generation.get();
+                Optional<CachedValue> result = load(loader);
+                loaded.set(result);
+
+                return this.generation.get() == generation ? result.filter(v -> !v.isExpired()).orElse(null) : null;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        return value != null ? Optional.of(value) : loaded.get();
+    }
+
+    private static Optional<CachedValue> load(Loader loader) {
+        try {
+            return loader.load();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Invalidates an entry on this server and, if possible, on all the others.
+     */
+    void invalidate(@Nullable String tenant, String namespace, String key) {
+        if (!this.enabled) {
+            return;
+        }
+
+        String cacheKey = key(tenant, namespace, key);
+        this.generation.incrementAndGet();
+        this.cache.invalidate(cacheKey);
+
+        this.clusterEventQueue.ifPresent(queue -> {
+            try {
+                queue.emit(new ClusterEvent(ClusterEvent.EventType.KV_CHANGED, LocalDateTime.now(), cacheKey));
+            } catch (QueueException e) {
+                log.warn("Unable to notify the change of the K/V entry '{}' to the other servers", cacheKey, e);
+            }
+        });
+    }
+
+    private void clusterEventQueue(Either<ClusterEvent, DeserializationException> either) {
+        if (either.isRight()) {
+            log.error("Unable to deserialize a cluster event: {}", either.getRight().getMessage());
+            return;
+        }
+
+        ClusterEvent clusterEvent = either.getLeft();
+        if (clusterEvent.eventType() == ClusterEvent.EventType.KV_CHANGED) {
+            this.generation.incrementAndGet();
+            this.cache.invalidate(clusterEvent.message());
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        if (this.queueConsumer != null) {
+            this.queueConsumer.run();
+        }
+        this.cache.invalidateAll();
+    }
+
+    private static String key(@Nullable String tenant, String namespace, String key) {
+        // a key can't contain any '/', so this is not ambiguous
+        return tenant + "/" + namespace + "/" + key;
+    }
+
+    record CachedValue(String raw, @Nullable Instant expirationDate) {
+        boolean isExpired() {
+            return this.expirationDate != null && Instant.now().isAfter(this.expirationDate);
+        }
+    }
+
+    @FunctionalInterface
+    interface Loader {
+        Optional<CachedValue> load() throws IOException;
+    }
+}
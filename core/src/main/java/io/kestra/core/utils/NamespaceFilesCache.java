@@ -0,0 +1,202 @@
+package io.kestra.core.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.kestra.core.models.tasks.FileExistComportment;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.storages.FileAttributes;
+import io.kestra.core.storages.NamespaceFile;
+import io.kestra.core.storages.StorageInterface;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.convert.format.ReadableBytes;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * A cache, local to this server, of the content of namespace files, so a file is only downloaded once by all the tasks using it.
+ * <p>
+ * A file is cached under the hash of its storage URI, last modified time and size, so any change of the file in the storage is a cache miss.
+ * Reading them still costs a metadata request to the storage for each file, but no download when the file is cached.
+ * <p>
+ * Cached files are copied to the working directory of a task. They can be hard linked instead with
+ * <code>kestra.tasks.namespace-files.cache.link</code>, the task then shares the file with the cache and the other tasks: a cached file
+ * that has been modified since it was cached is never served again, but a task may still see the changes made by another one in the meantime.
+ * <p>
+ * The cache is bounded by the total size of the cached files. It uses its own directory, created on startup and deleted on shutdown.
+ */
+@Slf4j
+@Singleton
+public class NamespaceFilesCache {
+    private final StorageInterface storageInterface;
+    private final Path directory;
+    private final boolean enabled;
+    private final boolean link;
+    private final Cache<String, CachedFile> cache;
+
+    @Inject
+    public NamespaceFilesCache(
+        StorageInterface storageInterface,
+        @Value("${kestra.tasks.namespace-files.cache.enabled:true}") boolean enabled,
+        @Value("${kestra.tasks.namespace-files.cache.maximum-size:1GB}") @ReadableBytes long maximumSize,
+        @Value("${kestra.tasks.namespace-files.cache.link:false}") boolean link,
+        @Value("${kestra.tasks.namespace-files.cache.path}") Optional<String> path
+    ) {
+        this.storageInterface = storageInterface;
+        this.enabled = enabled;
+        this.link = link;
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maximumSize)
+            .weigher((String key, CachedFile file) -> (int) Math.min(file.size(), Integer.MAX_VALUE))
+            .removalListener((String key, CachedFile file, RemovalCause cause) -> {
+                if (file != null && cause != RemovalCause.REPLACED) {
+                    this.delete(file.path());
+                }
+            })
+            .build();
+
+        Path directory = null;
+        if (enabled) {
+            Path parent = Path.of(path.orElse(System.getProperty("java.io.tmpdir")));
+            try {
+                // a directory per process, as several servers may share the same parent
+                Files.createDirectories(parent);
+                directory = Files.createTempDirectory(parent, "kestra-namespace-files-cache-");
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to create the namespace files cache directory in " + parent, e);
+            }
+        }
+        this.directory = directory;
+    }
+
+    /**
+     * Puts a namespace file in the working directory of the task, from the cache if it has already been downloaded.
+     */
+    public void materialize(RunContext runContext, NamespaceFile namespaceFile, Path path, FileExistComportment fileExistComportment) throws IOException {
+        if (!this.enabled) {
+            runContext.workingDir().putFile(path, runContext.storage().getFile(namespaceFile.uri()), fileExistComportment);
+            return;
+        }
+
+        FileAttributes attributes = this.storageInterface.getAttributes(runContext.flowInfo().tenantId(), namespaceFile.namespace(), namespaceFile.uri());
+        String key = key(runContext.flowInfo().tenantId(), namespaceFile, attributes);
+
+        CachedFile cachedFile = this.cache.getIfPresent(key);
+        if (cachedFile != null && !cachedFile.isUnchanged()) {
+            // modified through a link in a working directory
+            this.cache.invalidate(key);
+            cachedFile = null;
+        }
+
+        if (cachedFile == null) {
+            try {
+                cachedFile = this.cache.get(key, k -> this.download(runContext, namespaceFile, k));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        Path target = runContext.workingDir().resolve(path);
+        if (!this.link || Files.exists(target)) {
+            // copied, letting the working directory deal with an existing file
+            InputStream content;
+            try {
+                content = Files.newInputStream(cachedFile.path());
+            } catch (NoSuchFileException e) {
+                // evicted in the meantime
+                content = runContext.storage().getFile(namespaceFile.uri());
+            }
+
+            try (content) {
+                runContext.workingDir().putFile(path, content, fileExistComportment);
+            }
+            return;
+        }
+
+        Files.createDirectories(target.getParent());
+        try {
+            Files.createLink(target, cachedFile.path());
+        } catch (NoSuchFileException e) {
+            // evicted in the meantime
+            runContext.workingDir().putFile(path, runContext.storage().getFile(namespaceFile.uri()), fileExistComportment);
+        } catch (FileSystemException | UnsupportedOperationException e) {
+            // links are not supported, or the cache is on another file system
+            Files.copy(cachedFile.path(), target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private CachedFile download(RunContext runContext, NamespaceFile namespaceFile, String key) {
+        Path path = this.directory.resolve(key);
+        try {
+            Path temp = Files.createTempFile(this.directory, key, ".tmp");
+            try (InputStream content = runContext.storage().getFile(namespaceFile.uri())) {
+                Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            return new CachedFile(path, Files.size(path), Files.getLastModifiedTime(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Unable to delete the cached namespace file {}", path, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        this.cache.invalidateAll();
+        this.cache.cleanUp();
+
+        if (this.directory != null) {
+            try {
+                FileUtils.deleteDirectory(this.directory.toFile());
+            } catch (IOException e) {
+                log.warn("Unable to delete the namespace files cache directory {}", this.directory, e);
+            }
+        }
+    }
+
+    private static String key(String tenantId, NamespaceFile namespaceFile, FileAttributes attributes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String value = tenantId + "|" + namespaceFile.uri() + "|" + attributes.getLastModifiedTime() + "|" + attributes.getSize();
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record CachedFile(Path path, long size, FileTime lastModifiedTime) {
+        boolean isUnchanged() {
+            try {
+                return Files.size(this.path) == this.size && Files.getLastModifiedTime(this.path).equals(this.lastModifiedTime);
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -15,11 +15,11 @@ import org.apache.commons.lang3.time.StopWatch;
 import reactor.core.publisher.Flux;
 import reactor.core.scheduler.Schedulers;
 
-import java.io.InputStream;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
@@ -28,14 +28,19 @@ import static io.kestra.core.utils.Rethrow.throwConsumer;
 
 @Singleton
 public class NamespaceFilesUtils {
+    private static final int PARALLELISM = Math.max(Runtime.getRuntime().availableProcessors() * 4, 32);
+
     @Inject
     private ExecutorsUtils executorsUtils;
 
+    @Inject
+    private NamespaceFilesCache namespaceFilesCache;
+
     private ExecutorService executorService;
 
     @PostConstruct
     public void postConstruct() {
-        this.executorService = executorsUtils.maxCachedThreadPool(Math.max(Runtime.getRuntime().availableProcessors() * 4, 32), "namespace-file");
+        this.executorService = executorsUtils.maxCachedThreadPool(PARALLELISM, "namespace-file");
     }
 
     public void loadNamespaceFiles(
@@ -63,15 +68,25 @@ public class NamespaceFilesUtils {
           matchedNamespaceFiles.addAll(files);
         }
 
-        Flux.fromIterable(matchedNamespaceFiles)
-            .doOnNext(throwConsumer(nsFile -> {
-                InputStream content = runContext.storage().getFile(nsFile.uri());
-                Path path = folderPerNamespace ?
-                    Path.of(nsFile.namespace() + "/" + nsFile.path()) :
-                    Path.of(nsFile.path());
-                runContext.workingDir().putFile(path, content, fileExistComportment);
+        // files of several namespaces may share the same target, they are put there in the order of the namespaces
+        Map<Path, List<NamespaceFile>> filesByTarget = new LinkedHashMap<>();
+        for (NamespaceFile nsFile : matchedNamespaceFiles) {
+            Path path = folderPerNamespace ?
+                Path.of(nsFile.namespace() + "/" + nsFile.path()) :
+                Path.of(nsFile.path());
+            filesByTarget.computeIfAbsent(path, k -> new ArrayList<>()).add(nsFile);
+        }
+
+        // files are downloaded in parallel on the namespace file pool, not on the calling thread
+        Flux.fromIterable(filesByTarget.entrySet())
+            .parallel(PARALLELISM)
+            .runOn(Schedulers.fromExecutorService(executorService))
+            .doOnNext(throwConsumer(entry -> {
+                for (NamespaceFile nsFile : entry.getValue()) {
+                    namespaceFilesCache.materialize(runContext, nsFile, entry.getKey(), fileExistComportment);
+                }
             }))
-            .publishOn(Schedulers.fromExecutorService(executorService))
+            .sequential()
             .blockLast();
 
         Duration duration = stopWatch.getDuration();
@@ -25,11 +25,13 @@ import io.kestra.core.services.StorageService;
 import io.kestra.core.storages.FileAttributes;
 import io.kestra.core.storages.StorageContext;
 import io.kestra.core.storages.StorageInterface;
+import io.kestra.core.storages.StorageRange;
 import io.kestra.core.storages.StorageSplitInterface;
 import io.kestra.core.utils.GraphUtils;
 import io.kestra.core.validations.NoSystemLabelValidation;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
@@ -37,6 +39,8 @@ import lombok.experimental.SuperBuilder;
 
 import java.io.*;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.ZonedDateTime;
 import java.util.Collections;
 import java.util.HashMap;
@@ -44,7 +48,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static io.kestra.core.utils.Rethrow.throwFunction;
@@ -59,7 +62,7 @@ import static io.kestra.core.utils.Rethrow.throwFunction;
     description = """
         The `items` value must be Kestra's internal storage URI e.g. an output file from a previous task, or a file from inputs of FILE type.
         Two special variables are available to pass as inputs to the subflow:
-        - `taskrun.items` which is the URI of internal storage file containing the batch of items to process
+        - `taskrun.items` which is the URI of internal storage file containing the batch of items to process; all the batches are stored in a single file and this URI references the range of this file holding the batch
         - `taskrun.iteration` which is the iteration or batch number
 
         Restarting a parent flow will restart any subflows that has previously been executed."""
@@ -287,6 +290,15 @@ public class ForEachItem extends Task implements FlowableTask<VoidOutput>, Child
     @PluginProperty
     private final Boolean wait = true;
 
+    @Schema(
+        title = "The maximum number of subflow executions running at the same time.",
+        description = "By default, a subflow execution is created for each batch of items at once. If set, only this number of subflow executions are created at first, then a new one is created each time one of them ends.\n" +
+            "Note that this option works only if `wait` is set to `true`."
+    )
+    @PluginProperty
+    @Min(1)
+    private Integer maxConcurrentIterations;
+
     @Builder.Default
     @Schema(
         title = "Whether to fail the current execution if the subflow execution fails or is killed.",
@@ -381,7 +393,7 @@ public class ForEachItem extends Task implements FlowableTask<VoidOutput>, Child
         return List.of(
             new ForEachItemSplit(this.getId(), this.items, this.batch),
             new ForEachItemExecutable(this.getId(), this.inputs, this.inheritLabels, this.labels, this.wait, this.transmitFailed, this.scheduleDate,
-                new ExecutableTask.SubflowId(this.namespace, this.flowId, Optional.ofNullable(this.revision)), this.restartBehavior
+                new ExecutableTask.SubflowId(this.namespace, this.flowId, Optional.ofNullable(this.revision)), this.restartBehavior, this.maxConcurrentIterations
             ),
             new ForEachItemMergeOutputs(this.getId())
         );
@@ -418,18 +430,28 @@ public class ForEachItem extends Task implements FlowableTask<VoidOutput>, Child
                 throw new IllegalArgumentException(errorMessage);
             }
 
-            List<URI> splits = StorageService.split(runContext, this.batch, URI.create(renderedUri));
-            String fileContent = splits.stream().map(uri -> uri.toString()).collect(Collectors.joining(System.lineSeparator()));
-            try (ByteArrayInputStream bis = new ByteArrayInputStream(fileContent.getBytes())){
-                URI splitsFile = runContext.storage().putFile(bis, "splits.txt");
-                return Output.builder().splits(splitsFile).build();
+            // splits are ranges of a single file, their references all have the same length so each line of the splits file can be read directly
+            Path path = runContext.workingDir().createTempFile(".txt");
+            AtomicInteger lineLength = new AtomicInteger();
+            int numberOfBatches;
+            try (Writer writer = Files.newBufferedWriter(path)) {
+                numberOfBatches = StorageService.splitRanges(runContext, this.batch, URI.create(renderedUri), uri -> {
+                    String line = uri.toASCIIString() + "\n";
+                    lineLength.set(line.length());
+                    writer.write(line);
+                });
             }
+
+            URI splitsFile = runContext.storage().putFile(path.toFile(), "splits.txt");
+            return Output.builder().splits(splitsFile).numberOfBatches(numberOfBatches).lineLength(lineLength.get()).build();
         }
 
         @Builder
         @Getter
         public static class Output implements io.kestra.core.models.tasks.Output {
             private URI splits;
+            private Integer numberOfBatches;
+            private Integer lineLength;
         }
     }
 
@@ -447,8 +469,9 @@ public class ForEachItem extends Task implements FlowableTask<VoidOutput>, Child
         private Property<ZonedDateTime> scheduleOn;
         private SubflowId subflowId;
         private RestartBehavior restartBehavior;
+        private Integer maxConcurrentIterations;
 
-        private ForEachItemExecutable(String parentId, Map<String, Object> inputs, Boolean inheritLabels, List<Label> labels, Boolean wait, Boolean transmitFailed, Property<ZonedDateTime> scheduleOn, SubflowId subflowId, RestartBehavior restartBehavior) {
+        private ForEachItemExecutable(String parentId, Map<String, Object> inputs, Boolean inheritLabels, List<Label> labels, Boolean wait, Boolean transmitFailed, Property<ZonedDateTime> scheduleOn, SubflowId subflowId, RestartBehavior restartBehavior, Integer maxConcurrentIterations) {
             this.inputs = inputs;
             this.inheritLabels = inheritLabels;
             this.labels = labels;
@@ -457,6 +480,7 @@ public class ForEachItem extends Task implements FlowableTask<VoidOutput>, Child
             this.scheduleOn = scheduleOn;
             this.subflowId = subflowId;
             this.restartBehavior = restartBehavior;
+            this.maxConcurrentIterations = maxConcurrentIterations;
 
             this.id = parentId + SUFFIX;
             this.type = ForEachItemExecutable.class.getName();
@@ -469,19 +493,79 @@ public class ForEachItem extends Task implements FlowableTask<VoidOutput>, Child
             Flow currentFlow,
             Execution currentExecution,
             TaskRun currentTaskRun
+        ) throws InternalException {
+            var taskOutput = extractOutput(runContext, splitTaskId());
+            int numberOfBatches = taskOutput.get("numberOfBatches") != null ?
+                (Integer) taskOutput.get("numberOfBatches") :
+                countSplits(runContext, URI.create((String) taskOutput.get("splits")));
+
+            int window = this.window().orElse(numberOfBatches);
+
+            return this.createSubflowExecutions(runContext, flowExecutorInterface, currentFlow, currentExecution, currentTaskRun, 1, Math.min(window, numberOfBatches), numberOfBatches);
+        }
+
+        /**
+         * Creates the subflow executions to be started once a subflow execution has ended, to keep at most {@link #maxConcurrentIterations} of them running.
+         * As iterations are started in order, the next one is the first not yet started: the size of the window plus the number of ended iterations.
+         *
+         * @param currentTaskRun the task run, with the iterations updated with the ended subflow execution
+         */
+        @SuppressWarnings("unchecked")
+        public List<SubflowExecution<?>> createNextSubflowExecutions(
+            RunContext runContext,
+            FlowMetaStoreInterface flowExecutorInterface,
+            Flow currentFlow,
+            Execution currentExecution,
+            TaskRun currentTaskRun
+        ) throws InternalException {
+            Optional<Integer> window = this.window();
+            if (window.isEmpty() || currentTaskRun.getState().isTerminated() || currentTaskRun.getOutputs() == null) {
+                return Collections.emptyList();
+            }
+
+            Integer numberOfBatches = (Integer) currentTaskRun.getOutputs().get(ExecutableUtils.TASK_VARIABLE_NUMBER_OF_BATCHES);
+            Map<String, Integer> iterations = (Map<String, Integer>) currentTaskRun.getOutputs().get(ExecutableUtils.TASK_VARIABLE_ITERATIONS);
+            if (numberOfBatches == null || iterations == null) {
+                return Collections.emptyList();
+            }
+
+            int next = window.get() + ExecutableUtils.terminatedIterations(iterations);
+            if (next > numberOfBatches) {
+                return Collections.emptyList();
+            }
+
+            return this.createSubflowExecutions(runContext, flowExecutorInterface, currentFlow, currentExecution, currentTaskRun, next, next, numberOfBatches);
+        }
+
+        private List<SubflowExecution<?>> createSubflowExecutions(
+            RunContext runContext,
+            FlowMetaStoreInterface flowExecutorInterface,
+            Flow currentFlow,
+            Execution currentExecution,
+            TaskRun currentTaskRun,
+            int fromIteration,
+            int toIteration,
+            int numberOfBatches
         ) throws InternalException {
             // get the list of splits from the outputs of the split task
-            String taskId = this.id.substring(0, this.id.lastIndexOf('_')) + ForEachItemSplit.SUFFIX;
-            var taskOutput = extractOutput(runContext, taskId);
+            var taskOutput = extractOutput(runContext, splitTaskId());
             URI splitsURI = URI.create((String) taskOutput.get("splits"));
 
-            try (InputStream is = runContext.storage().getFile(splitsURI)){
-                String fileContent = new String(is.readAllBytes());
-                List<URI> splits = fileContent.lines().map(line -> URI.create(line)).toList();
-                AtomicInteger currentIteration = new AtomicInteger(1);
-
-                return splits
-                    .stream()
+            int count = Math.max(toIteration - fromIteration + 1, 0);
+            Integer lineLength = (Integer) taskOutput.get("lineLength");
+
+            // splits are streamed, only the ones of the requested iterations are read:
+            // as lines have the same length, their range of the splits file is read directly, otherwise the previous lines are skipped
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(lineLength != null && count > 0 ?
+                runContext.storage().getFile(new StorageRange((long) (fromIteration - 1) * lineLength, (long) count * lineLength).on(splitsURI)) :
+                runContext.storage().getFile(splitsURI)
+            ))) {
+                AtomicInteger currentIteration = new AtomicInteger(fromIteration);
+
+                return reader.lines()
+                    .skip(lineLength != null ? 0 : fromIteration - 1)
+                    .limit(count)
+                    .map(line -> URI.create(line))
                     .map(throwFunction(
                         split -> {
                             int iteration = currentIteration.getAndIncrement();
@@ -495,7 +579,7 @@ public class ForEachItem extends Task implements FlowableTask<VoidOutput>, Child
 
                             // these are special outputs to be able to compute the iteration map of the parent taskrun
                             var outputs = Output.builder()
-                                .numberOfBatches(splits.size())
+                                .numberOfBatches(numberOfBatches)
                                 // the passed URI may be used by the subflow to write execution outputs.
                                 .uri(URI.create(runContext.getStorageOutputPrefix().toString() + "/" + iteration + "/outputs.ion"))
                                 .build();
@@ -519,7 +603,24 @@ public class ForEachItem extends Task implements FlowableTask<VoidOutput>, Child
                     .filter(Optional::isPresent)
                     .<SubflowExecution<?>>map(Optional::get)
                     .toList();
-            } catch (IOException e) {
+            } catch (IOException | UncheckedIOException e) {
+                throw new InternalException(e);
+            }
+        }
+
+        private Optional<Integer> window() {
+            // without waiting for the subflow executions, we don't know when they end
+            return Boolean.TRUE.equals(this.wait) ? Optional.ofNullable(this.maxConcurrentIterations) : Optional.empty();
+        }
+
+        private String splitTaskId() {
+            return this.id.substring(0, this.id.lastIndexOf('_')) + ForEachItemSplit.SUFFIX;
+        }
+
+        private static int countSplits(RunContext runContext, URI splitsURI) throws InternalException {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(splitsURI)))) {
+                return Math.toIntExact(reader.lines().count());
+            } catch (IOException | UncheckedIOException e) {
                 throw new InternalException(e);
             }
         }
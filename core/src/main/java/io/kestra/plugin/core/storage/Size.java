@@ -9,6 +9,7 @@ import io.kestra.core.models.tasks.Task;
 import io.kestra.core.runners.DefaultRunContext;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.storages.StorageInterface;
+import io.kestra.core.storages.StorageRange;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
@@ -47,7 +48,7 @@ public class Size extends Task implements RunnableTask<Size.Output> {
         StorageInterface storageInterface = ((DefaultRunContext)runContext).getApplicationContext().getBean(StorageInterface.class);
         URI render = URI.create(runContext.render(this.uri).as(String.class).orElseThrow());
 
-        Long size = storageInterface.getAttributes(runContext.flowInfo().tenantId(), runContext.flowInfo().namespace(), render).getSize();
+        Long size = StorageRange.size(storageInterface, runContext.flowInfo().tenantId(), runContext.flowInfo().namespace(), render);
 
         return Output.builder()
             .size(size)
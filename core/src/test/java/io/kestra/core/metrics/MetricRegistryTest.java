@@ -0,0 +1,81 @@
+package io.kestra.core.metrics;
+
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.flows.State;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricRegistryTest {
+    @Test
+    void shouldReuseMeters() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MetricRegistry metricRegistry = new MetricRegistry(meterRegistry, new MetricConfig());
+
+        String[] tags = {"key", "value"};
+        Counter counter = metricRegistry.counter("test.count", "description", tags);
+        // the caller can reuse its array without changing the cached meter
+        tags[1] = "other";
+
+        assertThat(metricRegistry.counter("test.count", "description", "key", "value")).isSameAs(counter);
+        assertThat(metricRegistry.counter("test.count", "description", "key", "other")).isNotSameAs(counter);
+        assertThat(meterRegistry.find("test.count").counters()).hasSize(2);
+    }
+
+    @Test
+    void shouldStopReportingAboveMaxTagCardinality() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MetricConfig metricConfig = new MetricConfig();
+        metricConfig.maxTagCardinality = 2;
+        MetricRegistry metricRegistry = new MetricRegistry(meterRegistry, metricConfig);
+
+        for (int i = 0; i < 5; i++) {
+            metricRegistry.counter("test.count", "description", "key", "value" + i).increment();
+        }
+        metricRegistry.counter("test.count", "description", "key", "value0").increment();
+
+        assertThat(meterRegistry.find("test.count").counters()).hasSize(2);
+        assertThat(meterRegistry.get("test.count").tag("key", "value0").counter().count()).isEqualTo(2.0);
+        // nothing is allocated per tag value above the limit
+        assertThat(metricRegistry.counter("test.count", "description", "key", "value3"))
+            .isSameAs(metricRegistry.counter("test.count", "description", "key", "value4"));
+    }
+
+    @Test
+    void shouldPublishTimerPercentiles() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MetricRegistry metricRegistry = new MetricRegistry(meterRegistry, new MetricConfig());
+
+        Timer timer = metricRegistry.percentileTimer("test.duration", "description");
+        timer.record(Duration.ofMillis(100));
+
+        assertThat(metricRegistry.percentileTimer("test.duration", "description")).isSameAs(timer);
+        assertThat(timer.takeSnapshot().percentileValues()).extracting(ValueAtPercentile::percentile).containsExactly(0.5, 0.95, 0.99);
+        assertThat(metricRegistry.timer("other.duration", "description").takeSnapshot().percentileValues()).isEmpty();
+    }
+
+    @Test
+    void shouldBuildExecutionTags() {
+        MetricRegistry metricRegistry = new MetricRegistry(new SimpleMeterRegistry(), new MetricConfig());
+        Execution execution = Execution.builder()
+            .id("id")
+            .namespace("namespace")
+            .flowId("flow")
+            .tenantId("tenant")
+            .state(new State())
+            .build();
+
+        assertThat(metricRegistry.tags(execution)).containsExactly(
+            MetricRegistry.TAG_FLOW_ID, "flow",
+            MetricRegistry.TAG_NAMESPACE_ID, "namespace",
+            MetricRegistry.TAG_STATE, "CREATED",
+            MetricRegistry.TAG_TENANT_ID, "tenant"
+        );
+    }
+}
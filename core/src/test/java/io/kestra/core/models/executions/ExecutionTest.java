@@ -1,16 +1,19 @@
 package io.kestra.core.models.executions;
 
+import io.kestra.core.exceptions.InternalException;
 import io.kestra.core.models.Label;
 import io.kestra.core.utils.IdUtils;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import io.kestra.core.models.flows.State;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class ExecutionTest {
     private static final TaskRun.TaskRunBuilder TASK_RUN = TaskRun.builder()
@@ -212,4 +215,99 @@ class ExecutionTest {
         );
         assertThat(executionNew.getLabels()).containsExactly(new Label("test", "value2"));
     }
+
+    @Test
+    void findOnIndexedTaskRuns() throws InternalException {
+        Execution execution = largeExecution(50);
+
+        assertThat(execution.findTaskRunByTaskRunId("child-42").getTaskId()).isEqualTo("child");
+        assertThat(execution.findTaskRunsByTaskId("parent")).hasSize(10);
+        assertThat(execution.findTaskRunsByTaskId("unknown")).isEmpty();
+
+        TaskRun parent = execution.findTaskRunByTaskRunId("parent-3");
+        assertThat(execution.findChildren(parent))
+            .extracting(TaskRun::getId)
+            .containsExactly("child-13", "child-23", "child-33", "child-43");
+
+        TaskRun child = execution.findTaskRunByTaskRunId("child-43");
+        assertThat(execution.findParents(child)).extracting(TaskRun::getId).containsExactly("parent-3");
+
+        assertThatThrownBy(() -> execution.findTaskRunByTaskRunId("unknown")).isInstanceOf(InternalException.class);
+    }
+
+    @Test
+    void withTaskRunOnIndexedTaskRuns() throws InternalException {
+        Execution execution = largeExecution(50);
+
+        TaskRun updated = execution.findTaskRunByTaskRunId("child-42").withState(State.Type.RUNNING);
+        Execution newExecution = execution.withTaskRun(updated);
+
+        assertThat(newExecution.getTaskRunList()).hasSize(50);
+        assertThat(newExecution.findTaskRunByTaskRunId("child-42").getState().getCurrent()).isEqualTo(State.Type.RUNNING);
+        assertThat(newExecution.findTaskRunByTaskRunId("child-41").getState().getCurrent()).isEqualTo(State.Type.CREATED);
+        assertThat(newExecution.findTaskRunsByTaskId("child")).hasSize(40);
+        assertThat(newExecution.findChildren(newExecution.findTaskRunByTaskRunId("parent-2")))
+            .extracting(TaskRun::getId)
+            .contains("child-42");
+
+        // the original execution is left untouched
+        assertThat(execution.findTaskRunByTaskRunId("child-42").getState().getCurrent()).isEqualTo(State.Type.CREATED);
+
+        assertThatThrownBy(() -> execution.withTaskRun(TaskRun.builder().id("unknown").taskId("child").build()))
+            .isInstanceOf(InternalException.class);
+    }
+
+    @Test
+    void findOnStaleIndexedTaskRuns() throws InternalException {
+        Execution execution = largeExecution(50);
+        assertThat(execution.findTaskRunByTaskRunId("child-44").getTaskId()).isEqualTo("child");
+
+        // swapped in place, the list keeps its size so its index is not rebuilt
+        Collections.swap(execution.getTaskRunList(), 44, 45);
+        execution.getTaskRunList().set(46, execution.getTaskRunList().get(46).toBuilder().id("moved-46").build());
+
+        assertThat(execution.findTaskRunByTaskRunId("child-44").getId()).isEqualTo("child-44");
+        assertThat(execution.findTaskRunByTaskRunId("child-45").getId()).isEqualTo("child-45");
+        assertThat(execution.findTaskRunByTaskRunId("moved-46").getId()).isEqualTo("moved-46");
+    }
+
+    @Test
+    void findChildrenOnStaleIndexedTaskRuns() throws InternalException {
+        Execution execution = largeExecution(50);
+        TaskRun parent = execution.findTaskRunByTaskRunId("parent-3");
+        assertThat(execution.findChildren(parent)).hasSize(4);
+        assertThat(execution.findTaskRunsByTaskId("child")).hasSize(40);
+
+        // replaced in place by a task run of another parent and task, the list keeps its size so its index is not rebuilt on size
+        execution.getTaskRunList().set(43, execution.getTaskRunList().get(43).toBuilder().taskId("other").parentTaskRunId("parent-4").build());
+
+        assertThat(execution.findChildren(parent))
+            .extracting(TaskRun::getId)
+            .containsExactly("child-13", "child-23", "child-33");
+        assertThat(execution.findChildren(execution.findTaskRunByTaskRunId("parent-4")))
+            .extracting(TaskRun::getId)
+            .containsExactly("child-14", "child-24", "child-34", "child-43", "child-44");
+        assertThat(execution.findTaskRunsByTaskId("child")).hasSize(39);
+        assertThat(execution.findTaskRunsByTaskId("other")).extracting(TaskRun::getId).containsExactly("child-43");
+    }
+
+    private static Execution largeExecution(int size) {
+        List<TaskRun> taskRuns = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            boolean isParent = i < 10;
+            taskRuns.add(TaskRun.builder()
+                .id((isParent ? "parent-" : "child-") + i)
+                .taskId(isParent ? "parent" : "child")
+                .parentTaskRunId(isParent ? null : "parent-" + (i % 10))
+                .state(new State())
+                .build()
+            );
+        }
+
+        return Execution.builder()
+            .id(IdUtils.create())
+            .state(new State())
+            .taskRunList(taskRuns)
+            .build();
+    }
 }
@@ -2,11 +2,14 @@ package io.kestra.core.plugins;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -22,6 +25,33 @@ class PluginScannerTest {
         assertThat(scan.getFirst().getManifest().getMainAttributes().getValue("X-Kestra-Group")).isEqualTo("io.kestra.plugin.templates");
     }
 
+    @Test
+    void scanPluginsWithIndex() throws URISyntaxException, IOException {
+        Path source = Paths.get(Objects.requireNonNull(PluginScannerTest.class.getClassLoader().getResource("plugins")).toURI());
+        Path plugins = Files.createTempDirectory("plugins");
+        try (Stream<Path> jars = Files.list(source)) {
+            for (Path jar : jars.toList()) {
+                Files.copy(jar, plugins.resolve(jar.getFileName()));
+            }
+        }
+
+        PluginScanner pluginScanner = new PluginScanner(PluginScannerTest.class.getClassLoader());
+        List<RegisteredPlugin> scan = pluginScanner.scan(plugins);
+
+        try (Stream<Path> indexes = Files.list(plugins.resolve(PluginScanIndex.INDEX_DIRECTORY))) {
+            assertThat(indexes.count()).isEqualTo(1);
+        }
+
+        List<RegisteredPlugin> indexed = pluginScanner.scan(plugins);
+
+        assertThat(indexed.size()).isEqualTo(1);
+        assertThat(indexed.getFirst().getManifest().getMainAttributes().getValue("X-Kestra-Group")).isEqualTo("io.kestra.plugin.templates");
+        assertThat(indexed.getFirst().allClass().stream().map(Class::getName).sorted().toList())
+            .isEqualTo(scan.getFirst().allClass().stream().map(Class::getName).sorted().toList());
+        assertThat(indexed.getFirst().getAliases().keySet()).isEqualTo(scan.getFirst().getAliases().keySet());
+        assertThat(indexed.getFirst().getGuides()).isEqualTo(scan.getFirst().getGuides());
+    }
+
     @Test
     void scanCore() {
         PluginScanner pluginScanner = new PluginScanner(PluginScannerTest.class.getClassLoader());
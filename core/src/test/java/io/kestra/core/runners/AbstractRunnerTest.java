@@ -394,6 +394,13 @@ public abstract class AbstractRunnerTest {
         forEachItemCaseTest.forEachItemInIf();
     }
 
+    @Test
+    @LoadFlows({"flows/valids/for-each-item-subflow-sleep.yaml",
+        "flows/valids/for-each-item-max-concurrent-iterations.yaml"})
+    protected void forEachItemWithMaxConcurrentIterations() throws Exception {
+        forEachItemCaseTest.forEachItemWithMaxConcurrentIterations();
+    }
+
     @Test
     @LoadFlows({"flows/valids/for-each-item-subflow-after-execution.yaml",
         "flows/valids/for-each-item-after-execution.yaml"})
@@ -0,0 +1,55 @@
+package io.kestra.core.runners;
+
+import io.kestra.core.models.flows.FlowWithSource;
+import io.kestra.plugin.core.log.Log;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static io.kestra.core.tenant.TenantService.MAIN_TENANT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlowCatalogTest {
+    @Test
+    void find() {
+        FlowCatalog catalog = FlowCatalog.of(List.of(flow("first", 1), flow("second", 3)));
+
+        assertThat(catalog.size()).isEqualTo(2);
+        assertThat(catalog.find(MAIN_TENANT, "io.kestra.unittest", "second", Optional.empty())).map(FlowWithSource::getRevision).contains(3);
+        assertThat(catalog.find(MAIN_TENANT, "io.kestra.unittest", "second", Optional.of(3))).isPresent();
+        assertThat(catalog.find(MAIN_TENANT, "io.kestra.unittest", "second", Optional.of(2))).isEmpty();
+        assertThat(catalog.find("another", "io.kestra.unittest", "second", Optional.empty())).isEmpty();
+        assertThat(catalog.find(MAIN_TENANT, "io.kestra.unittest", "third", Optional.empty())).isEmpty();
+    }
+
+    @Test
+    void changesDontModifySnapshots() {
+        FlowCatalog catalog = FlowCatalog.of(List.of(flow("first", 1), flow("second", 1)));
+        List<FlowWithSource> snapshot = catalog.flows();
+
+        FlowCatalog updated = catalog.upsert(flow("first", 2));
+        assertThat(updated.version()).isEqualTo(catalog.version() + 1);
+        assertThat(updated.flows()).extracting(FlowWithSource::getId).containsExactly("second", "first");
+        assertThat(updated.get(flow("first", 1))).map(FlowWithSource::getRevision).contains(2);
+
+        FlowCatalog removed = updated.remove(flow("second", 1));
+        assertThat(removed.flows()).extracting(FlowWithSource::getId).containsExactly("first");
+        assertThat(removed.remove(flow("second", 1))).isSameAs(removed);
+
+        assertThat(snapshot).extracting(FlowWithSource::getRevision).containsExactly(1, 1);
+        assertThat(catalog.find(MAIN_TENANT, "io.kestra.unittest", "first", Optional.of(1))).isPresent();
+        assertThatThrownBy(() -> snapshot.add(flow("third", 1))).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private static FlowWithSource flow(String id, int revision) {
+        return FlowWithSource.builder()
+            .id(id)
+            .namespace("io.kestra.unittest")
+            .tenantId(MAIN_TENANT)
+            .revision(revision)
+            .tasks(List.of(Log.builder().id("log").type(Log.class.getName()).message("Hello World").build()))
+            .build();
+    }
+}
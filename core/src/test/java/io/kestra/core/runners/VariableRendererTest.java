@@ -8,11 +8,13 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @KestraTest
 class VariableRendererTest {
@@ -93,6 +95,35 @@ class VariableRendererTest {
         assertThat(result_value3.keySet()).containsExactly("bar-1", "bar-2", "bar-3");
     }
 
+    @Test
+    void shouldRenderSimpleLookupLikePebble() throws IllegalVariableEvaluationException {
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("outputs", Map.of("task", Map.of("value", "ok", "number", 42, "map", Map.of("a", 1))));
+        variables.put("empty", new LinkedHashMap<>(Collections.singletonMap("value", null)));
+
+        // rendered twice, so the second rendering uses the prepared template
+        for (int i = 0; i < 2; i++) {
+            assertThat(variableRenderer.render("{{ outputs.task.value }}", variables)).isEqualTo("ok");
+            assertThat(variableRenderer.render("{{outputs.task.number}}", variables)).isEqualTo("42");
+            assertThat(variableRenderer.renderTyped("{{ outputs.task.number }}", variables)).isEqualTo(42);
+            assertThat(variableRenderer.render("{{ outputs.task.map }}", variables)).isEqualTo("{\"a\":1}");
+            assertThat(variableRenderer.render("{{ empty.value }}", variables)).isEmpty();
+            assertThat(variableRenderer.render("{{ true }}", variables)).isEqualTo("true");
+
+            assertThatThrownBy(() -> variableRenderer.render("{{ outputs.unknown.value }}", variables))
+                .isInstanceOf(IllegalVariableEvaluationException.class)
+                .hasMessageContaining("unknown");
+        }
+    }
+
+    @Test
+    void shouldRenderRawTagsSeveralTimes() throws IllegalVariableEvaluationException {
+        for (int i = 0; i < 2; i++) {
+            assertThat(variableRenderer.render("{% raw %}{{ not_rendered }}{% endraw %}-{{ value }}", Map.of("value", i)))
+                .isEqualTo("{{ not_rendered }}-" + i);
+        }
+    }
+
     public static class TestVariableRenderer extends VariableRenderer {
 
         public TestVariableRenderer(ApplicationContext applicationContext,
@@ -0,0 +1,150 @@
+package io.kestra.core.runners;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.metrics.MetricRegistry;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.executions.TaskRun;
+import io.kestra.core.models.flows.Flow;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.Cache;
+import io.kestra.core.models.tasks.ResolvedTask;
+import io.kestra.core.services.PluginDefaultService;
+import io.kestra.core.storages.StorageContext;
+import io.kestra.core.storages.StorageInterface;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
+import io.kestra.plugin.core.debug.Return;
+import jakarta.inject.Inject;
+import org.apache.commons.lang3.ArrayUtils;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.kestra.core.tenant.TenantService.MAIN_TENANT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+@KestraTest
+class WorkerTaskCacheTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Inject
+    private StorageInterface storageInterface;
+
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    @Inject
+    private PluginDefaultService pluginDefaultService;
+
+    @Inject
+    private WorkerTaskCache workerTaskCache;
+
+    @Test
+    void hash() {
+        Return task = task();
+        Flow flow = flow(task);
+
+        WorkerTask first = workerTask(flow, task, "first");
+        Optional<String> hash = workerTaskCache.hash(first.getRunContext(), first);
+        assertThat(hash).isPresent();
+        assertThat(workerTaskCache.hash(first.getRunContext(), first)).isEqualTo(hash);
+
+        // only the rendered properties change the hash
+        WorkerTask other = workerTask(flow, task, "other");
+        assertThat(workerTaskCache.hash(other.getRunContext(), other)).isPresent().isNotEqualTo(hash);
+        WorkerTask same = workerTask(flow, task, "first");
+        assertThat(workerTaskCache.hash(same.getRunContext(), same)).isEqualTo(hash);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void hashRendersOnlyDynamicProperties() throws Exception {
+        Return task = task();
+        Flow flow = flow(task);
+
+        for (String name : List.of("first", "other")) {
+            WorkerTask workerTask = workerTask(flow, task, name);
+            RunContext runContext = spy(workerTask.getRunContext());
+            assertThat(workerTaskCache.hash(runContext, workerTask)).isPresent();
+
+            ArgumentCaptor<Map<String, Object>> rendered = ArgumentCaptor.forClass(Map.class);
+            verify(runContext).render(rendered.capture(), any(Map.class));
+            assertThat(rendered.getValue()).containsOnlyKeys("format");
+        }
+    }
+
+    @Test
+    void putAndGet() throws Exception {
+        Return task = task();
+        WorkerTask workerTask = workerTask(flow(task), task, "first");
+        String hash = workerTaskCache.hash(workerTask.getRunContext(), workerTask).orElseThrow();
+        double memoryHits = hits(task, "memory");
+        double storageHits = hits(task, "storage");
+
+        assertThat(workerTaskCache.get(workerTask, hash)).isEmpty();
+
+        workerTaskCache.put(workerTask.getRunContext(), workerTask, hash, Map.of("value", "first"));
+        assertThat(workerTaskCache.get(workerTask, hash)).hasValue(Map.of("value", "first"));
+        assertThat(hits(task, "memory")).isEqualTo(memoryHits + 1);
+
+        // a server without any local entry reads it from the storage, then keeps it
+        WorkerTaskCache other = new WorkerTaskCache(storageInterface, metricRegistry, pluginDefaultService, true, 1024 * 1024, 1024 * 1024, Duration.ofHours(1), Optional.of(Files.createTempDirectory("task-cache").toString()), false);
+        assertThat(other.get(workerTask, hash)).hasValue(Map.of("value", "first"));
+        assertThat(hits(task, "storage")).isEqualTo(storageHits + 1);
+        assertThat(other.get(workerTask, hash)).hasValue(Map.of("value", "first"));
+        assertThat(hits(task, "memory")).isEqualTo(memoryHits + 2);
+
+        // an entry deleted from the storage is not served from the local entries anymore
+        URI uri = StorageContext.forTask(workerTask.getTaskRun()).getCacheURI(hash, workerTask.getTaskRun().getValue());
+        storageInterface.delete(MAIN_TENANT, workerTask.getTaskRun().getNamespace(), uri);
+        assertThat(workerTaskCache.get(workerTask, hash)).isEmpty();
+        assertThat(other.get(workerTask, hash)).isEmpty();
+        other.close();
+    }
+
+    private double hits(Return task, String tier) {
+        return metricRegistry
+            .counter(MetricRegistry.METRIC_WORKER_TASK_CACHE_HIT_COUNT, MetricRegistry.METRIC_WORKER_TASK_CACHE_HIT_COUNT_DESCRIPTION, ArrayUtils.addAll(metricRegistry.tags(task), MetricRegistry.TAG_CACHE_TIER, tier))
+            .count();
+    }
+
+    private static Return task() {
+        return Return.builder()
+            .id(IdUtils.create())
+            .type(Return.class.getName())
+            .format(Property.ofExpression("{{ inputs.name }}"))
+            .taskCache(new Cache(true, Duration.ofMinutes(5)))
+            .build();
+    }
+
+    private static Flow flow(Return task) {
+        return Flow.builder()
+            .tenantId(MAIN_TENANT)
+            .id(IdUtils.create())
+            .namespace("io.kestra.unit-test")
+            .revision(1)
+            .tasks(List.of(task))
+            .build();
+    }
+
+    private WorkerTask workerTask(Flow flow, Return task, String name) {
+        Execution execution = TestsUtils.mockExecution(flow, Map.of("name", name));
+        TaskRun taskRun = TaskRun.of(execution, ResolvedTask.of(task));
+
+        return WorkerTask.builder()
+            .runContext(runContextFactory.of(flow, task, execution, taskRun))
+            .task(task)
+            .taskRun(taskRun)
+            .build();
+    }
+}
@@ -30,7 +30,10 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static io.kestra.core.utils.Rethrow.throwSupplier;
@@ -81,6 +84,46 @@ class WorkerTest {
         assertThat(workerTaskResult.get().getTaskRun().getState().getHistories().size()).isEqualTo(3);
     }
 
+    @Test
+    void freeCapacity() throws TimeoutException, QueueException, InterruptedException {
+        Worker worker = applicationContext.createBean(Worker.class, IdUtils.create(), 2, null);
+        assertThat(worker.freeCapacity()).isEqualTo(2);
+        worker.run();
+
+        Set<String> started = ConcurrentHashMap.newKeySet();
+        Set<String> running = ConcurrentHashMap.newKeySet();
+        AtomicInteger maxRunning = new AtomicInteger(0);
+        AtomicInteger terminated = new AtomicInteger(0);
+        Flux<WorkerTaskResult> receive = TestsUtils.receive(workerTaskResultQueue, either -> {
+            TaskRun taskRun = either.getLeft().getTaskRun();
+            if (taskRun.getState().isTerminated()) {
+                running.remove(taskRun.getId());
+                terminated.incrementAndGet();
+            } else if (taskRun.getState().getCurrent() == State.Type.RUNNING) {
+                started.add(taskRun.getId());
+                running.add(taskRun.getId());
+                maxRunning.accumulateAndGet(running.size(), Math::max);
+            }
+        });
+
+        for (int i = 0; i < 5; i++) {
+            workerTaskQueue.emit(workerTask(1000));
+        }
+
+        // a busy worker doesn't claim more jobs than its threads can run, the others stay in the queue
+        Await.until(() -> worker.freeCapacity() == 0 && running.size() == 2, Duration.ofMillis(10), Duration.ofSeconds(30));
+        Thread.sleep(300);
+        assertThat(started).hasSize(2);
+        assertThat(worker.freeCapacity()).isZero();
+
+        Await.until(() -> terminated.get() == 5, Duration.ofMillis(100), Duration.ofMinutes(1));
+        assertThat(started).hasSize(5);
+        assertThat(maxRunning.get()).isEqualTo(2);
+        Await.until(() -> worker.freeCapacity() == 2, Duration.ofMillis(10), Duration.ofSeconds(30));
+        receive.blockLast();
+        worker.shutdown();
+    }
+
     @Test
     void workerGroup() {
         Worker worker = applicationContext.createBean(Worker.class, IdUtils.create(), 8, "toto");
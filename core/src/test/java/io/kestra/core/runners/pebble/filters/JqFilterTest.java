@@ -15,6 +15,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @KestraTest
 class JqFilterTest {
@@ -143,4 +144,26 @@ class JqFilterTest {
         render = variableRenderer.render("{% set array = vars | jq(\".array\") %}{{array[0][0]}}", vars);
         assertThat(render).isEqualTo("arrayValue");
     }
+
+    @Test
+    void sameInputSeveralTimes() throws IllegalVariableEvaluationException {
+        Map<String, Object> vars = Map.of(
+            "vars", Map.of("first", 1, "second", 2)
+        );
+
+        String render = variableRenderer.render("{{ vars | jq(\".first\") | first }}-{{ vars | jq(\".second\") | first }}-{{ vars | jq(\".first\") | first }}", vars);
+        assertThat(render).isEqualTo("1-2-1");
+
+        render = variableRenderer.render("{{ vars | jq(\".first\") | first }}", Map.of("vars", Map.of("first", 3)));
+        assertThat(render).isEqualTo("3");
+    }
+
+    @Test
+    void invalidExpression() {
+        // invalid expressions are not cached, so they fail each time
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> variableRenderer.render("{{ vars | jq(\".[\") }}", Map.of("vars", Map.of("first", 1))))
+                .isInstanceOf(IllegalVariableEvaluationException.class);
+        }
+    }
 }
@@ -116,6 +116,46 @@ class FlowTriggerServiceTest {
         assertThat(resultingExecutionsToRun).size().isEqualTo(0);
     }
 
+    @Test
+    void index() {
+        var simpleFlow = aSimpleFlow();
+        var flowWithFlowTrigger = Flow.builder()
+            .id("flow-with-flow-trigger")
+            .namespace(TEST_NAMESPACE)
+            .tenantId(MAIN_TENANT)
+            .tasks(List.of(simpleLogTask()))
+            .triggers(List.of(
+                flowTriggerWithNoConditions()
+            ))
+            .build();
+        var flowWithFailedFlowTrigger = Flow.builder()
+            .id("flow-with-failed-flow-trigger")
+            .namespace(TEST_NAMESPACE)
+            .tenantId(MAIN_TENANT)
+            .tasks(List.of(simpleLogTask()))
+            .triggers(List.of(
+                io.kestra.plugin.core.trigger.Flow.builder()
+                    .id("flowTrigger")
+                    .type(io.kestra.plugin.core.trigger.Flow.class.getName())
+                    .states(List.of(State.Type.FAILED, State.Type.FAILED))
+                    .build()
+            ))
+            .build();
+        var disabledFlow = flowWithFlowTrigger.toBuilder().id("disabled-flow").disabled(true).build();
+
+        FlowTriggerIndex index = flowTriggerService.index(List.of(simpleFlow, flowWithFlowTrigger, flowWithFailedFlowTrigger, disabledFlow));
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.listening(State.Type.SUCCESS)).extracting(f -> f.getFlow().getId()).containsExactly("flow-with-flow-trigger");
+        assertThat(index.listening(State.Type.FAILED)).extracting(f -> f.getFlow().getId()).containsExactly("flow-with-flow-trigger", "flow-with-failed-flow-trigger");
+        assertThat(index.listening(State.Type.CREATED)).isEmpty();
+
+        var failedExecution = Execution.newExecution(simpleFlow, EMPTY_LABELS).withState(State.Type.FAILED);
+        assertThat(flowTriggerService.computeExecutionsFromFlowTriggers(failedExecution, index, EMPTY_MULTIPLE_CONDITION_STORAGE))
+            .extracting(Execution::getFlowId)
+            .containsExactly("flow-with-flow-trigger", "flow-with-failed-flow-trigger");
+    }
+
     private static Flow aSimpleFlow() {
         return Flow.builder()
             .id("simple-flow")
@@ -0,0 +1,70 @@
+package io.kestra.core.services;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.flows.FlowInterface;
+import io.kestra.core.models.flows.FlowWithSource;
+import io.kestra.core.models.flows.GenericFlow;
+import io.kestra.plugin.core.log.Log;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.kestra.core.tenant.TenantService.MAIN_TENANT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@KestraTest
+class FlowWithDefaultsCacheTest {
+    @Inject
+    private FlowWithDefaultsCache flowWithDefaultsCache;
+
+    @BeforeEach
+    void setUp() {
+        flowWithDefaultsCache.invalidateAll();
+    }
+
+    @Test
+    void shouldReturnCachedFlowForSameRevision() {
+        FlowInterface flow = flow(1);
+        Execution execution = Execution.newExecution(flow, List.of());
+
+        FlowWithSource first = flowWithDefaultsCache.injectDefaults(flow, execution);
+        FlowWithSource second = flowWithDefaultsCache.injectDefaults(flow, execution);
+
+        assertThat(first).isSameAs(second);
+        assertThat(((Log) first.getTasks().getFirst()).getMessage()).isEqualTo("This is a default message");
+    }
+
+    @Test
+    void shouldNotReturnCachedFlowForAnotherRevision() {
+        FlowInterface flow = flow(1);
+        Execution execution = Execution.newExecution(flow, List.of());
+
+        FlowWithSource first = flowWithDefaultsCache.injectDefaults(flow, execution);
+        FlowWithSource second = flowWithDefaultsCache.injectDefaults(flow(2), execution);
+
+        assertThat(first).isNotSameAs(second);
+        assertThat(second.getRevision()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldParseAgainAfterInvalidation() {
+        FlowInterface flow = flow(1);
+        Execution execution = Execution.newExecution(flow, List.of());
+
+        FlowWithSource first = flowWithDefaultsCache.injectDefaults(flow, execution);
+        flowWithDefaultsCache.invalidate(flow);
+        FlowWithSource second = flowWithDefaultsCache.injectDefaults(flow, execution);
+
+        assertThat(first).isNotSameAs(second);
+    }
+
+    private static FlowInterface flow(int revision) {
+        return GenericFlow.fromYaml(MAIN_TENANT, PluginDefaultServiceTest.TEST_LOG_FLOW_SOURCE)
+            .toBuilder()
+            .revision(revision)
+            .build();
+    }
+}
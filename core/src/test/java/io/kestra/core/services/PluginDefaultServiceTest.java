@@ -37,10 +37,12 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.slf4j.event.Level;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
 import static io.kestra.core.tenant.TenantService.MAIN_TENANT;
@@ -380,6 +382,32 @@ class PluginDefaultServiceTest {
         assertThat(((Log) injected.getTasks().getFirst()).getLevel().toString(), is(Level.INFO.name()));
     }
 
+    @Test
+    void shouldFingerprintNamespaceDefaults() {
+        AtomicReference<String> message = new AtomicReference<>("namespace");
+        PluginDefaultService service = new PluginDefaultService() {
+            @Override
+            protected List<PluginDefault> getAllDefaults(String tenantId, String namespace, Map<String, Object> flow) {
+                List<PluginDefault> defaults = new ArrayList<>(super.getAllDefaults(tenantId, namespace, flow));
+                if ("io.kestra.other".equals(namespace)) {
+                    // a new instance on each call, like defaults loaded from a repository
+                    defaults.add(new PluginDefault(Log.class.getName(), false, Map.of("message", message.get())));
+                }
+                return defaults;
+            }
+        };
+
+        String fingerprint = service.defaultsFingerprint(MAIN_TENANT, "io.kestra.tests");
+        assertThat(service.defaultsFingerprint(MAIN_TENANT, "io.kestra.tests"), is(fingerprint));
+
+        String otherFingerprint = service.defaultsFingerprint(MAIN_TENANT, "io.kestra.other");
+        assertThat(otherFingerprint.equals(fingerprint), is(false));
+        assertThat(service.defaultsFingerprint(MAIN_TENANT, "io.kestra.other"), is(otherFingerprint));
+
+        message.set("updated");
+        assertThat(service.defaultsFingerprint(MAIN_TENANT, "io.kestra.other").equals(otherFingerprint), is(false));
+    }
+
     @SuperBuilder
     @ToString
     @EqualsAndHashCode
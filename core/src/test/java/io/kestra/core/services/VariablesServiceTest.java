@@ -0,0 +1,68 @@
+package io.kestra.core.services;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.executions.TaskRun;
+import io.kestra.core.models.executions.Variables;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.storages.StorageContext;
+import io.kestra.core.storages.StorageInterface;
+import io.kestra.core.utils.IdUtils;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static io.kestra.core.tenant.TenantService.MAIN_TENANT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@KestraTest
+class VariablesServiceTest {
+    @Inject
+    private StorageInterface storageInterface;
+
+    @Test
+    void offloadLargeOutputs() throws Exception {
+        VariablesService variablesService = new VariablesService(storageInterface, true, 1024);
+        var storageContext = StorageContext.forTask(MAIN_TENANT, "namespace", "flow", "execution", "task", "taskRun", null);
+
+        Variables small = variablesService.of(storageContext, Map.of("key", "value"));
+        assertThat(small).isInstanceOf(Variables.InMemoryVariables.class);
+
+        String large = "a".repeat(2048);
+        Variables offloaded = variablesService.of(storageContext, Map.of("key", large));
+        assertThat(offloaded).isInstanceOf(Variables.InStorageVariables.class);
+        assertThat(JacksonMapper.ofJson().writeValueAsString(offloaded)).doesNotContain(large);
+
+        // the outputs of the execution keep the reference, loaded only when accessed
+        TaskRun taskRun = TaskRun.builder()
+            .id(IdUtils.create())
+            .executionId("execution")
+            .namespace("namespace")
+            .flowId("flow")
+            .taskId("task")
+            .outputs(offloaded)
+            .build();
+        Execution execution = Execution.builder()
+            .id("execution")
+            .tenantId(MAIN_TENANT)
+            .namespace("namespace")
+            .flowId("flow")
+            .taskRunList(List.of(taskRun))
+            .build();
+        String json = JacksonMapper.ofJson().writeValueAsString(execution);
+        Map<String, Object> outputs = JacksonMapper.ofJson().readValue(json, Execution.class).outputs();
+        assertThat(outputs.get("task")).isInstanceOf(Variables.InStorageVariables.class);
+        assertThat(((Map<?, ?>) outputs.get("task")).get("key")).isEqualTo(large);
+    }
+
+    @Test
+    void noOffloadWhenDisabled() {
+        VariablesService variablesService = new VariablesService(storageInterface, false, 0);
+        var storageContext = StorageContext.forTask(MAIN_TENANT, "namespace", "flow", "execution", "task", "taskRun", null);
+
+        Variables variables = variablesService.of(storageContext, Map.of("key", "a".repeat(2048)));
+        assertThat(variables).isInstanceOf(Variables.InMemoryVariables.class);
+    }
+}
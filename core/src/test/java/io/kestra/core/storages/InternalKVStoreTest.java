@@ -6,6 +6,7 @@ import io.kestra.core.storages.kv.InternalKVStore;
 import io.kestra.core.storages.kv.KVEntry;
 import io.kestra.core.storages.kv.KVMetadata;
 import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVStoreCache;
 import io.kestra.core.storages.kv.KVValueAndMetadata;
 import io.kestra.core.storages.kv.KVValue;
 import io.kestra.core.utils.IdUtils;
@@ -214,6 +215,55 @@ class InternalKVStoreTest {
         Assertions.assertThrows(ResourceExpiredException.class, () -> kv.getValue(TEST_KV_KEY));
     }
 
+    @Test
+    void shouldGetValuesThroughCache() throws IOException, ResourceExpiredException {
+        // Given
+        final String namespaceId = "io.kestra." + IdUtils.create();
+        final KVStoreCache cache = new KVStoreCache(true, 1024 * 1024, Duration.ofMinutes(5), Optional.empty());
+        final InternalKVStore kv = new InternalKVStore(MAIN_TENANT, namespaceId, storageInterface, cache);
+        kv.put(TEST_KV_KEY, new KVValueAndMetadata(new KVMetadata(null, Duration.ofMinutes(5)), "first"));
+        assertThat(kv.getValue(TEST_KV_KEY)).contains(new KVValue("first"));
+
+        // When: changed in the storage without going through the K/V store
+        new InternalKVStore(MAIN_TENANT, namespaceId, storageInterface)
+            .put(TEST_KV_KEY, new KVValueAndMetadata(new KVMetadata(null, Duration.ofMinutes(5)), "second"));
+
+        // Then: still served from the cache
+        assertThat(kv.getValue(TEST_KV_KEY)).contains(new KVValue("first"));
+
+        // When: changed through another K/V store sharing the cache
+        InternalKVStore other = new InternalKVStore(MAIN_TENANT, namespaceId, storageInterface, cache);
+        other.put(TEST_KV_KEY, new KVValueAndMetadata(new KVMetadata(null, Duration.ofMinutes(5)), "third"));
+        other.put("other-key", new KVValueAndMetadata(null, "other"));
+
+        // Then
+        assertThat(kv.getValues(List.of(TEST_KV_KEY, "missing-key", "other-key")))
+            .containsExactly(Map.entry(TEST_KV_KEY, new KVValue("third")), Map.entry("other-key", new KVValue("other")));
+
+        // When
+        other.delete(TEST_KV_KEY);
+
+        // Then
+        assertThat(kv.getValue(TEST_KV_KEY)).isEmpty();
+    }
+
+    @Test
+    void shouldThrowGivenCachedEntryExpired() throws IOException, ResourceExpiredException, InterruptedException {
+        // Given
+        final String namespaceId = "io.kestra." + IdUtils.create();
+        final KVStoreCache cache = new KVStoreCache(true, 1024 * 1024, Duration.ofMinutes(5), Optional.empty());
+        final InternalKVStore kv = new InternalKVStore(MAIN_TENANT, namespaceId, storageInterface, cache);
+        kv.put(TEST_KV_KEY, new KVValueAndMetadata(new KVMetadata(null, Duration.ofMillis(500)), complexValue));
+        assertThat(kv.getValue(TEST_KV_KEY)).isPresent();
+
+        // When
+        Thread.sleep(600);
+
+        // Then
+        Assertions.assertThrows(ResourceExpiredException.class, () -> kv.getValue(TEST_KV_KEY));
+        assertThat(kv.getValue(TEST_KV_KEY)).isEmpty();
+    }
+
     @Test
     void illegalKey() {
         InternalKVStore kv = kv();
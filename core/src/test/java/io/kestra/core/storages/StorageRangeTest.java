@@ -0,0 +1,85 @@
+package io.kestra.core.storages;
+
+import io.kestra.storage.local.LocalStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static io.kestra.core.tenant.TenantService.MAIN_TENANT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StorageRangeTest {
+    private static final URI FILE = URI.create("kestra:///io/kestra/tests/flow/executions/id/tasks/split/run/file.txt");
+
+    LocalStorage storageInterface;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Path basePath = Files.createTempDirectory("unit");
+        storageInterface = new LocalStorage();
+        storageInterface.setBasePath(basePath);
+        storageInterface.init();
+    }
+
+    @Test
+    void shouldReferenceRangeInUri() {
+        URI uri = new StorageRange(6, 4).on(FILE);
+
+        assertThat(uri.toString()).isEqualTo(FILE + "#bytes=6-4");
+        assertThat(StorageRange.of(uri)).contains(new StorageRange(6, 4));
+        assertThat(StorageRange.file(uri)).isEqualTo(FILE);
+        assertThat(StorageRange.of(FILE)).isEmpty();
+        assertThat(StorageRange.file(FILE)).isEqualTo(FILE);
+    }
+
+    @Test
+    void shouldReferenceRangesWithSameLength() {
+        URI first = new StorageRange(0, 4).onFixedWidth(FILE);
+        URI last = new StorageRange(123456789, 1024).onFixedWidth(FILE);
+
+        assertThat(first.toString()).hasSameSizeAs(last.toString());
+        assertThat(StorageRange.of(first)).contains(new StorageRange(0, 4));
+        assertThat(StorageRange.of(last)).contains(new StorageRange(123456789, 1024));
+        assertThat(StorageRange.file(last)).isEqualTo(FILE);
+    }
+
+    @Test
+    void shouldRejectInvalidRange() {
+        assertThrows(IllegalArgumentException.class, () -> StorageRange.of(URI.create(FILE + "#bytes=6")));
+        assertThrows(IllegalArgumentException.class, () -> StorageRange.of(URI.create(FILE + "#bytes=a-4")));
+        assertThrows(IllegalArgumentException.class, () -> new StorageRange(-1, 4));
+    }
+
+    @Test
+    void shouldReadRange() throws IOException {
+        storageInterface.put(MAIN_TENANT, null, FILE, new ByteArrayInputStream("first\nsecond\nthird\n".getBytes(StandardCharsets.UTF_8)));
+
+        try (InputStream inputStream = StorageRange.get(storageInterface, MAIN_TENANT, null, new StorageRange(6, 7).on(FILE))) {
+            assertThat(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("second\n");
+        }
+
+        try (InputStream inputStream = StorageRange.get(storageInterface, MAIN_TENANT, null, FILE)) {
+            assertThat(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("first\nsecond\nthird\n");
+        }
+    }
+
+    @Test
+    void shouldCheckRangeOfFile() throws IOException {
+        URI range = new StorageRange(6, 7).on(FILE);
+        assertThat(StorageRange.exists(storageInterface, MAIN_TENANT, null, range)).isFalse();
+
+        storageInterface.put(MAIN_TENANT, null, FILE, new ByteArrayInputStream("first\nsecond\nthird\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(StorageRange.exists(storageInterface, MAIN_TENANT, null, range)).isTrue();
+        assertThat(StorageRange.size(storageInterface, MAIN_TENANT, null, range)).isEqualTo(7L);
+        assertThat(StorageRange.size(storageInterface, MAIN_TENANT, null, FILE)).isEqualTo(19L);
+    }
+}
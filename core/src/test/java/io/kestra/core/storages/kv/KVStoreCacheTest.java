@@ -0,0 +1,55 @@
+package io.kestra.core.storages.kv;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.kestra.core.tenant.TenantService.MAIN_TENANT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KVStoreCacheTest {
+    @Test
+    void shouldLoadOnce() throws Exception {
+        KVStoreCache cache = new KVStoreCache(true, 1024 * 1024, Duration.ofMinutes(5), Optional.empty());
+        AtomicInteger loads = new AtomicInteger();
+        KVStoreCache.Loader loader = () -> Optional.of(new KVStoreCache.CachedValue("value-" + loads.incrementAndGet(), null));
+
+        assertThat(cache.get(MAIN_TENANT, "io.kestra.unittest", "key", loader).map(KVStoreCache.CachedValue::raw)).hasValue("value-1");
+        assertThat(cache.get(MAIN_TENANT, "io.kestra.unittest", "key", loader).map(KVStoreCache.CachedValue::raw)).hasValue("value-1");
+
+        cache.invalidate(MAIN_TENANT, "io.kestra.unittest", "key");
+        assertThat(cache.get(MAIN_TENANT, "io.kestra.unittest", "key", loader).map(KVStoreCache.CachedValue::raw)).hasValue("value-2");
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotKeepValueLoadedWhileInvalidated() throws Exception {
+        KVStoreCache cache = new KVStoreCache(true, 1024 * 1024, Duration.ofMinutes(5), Optional.empty());
+
+        // another entry is invalidated while loading, as invalidating the entry being loaded from its loader is a recursive update
+        Optional<KVStoreCache.CachedValue> stale = cache.get(MAIN_TENANT, "io.kestra.unittest", "key", () -> {
+            cache.invalidate(MAIN_TENANT, "io.kestra.unittest", "other");
+            return Optional.of(new KVStoreCache.CachedValue("stale", null));
+        });
+        assertThat(stale.map(KVStoreCache.CachedValue::raw)).hasValue("stale");
+
+        assertThat(cache.get(MAIN_TENANT, "io.kestra.unittest", "key", () -> Optional.of(new KVStoreCache.CachedValue("fresh", null))).map(KVStoreCache.CachedValue::raw)).hasValue("fresh");
+    }
+
+    @Test
+    void shouldNotCacheExpiredValue() throws Exception {
+        KVStoreCache cache = new KVStoreCache(true, 1024 * 1024, Duration.ofMinutes(5), Optional.empty());
+        AtomicInteger loads = new AtomicInteger();
+        KVStoreCache.Loader loader = () -> {
+            loads.incrementAndGet();
+            return Optional.of(new KVStoreCache.CachedValue("expired", Instant.now().minusSeconds(1)));
+        };
+
+        assertThat(cache.get(MAIN_TENANT, "io.kestra.unittest", "key", loader)).hasValueSatisfying(value -> assertThat(value.isExpired()).isTrue());
+        assertThat(cache.get(MAIN_TENANT, "io.kestra.unittest", "key", loader)).isPresent();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+}
@@ -14,6 +14,7 @@ import io.kestra.plugin.core.log.Log;
 import io.micronaut.core.annotation.Nullable;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
@@ -151,6 +152,49 @@ class NamespaceFilesUtilsTest {
         assertThat((Duration) runContext.metrics().stream().filter(m -> m.getName().equals("namespacefiles.duration")).findFirst().orElseThrow().getValue()).isInstanceOf(Duration.class);
     }
 
+    @Test
+    void cachedFiles() throws Exception {
+        Log task = Log.builder().id(IdUtils.create()).type(Log.class.getName()).message("Yo!").build();
+        String namespace = IdUtils.create();
+        URI uri = toNamespacedStorageUri(namespace, URI.create("/cached.txt"));
+        storageInterface.put(MAIN_TENANT, namespace, uri, new ByteArrayInputStream("first".getBytes(StandardCharsets.UTF_8)));
+        NamespaceFiles namespaceFiles = NamespaceFiles.builder().namespaces(Property.ofValue(List.of(namespace))).build();
+
+        var first = TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of());
+        namespaceFilesUtils.loadNamespaceFiles(first, namespaceFiles);
+        assertThat(Files.readString(first.workingDir().resolve(Path.of("cached.txt")))).isEqualTo("first");
+
+        // a task writing into its file must not change the file of the other tasks
+        Files.writeString(first.workingDir().resolve(Path.of("cached.txt")), "modified");
+        var second = TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of());
+        namespaceFilesUtils.loadNamespaceFiles(second, namespaceFiles);
+        assertThat(Files.readString(second.workingDir().resolve(Path.of("cached.txt")))).isEqualTo("first");
+
+        // a file updated in the storage is downloaded again
+        storageInterface.put(MAIN_TENANT, namespace, uri, new ByteArrayInputStream("updated".getBytes(StandardCharsets.UTF_8)));
+        var third = TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of());
+        namespaceFilesUtils.loadNamespaceFiles(third, namespaceFiles);
+        assertThat(Files.readString(third.workingDir().resolve(Path.of("cached.txt")))).isEqualTo("updated");
+    }
+
+    @Test
+    void laterNamespacesOverrideSharedPaths() throws Exception {
+        Log task = Log.builder().id(IdUtils.create()).type(Log.class.getName()).message("Yo!").build();
+        var runContext = TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of());
+        String baseNs = IdUtils.create();
+        String ns1 = baseNs + ".ns1";
+        String ns2 = baseNs + ".ns2";
+
+        storageInterface.put(MAIN_TENANT, ns1, toNamespacedStorageUri(ns1, URI.create("/test.txt")), new ByteArrayInputStream("ns1".getBytes(StandardCharsets.UTF_8)));
+        storageInterface.put(MAIN_TENANT, ns2, toNamespacedStorageUri(ns2, URI.create("/test.txt")), new ByteArrayInputStream("ns2".getBytes(StandardCharsets.UTF_8)));
+
+        namespaceFilesUtils.loadNamespaceFiles(runContext, NamespaceFiles.builder()
+            .namespaces(Property.ofValue(List.of(ns1, ns2)))
+            .build());
+
+        assertThat(Files.readString(runContext.workingDir().resolve(Path.of("test.txt")))).isEqualTo("ns2");
+    }
+
     private URI toNamespacedStorageUri(String namespace, @Nullable URI relativePath) {
         return NamespaceFile.of(namespace, relativePath).storagePath().toUri();
     }
@@ -29,10 +29,13 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.time.Duration;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -105,7 +108,7 @@ public class ForEachItemCaseTest {
         // assert on the last subflow execution
         assertThat(triggered.get().getState().getCurrent()).isEqualTo(State.Type.SUCCESS);
         assertThat(triggered.get().getFlowId()).isEqualTo("for-each-item-subflow");
-        assertThat((String) triggered.get().getInputs().get("items")).matches("kestra:///io/kestra/tests/for-each-item/executions/.*/tasks/each-split/.*\\.txt");
+        assertThat((String) triggered.get().getInputs().get("items")).matches("kestra:///io/kestra/tests/for-each-item/executions/.*/tasks/each-split/.*\\.txt#bytes=\\d+-\\d+");
         assertThat(triggered.get().getTaskRunList()).hasSize(1);
         Optional<Label> correlationId = triggered.get().getLabels().stream().filter(label -> label.key().equals(Label.CORRELATION_ID)).findAny();
         assertThat(correlationId.isPresent()).isTrue();
@@ -171,7 +174,7 @@ public class ForEachItemCaseTest {
         // assert on the last subflow execution
         assertThat(triggered.get().getState().getCurrent()).isEqualTo(State.Type.SUCCESS);
         assertThat(triggered.get().getFlowId()).isEqualTo("for-each-item-subflow-sleep");
-        assertThat((String) triggered.get().getInputs().get("items")).matches("kestra:///io/kestra/tests/for-each-item-no-wait/executions/.*/tasks/each-split/.*\\.txt");
+        assertThat((String) triggered.get().getInputs().get("items")).matches("kestra:///io/kestra/tests/for-each-item-no-wait/executions/.*/tasks/each-split/.*\\.txt#bytes=\\d+-\\d+");
         assertThat(triggered.get().getTaskRunList()).hasSize(2);
     }
 
@@ -214,7 +217,7 @@ public class ForEachItemCaseTest {
         // assert on the last subflow execution
         assertThat(triggered.get().getState().getCurrent()).isEqualTo(FAILED);
         assertThat(triggered.get().getFlowId()).isEqualTo("for-each-item-subflow-failed");
-        assertThat((String) triggered.get().getInputs().get("items")).matches("kestra:///io/kestra/tests/for-each-item-failed/executions/.*/tasks/each-split/.*\\.txt");
+        assertThat((String) triggered.get().getInputs().get("items")).matches("kestra:///io/kestra/tests/for-each-item-failed/executions/.*/tasks/each-split/.*\\.txt#bytes=\\d+-\\d+");
         assertThat(triggered.get().getTaskRunList()).hasSize(1);
     }
 
@@ -258,7 +261,7 @@ public class ForEachItemCaseTest {
         // assert on the last subflow execution
         assertThat(triggered.get().getState().getCurrent()).isEqualTo(State.Type.SUCCESS);
         assertThat(triggered.get().getFlowId()).isEqualTo("for-each-item-outputs-subflow");
-        assertThat((String) triggered.get().getInputs().get("items")).matches("kestra:///io/kestra/tests/for-each-item-outputs/executions/.*/tasks/each-split/.*\\.txt");
+        assertThat((String) triggered.get().getInputs().get("items")).matches("kestra:///io/kestra/tests/for-each-item-outputs/executions/.*/tasks/each-split/.*\\.txt#bytes=\\d+-\\d+");
         assertThat(triggered.get().getTaskRunList()).hasSize(1);
 
         // asserts for subflow merged outputs
@@ -365,7 +368,7 @@ public class ForEachItemCaseTest {
         // assert on the last subflow execution
         assertThat(triggered.get().getState().getCurrent()).isEqualTo(State.Type.SUCCESS);
         assertThat(triggered.get().getFlowId()).isEqualTo("for-each-item-subflow");
-        assertThat((String) triggered.get().getInputs().get("items")).matches("kestra:///io/kestra/tests/for-each-item-in-if/executions/.*/tasks/each-split/.*\\.txt");
+        assertThat((String) triggered.get().getInputs().get("items")).matches("kestra:///io/kestra/tests/for-each-item-in-if/executions/.*/tasks/each-split/.*\\.txt#bytes=\\d+-\\d+");
         assertThat(triggered.get().getTaskRunList()).hasSize(1);
         Optional<Label> correlationId = triggered.get().getLabels().stream().filter(label -> label.key().equals(Label.CORRELATION_ID)).findAny();
         assertThat(correlationId.isPresent()).isTrue();
@@ -410,13 +413,65 @@ public class ForEachItemCaseTest {
         // assert on the last subflow execution
         assertThat(triggered.get().getState().getCurrent()).isEqualTo(State.Type.SUCCESS);
         assertThat(triggered.get().getFlowId()).isEqualTo("for-each-item-subflow-after-execution");
-        assertThat((String) triggered.get().getInputs().get("items")).matches("kestra:///io/kestra/tests/for-each-item-after-execution/executions/.*/tasks/each-split/.*\\.txt");
+        assertThat((String) triggered.get().getInputs().get("items")).matches("kestra:///io/kestra/tests/for-each-item-after-execution/executions/.*/tasks/each-split/.*\\.txt#bytes=\\d+-\\d+");
         assertThat(triggered.get().getTaskRunList()).hasSize(2);
         Optional<Label> correlationId = triggered.get().getLabels().stream().filter(label -> label.key().equals(Label.CORRELATION_ID)).findAny();
         assertThat(correlationId.isPresent()).isTrue();
         assertThat(correlationId.get().value()).isEqualTo(execution.getId());
     }
 
+    @SuppressWarnings("unchecked")
+    public void forEachItemWithMaxConcurrentIterations() throws TimeoutException, InterruptedException, URISyntaxException, IOException, QueueException {
+        CountDownLatch countDownLatch = new CountDownLatch(6);
+        List<Execution> subflowExecutions = new CopyOnWriteArrayList<>();
+
+        Flux<Execution> receive = TestsUtils.receive(executionQueue, either -> {
+            Execution execution = either.getLeft();
+            if (execution.getFlowId().equals("for-each-item-subflow-sleep")) {
+                subflowExecutions.add(execution);
+                if (execution.getState().getCurrent().isTerminated()) {
+                    countDownLatch.countDown();
+                }
+            }
+        });
+
+        URI file = storageUpload();
+        Map<String, Object> inputs = Map.of("file", file.toString(), "batch", 20);
+        Execution execution = runnerUtils.runOne(MAIN_TENANT, TEST_NAMESPACE, "for-each-item-max-concurrent-iterations", null,
+            (flow, execution1) -> flowIO.readExecutionInputs(flow, execution1, inputs),
+            Duration.ofSeconds(30));
+
+        // we should have triggered 6 subflows
+        assertThat(countDownLatch.await(1, TimeUnit.MINUTES)).isTrue();
+        receive.blockLast();
+
+        // assert on the main flow execution
+        assertThat(execution.getState().getCurrent()).isEqualTo(State.Type.SUCCESS);
+        Map<String, Object> outputs = execution.getTaskRunList().get(2).getOutputs();
+        assertThat(outputs.get("numberOfBatches")).isEqualTo(6);
+        Map<String, Integer> iterations = (Map<String, Integer>) outputs.get("iterations");
+        assertThat(iterations.get("SUCCESS")).isEqualTo(6);
+
+        // a subflow execution is only created once another one has ended
+        Set<String> running = new HashSet<>();
+        int maxRunning = 0;
+        for (Execution subflowExecution : subflowExecutions) {
+            boolean fromExecution = subflowExecution.getLabels().stream()
+                .anyMatch(label -> label.key().equals(Label.CORRELATION_ID) && label.value().equals(execution.getId()));
+            if (!fromExecution) {
+                continue;
+            }
+
+            if (subflowExecution.getState().getCurrent().isTerminated()) {
+                running.remove(subflowExecution.getId());
+            } else {
+                running.add(subflowExecution.getId());
+            }
+            maxRunning = Math.max(maxRunning, running.size());
+        }
+        assertThat(maxRunning).isEqualTo(2);
+    }
+
     private URI storageUpload() throws URISyntaxException, IOException {
         File tempFile = File.createTempFile("file", ".txt");
 
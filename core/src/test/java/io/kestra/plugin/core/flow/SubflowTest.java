@@ -48,7 +48,7 @@ class SubflowTest {
 
     @BeforeEach
     void beforeEach() {
-        Mockito.when(applicationContext.getBean(VariablesService.class)).thenReturn(new VariablesService());
+        Mockito.when(applicationContext.getBean(VariablesService.class)).thenReturn(new VariablesService(null, false, 0));
         Mockito.when(runContext.logger()).thenReturn(LOG);
         Mockito.when(runContext.getApplicationContext()).thenReturn(applicationContext);
     }
@@ -11,12 +11,14 @@ import jakarta.inject.Inject;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -50,6 +52,63 @@ class SplitTest {
         assertThat(StringUtils.countMatches(readAll(run.getUris()), "\n")).isEqualTo(1000);
     }
 
+    @Test
+    void partitionKeepsRowsOrder() throws Exception {
+        RunContext runContext = runContextFactory.of();
+        URI put = storageUpload(1000);
+
+        Split result = Split.builder()
+            .from(Property.ofValue(put.toString()))
+            .partitions(Property.ofValue(3))
+            .build();
+
+        Split.Output run = result.run(runContext);
+
+        assertThat(run.getUris().size()).isEqualTo(3);
+        assertThat(readAll(run.getUris())).isEqualTo(String.join("\n", content(1000)) + "\n");
+    }
+
+    @Test
+    void partitionWithSeparator() throws Exception {
+        RunContext runContext = runContextFactory.of();
+        URI put = storageUpload(1000);
+
+        Split result = Split.builder()
+            .from(Property.ofValue(put.toString()))
+            .partitions(Property.ofValue(3))
+            .separator(Property.ofValue(";"))
+            .build();
+
+        Split.Output run = result.run(runContext);
+
+        assertThat(run.getUris().size()).isEqualTo(3);
+        for (URI uri : run.getUris()) {
+            assertThat(readAll(List.of(uri))).endsWith(";").doesNotContain("\n");
+        }
+        assertThat(readAll(run.getUris())).isEqualTo(String.join(";", content(1000)) + ";");
+    }
+
+    @Test
+    void rowsWithCarriageReturns() throws Exception {
+        RunContext runContext = runContextFactory.of();
+        URI put = storageInterface.put(
+            MAIN_TENANT,
+            null,
+            new URI("/file/storage/crlf.yml"),
+            new ByteArrayInputStream("a\r\nb\rc\n\nd".getBytes(StandardCharsets.UTF_8))
+        );
+
+        Split result = Split.builder()
+            .from(Property.ofValue(put.toString()))
+            .rows(Property.ofValue(2))
+            .build();
+
+        Split.Output run = result.run(runContext);
+
+        assertThat(run.getUris().size()).isEqualTo(3);
+        assertThat(readAll(run.getUris())).isEqualTo("a\nb\nc\n\nd\n");
+    }
+
     @Test
     void rows() throws Exception {
         RunContext runContext = runContextFactory.of();
@@ -22,9 +22,10 @@ public class H2Queue<T> extends JdbcQueue<T> {
     }
 
     @Override
-    protected Result<Record> receiveFetch(DSLContext ctx, String consumerGroup, String queueType, boolean forUpdate) {
+    protected Result<Record> receiveFetch(DSLContext ctx, String consumerGroup, String queueType, boolean forUpdate, int limit) {
         var select =  ctx.select(
                 AbstractJdbcRepository.field("value"),
+                AbstractJdbcRepository.field("binary_value"),
                 AbstractJdbcRepository.field("offset")
             )
             .from(this.table)
@@ -42,8 +43,8 @@ public class H2Queue<T> extends JdbcQueue<T> {
 
         var limitSelect = select
             .orderBy(AbstractJdbcRepository.field("offset").asc())
-            .limit(configuration.getPollSize());
-        ResultQuery<Record2<Object, Object>> configuredSelect = limitSelect;
+            .limit(limit);
+        ResultQuery<Record3<Object, Object, Object>> configuredSelect = limitSelect;
 
         if (forUpdate) {
             configuredSelect = limitSelect.forUpdate().skipLocked();
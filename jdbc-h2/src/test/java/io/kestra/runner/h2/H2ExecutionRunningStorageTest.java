@@ -0,0 +1,6 @@
+package io.kestra.runner.h2;
+
+import io.kestra.jdbc.runner.AbstractJdbcExecutionRunningStorageTest;
+
+class H2ExecutionRunningStorageTest extends AbstractJdbcExecutionRunningStorageTest {
+}
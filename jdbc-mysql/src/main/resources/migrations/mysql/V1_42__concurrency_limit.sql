@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS concurrency_limit (
+    `key` VARCHAR(250) NOT NULL PRIMARY KEY,
+    `running` INT NOT NULL
+);
+
+INSERT IGNORE INTO concurrency_limit (`key`, `running`)
+SELECT CONCAT_WS('|', tenant_id, namespace, flow_id), COUNT(*)
+FROM execution_running
+GROUP BY tenant_id, namespace, flow_id;
@@ -0,0 +1 @@
+CREATE INDEX ix_deleted__end_date ON executions (`deleted`, `end_date`);
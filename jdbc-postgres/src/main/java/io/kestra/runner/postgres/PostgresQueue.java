@@ -1,9 +1,6 @@
 package io.kestra.runner.postgres;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import io.kestra.core.exceptions.DeserializationException;
 import io.kestra.core.queues.QueueException;
-import io.kestra.core.utils.Either;
 import io.kestra.jdbc.repository.AbstractJdbcRepository;
 import io.kestra.jdbc.runner.JdbcQueue;
 import io.micronaut.context.ApplicationContext;
@@ -49,13 +46,14 @@ public class PostgresQueue<T> extends JdbcQueue<T> {
     }
 
     @Override
-    protected Result<Record> receiveFetch(DSLContext ctx, String consumerGroup, String queueType, boolean forUpdate) {
+    protected Result<Record> receiveFetch(DSLContext ctx, String consumerGroup, String queueType, boolean forUpdate, int limit) {
         if (disableSeqScan) {
             ctx.setLocal(name("enable_seqscan"), val("off")).execute();
         }
 
         var select = ctx.select(
                 AbstractJdbcRepository.field("value"),
+                AbstractJdbcRepository.field("binary_value"),
                 AbstractJdbcRepository.field("offset")
             )
             .from(this.table)
@@ -70,8 +68,8 @@ public class PostgresQueue<T> extends JdbcQueue<T> {
 
         var limitSelect = select
             .orderBy(AbstractJdbcRepository.field("offset").asc())
-            .limit(configuration.getPollSize());
-        ResultQuery<Record2<Object, Object>> configuredSelect = limitSelect;
+            .limit(limit);
+        ResultQuery<Record3<Object, Object, Object>> configuredSelect = limitSelect;
 
         if (forUpdate) {
             configuredSelect = limitSelect.forUpdate().skipLocked();
@@ -99,14 +97,7 @@ public class PostgresQueue<T> extends JdbcQueue<T> {
     }
 
     @Override
-    protected List<Either<T, DeserializationException>> map(Result<Record> fetch) {
-        return fetch
-            .map(record -> {
-                try {
-                    return Either.left(MAPPER.readValue(record.get("value", JSONB.class).data(), cls));
-                } catch (JsonProcessingException e) {
-                    return Either.right(new DeserializationException(e, record.get("value", String.class)));
-                }
-            });
+    protected String jsonValue(Record record) {
+        return record.get("value", JSONB.class).data();
     }
 }
@@ -14,6 +14,7 @@ import io.kestra.core.runners.*;
 import io.micronaut.context.ApplicationContext;
 import io.micronaut.context.annotation.Bean;
 import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Requires;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
@@ -21,6 +22,7 @@ import org.apache.commons.lang3.NotImplementedException;
 
 @Factory
 @PostgresQueueEnabled
+@Requires(property = "kestra.queue.memory.enabled", notEquals = "true")
 public class PostgresQueueFactory implements QueueFactoryInterface {
     @Inject
     ApplicationContext applicationContext;
@@ -0,0 +1,172 @@
+package io.kestra.runner.postgres;
+
+import io.kestra.jdbc.runner.JdbcQueueNotifier;
+import io.micronaut.configuration.jdbc.hikari.DatasourceConfiguration;
+import io.micronaut.context.annotation.Replaces;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Propagates the queue notifications to the other Kestra processes using Postgres <code>LISTEN/NOTIFY</code>.
+ * <p>
+ * As a <code>NOTIFY</code> serializes the commits of the whole database, producers don't send it inside their transaction:
+ * the produced queue types are collected after commit and notified at most once per queue type and interval,
+ * in a single transaction.
+ * <p>
+ * A single connection per process, outside the connection pool, listens to all notifications and wakes up the local pollers
+ * of the notified queue type. This connection is only opened when the first poller is registered, with the same URL, credentials
+ * and driver properties (SSL, timeouts, ...) as the connections of the pool.
+ */
+@Singleton
+@PostgresQueueEnabled
+@Replaces(JdbcQueueNotifier.class)
+@Slf4j
+public class PostgresQueueNotifier extends JdbcQueueNotifier {
+    private static final String CHANNEL = "kestra_queue";
+    private static final int NOTIFICATION_TIMEOUT_MS = 500;
+    private static final Duration NOTIFY_INTERVAL = Duration.ofMillis(10);
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(1);
+
+    private final DSLContext dslContext;
+    private final String url;
+    private final Properties connectionProperties = new Properties();
+
+    private final Set<String> pendingNotifications = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean isNotifyScheduled = new AtomicBoolean(false);
+    private final ScheduledExecutorService notifyExecutor = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofVirtual().name("postgres-queue-notify").factory()
+    );
+
+    private final AtomicBoolean isStarted = new AtomicBoolean(false);
+    private final AtomicBoolean isClosed = new AtomicBoolean(false);
+
+    @Inject
+    public PostgresQueueNotifier(
+        DSLContext dslContext,
+        @Named("postgres") DatasourceConfiguration datasourceConfiguration
+    ) {
+        this.dslContext = dslContext;
+        this.url = datasourceConfiguration.getJdbcUrl();
+
+        // like the pool does, the data source properties are passed to the driver
+        this.connectionProperties.putAll(datasourceConfiguration.getDataSourceProperties());
+        if (datasourceConfiguration.getUsername() != null) {
+            this.connectionProperties.setProperty("user", datasourceConfiguration.getUsername());
+        }
+        if (datasourceConfiguration.getPassword() != null) {
+            this.connectionProperties.setProperty("password", datasourceConfiguration.getPassword());
+        }
+    }
+
+    @Override
+    public void produced(String queueType) {
+        super.produced(queueType);
+
+        this.pendingNotifications.add(queueType);
+        if (!this.isClosed.get() && this.isNotifyScheduled.compareAndSet(false, true)) {
+            try {
+                this.notifyExecutor.schedule(this::sendNotifications, NOTIFY_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // closing, the other processes will poll the message
+                this.isNotifyScheduled.set(false);
+            }
+        }
+    }
+
+    private void sendNotifications() {
+        // reset first, so a queue type produced while notifying schedules the next notification
+        this.isNotifyScheduled.set(false);
+
+        List<String> queueTypes = new ArrayList<>();
+        for (Iterator<String> iterator = this.pendingNotifications.iterator(); iterator.hasNext(); ) {
+            queueTypes.add(iterator.next());
+            iterator.remove();
+        }
+
+        if (queueTypes.isEmpty()) {
+            return;
+        }
+
+        try {
+            this.dslContext.transaction(configuration -> {
+                DSLContext context = DSL.using(configuration);
+                queueTypes.forEach(queueType -> context.fetch("SELECT pg_notify(?, ?)", CHANNEL, queueType));
+            });
+        } catch (Exception e) {
+            // pollers are still polling on their own, we only lose some latency
+            log.warn("Unable to send queue notifications for {}", queueTypes, e);
+        }
+    }
+
+    @Override
+    public Signal register(String queueType) {
+        if (this.isStarted.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("postgres-queue-notifier").start(this::listen);
+        }
+
+        return super.register(queueType);
+    }
+
+    private void listen() {
+        while (!this.isClosed.get()) {
+            // a dedicated connection, as it is never given back
+            try (Connection connection = DriverManager.getConnection(this.url, this.connectionProperties)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (!this.isClosed.get()) {
+                    PGNotification[] notifications = pgConnection.getNotifications(NOTIFICATION_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            this.signal(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                if (this.isClosed.get()) {
+                    return;
+                }
+
+                // pollers are still polling on their own, we only lose some latency until we reconnect
+                log.warn("Unable to listen to queue notifications, retrying in {}", RECONNECT_DELAY, e);
+                try {
+                    Thread.sleep(RECONNECT_DELAY);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        this.isClosed.set(true);
+        this.notifyExecutor.shutdown();
+    }
+}
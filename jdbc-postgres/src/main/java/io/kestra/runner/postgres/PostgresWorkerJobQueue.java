@@ -10,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.util.function.Consumer;
+import java.util.function.IntSupplier;
 
 /**
  * This specific queue is used to be able to save WorkerJobRunning for each WorkerJob
@@ -24,8 +25,8 @@ public class PostgresWorkerJobQueue extends PostgresQueue<WorkerJob> implements
     }
     
     @Override
-    public Runnable subscribe(String workerId, String workerGroup, Consumer<Either<WorkerJob, DeserializationException>> consumer) {
-        return jdbcWorkerJobQueueService.subscribe(this, workerId, workerGroup, consumer);
+    public Runnable subscribe(String workerId, String workerGroup, IntSupplier capacity, Consumer<Either<WorkerJob, DeserializationException>> consumer) {
+        return jdbcWorkerJobQueueService.subscribe(this, workerId, workerGroup, capacity, consumer);
     }
     
     @Override
@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS concurrency_limit (
+    key VARCHAR(250) NOT NULL PRIMARY KEY,
+    running INT NOT NULL
+);
+
+INSERT INTO concurrency_limit (key, running)
+SELECT concat_ws('|', tenant_id, namespace, flow_id), count(*)
+FROM execution_running
+GROUP BY tenant_id, namespace, flow_id
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,20 @@
+CREATE TABLE IF NOT EXISTS execution_statistics (
+    key VARCHAR(250) NOT NULL PRIMARY KEY,
+    tenant_id VARCHAR(250),
+    namespace VARCHAR(150) NOT NULL,
+    flow_id VARCHAR(150) NOT NULL,
+    start_date TIMESTAMP NOT NULL,
+    state_current VARCHAR(50) NOT NULL,
+    count BIGINT NOT NULL,
+    duration_min BIGINT NOT NULL,
+    duration_max BIGINT NOT NULL,
+    duration_sum BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS execution_statistics_start_date ON execution_statistics (tenant_id, start_date);
+CREATE INDEX IF NOT EXISTS execution_statistics_flow_id ON execution_statistics (tenant_id, namespace, flow_id, start_date);
+
+CREATE TABLE IF NOT EXISTS execution_statistics_watermark (
+    key VARCHAR(250) NOT NULL PRIMARY KEY,
+    watermark TIMESTAMP NOT NULL
+);
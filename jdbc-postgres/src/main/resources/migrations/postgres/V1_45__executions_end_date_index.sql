@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS executions_deleted__end_date ON executions ("deleted", "end_date");
@@ -0,0 +1,6 @@
+package io.kestra.runner.postgres;
+
+import io.kestra.jdbc.runner.AbstractJdbcExecutionRunningStorageTest;
+
+class PostgresExecutionRunningStorageTest extends AbstractJdbcExecutionRunningStorageTest {
+}
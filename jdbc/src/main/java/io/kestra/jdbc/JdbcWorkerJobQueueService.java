@@ -14,6 +14,7 @@ import java.io.Closeable;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.IntSupplier;
 
 @Slf4j
 @Singleton
@@ -28,7 +29,14 @@ public class JdbcWorkerJobQueueService implements Closeable {
     }
 
     public Runnable subscribe(JdbcQueue<WorkerJob> workerJobQueue, String workerId, String workerGroup, Consumer<Either<WorkerJob, DeserializationException>> consumer) {
-        this.disposable.set(workerJobQueue.receiveTransaction(workerGroup, Worker.class, (dslContext, eithers) -> {
+        return this.subscribe(workerJobQueue, workerId, workerGroup, () -> Integer.MAX_VALUE, consumer);
+    }
+
+    /**
+     * Subscribes to the worker jobs, claiming at most <code>capacity</code> jobs per poll so a busy worker leaves them to the others.
+     */
+    public Runnable subscribe(JdbcQueue<WorkerJob> workerJobQueue, String workerId, String workerGroup, IntSupplier capacity, Consumer<Either<WorkerJob, DeserializationException>> consumer) {
+        this.disposable.set(workerJobQueue.receiveTransaction(workerGroup, Worker.class, capacity, (dslContext, eithers) -> {
             final WorkerInstance workerInstance = new WorkerInstance(workerId, workerGroup);
 
             eithers.forEach(either -> {
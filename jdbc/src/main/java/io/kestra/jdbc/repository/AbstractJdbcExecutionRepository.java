@@ -21,6 +21,7 @@ import io.kestra.core.repositories.ExecutionRepositoryInterface;
 import io.kestra.core.runners.Executor;
 import io.kestra.core.runners.ExecutorState;
 import io.kestra.core.utils.DateUtils;
+import io.kestra.core.utils.IdUtils;
 import io.kestra.core.utils.ListUtils;
 import io.kestra.core.utils.NamespaceUtils;
 import io.kestra.jdbc.runner.AbstractJdbcExecutorStateStorage;
@@ -43,7 +44,10 @@ import reactor.core.publisher.FluxSink;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
@@ -59,6 +63,19 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
     private static final Field<String> NAMESPACE_FIELD = field("namespace", String.class);
     private static final Field<Object> START_DATE_FIELD = field("start_date");
     private static final Condition NORMAL_KIND_CONDITION = field("kind").isNull();
+    private static final Field<Object> END_DATE_FIELD = field("end_date");
+    private static final List<State.Type> TERMINATED_STATES = State.Type.terminatedTypes();
+    private static final List<State.Type> NOT_TERMINATED_STATES = Arrays.stream(State.Type.values()).filter(type -> !type.isTerminated()).toList();
+
+    // pre-aggregated statistics of the ended executions, see rollupStatistics()
+    private static final Table<Record> STATISTICS_TABLE = DSL.table("execution_statistics");
+    private static final Table<Record> STATISTICS_WATERMARK_TABLE = DSL.table("execution_statistics_watermark");
+    private static final Field<LocalDateTime> WATERMARK_FIELD = field("watermark", LocalDateTime.class);
+    private static final String WATERMARK_KEY = "watermark";
+    private static final DateTimeFormatter STATISTICS_HOUR_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final Duration STATISTICS_ROLLUP_MAX_WINDOW = Duration.ofDays(1);
+    // an execution may be committed after a rollup with an end date before its watermark
+    private static final Duration STATISTICS_ROLLUP_OVERLAP = Duration.ofMinutes(1);
 
     protected final io.kestra.jdbc.AbstractJdbcRepository<Execution> jdbcRepository;
     private final ApplicationEventPublisher<CrudEvent<Execution>> eventPublisher;
@@ -411,7 +428,7 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
         ZonedDateTime finalStartDate = startDate == null ? ZonedDateTime.now().minusDays(30) : startDate;
         ZonedDateTime finalEndDate = endDate == null ? ZonedDateTime.now() : endDate;
 
-        Results results = dailyStatisticsQueryForAllTenants(
+        List<ExecutionStatistics> statistics = dailyStatisticsQueryForAllTenants(
             List.of(
                 STATE_CURRENT_FIELD
             ),
@@ -425,10 +442,8 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
             null
         );
 
-        return dailyStatisticsQueryMapRecord(
-            results.resultsOrRows()
-                .getFirst()
-                .result(),
+        return dailyStatisticsMap(
+            statistics,
             finalStartDate,
             finalEndDate,
             groupBy
@@ -455,7 +470,7 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
         ZonedDateTime finalStartDate = startDate == null ? ZonedDateTime.now().minusDays(30) : startDate;
         ZonedDateTime finalEndDate = endDate == null ? ZonedDateTime.now() : endDate;
 
-        Results results = dailyStatisticsQuery(
+        List<ExecutionStatistics> statistics = dailyStatisticsQuery(
             List.of(
                 STATE_CURRENT_FIELD
             ),
@@ -471,36 +486,24 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
             states
         );
 
-        return dailyStatisticsQueryMapRecord(
-            results.resultsOrRows()
-                .getFirst()
-                .result(),
+        return dailyStatisticsMap(
+            statistics,
             finalStartDate,
             finalEndDate,
             groupBy
         );
     }
 
-    private List<DailyExecutionStatistics> dailyStatisticsQueryMapRecord(
-        Result<Record> records,
+    private List<DailyExecutionStatistics> dailyStatisticsMap(
+        List<ExecutionStatistics> statistics,
         ZonedDateTime startDate,
         ZonedDateTime endDate,
         @Nullable DateUtils.GroupType groupType
     ) {
         DateUtils.GroupType groupByType = groupType != null ? groupType : DateUtils.groupByType(Duration.between(startDate, endDate));
 
-        return fillDate(records
+        return fillDate(statistics
             .stream()
-            .map(record ->
-                ExecutionStatistics.builder()
-                    .date(this.jdbcRepository.getDate(record, groupByType.val()))
-                    .durationMax(record.get("duration_max", Long.class))
-                    .durationMin(record.get("duration_min", Long.class))
-                    .durationSum(record.get("duration_sum", Long.class))
-                    .stateCurrent(record.get("state_current", String.class))
-                    .count(record.get("count", Long.class))
-                    .build()
-            )
             .collect(Collectors.groupingBy(ExecutionStatistics::getDate))
             .entrySet()
             .stream()
@@ -509,7 +512,7 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
             .toList(), startDate, endDate);
     }
 
-    private Results dailyStatisticsQueryForAllTenants(
+    private List<ExecutionStatistics> dailyStatisticsQueryForAllTenants(
         List<Field<?>> fields,
         @Nullable String query,
         @Nullable String namespace,
@@ -522,6 +525,7 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
     ) {
         return dailyStatisticsQuery(
             this.defaultFilter(),
+            DSL.trueCondition(),
             fields,
             query,
             null,
@@ -535,7 +539,7 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
         );
     }
 
-    private Results dailyStatisticsQuery(
+    private List<ExecutionStatistics> dailyStatisticsQuery(
         List<Field<?>> fields,
         @Nullable String query,
         @Nullable String tenantId,
@@ -550,6 +554,7 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
     ) {
         return dailyStatisticsQuery(
             this.defaultFilter(tenantId),
+            this.buildTenantCondition(tenantId),
             fields,
             query,
             scope,
@@ -563,8 +568,9 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
         );
     }
 
-    private Results dailyStatisticsQuery(
+    private List<ExecutionStatistics> dailyStatisticsQuery(
         Condition defaultFilter,
+        Condition statisticsFilter,
         List<Field<?>> fields,
         @Nullable String query,
         @Nullable List<FlowScope> scope,
@@ -576,44 +582,157 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
         @Nullable DateUtils.GroupType groupBy,
         @Nullable List<State.Type> state
     ) {
-        List<Field<?>> dateFields = new ArrayList<>(groupByFields(Duration.between(startDate, endDate), "start_date", groupBy));
-        List<Field<?>> selectFields = new ArrayList<>(fields);
-        selectFields.addAll(List.of(
-            DSL.count().as("count"),
-            DSL.min(field("state_duration", Long.class)).as("duration_min"),
-            DSL.max(field("state_duration", Long.class)).as("duration_max"),
-            DSL.sum(field("state_duration", Long.class)).as("duration_sum")
-        ));
-        selectFields.addAll(groupByFields(Duration.between(startDate, endDate), "start_date", groupBy, true));
+        Duration duration = Duration.between(startDate, endDate);
+        DateUtils.GroupType groupByType = groupBy != null ? groupBy : DateUtils.groupByType(duration);
+        List<Field<?>> dateFields = new ArrayList<>(groupByFields(duration, "start_date", groupBy));
+
+        List<Field<?>> groupFields = new ArrayList<>(fields);
+        groupFields.addAll(dateFields);
+
+        // the statistics are rolled up by hour, and have no full-text
+        boolean useStatistics = query == null && dateFields.stream().noneMatch(field -> field.getName().equals("minute"));
 
         return jdbcRepository
             .getDslContextWrapper()
             .transactionResult(configuration -> {
                 DSLContext context = DSL.using(configuration);
 
-                SelectConditionStep<?> select = context
-                    .select(selectFields)
-                    .from(this.jdbcRepository.getTable())
-                    .where(defaultFilter)
-                    .and(NORMAL_KIND_CONDITION)
-                    .and(START_DATE_FIELD.greaterOrEqual(startDate.toOffsetDateTime()))
-                    .and(START_DATE_FIELD.lessOrEqual(endDate.toOffsetDateTime()));
+                List<Result<Record>> results = this.statisticsQuery(
+                    context,
+                    startDate,
+                    endDate,
+                    useStatistics,
+                    range -> {
+                        List<Field<?>> selectFields = new ArrayList<>(fields);
+                        selectFields.addAll(List.of(
+                            DSL.count().as("count"),
+                            DSL.min(field("state_duration", Long.class)).as("duration_min"),
+                            DSL.max(field("state_duration", Long.class)).as("duration_max"),
+                            DSL.sum(field("state_duration", Long.class)).as("duration_sum")
+                        ));
+                        selectFields.addAll(groupByFields(duration, "start_date", groupBy, true));
+
+                        SelectConditionStep<Record> select = context
+                            .select(selectFields)
+                            .from(this.jdbcRepository.getTable())
+                            .where(defaultFilter)
+                            .and(NORMAL_KIND_CONDITION)
+                            .and(range);
+
+                        select = filteringQuery(select, scope, namespace, flowId, flows, query, null, null, null);
+
+                        if (state != null) {
+                            select = select.and(this.statesFilter(state));
+                        }
+
+                        return select
+                            .groupBy(groupFields)
+                            .fetch();
+                    },
+                    range -> {
+                        List<Field<?>> selectFields = new ArrayList<>(fields);
+                        selectFields.addAll(List.of(
+                            DSL.sum(field("count", Long.class)).as("count"),
+                            DSL.min(field("duration_min", Long.class)).as("duration_min"),
+                            DSL.max(field("duration_max", Long.class)).as("duration_max"),
+                            DSL.sum(field("duration_sum", Long.class)).as("duration_sum")
+                        ));
+                        selectFields.addAll(groupByFields(duration, "start_date", groupBy, true));
+
+                        SelectConditionStep<Record> select = context
+                            .select(selectFields)
+                            .from(STATISTICS_TABLE)
+                            .where(statisticsFilter)
+                            .and(range);
+
+                        select = filteringQuery(select, scope, namespace, flowId, flows, null, null, null, null);
+
+                        if (state != null) {
+                            select = select.and(STATE_CURRENT_FIELD.in(state.stream().map(Enum::name).toList()));
+                        }
+
+                        return select
+                            .groupBy(groupFields)
+                            .fetch();
+                    }
+                );
 
-                select = filteringQuery(select, scope, namespace, flowId, flows, query, null, null, null);
+                // the same date and state can come from both the statistics and the executions
+                return results
+                    .stream()
+                    .flatMap(Collection::stream)
+                    .map(record -> ExecutionStatistics.builder()
+                        .date(this.jdbcRepository.getDate(record, groupByType.val()))
+                        .durationMax(record.get("duration_max", Long.class))
+                        .durationMin(record.get("duration_min", Long.class))
+                        .durationSum(record.get("duration_sum", Long.class))
+                        .stateCurrent(record.get("state_current", String.class))
+                        .count(record.get("count", Long.class))
+                        .build()
+                    )
+                    .collect(Collectors.toMap(
+                        statistics -> Pair.of(statistics.getDate(), statistics.getStateCurrent()),
+                        Function.identity(),
+                        (first, second) -> ExecutionStatistics.builder()
+                            .date(first.getDate())
+                            .stateCurrent(first.getStateCurrent())
+                            .count(first.getCount() + second.getCount())
+                            .durationMin(Math.min(first.getDurationMin(), second.getDurationMin()))
+                            .durationMax(Math.max(first.getDurationMax(), second.getDurationMax()))
+                            .durationSum(first.getDurationSum() + second.getDurationSum())
+                            .build(),
+                        LinkedHashMap::new
+                    ))
+                    .values()
+                    .stream()
+                    .toList();
+            });
+    }
 
-                if (state != null) {
-                    select = select.and(this.statesFilter(state));
-                }
+    /**
+     * Runs an aggregation on the executions started between two dates.
+     * <p>
+     * When allowed, the complete hours of the range are read from the rolled up statistics of the ended executions,
+     * see {@link #rollupStatistics()}, and only what the statistics can't hold is read from the executions table:
+     * the executions started in the incomplete hours at both ends of the range, the executions not ended yet,
+     * and the executions ended after the last rollup.
+     * The results of the different parts must be summed by the caller.
+     *
+     * @param executionsQuery the aggregation on the executions table for a condition on the start date
+     * @param statisticsQuery the same aggregation on the statistics table for a condition on the start date
+     */
+    private List<Result<Record>> statisticsQuery(
+        DSLContext context,
+        ZonedDateTime startDate,
+        ZonedDateTime endDate,
+        boolean useStatistics,
+        Function<Condition, Result<Record>> executionsQuery,
+        Function<Condition, Result<Record>> statisticsQuery
+    ) {
+        OffsetDateTime start = startDate.toOffsetDateTime();
+        OffsetDateTime end = endDate.toOffsetDateTime();
 
-                List<Field<?>> groupFields = new ArrayList<>(fields);
+        // the statistics are bucketed by hour of the start date as stored, in UTC
+        OffsetDateTime from = start.withOffsetSameInstant(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS);
+        if (from.isBefore(start)) {
+            from = from.plusHours(1);
+        }
+        OffsetDateTime to = end.withOffsetSameInstant(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS);
 
-                groupFields.addAll(dateFields);
+        Optional<LocalDateTime> watermark = useStatistics && from.isBefore(to) ? this.statisticsWatermark(context) : Optional.empty();
+        if (watermark.isEmpty()) {
+            return List.of(executionsQuery.apply(START_DATE_FIELD.greaterOrEqual(start).and(START_DATE_FIELD.lessOrEqual(end))));
+        }
 
-                SelectHavingStep<?> finalQuery = select
-                    .groupBy(groupFields);
+        Condition hours = START_DATE_FIELD.greaterOrEqual(from).and(START_DATE_FIELD.lessThan(to));
 
-                return finalQuery.fetchMany();
-            });
+        return List.of(
+            executionsQuery.apply(START_DATE_FIELD.greaterOrEqual(start).and(START_DATE_FIELD.lessThan(from))),
+            executionsQuery.apply(START_DATE_FIELD.greaterOrEqual(to).and(START_DATE_FIELD.lessOrEqual(end))),
+            executionsQuery.apply(hours.and(this.statesFilter(NOT_TERMINATED_STATES))),
+            executionsQuery.apply(hours.and(this.statesFilter(TERMINATED_STATES)).and(END_DATE_FIELD.greaterThan(watermark.get()))),
+            statisticsQuery.apply(hours)
+        );
     }
 
     private <T extends Record> SelectConditionStep<T> filteringQuery(
@@ -773,23 +892,6 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
             .transactionResult(configuration -> {
                 DSLContext dslContext = DSL.using(configuration);
 
-                SelectConditionStep<?> select = dslContext
-                    .select(List.of(
-                        field("namespace"),
-                        field("flow_id"),
-                        DSL.count().as("count")
-                    ))
-                    .from(this.jdbcRepository.getTable())
-                    .where(this.defaultFilter(tenantId))
-                    .and(NORMAL_KIND_CONDITION);
-
-                select = select.and(START_DATE_FIELD.greaterOrEqual(finalStartDate.toOffsetDateTime()));
-                select = select.and(START_DATE_FIELD.lessOrEqual(finalEndDate.toOffsetDateTime()));
-
-                if (!ListUtils.isEmpty(states)) {
-                    select = select.and(this.statesFilter(states));
-                }
-
                 List<Condition> orConditions = new ArrayList<>();
                 orConditions.addAll(ListUtils.emptyOnNull(flows)
                     .stream()
@@ -806,24 +908,76 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
                         .toList()
                 );
 
-                // add flows filters
-                select = select.and(DSL.or(orConditions));
+                List<Result<Record>> results = this.statisticsQuery(
+                    dslContext,
+                    finalStartDate,
+                    finalEndDate,
+                    true,
+                    range -> {
+                        SelectConditionStep<Record> select = dslContext
+                            .select(List.of(
+                                field("namespace"),
+                                field("flow_id"),
+                                DSL.count().as("count")
+                            ))
+                            .from(this.jdbcRepository.getTable())
+                            .where(this.defaultFilter(tenantId))
+                            .and(NORMAL_KIND_CONDITION)
+                            .and(range);
+
+                        if (!ListUtils.isEmpty(states)) {
+                            select = select.and(this.statesFilter(states));
+                        }
+
+                        // add flows filters
+                        return select
+                            .and(DSL.or(orConditions))
+                            .groupBy(List.of(
+                                field("namespace"),
+                                field("flow_id")
+                            ))
+                            .fetch();
+                    },
+                    range -> {
+                        SelectConditionStep<Record> select = dslContext
+                            .select(List.of(
+                                field("namespace"),
+                                field("flow_id"),
+                                DSL.sum(field("count", Long.class)).as("count")
+                            ))
+                            .from(STATISTICS_TABLE)
+                            .where(this.buildTenantCondition(tenantId))
+                            .and(range);
+
+                        if (!ListUtils.isEmpty(states)) {
+                            select = select.and(STATE_CURRENT_FIELD.in(states.stream().map(Enum::name).toList()));
+                        }
+
+                        return select
+                            .and(DSL.or(orConditions))
+                            .groupBy(List.of(
+                                field("namespace"),
+                                field("flow_id")
+                            ))
+                            .fetch();
+                    }
+                );
 
-                // map result to flow
-                return select
-                    .groupBy(List.of(
-                        field("namespace"),
-                        field("flow_id")
+                // map result to flow, the same flow can come from both the statistics and the executions
+                return results
+                    .stream()
+                    .flatMap(Collection::stream)
+                    .collect(Collectors.groupingBy(
+                        record -> Pair.of(record.getValue("namespace", String.class), record.getValue("flow_id", String.class)),
+                        LinkedHashMap::new,
+                        Collectors.summingLong(record -> record.getValue("count", Long.class))
                     ))
-                    .fetchMany()
-                    .resultsOrRows()
-                    .getFirst()
-                    .result()
+                    .entrySet()
                     .stream()
-                    .map(record -> new ExecutionCount(
-                        record.getValue("namespace", String.class),
-                        record.getValue("flow_id", String.class),
-                        record.getValue("count", Long.class)
+                    .map(entry -> new ExecutionCount(
+                        entry.getKey().getLeft(),
+                        entry.getKey().getRight(),
+                        entry.getValue()
                     ))
                     .toList();
             });
@@ -918,6 +1072,9 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
     public Execution save(Execution execution) {
         Map<Field<Object>, Object> fields = this.jdbcRepository.persistFields(execution);
         this.jdbcRepository.persist(execution, fields);
+        if (execution.getState().getCurrent() == State.Type.RESTARTED) {
+            this.refreshStatistics(execution);
+        }
 
         return execution;
     }
@@ -927,6 +1084,11 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
         Map<Field<Object>, Object> fields = this.jdbcRepository.persistFields(execution);
         this.jdbcRepository.persist(execution, dslContext, fields);
 
+        // a restarted execution is not ended anymore, it must leave the statistics until it ends again
+        if (execution.getState().getCurrent() == State.Type.RESTARTED && execution.getKind() == null) {
+            this.refreshStatistics(dslContext, execution);
+        }
+
         return execution;
     }
 
@@ -966,6 +1128,9 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
 
         Map<Field<Object>, Object> fields = this.jdbcRepository.persistFields(deleted);
         this.jdbcRepository.persist(deleted, fields);
+        if (deleted.getState().isTerminated()) {
+            this.refreshStatistics(deleted);
+        }
 
         executionQueue().emit(deleted);
 
@@ -976,7 +1141,12 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
 
     @Override
     public Integer purge(Execution execution) {
-        return this.jdbcRepository.delete(execution);
+        int purged = this.jdbcRepository.delete(execution);
+        if (purged > 0 && execution.getState().isTerminated()) {
+            this.refreshStatistics(execution);
+        }
+
+        return purged;
     }
 
     public Executor lock(String executionId, Function<Pair<Execution, ExecutorState>, Pair<Executor, ExecutorState>> function) {
@@ -1013,6 +1183,211 @@ public abstract class AbstractJdbcExecutionRepository extends AbstractJdbcReposi
             });
     }
 
+    /**
+     * Rolls up the executions ended since the last rollup into the execution_statistics table, the pre-aggregated
+     * statistics by flow, state and hour of start date used by {@link #dailyStatistics} and {@link #executionCounts}.
+     * <p>
+     * Each hour of a flow having an execution ended since the last rollup is computed again from the executions table,
+     * so it also reflects the deleted or restarted executions of this hour. Deleting or restarting an execution also computes
+     * its hour again at once, as the execution is then read from the executions table only.
+     * A rollup covers at most a day of end dates, so the first rollups on an existing database catch up progressively.
+     * Concurrent rollups are serialized by the lock on the watermark.
+     *
+     * @return the watermark after this rollup: every execution ended before it is in the statistics
+     */
+    public LocalDateTime rollupStatistics() {
+        return this.jdbcRepository
+            .getDslContextWrapper()
+            .transactionResult(configuration -> {
+                DSLContext context = DSL.using(configuration);
+
+                LocalDateTime watermark = this.lockStatisticsWatermark(context);
+                LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+                LocalDateTime upper = watermark.plus(STATISTICS_ROLLUP_MAX_WINDOW).isAfter(now) ? now : watermark.plus(STATISTICS_ROLLUP_MAX_WINDOW);
+
+                this.statisticsBuckets(context, END_DATE_FIELD.greaterThan(watermark.minus(STATISTICS_ROLLUP_OVERLAP)).and(END_DATE_FIELD.lessOrEqual(upper)))
+                    .forEach(bucket -> this.rollupStatistics(context, bucket, upper));
+
+                context.update(STATISTICS_WATERMARK_TABLE)
+                    .set(WATERMARK_FIELD, upper)
+                    .where(field("key").eq(WATERMARK_KEY))
+                    .execute();
+
+                return upper;
+            });
+    }
+
+    /**
+     * Computes again the statistics of all the ended executions.
+     * The statistics are emptied first, then rolled up a day at a time, the executions not rolled up yet being read
+     * from the executions table in the meantime, so the statistics stay correct while they are rebuilt.
+     */
+    public void rebuildStatistics() {
+        this.jdbcRepository
+            .getDslContextWrapper()
+            .transaction(configuration -> {
+                DSLContext context = DSL.using(configuration);
+
+                this.lockStatisticsWatermark(context);
+                context.deleteFrom(STATISTICS_TABLE).execute();
+                context.update(STATISTICS_WATERMARK_TABLE)
+                    .set(WATERMARK_FIELD, this.initialStatisticsWatermark(context))
+                    .where(field("key").eq(WATERMARK_KEY))
+                    .execute();
+            });
+
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        LocalDateTime watermark;
+        do {
+            watermark = this.rollupStatistics();
+        } while (watermark.isBefore(now));
+    }
+
+    /**
+     * Computes again the statistics of the hour of an ended execution, to remove it from the statistics once deleted.
+     */
+    private void refreshStatistics(Execution execution) {
+        if (execution.getKind() != null) {
+            return;
+        }
+
+        this.jdbcRepository
+            .getDslContextWrapper()
+            .transaction(configuration -> this.refreshStatistics(DSL.using(configuration), execution));
+    }
+
+    /**
+     * Computes again the statistics of the hour of an execution, in the transaction that changed it.
+     */
+    private void refreshStatistics(DSLContext context, Execution execution) {
+        // no rollup yet
+        Optional<LocalDateTime> watermark = context.select(WATERMARK_FIELD)
+            .from(STATISTICS_WATERMARK_TABLE)
+            .where(field("key").eq(WATERMARK_KEY))
+            .forUpdate()
+            .fetchOptional(WATERMARK_FIELD);
+
+        if (watermark.isPresent()) {
+            LocalDateTime hour = LocalDateTime.ofInstant(execution.getState().getStartDate(), ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS);
+            this.rollupStatistics(context, new StatisticsBucket(execution.getTenantId(), execution.getNamespace(), execution.getFlowId(), hour), watermark.get());
+        }
+    }
+
+    private void rollupStatistics(DSLContext context, StatisticsBucket bucket, LocalDateTime upper) {
+        Condition flow = this.buildTenantCondition(bucket.tenantId())
+            .and(field("namespace").eq(bucket.namespace()))
+            .and(field("flow_id").eq(bucket.flowId()));
+
+        Result<Record> records = context
+            .select(List.of(
+                STATE_CURRENT_FIELD,
+                DSL.count().as("count"),
+                DSL.min(field("state_duration", Long.class)).as("duration_min"),
+                DSL.max(field("state_duration", Long.class)).as("duration_max"),
+                DSL.sum(field("state_duration", Long.class)).as("duration_sum")
+            ))
+            .from(this.jdbcRepository.getTable())
+            .where(this.defaultFilter())
+            .and(flow)
+            .and(NORMAL_KIND_CONDITION)
+            .and(START_DATE_FIELD.greaterOrEqual(bucket.hour()))
+            .and(START_DATE_FIELD.lessThan(bucket.hour().plusHours(1)))
+            .and(this.statesFilter(TERMINATED_STATES))
+            .and(END_DATE_FIELD.lessOrEqual(upper))
+            .groupBy(STATE_CURRENT_FIELD)
+            .fetch();
+
+        context.deleteFrom(STATISTICS_TABLE)
+            .where(flow)
+            .and(START_DATE_FIELD.eq(bucket.hour()))
+            .execute();
+
+        records.forEach(record -> {
+            String state = record.get("state_current", String.class);
+
+            context.insertInto(STATISTICS_TABLE)
+                .set(field("key"), IdUtils.from(IdUtils.fromPartsAndSeparator('|', bucket.tenantId(), bucket.namespace(), bucket.flowId(), bucket.hour().toString(), state)))
+                .set(field("tenant_id"), bucket.tenantId())
+                .set(field("namespace"), bucket.namespace())
+                .set(field("flow_id"), bucket.flowId())
+                .set(START_DATE_FIELD, bucket.hour())
+                .set(field("state_current"), state)
+                .set(field("count"), record.get("count", Long.class))
+                .set(field("duration_min"), record.get("duration_min", Long.class))
+                .set(field("duration_max"), record.get("duration_max", Long.class))
+                .set(field("duration_sum"), record.get("duration_sum", Long.class))
+                .execute();
+        });
+    }
+
+    /**
+     * The hours of flows with an execution matching the condition, as formatted by the database from the stored start date.
+     */
+    private List<StatisticsBucket> statisticsBuckets(DSLContext context, Condition condition) {
+        Field<String> hour = DSL.field("{0}", String.class, this.formatDateField("start_date", DateUtils.GroupType.HOUR));
+
+        return context
+            .selectDistinct(field("tenant_id"), field("namespace"), field("flow_id"), hour.as("hour"))
+            .from(this.jdbcRepository.getTable())
+            // deleted executions leave the statistics when deleted, the condition on it allows to use the end date index
+            .where(this.defaultFilter())
+            .and(NORMAL_KIND_CONDITION)
+            .and(condition)
+            .fetch()
+            .map(record -> new StatisticsBucket(
+                record.get("tenant_id", String.class),
+                record.get("namespace", String.class),
+                record.get("flow_id", String.class),
+                LocalDateTime.parse(record.get("hour", String.class), STATISTICS_HOUR_FORMATTER)
+            ));
+    }
+
+    private Optional<LocalDateTime> statisticsWatermark(DSLContext context) {
+        return context.select(WATERMARK_FIELD)
+            .from(STATISTICS_WATERMARK_TABLE)
+            .where(field("key").eq(WATERMARK_KEY))
+            .fetchOptional(WATERMARK_FIELD);
+    }
+
+    private LocalDateTime lockStatisticsWatermark(DSLContext context) {
+        Optional<LocalDateTime> watermark = context.select(WATERMARK_FIELD)
+            .from(STATISTICS_WATERMARK_TABLE)
+            .where(field("key").eq(WATERMARK_KEY))
+            .forUpdate()
+            .fetchOptional(WATERMARK_FIELD);
+
+        if (watermark.isPresent()) {
+            return watermark.get();
+        }
+
+        // the watermark is created on first use, concurrent creations are ignored as the row is locked just after
+        context.insertInto(STATISTICS_WATERMARK_TABLE)
+            .set(field("key"), WATERMARK_KEY)
+            .set(WATERMARK_FIELD, this.initialStatisticsWatermark(context))
+            .onDuplicateKeyIgnore()
+            .execute();
+
+        return context.select(WATERMARK_FIELD)
+            .from(STATISTICS_WATERMARK_TABLE)
+            .where(field("key").eq(WATERMARK_KEY))
+            .forUpdate()
+            .fetchOne(WATERMARK_FIELD);
+    }
+
+    /**
+     * Just before the first ended execution, so the first rollups go through all of them.
+     */
+    private LocalDateTime initialStatisticsWatermark(DSLContext context) {
+        LocalDateTime first = context.select(DSL.min(field("end_date", LocalDateTime.class)))
+            .from(this.jdbcRepository.getTable())
+            .where(this.defaultFilter())
+            .fetchOne(0, LocalDateTime.class);
+
+        return first == null ? LocalDateTime.now(ZoneOffset.UTC) : first.minusSeconds(1);
+    }
+
+    private record StatisticsBucket(String tenantId, String namespace, String flowId, LocalDateTime hour) {}
+
     @Override
     public Function<String, String> sortMapping() throws IllegalArgumentException {
         Map<String, String> mapper = Map.of(
@@ -1,5 +1,6 @@
 package io.kestra.jdbc.repository;
 
+import com.google.common.collect.Iterables;
 import io.kestra.core.models.QueryFilter;
 import io.kestra.core.models.QueryFilter.Resource;
 import io.kestra.core.models.conditions.ConditionContext;
@@ -38,6 +39,8 @@ import java.util.stream.Collectors;
 
 public abstract class AbstractJdbcTriggerRepository extends AbstractJdbcRepository implements TriggerRepositoryInterface, JdbcQueueIndexerInterface<Trigger> {
     public static final Field<Object> NAMESPACE_FIELD = field("namespace");
+    // bounds the size of the IN clauses on trigger keys
+    private static final int KEYS_CHUNK_SIZE = 1000;
 
     protected io.kestra.jdbc.AbstractJdbcRepository<Trigger> jdbcRepository;
 
@@ -150,12 +153,7 @@ public abstract class AbstractJdbcTriggerRepository extends AbstractJdbcReposito
         return jdbcSchedulerContext.getContext()
             .select(field("value"))
             .from(this.jdbcRepository.getTable())
-            .where(
-                (field("next_execution_date").lessThan(now.toOffsetDateTime())
-                    // we check for null for backwards compatibility
-                    .or(field("next_execution_date").isNull()))
-                    .and(field("execution_id").isNull())
-            )
+            .where(this.readyCondition(now))
             .orderBy(field("next_execution_date").asc())
             .forUpdate()
             .skipLocked()
@@ -163,6 +161,71 @@ public abstract class AbstractJdbcTriggerRepository extends AbstractJdbcReposito
             .map(r -> this.jdbcRepository.deserialize(r.get("value", String.class)));
     }
 
+    /**
+     * Finds and locks at most <code>limit</code> triggers ready to be evaluated, the ones with the oldest next execution date first.
+     */
+    public List<Trigger> findByNextExecutionDateReadyForAllTenants(ZonedDateTime now, int limit, ScheduleContextInterface scheduleContextInterface) {
+        JdbcSchedulerContext jdbcSchedulerContext = (JdbcSchedulerContext) scheduleContextInterface;
+
+        return jdbcSchedulerContext.getContext()
+            .select(field("value"))
+            .from(this.jdbcRepository.getTable())
+            .where(this.readyCondition(now))
+            .orderBy(field("next_execution_date").asc())
+            .limit(limit)
+            .forUpdate()
+            .skipLocked()
+            .fetch()
+            .map(r -> this.jdbcRepository.deserialize(r.get("value", String.class)));
+    }
+
+    /**
+     * Finds the keys of the triggers ready to be evaluated, without locking them.
+     * The triggers must then be locked with {@link #findByNextExecutionDateReadyForAllTenants(ZonedDateTime, Collection, ScheduleContextInterface)}.
+     */
+    public List<String> findKeysByNextExecutionDateReadyForAllTenants(ZonedDateTime now) {
+        return this.jdbcRepository.getDslContextWrapper()
+            .transactionResult(configuration -> DSL.using(configuration)
+                .select(field("key"))
+                .from(this.jdbcRepository.getTable())
+                .where(this.readyCondition(now))
+                .orderBy(field("next_execution_date").asc())
+                .fetch()
+                .map(r -> r.get("key", String.class)));
+    }
+
+    /**
+     * Finds and locks the triggers of the given keys that are still ready to be evaluated.
+     * The keys are queried by chunks, in their order, to keep the size of the queries bounded.
+     */
+    public List<Trigger> findByNextExecutionDateReadyForAllTenants(ZonedDateTime now, Collection<String> keys, ScheduleContextInterface scheduleContextInterface) {
+        JdbcSchedulerContext jdbcSchedulerContext = (JdbcSchedulerContext) scheduleContextInterface;
+
+        List<Trigger> triggers = new ArrayList<>();
+        for (List<String> chunk : Iterables.partition(keys, KEYS_CHUNK_SIZE)) {
+            triggers.addAll(jdbcSchedulerContext.getContext()
+                .select(field("value"))
+                .from(this.jdbcRepository.getTable())
+                .where(field("key").in(chunk))
+                .and(this.readyCondition(now))
+                .orderBy(field("next_execution_date").asc())
+                .forUpdate()
+                .skipLocked()
+                .fetch()
+                .map(r -> this.jdbcRepository.deserialize(r.get("value", String.class)))
+            );
+        }
+
+        return triggers;
+    }
+
+    private Condition readyCondition(ZonedDateTime now) {
+        return (field("next_execution_date").lessThan(now.toOffsetDateTime())
+            // we check for null for backwards compatibility
+            .or(field("next_execution_date").isNull()))
+            .and(field("execution_id").isNull());
+    }
+
     public List<Trigger> findByNextExecutionDateReadyButLockedTriggers(ZonedDateTime now) {
         return this.jdbcRepository.getDslContextWrapper()
             .transactionResult(configuration -> DSL.using(configuration)
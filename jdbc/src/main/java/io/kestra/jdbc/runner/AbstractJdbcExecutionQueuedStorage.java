@@ -8,6 +8,7 @@ import org.jooq.DSLContext;
 import org.jooq.Field;
 import org.jooq.impl.DSL;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -49,6 +50,31 @@ public abstract class AbstractJdbcExecutionQueuedStorage extends AbstractJdbcRep
             });
     }
 
+    /**
+     * Pops up to <code>limit</code> queued executions of a flow, the oldest first, inside the transaction of the given context.
+     */
+    public List<Execution> pop(DSLContext dslContext, String tenantId, String namespace, String flowId, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        var select = dslContext
+            .select(AbstractJdbcRepository.field("value"))
+            .from(this.jdbcRepository.getTable())
+            .where(buildTenantCondition(tenantId))
+            .and(field("namespace").eq(namespace))
+            .and(field("flow_id").eq(flowId))
+            .orderBy(field("date").asc())
+            .limit(limit)
+            .forUpdate()
+            .skipLocked();
+
+        List<ExecutionQueued> queued = this.jdbcRepository.fetch(select);
+        queued.forEach(executionQueued -> this.jdbcRepository.delete(dslContext, executionQueued));
+
+        return queued.stream().map(ExecutionQueued::getExecution).toList();
+    }
+
     /**
      * This method should only be used for administration purpose via a command
      */
@@ -7,13 +7,21 @@ import io.kestra.core.utils.IdUtils;
 import io.kestra.jdbc.repository.AbstractJdbcRepository;
 import org.jooq.DSLContext;
 import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Table;
 import org.jooq.impl.DSL;
 
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.*;
 
 public class AbstractJdbcExecutionRunningStorage extends AbstractJdbcRepository {
+    // one row by flow holding the number of its running executions, see the concurrency_limit migration
+    private static final Table<Record> SLOTS_TABLE = DSL.table("concurrency_limit");
+    private static final Field<Integer> RUNNING_FIELD = field("running", Integer.class);
+
     protected io.kestra.jdbc.AbstractJdbcRepository<ExecutionRunning> jdbcRepository;
 
     public AbstractJdbcExecutionRunningStorage(io.kestra.jdbc.AbstractJdbcRepository<ExecutionRunning> jdbcRepository) {
@@ -26,44 +34,50 @@ public class AbstractJdbcExecutionRunningStorage extends AbstractJdbcRepository
         );
     }
 
+    /**
+     * Saves the running execution, taking a concurrency slot of its flow if it was not already running.
+     */
     public void save(DSLContext dslContext, ExecutionRunning executionRunning) {
+        boolean exists = dslContext.fetchExists(
+            dslContext.selectOne()
+                .from(this.jdbcRepository.getTable())
+                .where(field("key").eq(this.jdbcRepository.key(executionRunning)))
+        );
+
         Map<Field<Object>, Object> fields = this.jdbcRepository.persistFields(executionRunning);
         this.jdbcRepository.persist(executionRunning, dslContext, fields);
+
+        if (!exists) {
+            this.addSlots(dslContext, slotKey(executionRunning.getTenantId(), executionRunning.getNamespace(), executionRunning.getFlowId()), 1);
+        }
     }
 
     /**
      * Count for running executions then process the count using the consumer function.
-     * It locked the raw and is wrapped in a transaction so the consumer should use the provided dslContext for any database access.
-     * <p>
-     * Note: when there is no execution running, there will be no database locks, so multiple calls will return 0.
-     * This is only potentially an issue with multiple executor instances when the concurrency limit is set to 1.
+     * The count is read from the concurrency slot counter of the flow, a single row locked for the whole transaction,
+     * so concurrent calls for the same flow are serialized even when there is no execution running.
+     * The consumer should use the provided dslContext for any database access.
      */
-    public ExecutionRunning countThenProcess(FlowInterface flow, BiFunction<DSLContext, Integer, ExecutionRunning> consumer) {
+    public <T> T countThenProcess(FlowInterface flow, BiFunction<DSLContext, Integer, T> consumer) {
         return this.jdbcRepository
             .getDslContextWrapper()
             .transactionResult(configuration -> {
                 var dslContext = DSL.using(configuration);
-                var select = dslContext
-                    .select(AbstractJdbcRepository.field("value"))
-                    .from(this.jdbcRepository.getTable())
-                    .where(this.buildTenantCondition(flow.getTenantId()))
-                    .and(field("namespace").eq(flow.getNamespace()))
-                    .and(field("flow_id").eq(flow.getId()));
+                int count = this.lockSlots(dslContext, slotKey(flow.getTenantId(), flow.getNamespace(), flow.getId()));
 
-                Integer count = select.forUpdate().fetch().size();
                 return consumer.apply(dslContext, count);
             });
     }
 
     /**
-     * Delete the execution running corresponding to the given execution.
+     * Delete the execution running corresponding to the given execution, releasing its concurrency slot.
      */
     public void remove(Execution execution) {
         this.jdbcRepository
             .getDslContextWrapper()
             .transaction(configuration -> {
-                var select = DSL
-                    .using(configuration)
+                var dslContext = DSL.using(configuration);
+                var select = dslContext
                     .select(AbstractJdbcRepository.field("value"))
                     .from(this.jdbcRepository.getTable())
                     .where(buildTenantCondition(execution.getTenantId()))
@@ -71,7 +85,91 @@ public class AbstractJdbcExecutionRunningStorage extends AbstractJdbcRepository
                     .forUpdate();
 
                 Optional<ExecutionRunning> maybeExecution = this.jdbcRepository.fetchOne(select);
-                maybeExecution.ifPresent(executionRunning -> this.jdbcRepository.delete(executionRunning));
+                if (maybeExecution.isPresent() && this.jdbcRepository.delete(dslContext, maybeExecution.get()) > 0) {
+                    this.addSlots(dslContext, slotKey(execution.getTenantId(), execution.getNamespace(), execution.getFlowId()), -1);
+                }
             });
     }
+
+    /**
+     * Recounts the running executions of each flow and fixes its concurrency slot counter, as a counter drifts
+     * when running executions are deleted without releasing their slot, for example when a flow or a tenant is deleted.
+     * Each counter is recounted in its own transaction holding its lock, so it's safe while executions are running.
+     *
+     * @return the number of counters that were fixed
+     */
+    public int reconcile() {
+        Set<String> keys = new HashSet<>();
+        this.jdbcRepository.getDslContextWrapper().transaction(configuration -> {
+            DSLContext dslContext = DSL.using(configuration);
+
+            keys.addAll(dslContext.select(field("key", String.class)).from(SLOTS_TABLE).fetch(r -> r.value1()));
+            dslContext.selectDistinct(field("tenant_id", String.class), field("namespace", String.class), field("flow_id", String.class))
+                .from(this.jdbcRepository.getTable())
+                .fetch()
+                .forEach(r -> keys.add(slotKey(r.value1(), r.value2(), r.value3())));
+        });
+
+        int fixed = 0;
+        for (String key : keys) {
+            boolean updated = this.jdbcRepository.getDslContextWrapper().transactionResult(configuration -> {
+                DSLContext dslContext = DSL.using(configuration);
+                int running = this.lockSlots(dslContext, key);
+                // the key of a running execution is the key of the counter of its flow followed by the execution id
+                int actual = dslContext.fetchCount(
+                    this.jdbcRepository.getTable(),
+                    field("key", String.class).startsWith(key + "|")
+                );
+
+                if (running == actual) {
+                    return false;
+                }
+
+                dslContext.update(SLOTS_TABLE)
+                    .set(RUNNING_FIELD, actual)
+                    .where(field("key").eq(key))
+                    .execute();
+                return true;
+            });
+
+            if (updated) {
+                fixed++;
+            }
+        }
+
+        return fixed;
+    }
+
+    private int lockSlots(DSLContext dslContext, String key) {
+        // the counter is created on first use, concurrent creations are ignored as the row is locked just after
+        dslContext.insertInto(SLOTS_TABLE)
+            .set(field("key"), key)
+            .set(RUNNING_FIELD, 0)
+            .onDuplicateKeyIgnore()
+            .execute();
+
+        Integer running = dslContext.select(RUNNING_FIELD)
+            .from(SLOTS_TABLE)
+            .where(field("key").eq(key))
+            .forUpdate()
+            .fetchOne(RUNNING_FIELD);
+
+        return running == null ? 0 : running;
+    }
+
+    private void addSlots(DSLContext dslContext, String key, int delta) {
+        int updated = dslContext.update(SLOTS_TABLE)
+            .set(RUNNING_FIELD, DSL.greatest(RUNNING_FIELD.plus(delta), DSL.inline(0)))
+            .where(field("key").eq(key))
+            .execute();
+
+        if (updated == 0 && delta > 0) {
+            this.lockSlots(dslContext, key);
+            this.addSlots(dslContext, key, delta);
+        }
+    }
+
+    private static String slotKey(String tenantId, String namespace, String flowId) {
+        return IdUtils.fromPartsAndSeparator('|', tenantId, namespace, flowId);
+    }
 }
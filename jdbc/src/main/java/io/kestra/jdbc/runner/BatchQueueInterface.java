@@ -0,0 +1,37 @@
+package io.kestra.jdbc.runner;
+
+import io.kestra.core.exceptions.DeserializationException;
+import io.kestra.core.queues.QueueException;
+import io.kestra.core.queues.QueueInterface;
+import io.kestra.core.utils.Either;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A queue that can be consumed by batch and purged by key, as needed by the JDBC Executor and Indexer.
+ * <p>
+ * Implemented by the {@link JdbcQueue} and by queues that only share the JDBC repositories and storages, like the in-memory queue.
+ */
+public interface BatchQueueInterface<T> extends QueueInterface<T> {
+    /**
+     * Emits a message without indexing it.
+     */
+    void emitOnly(String consumerGroup, T message) throws QueueException;
+
+    /**
+     * Delete all messages of the queue for this key.
+     */
+    void deleteByKey(String key) throws QueueException;
+
+    /**
+     * Delete all messages of the queue for a set of keys.
+     */
+    void deleteByKeys(List<String> keys) throws QueueException;
+
+    default Runnable receiveBatch(Class<?> queueType, Consumer<List<Either<T, DeserializationException>>> consumer) {
+        return receiveBatch(null, queueType, consumer);
+    }
+
+    Runnable receiveBatch(String consumerGroup, Class<?> queueType, Consumer<List<Either<T, DeserializationException>>> consumer);
+}
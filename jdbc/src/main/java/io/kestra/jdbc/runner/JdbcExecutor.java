@@ -74,6 +74,9 @@ public class JdbcExecutor implements ExecutorInterface, Service {
     private final ScheduledExecutorService scheduledDelay = Executors.newSingleThreadScheduledExecutor();
     private ScheduledFuture<?> executionDelayFuture;
     private ScheduledFuture<?> monitorSLAFuture;
+    private final ScheduledExecutorService scheduledStatistics = Executors.newSingleThreadScheduledExecutor();
+    private ScheduledFuture<?> executionStatisticsFuture;
+    private ScheduledFuture<?> executionRunningReconcileFuture;
 
     @Inject
     private AbstractJdbcExecutionRepository executionRepository;
@@ -124,6 +127,9 @@ public class JdbcExecutor implements ExecutorInterface, Service {
     @Inject
     private PluginDefaultService pluginDefaultService;
 
+    @Inject
+    private FlowWithDefaultsCache flowWithDefaultsCache;
+
     @Inject
     private Optional<Template.TemplateExecutorInterface> templateExecutorInterface;
 
@@ -162,6 +168,9 @@ public class JdbcExecutor implements ExecutorInterface, Service {
 
     protected List<FlowWithSource> allFlows;
 
+    // flow triggers by listened state, rebuilt with allFlows so each execution state change only visits the listening triggers
+    private FlowTriggerIndex flowTriggerIndex = FlowTriggerIndex.EMPTY;
+
     @Inject
     private WorkerGroupService workerGroupService;
 
@@ -195,6 +204,10 @@ public class JdbcExecutor implements ExecutorInterface, Service {
     @Value("${kestra.jdbc.executor.clean.worker-queue:true}")
     private boolean cleanWorkerJobQueue;
 
+    // the concurrency slot counters are reconciled on the schedule of the JDBC cleaner
+    @Value("${kestra.jdbc.cleaner.fixed-delay:1h}")
+    private Duration reconcileInterval;
+
     private final Tracer tracer;
 
     private final FlowMetaStoreInterface flowMetaStore;
@@ -286,11 +299,16 @@ public class JdbcExecutor implements ExecutorInterface, Service {
             serviceLivenessCoordinator.setExecutor(this);
         }
         flowListeners.run();
-        flowListeners.listen(flows -> this.allFlows = flows);
+        flowListeners.listen(flows -> {
+            this.flowTriggerIndex = flowTriggerService.index(flows);
+            this.allFlows = flows;
+        });
 
         Await.until(() -> this.allFlows != null, Duration.ofMillis(100), Duration.ofMinutes(5));
 
-        this.receiveCancellations.addFirst(((JdbcQueue<Execution>) this.executionQueue).receiveBatch(
+        this.executionRunningReconcile();
+
+        this.receiveCancellations.addFirst(((BatchQueueInterface<Execution>) this.executionQueue).receiveBatch(
             Executor.class,
             executions -> {
                 List<CompletableFuture<Void>> futures = executions.stream()
@@ -299,11 +317,21 @@ public class JdbcExecutor implements ExecutorInterface, Service {
                 CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
             }
         ));
-        this.receiveCancellations.addFirst(((JdbcQueue<WorkerTaskResult>) this.workerTaskResultQueue).receiveBatch(
+        this.receiveCancellations.addFirst(((BatchQueueInterface<WorkerTaskResult>) this.workerTaskResultQueue).receiveBatch(
             Executor.class,
             workerTaskResults -> {
-                List<CompletableFuture<Void>> futures = workerTaskResults.stream()
-                    .map(workerTaskResult -> CompletableFuture.runAsync(() -> workerTaskResultQueue(workerTaskResult), workerTaskResultExecutorService))
+                // results of the same execution are joined together, so the execution is locked and persisted only once
+                Map<String, List<WorkerTaskResult>> byExecution = new LinkedHashMap<>();
+                workerTaskResults.forEach(either -> {
+                    if (either.isRight()) {
+                        log.error("Unable to deserialize a worker task result: {}", either.getRight().getMessage(), either.getRight());
+                        return;
+                    }
+                    byExecution.computeIfAbsent(either.getLeft().getTaskRun().getExecutionId(), k -> new ArrayList<>()).add(either.getLeft());
+                });
+
+                List<CompletableFuture<Void>> futures = byExecution.values().stream()
+                    .map(results -> CompletableFuture.runAsync(() -> workerTaskResultQueue(results), workerTaskResultExecutorService))
                     .toList();
                 CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
             }
@@ -328,6 +356,22 @@ public class JdbcExecutor implements ExecutorInterface, Service {
             TimeUnit.SECONDS
         );
 
+        // on its own thread as a rollup can be long, and errors are logged as it's retried on the next run
+        executionStatisticsFuture = scheduledStatistics.scheduleWithFixedDelay(
+            this::executionStatisticsRollup,
+            0,
+            10,
+            TimeUnit.SECONDS
+        );
+
+        // counters drift when running executions are deleted without releasing their slot, so they are fixed on a regular basis
+        executionRunningReconcileFuture = scheduledStatistics.scheduleWithFixedDelay(
+            this::executionRunningReconcile,
+            reconcileInterval.toMillis(),
+            reconcileInterval.toMillis(),
+            TimeUnit.MILLISECONDS
+        );
+
         // look at exceptions on the scheduledDelay thread
         Thread.ofVirtual().name("jdbc-delay-exception-watcher").start(
             () -> {
@@ -420,6 +464,11 @@ public class JdbcExecutor implements ExecutorInterface, Service {
         }
 
         ClusterEvent clusterEvent = either.getLeft();
+        // K/V changes are frequent, and only handled by the K/V store cache
+        if (clusterEvent.eventType() == ClusterEvent.EventType.KV_CHANGED) {
+            return;
+        }
+
         log.info("Cluster event received: {}", clusterEvent);
         switch (clusterEvent.eventType()) {
             case MAINTENANCE_ENTER -> enterMaintenance();
@@ -648,31 +697,7 @@ public class JdbcExecutor implements ExecutorInterface, Service {
                         }
 
                         // subflow executions
-                        if (!executor.getSubflowExecutions().isEmpty()) {
-                            List<SubflowExecution<?>> subflowExecutionDedup = executor
-                                .getSubflowExecutions()
-                                .stream()
-                                .filter(subflowExecution -> this.deduplicateSubflowExecution(execution, executorState, subflowExecution.getParentTaskRun()))
-                                .toList();
-
-                                    subflowExecutionDedup
-                                        .forEach(throwConsumer(subflowExecution -> {
-                                            Execution subExecution = subflowExecution.getExecution();
-                                            String log = String.format("Created new execution [[link execution=\"%s\" flowId=\"%s\" namespace=\"%s\"]]", subExecution.getId(), subExecution.getFlowId(), subExecution.getNamespace());
-
-                                            JdbcExecutor.log.info(log);
-
-                                            logQueue.emit(LogEntry.of(subflowExecution.getParentTaskRun(), subflowExecution.getExecution().getKind()).toBuilder()
-                                                .level(Level.INFO)
-                                                .message(log)
-                                                .timestamp(subflowExecution.getParentTaskRun().getState().getStartDate())
-                                                .thread(Thread.currentThread().getName())
-                                                .build()
-                                            );
-
-                                    executionQueue.emit(subflowExecution.getExecution());
-                                }));
-                        }
+                        this.emitSubflowExecutions(execution, executorState, executor.getSubflowExecutions());
 
                         return Pair.of(
                             executor,
@@ -699,48 +724,56 @@ public class JdbcExecutor implements ExecutorInterface, Service {
         }
     }
 
-    private void workerTaskResultQueue(Either<WorkerTaskResult, DeserializationException> either) {
-        if (either.isRight()) {
-            log.error("Unable to deserialize a worker task result: {}", either.getRight().getMessage(), either.getRight());
-            return;
-        }
+    private void workerTaskResultQueue(List<WorkerTaskResult> results) {
+        List<WorkerTaskResult> messages = results.stream()
+            .filter(message -> {
+                if (skipExecutionService.skipExecution(message.getTaskRun())) {
+                    log.warn("Skipping execution {}", message.getTaskRun().getExecutionId());
+                    return false;
+                }
+                return true;
+            })
+            .toList();
 
-        WorkerTaskResult message = either.getLeft();
-        if (skipExecutionService.skipExecution(message.getTaskRun())) {
-            log.warn("Skipping execution {}", message.getTaskRun().getExecutionId());
+        if (messages.isEmpty()) {
             return;
         }
 
         if (log.isDebugEnabled()) {
-            executorService.log(log, true, message);
+            messages.forEach(message -> executorService.log(log, true, message));
         }
 
-        Executor executor = executionRepository.lock(message.getTaskRun().getExecutionId(), pair -> {
+        String executionId = messages.getFirst().getTaskRun().getExecutionId();
+        Executor executor = executionRepository.lock(executionId, pair -> {
             Execution execution = pair.getLeft();
             Executor current = new Executor(execution, null);
 
             if (execution == null) {
-                throw new IllegalStateException("Execution state don't exist for " + message.getTaskRun().getExecutionId() + ", receive " + message);
+                throw new IllegalStateException("Execution state don't exist for " + executionId + ", receive " + messages);
             }
 
-            if (execution.hasTaskRunJoinable(message.getTaskRun())) {
-                try {
-                    // process worker task result
-                    executorService.addWorkerTaskResult(current, () -> findFlow(execution), message);
-                    // join worker result
-                    return Pair.of(
-                        current,
-                        pair.getRight()
-                    );
-                } catch (InternalException e) {
-                    return Pair.of(
-                        handleFailedExecutionFromExecutor(current, e),
-                        pair.getRight()
-                    );
+            int joined = 0;
+            for (WorkerTaskResult message : messages) {
+                if (current.getExecution().hasTaskRunJoinable(message.getTaskRun())) {
+                    try {
+                        // process worker task result
+                        executorService.addWorkerTaskResult(current, () -> findFlow(execution), message);
+                    } catch (InternalException e) {
+                        // like for a single result, the execution is failed, then the next results are still joined on it
+                        current = handleFailedExecutionFromExecutor(current, e);
+                    }
+                    joined++;
                 }
             }
 
-            return null;
+            if (joined > 1) {
+                metricRegistry
+                    .counter(MetricRegistry.METRIC_EXECUTOR_WORKER_TASK_RESULT_COALESCED_COUNT, MetricRegistry.METRIC_EXECUTOR_WORKER_TASK_RESULT_COALESCED_COUNT_DESCRIPTION)
+                    .increment(joined - 1);
+            }
+
+            // join worker results
+            return joined > 0 ? Pair.of(current, pair.getRight()) : null;
         });
 
         if (executor != null) {
@@ -817,6 +850,16 @@ public class JdbcExecutor implements ExecutorInterface, Service {
 
                     current = current.withExecution(newExecution, "joinSubflowExecutionResult");
 
+                    // with a window of concurrent iterations, a new subflow execution is started each time one has ended
+                    if (task instanceof ForEachItem.ForEachItemExecutable forEachItem && message.getState().isTerminated()) {
+                        RunContext runContext = runContextFactory.of(flow, task, current.getExecution(), taskRun);
+                        current = executorService.handleExecutableTaskNextIterations(current.withFlow(flow), forEachItem, runContext, taskRun);
+
+                        this.emitSubflowExecutions(current.getExecution(), pair.getRight(), current.getSubflowExecutions());
+                        current.getSubflowExecutionResults()
+                            .forEach(throwConsumer(subflowExecutionResult -> subflowExecutionResultQueue.emit(subflowExecutionResult)));
+                    }
+
                     // send metrics on parent taskRun terminated
                     if (taskRun.getState().isTerminated()) {
                         metricRegistry
@@ -835,7 +878,7 @@ public class JdbcExecutor implements ExecutorInterface, Service {
                         current,
                         pair.getRight()
                     );
-                } catch (InternalException e) {
+                } catch (InternalException | QueueException e) {
                     return Pair.of(
                         handleFailedExecutionFromExecutor(current, e),
                         pair.getRight()
@@ -1004,7 +1047,7 @@ public class JdbcExecutor implements ExecutorInterface, Service {
             executionQueue.emit(processed.getExecution());
 
             // process flow triggers to allow listening on QUEUED and RUNNING state for concurrency limit
-            flowTriggerService.computeExecutionsFromFlowTriggers(processed.getExecution(), allFlows, Optional.of(multipleConditionStorage))
+            flowTriggerService.computeExecutionsFromFlowTriggers(processed.getExecution(), flowTriggerIndex, Optional.of(multipleConditionStorage))
                 .forEach(throwConsumer(executionFromFlowTrigger -> this.executionQueue.emit(executionFromFlowTrigger)));
         } catch (QueueException e) {
             try {
@@ -1086,20 +1129,20 @@ public class JdbcExecutor implements ExecutorInterface, Service {
             // IMPORTANT: this must be done before emitting the last execution message so that all consumers are notified that the execution ends.
             // NOTE: we may also purge ExecutionKilled events, but as there may not be a lot of them, it may not be worth it.
             if (cleanExecutionQueue && isTerminated) {
-                ((JdbcQueue<Execution>) executionQueue).deleteByKey(executor.getExecution().getId());
+                ((BatchQueueInterface<Execution>) executionQueue).deleteByKey(executor.getExecution().getId());
             }
 
             // emit for other consumers than the executor if no failure
             if (hasFailure) {
                 this.executionQueue.emit(executor.getExecution());
             } else {
-                ((JdbcQueue<Execution>) this.executionQueue).emitOnly(null, executor.getExecution());
+                ((BatchQueueInterface<Execution>) this.executionQueue).emitOnly(null, executor.getExecution());
             }
 
             Execution execution = executor.getExecution();
             // handle flow triggers on state change
             if (!execution.getState().getCurrent().equals(executor.getOriginalState())) {
-                flowTriggerService.computeExecutionsFromFlowTriggers(execution, allFlows, Optional.of(multipleConditionStorage))
+                flowTriggerService.computeExecutionsFromFlowTriggers(execution, flowTriggerIndex, Optional.of(multipleConditionStorage))
                     .forEach(throwConsumer(executionFromFlowTrigger -> this.executionQueue.emit(executionFromFlowTrigger)));
             }
 
@@ -1130,27 +1173,35 @@ public class JdbcExecutor implements ExecutorInterface, Service {
 
                 // check if there exist a queued execution and submit it to the execution queue
                 if (executor.getFlow().getConcurrency() != null && executor.getFlow().getConcurrency().getBehavior() == Concurrency.Behavior.QUEUE) {
-                    executionQueuedStorage.pop(executor.getFlow().getTenantId(),
-                        executor.getFlow().getNamespace(),
-                        executor.getFlow().getId(),
-                        throwConsumer(queued -> {
-                            var newExecution = queued.withState(State.Type.RUNNING);
-                            ExecutionRunning executionRunning = ExecutionRunning.builder()
-                                .tenantId(newExecution.getTenantId())
-                                .namespace(newExecution.getNamespace())
-                                .flowId(newExecution.getFlowId())
-                                .execution(newExecution)
-                                .concurrencyState(ExecutionRunning.ConcurrencyState.RUNNING)
-                                .build();
-                            executionRunningStorage.save(executionRunning);
-                            executionQueue.emit(newExecution);
-                            metricRegistry.counter(MetricRegistry.METRIC_EXECUTOR_EXECUTION_POPPED_COUNT, MetricRegistry.METRIC_EXECUTOR_EXECUTION_POPPED_COUNT_DESCRIPTION, metricRegistry.tags(newExecution)).increment();
-
-                            // process flow triggers to allow listening on RUNNING state after a QUEUED state
-                            flowTriggerService.computeExecutionsFromFlowTriggers(newExecution, allFlows, Optional.of(multipleConditionStorage))
-                                .forEach(throwConsumer(executionFromFlowTrigger -> this.executionQueue.emit(executionFromFlowTrigger)));
-                        })
-                    );
+                    // pop as many queued executions as there are free slots, in the transaction locking the slots of the flow
+                    FlowWithSource flow = executor.getFlow();
+                    List<Execution> popped = executionRunningStorage.countThenProcess(flow, (dslContext, running) -> {
+                        List<Execution> newExecutions = executionQueuedStorage.pop(dslContext, flow.getTenantId(), flow.getNamespace(), flow.getId(), flow.getConcurrency().getLimit() - running)
+                            .stream()
+                            .map(queued -> queued.withState(State.Type.RUNNING))
+                            .toList();
+
+                        newExecutions.forEach(newExecution -> executionRunningStorage.save(dslContext, ExecutionRunning.builder()
+                            .tenantId(newExecution.getTenantId())
+                            .namespace(newExecution.getNamespace())
+                            .flowId(newExecution.getFlowId())
+                            .execution(newExecution)
+                            .concurrencyState(ExecutionRunning.ConcurrencyState.RUNNING)
+                            .build()
+                        ));
+
+                        return newExecutions;
+                    });
+
+                    // emitted once their slots are committed, so they never run if the transaction is rolled back
+                    for (Execution newExecution : popped) {
+                        executionQueue.emit(newExecution);
+                        metricRegistry.counter(MetricRegistry.METRIC_EXECUTOR_EXECUTION_POPPED_COUNT, MetricRegistry.METRIC_EXECUTOR_EXECUTION_POPPED_COUNT_DESCRIPTION, metricRegistry.tags(newExecution)).increment();
+
+                        // process flow triggers to allow listening on RUNNING state after a QUEUED state
+                        flowTriggerService.computeExecutionsFromFlowTriggers(newExecution, flowTriggerIndex, Optional.of(multipleConditionStorage))
+                            .forEach(throwConsumer(executionFromFlowTrigger -> this.executionQueue.emit(executionFromFlowTrigger)));
+                    }
                 }
 
                 // purge the trigger: reset scheduler trigger at end
@@ -1171,8 +1222,8 @@ public class JdbcExecutor implements ExecutorInterface, Service {
                     List<String> taskRunKeys = executor.getExecution().getTaskRunList().stream()
                         .map(taskRun -> taskRun.getId())
                         .toList();
-                    ((JdbcQueue<WorkerTaskResult>) workerTaskResultQueue).deleteByKeys(taskRunKeys);
-                    ((JdbcQueue<WorkerJob>) workerJobQueue).deleteByKeys(taskRunKeys);
+                    ((BatchQueueInterface<WorkerTaskResult>) workerTaskResultQueue).deleteByKeys(taskRunKeys);
+                    ((BatchQueueInterface<WorkerJob>) workerJobQueue).deleteByKeys(taskRunKeys);
                 }
             }
         } catch (QueueException e) {
@@ -1193,7 +1244,7 @@ public class JdbcExecutor implements ExecutorInterface, Service {
 
     private FlowWithSource findFlow(Execution execution) {
         FlowInterface flow = this.flowMetaStore.findByExecution(execution).orElseThrow();
-        FlowWithSource flowWithSource = pluginDefaultService.injectDefaults(flow, execution);
+        FlowWithSource flowWithSource = flowWithDefaultsCache.injectDefaults(flow, execution);
 
         if (templateExecutorInterface.isPresent()) {
             try {
@@ -1284,6 +1335,33 @@ public class JdbcExecutor implements ExecutorInterface, Service {
         });
     }
 
+    private void executionStatisticsRollup() {
+        if (this.shutdown.get() || this.isPaused.get()) {
+            return;
+        }
+
+        try {
+            executionRepository.rollupStatistics();
+        } catch (Exception e) {
+            log.warn("Unable to roll up the execution statistics, retrying on the next run", e);
+        }
+    }
+
+    private void executionRunningReconcile() {
+        if (this.shutdown.get() || this.isPaused.get()) {
+            return;
+        }
+
+        try {
+            int reconciled = executionRunningStorage.reconcile();
+            if (reconciled > 0) {
+                log.warn("Fixed the concurrency slot counter of {} flow(s)", reconciled);
+            }
+        } catch (Exception e) {
+            log.warn("Unable to reconcile the concurrency slot counters, retrying on the next run", e);
+        }
+    }
+
     private void executionSLAMonitor() {
         if (this.shutdown.get() || this.isPaused.get()) {
             return;
@@ -1368,6 +1446,35 @@ public class JdbcExecutor implements ExecutorInterface, Service {
         }
     }
 
+    private void emitSubflowExecutions(Execution execution, ExecutorState executorState, List<SubflowExecution<?>> subflowExecutions) throws QueueException {
+        if (subflowExecutions.isEmpty()) {
+            return;
+        }
+
+        List<SubflowExecution<?>> subflowExecutionDedup = subflowExecutions
+            .stream()
+            .filter(subflowExecution -> this.deduplicateSubflowExecution(execution, executorState, subflowExecution.getParentTaskRun()))
+            .toList();
+
+        subflowExecutionDedup
+            .forEach(throwConsumer(subflowExecution -> {
+                Execution subExecution = subflowExecution.getExecution();
+                String log = String.format("Created new execution [[link execution=\"%s\" flowId=\"%s\" namespace=\"%s\"]]", subExecution.getId(), subExecution.getFlowId(), subExecution.getNamespace());
+
+                JdbcExecutor.log.info(log);
+
+                logQueue.emit(LogEntry.of(subflowExecution.getParentTaskRun(), subflowExecution.getExecution().getKind()).toBuilder()
+                    .level(Level.INFO)
+                    .message(log)
+                    .timestamp(subflowExecution.getParentTaskRun().getState().getStartDate())
+                    .thread(Thread.currentThread().getName())
+                    .build()
+                );
+
+                executionQueue.emit(subflowExecution.getExecution());
+            }));
+    }
+
     private boolean deduplicateSubflowExecution(Execution execution, ExecutorState executorState, TaskRun taskRun) {
         // There can be multiple executions for the same task, so we need to deduplicated with the worker task execution iteration
         String deduplicationKey = deduplicationKey(taskRun);
@@ -1412,6 +1519,7 @@ public class JdbcExecutor implements ExecutorInterface, Service {
             setState(ServiceState.TERMINATING);
             this.receiveCancellations.forEach(Runnable::run);
             ExecutorsUtils.closeScheduledThreadPool(scheduledDelay, Duration.ofSeconds(5), List.of(executionDelayFuture, monitorSLAFuture));
+            ExecutorsUtils.closeScheduledThreadPool(scheduledStatistics, Duration.ofSeconds(5), List.of(executionStatisticsFuture, executionRunningReconcileFuture));
             setState(ServiceState.TERMINATED_GRACEFULLY);
 
             if (log.isDebugEnabled()) {
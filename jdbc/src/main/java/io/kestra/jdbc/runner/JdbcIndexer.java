@@ -38,10 +38,10 @@ import lombok.extern.slf4j.Slf4j;
 @JdbcRunnerEnabled
 public class JdbcIndexer implements IndexerInterface {
     private final LogRepositoryInterface logRepository;
-    private final JdbcQueue<LogEntry> logQueue;
+    private final BatchQueueInterface<LogEntry> logQueue;
 
     private final MetricRepositoryInterface metricRepository;
-    private final JdbcQueue<MetricEntry> metricQueue;
+    private final BatchQueueInterface<MetricEntry> metricQueue;
     private final MetricRegistry metricRegistry;
     private final List<Runnable> receiveCancellations = new ArrayList<>();
 
@@ -61,9 +61,9 @@ public class JdbcIndexer implements IndexerInterface {
         ApplicationEventPublisher<ServiceStateChangeEvent> eventPublisher
     ) {
         this.logRepository = logRepository;
-        this.logQueue = (JdbcQueue<LogEntry>) logQueue;
+        this.logQueue = (BatchQueueInterface<LogEntry>) logQueue;
         this.metricRepository = metricRepositor;
-        this.metricQueue = (JdbcQueue<MetricEntry>) metricQueue;
+        this.metricQueue = (BatchQueueInterface<MetricEntry>) metricQueue;
         this.metricRegistry = metricRegistry;
         this.eventPublisher = eventPublisher;
 
@@ -83,7 +83,7 @@ public class JdbcIndexer implements IndexerInterface {
         this.sendBatch(metricQueue, metricRepository);
     }
 
-    protected <T> void sendBatch(JdbcQueue<T> queueInterface, SaveRepositoryInterface<T> saveRepositoryInterface) {
+    protected <T> void sendBatch(BatchQueueInterface<T> queueInterface, SaveRepositoryInterface<T> saveRepositoryInterface) {
         this.receiveCancellations.addFirst(queueInterface.receiveBatch(Indexer.class, eithers -> {
             // first, log all deserialization issues
             eithers.stream().filter(either -> either.isRight()).forEach(either -> log.error("unable to deserialize an item: {}", either.getRight().getMessage()));
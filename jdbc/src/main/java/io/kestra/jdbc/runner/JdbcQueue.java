@@ -1,6 +1,5 @@
 package io.kestra.jdbc.runner;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.CaseFormat;
 import com.google.common.collect.Iterables;
@@ -37,13 +36,16 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static io.kestra.core.utils.Rethrow.throwConsumer;
 import static io.kestra.core.utils.Rethrow.throwRunnable;
 
 @Slf4j
-public abstract class JdbcQueue<T> implements QueueInterface<T> {
+public abstract class JdbcQueue<T> implements BatchQueueInterface<T> {
     private static final int MAX_ASYNC_THREADS = Runtime.getRuntime().availableProcessors();
     protected static final ObjectMapper MAPPER = JdbcMapper.of();
 
@@ -66,6 +68,8 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
 
     protected final JdbcQueueIndexer jdbcQueueIndexer;
 
+    protected final JdbcQueueNotifier jdbcQueueNotifier;
+
     private final boolean immediateRepoll;
 
     private final AtomicBoolean isClosed = new AtomicBoolean(false);
@@ -73,6 +77,8 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
 
     private final Counter bigMessageCounter;
 
+    private final JdbcQueueBatchProducer<T> batchProducer;
+
     public JdbcQueue(Class<T> cls, ApplicationContext applicationContext) {
         ExecutorsUtils executorsUtils = applicationContext.getBean(ExecutorsUtils.class);
         this.poolExecutor = executorsUtils.cachedThreadPool("jdbc-queue-" + cls.getSimpleName());
@@ -91,18 +97,25 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
 
         this.jdbcQueueIndexer = applicationContext.getBean(JdbcQueueIndexer.class);
 
+        this.jdbcQueueNotifier = applicationContext.getBean(JdbcQueueNotifier.class);
+
         this.immediateRepoll = applicationContext.getProperty("kestra.jdbc.queues.immediate-repoll", Boolean.class).orElse(true);
 
         // init metrics we can at post construct to avoid costly Metric.Id computation
         this.bigMessageCounter = metricRegistry
             .counter(MetricRegistry.METRIC_QUEUE_BIG_MESSAGE_COUNT, MetricRegistry.METRIC_QUEUE_BIG_MESSAGE_COUNT_DESCRIPTION, MetricRegistry.TAG_CLASS_NAME, queueType());
+
+        this.batchProducer = this.configuration.asyncBatchEnabled ?
+            new JdbcQueueBatchProducer<>(this, this.asyncPoolExecutor, this.configuration, this.metricRegistry) :
+            null;
     }
 
     protected Map<Field<Object>, Object> produceFields(String consumerGroup, String key, T message) throws QueueException {
+        boolean binary = configuration.payloadFormat == PayloadFormat.SMILE;
         byte[] bytes;
         try {
-            bytes = MAPPER.writeValueAsBytes(message);
-        } catch (JsonProcessingException e) {
+            bytes = binary ? JdbcQueuePayload.serialize(message) : MAPPER.writeValueAsBytes(message);
+        } catch (IOException e) {
             throw new QueueException("Unable to serialize the message", e);
         }
 
@@ -119,7 +132,17 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
         Map<Field<Object>, Object> fields = new HashMap<>();
         fields.put(AbstractJdbcRepository.field("type"), queueType());
         fields.put(AbstractJdbcRepository.field("key"), key != null ? key : IdUtils.create());
-        fields.put(AbstractJdbcRepository.field("value"), JSONB.valueOf(new String(bytes)));
+        if (binary) {
+            try {
+                fields.put(AbstractJdbcRepository.field("binary_value"), JdbcQueuePayload.encode(bytes, configuration.compressionThreshold));
+            } catch (IOException e) {
+                throw new QueueException("Unable to encode the message", e);
+            }
+            // the JSON value is mandatory, consumers read the binary one first
+            fields.put(AbstractJdbcRepository.field("value"), JSONB.valueOf("null"));
+        } else {
+            fields.put(AbstractJdbcRepository.field("value"), JSONB.valueOf(new String(bytes)));
+        }
 
         if (consumerGroup != null) {
             fields.put(AbstractJdbcRepository.field("consumer_group"), consumerGroup);
@@ -157,14 +180,79 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
             throw new QueueException("Unable to emit a message to the queue", e);
         }
 
+        this.signalProduced();
+        this.incrementProduceCount(consumerGroup, 1);
+    }
+
+    /**
+     * Produces a batch of messages using a multi-row insert inside a single transaction.
+     * Messages that cannot be serialized or are too big are skipped.
+     */
+    void produceBatch(List<JdbcQueueBatchProducer.PendingMessage<T>> messages) throws QueueException {
+        List<JdbcQueueBatchProducer.PendingMessage<T>> produced = new ArrayList<>(messages.size());
+        // consecutive rows with the same columns are inserted together, as the consumer group is optional,
+        // so the messages keep the order in which they were emitted
+        List<List<Map<Field<Object>, Object>>> rowsByColumns = new ArrayList<>();
+        for (JdbcQueueBatchProducer.PendingMessage<T> pending : messages) {
+            try {
+                Map<Field<Object>, Object> fields = this.produceFields(pending.consumerGroup(), queueService.key(pending.message()), pending.message());
+                List<Map<Field<Object>, Object>> last = rowsByColumns.isEmpty() ? null : rowsByColumns.getLast();
+                if (last == null || !last.getFirst().keySet().equals(fields.keySet())) {
+                    last = new ArrayList<>();
+                    rowsByColumns.add(last);
+                }
+                last.add(fields);
+                produced.add(pending);
+            } catch (QueueException e) {
+                log.error("Unable to emit a message to the queue '{}'", queueType(), e);
+            }
+        }
+
+        if (produced.isEmpty()) {
+            return;
+        }
+
+        try {
+            dslContextWrapper.transaction(configuration -> {
+                DSLContext context = DSL.using(configuration);
+
+                produced.forEach(pending -> jdbcQueueIndexer.accept(context, pending.message()));
+
+                rowsByColumns.forEach(rows -> {
+                    List<Field<Object>> fields = new ArrayList<>(rows.getFirst().keySet());
+                    var insert = context.insertInto(table, fields);
+                    for (Map<Field<Object>, Object> row : rows) {
+                        insert = insert.values(fields.stream().map(row::get).toList());
+                    }
+                    insert.execute();
+                });
+            });
+        } catch (DataException e) {
+            throw new QueueException("Unable to emit a batch of messages to the queue", e);
+        }
+
+        this.signalProduced();
+        produced.stream()
+            .collect(Collectors.groupingBy(pending -> Optional.ofNullable(pending.consumerGroup()), Collectors.counting()))
+            .forEach((consumerGroup, count) -> this.incrementProduceCount(consumerGroup.orElse(null), count));
+    }
+
+    private void signalProduced() {
+        if (this.configuration.notificationEnabled) {
+            this.jdbcQueueNotifier.produced(queueType());
+        }
+    }
+
+    private void incrementProduceCount(String consumerGroup, double count) {
         String[] tags = consumerGroup == null ? new String [] { MetricRegistry.TAG_QUEUE_TYPE, queueType() } :
             new String [] { MetricRegistry.TAG_QUEUE_TYPE, queueType(), MetricRegistry.TAG_QUEUE_CONSUMER_GROUP, consumerGroup };
         metricRegistry
             .counter(MetricRegistry.METRIC_QUEUE_PRODUCE_COUNT, MetricRegistry.METRIC_QUEUE_PRODUCE_COUNT_DESCRIPTION, tags)
-            .increment();
+            .increment(count);
     }
 
-    public void emitOnly(String consumerGroup, T message) throws QueueException{
+    @Override
+    public void emitOnly(String consumerGroup, T message) throws QueueException {
         this.produce(consumerGroup, queueService.key(message), message, true);
     }
 
@@ -175,6 +263,11 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
 
     @Override
     public void emitAsync(String consumerGroup, List<T> messages) throws QueueException {
+        if (this.batchProducer != null) {
+            this.batchProducer.emit(consumerGroup, messages);
+            return;
+        }
+
         this.asyncPoolExecutor.submit(throwRunnable(() -> messages.forEach(throwConsumer(message -> this.emit(consumerGroup, message)))));
     }
 
@@ -189,6 +282,7 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
      * Delete all messages of the queue for this key.
      * This is used to purge a queue for a specific key.
      */
+    @Override
     public void deleteByKey(String key) throws QueueException {
         dslContextWrapper.transaction(configuration -> {
             int deleted = DSL
@@ -209,6 +303,7 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
      * Delete all messages of the queue for a set of keys.
      * This is used to purge a queue for specific keys.
      */
+    @Override
     public void deleteByKeys(List<String> keys) throws QueueException {
         // process in batches of 100 items to avoid too big IN clausecQueue
         Iterables.partition(keys, 100).forEach(batch -> {
@@ -231,6 +326,7 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
     protected Result<Record> receiveFetch(DSLContext ctx, String consumerGroup, Integer offset, boolean forUpdate) {
         var select = ctx.select(
                 AbstractJdbcRepository.field("value"),
+                AbstractJdbcRepository.field("binary_value"),
                 AbstractJdbcRepository.field("offset")
             )
             .from(this.table)
@@ -249,7 +345,7 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
         var limitSelect = select
             .orderBy(AbstractJdbcRepository.field("offset").asc())
             .limit(configuration.getPollSize());
-        ResultQuery<Record2<Object, Object>> configuredSelect = limitSelect;
+        ResultQuery<Record3<Object, Object, Object>> configuredSelect = limitSelect;
 
         if (forUpdate) {
             configuredSelect = limitSelect.forUpdate().skipLocked();
@@ -264,7 +360,11 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
         return this.receiveFetch(ctx, consumerGroup, queueType, true);
     }
 
-    abstract protected Result<Record> receiveFetch(DSLContext ctx, String consumerGroup, String queueType, boolean forUpdate);
+    protected Result<Record> receiveFetch(DSLContext ctx, String consumerGroup, String queueType, boolean forUpdate) {
+        return this.receiveFetch(ctx, consumerGroup, queueType, forUpdate, configuration.getPollSize());
+    }
+
+    abstract protected Result<Record> receiveFetch(DSLContext ctx, String consumerGroup, String queueType, boolean forUpdate, int limit);
 
     abstract protected void updateGroupOffsets(DSLContext ctx, String consumerGroup, String queueType, List<Integer> offsets);
 
@@ -336,10 +436,7 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
         );
     }
 
-    public Runnable receiveBatch(Class<?> queueType, Consumer<List<Either<T, DeserializationException>>> consumer) {
-        return receiveBatch(null, queueType, consumer);
-    }
-
+    @Override
     public Runnable receiveBatch(String consumerGroup, Class<?> queueType, Consumer<List<Either<T, DeserializationException>>> consumer) {
         return receiveBatch(consumerGroup, queueType, consumer, true);
     }
@@ -357,12 +454,21 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
     }
 
     public Runnable receiveTransaction(String consumerGroup, Class<?> queueType, BiConsumer<DSLContext, List<Either<T, DeserializationException>>> consumer) {
+        return this.receiveTransaction(consumerGroup, queueType, configuration::getPollSize, consumer);
+    }
+
+    /**
+     * Same as {@link #receiveTransaction(String, Class, BiConsumer)} but each poll fetches at most <code>maxPollSize</code> messages,
+     * evaluated before each poll. When it's zero or less, the database is not polled until it becomes positive again.
+     */
+    public Runnable receiveTransaction(String consumerGroup, Class<?> queueType, IntSupplier maxPollSize, BiConsumer<DSLContext, List<Either<T, DeserializationException>>> consumer) {
         return this.receiveImpl(
             consumerGroup,
             queueType,
             consumer,
             true,
-            true
+            true,
+            maxPollSize
         );
     }
 
@@ -372,6 +478,17 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
         BiConsumer<DSLContext, List<Either<T, DeserializationException>>> consumer,
         Boolean inTransaction,
         boolean forUpdate
+    ) {
+        return this.receiveImpl(consumerGroup, queueType, consumer, inTransaction, forUpdate, configuration::getPollSize);
+    }
+
+    protected Runnable receiveImpl(
+        String consumerGroup,
+        Class<?> queueType,
+        BiConsumer<DSLContext, List<Either<T, DeserializationException>>> consumer,
+        Boolean inTransaction,
+        boolean forUpdate,
+        IntSupplier maxPollSize
     ) {
         String queueName = queueName(queueType);
         String[] tags = consumerGroup == null ? new String [] { MetricRegistry.TAG_QUEUE_TYPE, queueType(), MetricRegistry.TAG_QUEUE_CONSUMER, queueName } :
@@ -382,11 +499,11 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
 
         Timer timer = this.metricRegistry
             .timer(MetricRegistry.METRIC_QUEUE_RECEIVE_DURATION, MetricRegistry.METRIC_QUEUE_RECEIVE_DURATION_DESCRIPTION, tags);
-        return this.poll(() -> timer.record(() -> {
+        return this.poll(maxPollSize, limit -> timer.record(() -> {
             Result<Record> fetch = dslContextWrapper.transactionResult(configuration -> {
                 DSLContext ctx = DSL.using(configuration);
 
-                Result<Record> result = this.receiveFetch(ctx, consumerGroup, queueName, forUpdate);
+                Result<Record> result = this.receiveFetch(ctx, consumerGroup, queueName, forUpdate, limit);
 
                 if (!result.isEmpty() && inTransaction) {
                     consumer.accept(ctx, this.map(result));
@@ -424,24 +541,49 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
         );
     }
 
-    @SuppressWarnings("BusyWait")
     protected Runnable poll(Supplier<Integer> runnable) {
+        return this.poll(configuration::getPollSize, limit -> runnable.get());
+    }
+
+    /**
+     * Polls with a limit evaluated before each poll, so the consumer can adapt it to its capacity.
+     * While the limit is zero or less, the poll is skipped and the limit is checked again after the minimum poll interval.
+     */
+    @SuppressWarnings("BusyWait")
+    protected Runnable poll(IntSupplier maxPollSize, IntFunction<Integer> runnable) {
         AtomicBoolean running = new AtomicBoolean(true);
 
         poolExecutor.execute(() -> {
             List<Configuration.Step> steps = configuration.computeSteps();
             Duration sleep = configuration.minPollInterval;
             ZonedDateTime lastPoll = ZonedDateTime.now();
+            JdbcQueueNotifier.Signal signal = configuration.notificationEnabled ? jdbcQueueNotifier.register(queueType()) : null;
             while (running.get() && !this.isClosed.get()) {
-                if (!this.isPaused.get()) {
+                // read before polling so a message produced while polling will wake us up immediately
+                long generation = signal != null ? signal.generation() : 0;
+                boolean paused = this.isPaused.get();
+                int limit = paused ? 0 : Math.min(maxPollSize.getAsInt(), configuration.pollSize);
+                if (!paused && limit <= 0) {
+                    // the consumer is at full capacity so new messages are left to the other consumers,
+                    // we check again soon as capacity is freed by the consumer, not signaled by the producers
+                    lastPoll = ZonedDateTime.now();
                     try {
-                        Integer count = runnable.get();
+                        Thread.sleep(configuration.minPollInterval);
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    continue;
+                }
+
+                if (!paused) {
+                    try {
+                        Integer count = runnable.apply(limit);
                         if (count > 0) {
                             lastPoll = ZonedDateTime.now();
                             sleep = configuration.minPollInterval;
                             if (immediateRepoll) {
                                 continue;
-                            } else if (count.equals(configuration.pollSize)) {
+                            } else if (count == limit) {
                                 // Note: this provides better latency on high throughput: when Kestra is a top capacity,
                                 // it will not do a sleep and immediately poll again.
                                 // We can even have better latency at even higher latency by continuing for positive count,
@@ -466,7 +608,11 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
                 }
 
                 try {
-                    Thread.sleep(sleep);
+                    if (signal != null && !this.isPaused.get()) {
+                        signal.await(generation, sleep);
+                    } else {
+                        Thread.sleep(sleep);
+                    }
                 } catch (InterruptedException e) {
                     throw new RuntimeException(e);
                 }
@@ -479,14 +625,22 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
     protected List<Either<T, DeserializationException>> map(Result<Record> fetch) {
         return fetch
             .map(record -> {
+                byte[] binaryValue = record.get("binary_value", byte[].class);
                 try {
-                    return Either.left(MAPPER.readValue(record.get("value", String.class), cls));
-                } catch (JsonProcessingException e) {
-                    return Either.right(new DeserializationException(e, record.get("value", String.class)));
+                    if (binaryValue != null) {
+                        return Either.left(JdbcQueuePayload.decode(binaryValue, cls));
+                    }
+                    return Either.left(MAPPER.readValue(this.jsonValue(record), cls));
+                } catch (IOException e) {
+                    return Either.right(new DeserializationException(e, binaryValue != null ? "binary payload of " + binaryValue.length + " bytes" : record.get("value", String.class)));
                 }
             });
     }
 
+    protected String jsonValue(Record record) {
+        return record.get("value", String.class);
+    }
+
     protected void send(Result<Record> fetch, Consumer<Either<T, DeserializationException>> consumer) {
         this.map(fetch)
             .forEach(consumer);
@@ -507,6 +661,10 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
         if (!this.isClosed.compareAndSet(false, true)) {
             return;
         }
+        if (this.batchProducer != null) {
+            // flush pending messages before shutting down the async pool
+            this.batchProducer.close();
+        }
         this.poolExecutor.shutdown();
         this.asyncPoolExecutor.shutdown();
     }
@@ -520,6 +678,22 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
         Integer pollSize = 100;
         Integer switchSteps = 5;
 
+        // messages emitted asynchronously are buffered and inserted by batch, opt-in as buffered messages
+        // are lost if the server stops abruptly before they are written
+        Boolean asyncBatchEnabled = false;
+        Integer asyncBatchSize = 500;
+        Duration asyncBatchLinger = Duration.ofMillis(10);
+        Integer asyncBufferSize = 10_000;
+
+        // pollers are woken up as soon as a message is produced, the poll interval is then only a fallback
+        Boolean notificationEnabled = true;
+
+        // the format of the produced messages, all the consumers must support SMILE before it's enabled,
+        // the message protection limit then applies to the SMILE size of the messages
+        PayloadFormat payloadFormat = PayloadFormat.JSON;
+        // SMILE messages of at least this size, in bytes, are compressed, zero to disable compression
+        Integer compressionThreshold = 16 * 1024;
+
         public List<Step> computeSteps() {
             if (this.maxPollInterval.compareTo(this.minPollInterval) <= 0) {
                 throw new IllegalArgumentException("'maxPollInterval' (" + this.maxPollInterval + ") must be greater than 'minPollInterval' (" + this.minPollInterval + ")");
@@ -548,4 +722,9 @@ public abstract class JdbcQueue<T> implements QueueInterface<T> {
             }
         }
     }
+
+    public enum PayloadFormat {
+        JSON,
+        SMILE
+    }
 }
@@ -0,0 +1,179 @@
+package io.kestra.jdbc.runner;
+
+import io.kestra.core.metrics.MetricRegistry;
+import io.kestra.core.queues.QueueException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Buffers the messages emitted asynchronously on a {@link JdbcQueue} and writes them by batch,
+ * with a multi-row insert inside a single transaction.
+ * <p>
+ * A batch is flushed as soon as it reaches the configured size, or when the linger time has elapsed since its first message.
+ * Messages are written in the order they were emitted.
+ * When the buffer is full, producers are blocked until there is room for their messages, and fail if there is still none after a timeout.
+ * Once closed, the buffered messages are written and new messages are refused.
+ */
+@Slf4j
+class JdbcQueueBatchProducer<T> implements Closeable {
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration EMIT_TIMEOUT = Duration.ofMinutes(1);
+
+    private final JdbcQueue<T> queue;
+    private final ExecutorService executorService;
+    private final BlockingQueue<PendingMessage<T>> buffer;
+    private final int batchSize;
+    private final Duration linger;
+
+    private final DistributionSummary batchSizeSummary;
+    private final Timer flushTimer;
+
+    private final AtomicBoolean isStarted = new AtomicBoolean(false);
+    private final AtomicBoolean isClosed = new AtomicBoolean(false);
+    // emitters share the read lock, so close can't happen while a message is being added to the buffer
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private final CountDownLatch terminated = new CountDownLatch(1);
+
+    JdbcQueueBatchProducer(JdbcQueue<T> queue, ExecutorService executorService, JdbcQueue.Configuration configuration, MetricRegistry metricRegistry) {
+        this.queue = queue;
+        this.executorService = executorService;
+        this.buffer = new LinkedBlockingQueue<>(configuration.getAsyncBufferSize());
+        this.batchSize = configuration.getAsyncBatchSize();
+        this.linger = configuration.getAsyncBatchLinger();
+
+        this.batchSizeSummary = metricRegistry
+            .summary(MetricRegistry.METRIC_QUEUE_BATCH_SIZE, MetricRegistry.METRIC_QUEUE_BATCH_SIZE_DESCRIPTION, MetricRegistry.TAG_QUEUE_TYPE, queue.queueType());
+        this.flushTimer = metricRegistry
+            .timer(MetricRegistry.METRIC_QUEUE_BATCH_FLUSH_DURATION, MetricRegistry.METRIC_QUEUE_BATCH_FLUSH_DURATION_DESCRIPTION, MetricRegistry.TAG_QUEUE_TYPE, queue.queueType());
+    }
+
+    /**
+     * Adds the messages to the buffer, blocking while it is full.
+     */
+    void emit(String consumerGroup, List<T> messages) throws QueueException {
+        this.closeLock.readLock().lock();
+        try {
+            if (this.isClosed.get()) {
+                throw new QueueException("Unable to emit messages, the queue is closed");
+            }
+
+            if (this.isStarted.compareAndSet(false, true)) {
+                this.executorService.execute(this::run);
+            }
+
+            for (T message : messages) {
+                if (this.terminated.getCount() == 0) {
+                    throw new QueueException("Unable to emit messages, the batch producer of the queue is terminated");
+                }
+
+                try {
+                    if (!this.buffer.offer(new PendingMessage<>(consumerGroup, message), EMIT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                        throw new QueueException("Unable to emit messages, the queue buffer is still full after " + EMIT_TIMEOUT);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new QueueException("Interrupted while waiting for room in the queue buffer", e);
+                }
+            }
+        } finally {
+            this.closeLock.readLock().unlock();
+        }
+    }
+
+    private void run() {
+        try {
+            List<PendingMessage<T>> batch = new ArrayList<>(this.batchSize);
+
+            // on close, we keep running until the buffer is drained
+            while (!this.isClosed.get() || !this.buffer.isEmpty()) {
+                PendingMessage<T> first = this.buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                long deadline = System.nanoTime() + this.linger.toNanos();
+                while (batch.size() < this.batchSize) {
+                    this.buffer.drainTo(batch, this.batchSize - batch.size());
+
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= this.batchSize || remaining <= 0) {
+                        break;
+                    }
+
+                    PendingMessage<T> next = this.buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                this.flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Batch producer of queue '{}' interrupted, {} messages were not emitted", queue.queueType(), this.buffer.size());
+        } finally {
+            this.terminated.countDown();
+        }
+    }
+
+    private void flush(List<PendingMessage<T>> batch) {
+        this.batchSizeSummary.record(batch.size());
+
+        this.flushTimer.record(() -> {
+            try {
+                this.queue.produceBatch(batch);
+            } catch (Exception e) {
+                // a single message can make the whole batch fail, so we retry them one by one to only lose the faulty ones
+                log.warn("Unable to emit a batch of {} messages to the queue '{}', emitting them one by one", batch.size(), queue.queueType(), e);
+
+                batch.forEach(pending -> {
+                    try {
+                        this.queue.emit(pending.consumerGroup(), pending.message());
+                    } catch (QueueException ex) {
+                        log.error("Unable to emit a message to the queue '{}'", queue.queueType(), ex);
+                    }
+                });
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        // no message can be added once the lock is released, so the drain loop will see all of them
+        this.closeLock.writeLock().lock();
+        try {
+            if (!this.isClosed.compareAndSet(false, true) || !this.isStarted.get()) {
+                return;
+            }
+        } finally {
+            this.closeLock.writeLock().unlock();
+        }
+
+        try {
+            if (!this.terminated.await(CLOSE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Batch producer of queue '{}' not terminated after {}, {} messages may be lost", queue.queueType(), CLOSE_TIMEOUT, this.buffer.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    record PendingMessage<T>(String consumerGroup, T message) {}
+}
@@ -42,6 +42,13 @@ public class JdbcQueueIndexer {
         this.metricRegistry = applicationContext.getBean(MetricRegistry.class);
     }
 
+    /**
+     * Whether messages of this type are indexed, so callers can avoid opening a transaction for nothing.
+     */
+    public boolean isIndexed(Object item) {
+        return repositories.containsKey(item.getClass());
+    }
+
     public void accept(DSLContext context, Object item) {
         if (repositories.containsKey(item.getClass())) {
             this.metricRegistry.counter(MetricRegistry.METRIC_INDEXER_REQUEST_COUNT, MetricRegistry.METRIC_INDEXER_REQUEST_COUNT_DESCRIPTION, "type", item.getClass().getName()).increment();
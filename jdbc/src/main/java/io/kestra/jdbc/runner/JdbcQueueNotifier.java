@@ -0,0 +1,85 @@
+package io.kestra.jdbc.runner;
+
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wakes up the {@link JdbcQueue} pollers as soon as a message is produced, instead of letting them sleep until their next poll.
+ * <p>
+ * This default implementation only signals the pollers of the current JVM, which is enough when producers and consumers
+ * share the same process (standalone, local, H2).
+ * Database specific implementations can propagate the notification to other processes.
+ * <p>
+ * Timed polling is always kept as the fallback: a missed notification only delays a message until the next poll.
+ */
+@Singleton
+public class JdbcQueueNotifier {
+    private final Map<String, Signal> signals = new ConcurrentHashMap<>();
+
+    /**
+     * Called after the commit of a transaction that produced messages for the given queue type.
+     * The default implementation wakes up the local pollers.
+     *
+     * @param queueType the queue type
+     */
+    public void produced(String queueType) {
+        this.signal(queueType);
+    }
+
+    /**
+     * Wakes up the local pollers of the given queue type.
+     *
+     * @param queueType the queue type
+     */
+    public void signal(String queueType) {
+        this.register(queueType).signal();
+    }
+
+    /**
+     * Registers a poller for the given queue type.
+     *
+     * @param queueType the queue type
+     * @return the signal the poller must wait on between two polls
+     */
+    public Signal register(String queueType) {
+        return signals.computeIfAbsent(queueType, k -> new Signal());
+    }
+
+    /**
+     * A wake-up signal based on a generation counter, incremented each time a message is produced.
+     * <p>
+     * A poller reads the generation before polling, then waits for it to change, so a message produced while polling
+     * is never missed.
+     */
+    public static final class Signal {
+        private long generation = 0;
+
+        public synchronized long generation() {
+            return generation;
+        }
+
+        synchronized void signal() {
+            generation++;
+            this.notifyAll();
+        }
+
+        /**
+         * Waits until the generation differs from the given one, or the timeout is elapsed.
+         *
+         * @param seen the generation read before the last poll
+         * @param timeout the maximum duration to wait
+         */
+        public synchronized void await(long seen, Duration timeout) throws InterruptedException {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            long remaining = timeout.toNanos();
+            while (generation == seen && remaining > 0) {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package io.kestra.jdbc.runner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.kestra.jdbc.JdbcMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The binary payload of a queue message, stored in the <code>binary_value</code> column instead of the JSON <code>value</code> one.
+ * <p>
+ * A payload starts with a header: a magic byte, the version of the header, the format of the message and its compression.
+ * The message is encoded with Smile, a binary JSON, using the same configuration as the JSON messages,
+ * and compressed when bigger than a threshold.
+ * Consumers read the header of each message, so messages of different formats can coexist in the queue.
+ */
+final class JdbcQueuePayload {
+    static final byte MAGIC = 'K';
+    static final byte VERSION = 1;
+
+    static final byte FORMAT_SMILE = 1;
+
+    static final byte COMPRESSION_NONE = 0;
+    static final byte COMPRESSION_DEFLATE = 1;
+
+    private static final int HEADER_SIZE = 4;
+    private static final ObjectMapper SMILE_MAPPER = JdbcMapper.of().copyWith(new SmileFactory());
+
+    private JdbcQueuePayload() {
+    }
+
+    /**
+     * Serializes a message to Smile, without any header.
+     */
+    static byte[] serialize(Object message) throws IOException {
+        return SMILE_MAPPER.writeValueAsBytes(message);
+    }
+
+    /**
+     * Builds the payload of a serialized message, compressed if at least <code>compressionThreshold</code> bytes long.
+     */
+    static byte[] encode(byte[] serialized, int compressionThreshold) throws IOException {
+        boolean compress = compressionThreshold > 0 && serialized.length >= compressionThreshold;
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream(compress ? serialized.length / 4 : serialized.length + HEADER_SIZE);
+        output.write(MAGIC);
+        output.write(VERSION);
+        output.write(FORMAT_SMILE);
+        output.write(compress ? COMPRESSION_DEFLATE : COMPRESSION_NONE);
+
+        if (compress) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try (DeflaterOutputStream deflate = new DeflaterOutputStream(output, deflater)) {
+                deflate.write(serialized);
+            } finally {
+                deflater.end();
+            }
+        } else {
+            output.write(serialized);
+        }
+
+        return output.toByteArray();
+    }
+
+    /**
+     * Reads a message from its payload.
+     */
+    static <T> T decode(byte[] payload, Class<T> cls) throws IOException {
+        if (payload.length < HEADER_SIZE || payload[0] != MAGIC) {
+            throw new IOException("Invalid queue message payload");
+        }
+        if (payload[1] != VERSION) {
+            throw new IOException("Unsupported queue message payload version " + payload[1]);
+        }
+        if (payload[2] != FORMAT_SMILE) {
+            throw new IOException("Unsupported queue message payload format " + payload[2]);
+        }
+
+        InputStream body = new ByteArrayInputStream(payload, HEADER_SIZE, payload.length - HEADER_SIZE);
+        return switch (payload[3]) {
+            case COMPRESSION_NONE -> SMILE_MAPPER.readValue(body, cls);
+            case COMPRESSION_DEFLATE -> {
+                try (InputStream inflate = new InflaterInputStream(body)) {
+                    yield SMILE_MAPPER.readValue(inflate, cls);
+                }
+            }
+            default -> throw new IOException("Unsupported queue message payload compression " + payload[3]);
+        };
+    }
+}
@@ -2,7 +2,6 @@ package io.kestra.jdbc.runner;
 
 import io.kestra.core.models.flows.FlowWithSource;
 import io.kestra.core.models.triggers.Trigger;
-import io.kestra.core.repositories.TriggerRepositoryInterface;
 import io.kestra.core.schedulers.*;
 import io.kestra.core.services.FlowListenersInterface;
 import io.kestra.core.services.FlowService;
@@ -16,15 +15,26 @@ import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.BiConsumer;
 
 @JdbcRunnerEnabled
 @Singleton
 @Slf4j
 public class JdbcScheduler extends AbstractScheduler {
-    private final TriggerRepositoryInterface triggerRepository;
+    // size of the first page of due triggers, and below this number of due triggers by shard, splitting them costs more than it saves
+    private static final int MIN_TRIGGERS_BY_SHARD = 100;
+
+    private final AbstractJdbcTriggerRepository triggerRepository;
     private final JooqDSLContextWrapper dslContextWrapper;
+    private final int evaluationShards;
 
     @Inject
     public JdbcScheduler(
@@ -37,6 +47,7 @@ public class JdbcScheduler extends AbstractScheduler {
         triggerState = applicationContext.getBean(SchedulerTriggerStateInterface.class);
         executionState = applicationContext.getBean(SchedulerExecutionState.class);
         dslContextWrapper = applicationContext.getBean(JooqDSLContextWrapper.class);
+        evaluationShards = Math.max(1, applicationContext.getProperty("kestra.scheduler.evaluation-shards", Integer.class).orElse(4));
     }
 
     @Override
@@ -56,14 +67,85 @@ public class JdbcScheduler extends AbstractScheduler {
         });
     }
 
+    /**
+     * Evaluates the due triggers in a single transaction. When there are more due triggers than a page,
+     * the remaining ones are split by key into shards each evaluated in its own transaction on a virtual thread,
+     * so a large number of due triggers doesn't hold all their locks in a single long transaction.
+     * The keys of the remaining triggers are read without lock, each shard then locks the triggers that are still due.
+     */
     @Override
     public void handleNext(List<FlowWithSource> flows, ZonedDateTime now, BiConsumer<List<Trigger>, ScheduleContextInterface> consumer) {
-        JdbcSchedulerContext schedulerContext = new JdbcSchedulerContext(this.dslContextWrapper);
+        if (this.evaluationShards <= 1) {
+            JdbcSchedulerContext schedulerContext = new JdbcSchedulerContext(this.dslContextWrapper);
+
+            schedulerContext.doInTransaction(scheduleContextInterface -> {
+                List<Trigger> triggers = this.triggerState.findByNextExecutionDateReadyForAllTenants(now, scheduleContextInterface);
+
+                consumer.accept(triggers, scheduleContextInterface);
+            });
+
+            return;
+        }
 
+        // most of the time, all the due triggers fit in the first page and are evaluated in a single transaction
+        Set<String> evaluated = new HashSet<>();
+        JdbcSchedulerContext schedulerContext = new JdbcSchedulerContext(this.dslContextWrapper);
         schedulerContext.doInTransaction(scheduleContextInterface -> {
-            List<Trigger> triggers = this.triggerState.findByNextExecutionDateReadyForAllTenants(now, scheduleContextInterface);
+            List<Trigger> triggers = this.triggerRepository.findByNextExecutionDateReadyForAllTenants(now, MIN_TRIGGERS_BY_SHARD, scheduleContextInterface);
+            triggers.forEach(trigger -> evaluated.add(trigger.uid()));
 
             consumer.accept(triggers, scheduleContextInterface);
         });
+
+        if (evaluated.size() < MIN_TRIGGERS_BY_SHARD) {
+            return;
+        }
+
+        // the page was full, so there may be more due triggers, the ones just evaluated are not evaluated twice in the same loop
+        List<String> keys = this.triggerRepository.findKeysByNextExecutionDateReadyForAllTenants(now).stream()
+            .filter(key -> !evaluated.contains(key))
+            .toList();
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        List<List<String>> shards = shards(keys, Math.min(this.evaluationShards, Math.ceilDiv(keys.size(), MIN_TRIGGERS_BY_SHARD)));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = shards.stream()
+                .map(shard -> executor.submit(() -> {
+                    JdbcSchedulerContext shardContext = new JdbcSchedulerContext(this.dslContextWrapper);
+
+                    shardContext.doInTransaction(scheduleContextInterface -> {
+                        List<Trigger> triggers = this.triggerRepository.findByNextExecutionDateReadyForAllTenants(now, shard, scheduleContextInterface);
+
+                        consumer.accept(triggers, scheduleContextInterface);
+                    });
+                }))
+                .toList();
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Splits the keys in the given number of shards, a key always belongs to the same shard for the same number of shards.
+     */
+    static List<List<String>> shards(List<String> keys, int shardCount) {
+        List<List<String>> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ArrayList<>());
+        }
+        keys.forEach(key -> shards.get(Math.floorMod(key.hashCode(), shardCount)).add(key));
+
+        return shards;
     }
 }
@@ -8,5 +8,7 @@ import lombok.Getter;
 public class MessageProtectionConfiguration {
     boolean enabled = false;
 
+    // compared to the size of the serialized message in the produced payload format: with SMILE, before compression,
+    // it is usually smaller than the JSON of the same message so the same limit lets bigger messages go through
     Integer limit = 10 * 1024 * 1024;
 }
@@ -1,11 +1,24 @@
 package io.kestra.jdbc.repository;
 
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.executions.statistics.DailyExecutionStatistics;
+import io.kestra.core.models.executions.statistics.ExecutionCount;
+import io.kestra.core.models.executions.statistics.Flow;
+import io.kestra.core.models.flows.State;
 import io.kestra.jdbc.JdbcTestUtils;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static io.kestra.core.tenant.TenantService.MAIN_TENANT;
+import static org.assertj.core.api.Assertions.assertThat;
 
 public abstract class AbstractJdbcExecutionRepositoryTest extends io.kestra.core.repositories.AbstractExecutionRepositoryTest {
     @Inject
@@ -15,10 +28,105 @@ public abstract class AbstractJdbcExecutionRepositoryTest extends io.kestra.core
     protected void init() throws IOException, URISyntaxException {
         jdbcTestUtils.drop();
         jdbcTestUtils.migrate();
+
+        // the statistics are not part of the dropped tables
+        ((AbstractJdbcExecutionRepository) executionRepository).rebuildStatistics();
     }
 
     @Override
     protected void fetchData() {
         // TODO Remove the override once JDBC implementation has the QueryBuilder working
     }
-}
\ No newline at end of file
+
+    @Test
+    void statisticsRollup() {
+        Instant start = Instant.now().minus(Duration.ofHours(3));
+        for (int i = 0; i < 12; i++) {
+            executionRepository.save(execution(i < 2 ? State.Type.FAILED : State.Type.SUCCESS, start, start.plusSeconds(i + 1)));
+        }
+
+        AbstractJdbcExecutionRepository repository = (AbstractJdbcExecutionRepository) executionRepository;
+        repository.rebuildStatistics();
+        assertThat(count(dailyStatistics(), State.Type.SUCCESS)).isEqualTo(10L);
+
+        // ended after the rollup, or not ended, so read from the executions table
+        Execution purged = execution(State.Type.SUCCESS, start, Instant.now());
+        executionRepository.save(purged);
+        executionRepository.save(builder(State.Type.RUNNING, "rollup").build());
+
+        List<DailyExecutionStatistics> after = dailyStatistics();
+        assertThat(count(after, State.Type.SUCCESS)).isEqualTo(11L);
+        assertThat(count(after, State.Type.FAILED)).isEqualTo(2L);
+        assertThat(count(after, State.Type.RUNNING)).isEqualTo(1L);
+        assertThat(executionCount()).isEqualTo(14L);
+
+        repository.rollupStatistics();
+        executionRepository.purge(purged);
+
+        assertThat(count(dailyStatistics(), State.Type.SUCCESS)).isEqualTo(10L);
+        assertThat(executionCount()).isEqualTo(13L);
+    }
+
+    @Test
+    void statisticsOfRestartedExecution() {
+        Instant start = Instant.now().minus(Duration.ofHours(3));
+        Execution failed = execution(State.Type.FAILED, start, start.plusSeconds(1));
+        executionRepository.save(failed);
+
+        AbstractJdbcExecutionRepository repository = (AbstractJdbcExecutionRepository) executionRepository;
+        repository.rollupStatistics();
+        assertThat(count(dailyStatistics(), State.Type.FAILED)).isEqualTo(1L);
+
+        // not ended anymore, so only read from the executions table
+        executionRepository.save(failed.withState(State.Type.RESTARTED));
+
+        List<DailyExecutionStatistics> restarted = dailyStatistics();
+        assertThat(count(restarted, State.Type.FAILED)).isZero();
+        assertThat(count(restarted, State.Type.RESTARTED)).isEqualTo(1L);
+        assertThat(executionCount()).isEqualTo(1L);
+    }
+
+    private static Execution execution(State.Type state, Instant startDate, Instant endDate) {
+        return builder(state, "rollup")
+            .state(new State(state, List.of(
+                new State.History(State.Type.CREATED, startDate),
+                new State.History(State.Type.RUNNING, startDate),
+                new State.History(state, endDate)
+            )))
+            .build();
+    }
+
+    private List<DailyExecutionStatistics> dailyStatistics() {
+        return executionRepository.dailyStatistics(
+            null,
+            MAIN_TENANT,
+            null,
+            NAMESPACE,
+            "rollup",
+            ZonedDateTime.now().minusDays(10),
+            ZonedDateTime.now(),
+            null,
+            null,
+            false
+        );
+    }
+
+    private long executionCount() {
+        List<ExecutionCount> counts = executionRepository.executionCounts(
+            MAIN_TENANT,
+            List.of(new Flow(NAMESPACE, "rollup")),
+            null,
+            ZonedDateTime.now().minusDays(10),
+            ZonedDateTime.now(),
+            null
+        );
+
+        return counts.getFirst().getCount();
+    }
+
+    private static long count(List<DailyExecutionStatistics> statistics, State.Type state) {
+        return statistics.stream()
+            .mapToLong(daily -> daily.getExecutionCounts().getOrDefault(state, 0L))
+            .sum();
+    }
+}
@@ -1,8 +1,21 @@
 package io.kestra.jdbc.repository;
 
+import io.kestra.core.models.triggers.Trigger;
+import io.kestra.core.utils.IdUtils;
 import io.kestra.jdbc.JdbcTestUtils;
+import io.kestra.jdbc.JooqDSLContextWrapper;
+import io.kestra.jdbc.runner.JdbcSchedulerContext;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static io.kestra.core.tenant.TenantService.MAIN_TENANT;
+import static org.assertj.core.api.Assertions.assertThat;
 
 public abstract class AbstractJdbcTriggerRepositoryTest extends io.kestra.core.repositories.AbstractTriggerRepositoryTest {
     @Inject
@@ -11,9 +24,72 @@ public abstract class AbstractJdbcTriggerRepositoryTest extends io.kestra.core.r
     @Inject
     protected AbstractJdbcTriggerRepository repository;
 
+    @Inject
+    JooqDSLContextWrapper dslContextWrapper;
+
     @BeforeEach
     protected void init() {
         jdbcTestUtils.drop();
         jdbcTestUtils.migrate();
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldNotLockTheSameDueTriggersTwice() {
+        for (int i = 0; i < 3; i++) {
+            repository.save(Trigger.builder()
+                .tenantId(MAIN_TENANT)
+                .namespace("io.kestra.unittest")
+                .flowId(IdUtils.create())
+                .triggerId("schedule")
+                .nextExecutionDate(ZonedDateTime.now().minusMinutes(i + 1))
+                .build()
+            );
+        }
+
+        ZonedDateTime now = ZonedDateTime.now();
+        List<String> keys = repository.findKeysByNextExecutionDateReadyForAllTenants(now);
+        assertThat(keys).hasSize(3);
+
+        new JdbcSchedulerContext(dslContextWrapper).doInTransaction(scheduleContext -> {
+            List<Trigger> locked = repository.findByNextExecutionDateReadyForAllTenants(now, 2, scheduleContext);
+            assertThat(locked).hasSize(2);
+
+            // another shard or another scheduler skips the triggers locked by this transaction
+            List<Trigger> others = CompletableFuture.supplyAsync(() -> {
+                List<Trigger> result = new ArrayList<>();
+                new JdbcSchedulerContext(dslContextWrapper).doInTransaction(otherContext ->
+                    result.addAll(repository.findByNextExecutionDateReadyForAllTenants(now, keys, otherContext))
+                );
+                return result;
+            }).join();
+
+            assertThat(others).hasSize(1);
+            assertThat(locked).extracting(Trigger::uid).doesNotContain(others.getFirst().uid());
+        });
+    }
+
+    @Test
+    void shouldFindDueTriggersOfManyKeys() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            keys.add(IdUtils.create());
+        }
+        for (int i = 0; i < 3; i++) {
+            Trigger trigger = repository.save(Trigger.builder()
+                .tenantId(MAIN_TENANT)
+                .namespace("io.kestra.unittest")
+                .flowId(IdUtils.create())
+                .triggerId("schedule")
+                .nextExecutionDate(ZonedDateTime.now().minusMinutes(i + 1))
+                .build()
+            );
+            // spread over the chunks of keys
+            keys.add(i * 1000 + 500, trigger.uid());
+        }
+
+        ZonedDateTime now = ZonedDateTime.now();
+        new JdbcSchedulerContext(dslContextWrapper).doInTransaction(scheduleContext ->
+            assertThat(repository.findByNextExecutionDateReadyForAllTenants(now, keys, scheduleContext)).hasSize(3)
+        );
+    }
+}
@@ -0,0 +1,111 @@
+package io.kestra.jdbc.runner;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.flows.Flow;
+import io.kestra.core.models.flows.State;
+import io.kestra.core.runners.ExecutionRunning;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.jdbc.JdbcTestUtils;
+import io.kestra.jdbc.JooqDSLContextWrapper;
+import jakarta.inject.Inject;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static io.kestra.core.tenant.TenantService.MAIN_TENANT;
+import static io.kestra.jdbc.repository.AbstractJdbcRepository.field;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@KestraTest
+public abstract class AbstractJdbcExecutionRunningStorageTest {
+    @Inject
+    AbstractJdbcExecutionRunningStorage executionRunningStorage;
+
+    @Inject
+    JooqDSLContextWrapper dslContextWrapper;
+
+    @Inject
+    JdbcTestUtils jdbcTestUtils;
+
+    @BeforeEach
+    protected void init() {
+        jdbcTestUtils.drop();
+        jdbcTestUtils.migrate();
+    }
+
+    @Test
+    void shouldCountRunningExecutions() {
+        Flow flow = flow();
+        Execution first = execution(flow);
+        Execution second = execution(flow);
+
+        executionRunningStorage.save(running(first));
+        // saved again when its state changes, it still holds a single slot
+        executionRunningStorage.save(running(first));
+        executionRunningStorage.save(running(second));
+        assertThat(count(flow)).isEqualTo(2);
+        assertThat(count(flow())).isZero();
+
+        executionRunningStorage.remove(first);
+        assertThat(count(flow)).isEqualTo(1);
+
+        executionRunningStorage.remove(first);
+        assertThat(count(flow)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReconcileDriftedCounters() {
+        Flow flow = flow();
+        Execution first = execution(flow);
+        Execution second = execution(flow);
+        executionRunningStorage.save(running(first));
+        executionRunningStorage.save(running(second));
+
+        // a running execution deleted without releasing its slot
+        dslContextWrapper.transaction(configuration -> DSL.using(configuration)
+            .deleteFrom(executionRunningStorage.jdbcRepository.getTable())
+            .where(field("key").eq(running(first).uid()))
+            .execute()
+        );
+        assertThat(count(flow)).isEqualTo(2);
+
+        assertThat(executionRunningStorage.reconcile()).isEqualTo(1);
+        assertThat(count(flow)).isEqualTo(1);
+        assertThat(executionRunningStorage.reconcile()).isZero();
+    }
+
+    private int count(Flow flow) {
+        return executionRunningStorage.countThenProcess(flow, (dslContext, count) -> count);
+    }
+
+    private static Flow flow() {
+        return Flow.builder()
+            .tenantId(MAIN_TENANT)
+            .namespace("io.kestra.unittest")
+            .id(IdUtils.create())
+            .revision(1)
+            .build();
+    }
+
+    private static Execution execution(Flow flow) {
+        return Execution.builder()
+            .id(IdUtils.create())
+            .tenantId(flow.getTenantId())
+            .namespace(flow.getNamespace())
+            .flowId(flow.getId())
+            .flowRevision(flow.getRevision())
+            .state(new State())
+            .build();
+    }
+
+    private static ExecutionRunning running(Execution execution) {
+        return ExecutionRunning.builder()
+            .tenantId(execution.getTenantId())
+            .namespace(execution.getNamespace())
+            .flowId(execution.getFlowId())
+            .execution(execution)
+            .concurrencyState(ExecutionRunning.ConcurrencyState.RUNNING)
+            .build();
+    }
+}
@@ -0,0 +1,57 @@
+package io.kestra.jdbc.runner;
+
+import io.kestra.core.metrics.MetricConfig;
+import io.kestra.core.metrics.MetricRegistry;
+import io.kestra.core.queues.QueueException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JdbcQueueBatchProducerTest {
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldWriteAllMessagesInOrderOnClose() throws QueueException {
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        JdbcQueue<Integer> queue = mock(JdbcQueue.class);
+        when(queue.queueType()).thenReturn("test");
+        doAnswer(invocation -> {
+            List<JdbcQueueBatchProducer.PendingMessage<Integer>> batch = invocation.getArgument(0);
+            batch.forEach(pending -> written.add(pending.message()));
+            return null;
+        }).when(queue).produceBatch(any());
+
+        JdbcQueue.Configuration configuration = new JdbcQueue.Configuration();
+        configuration.asyncBatchSize = 7;
+        configuration.asyncBatchLinger = Duration.ofMillis(1);
+        configuration.asyncBufferSize = 10;
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            JdbcQueueBatchProducer<Integer> producer = new JdbcQueueBatchProducer<>(queue, executorService, configuration, new MetricRegistry(new SimpleMeterRegistry(), new MetricConfig()));
+
+            // alternate consumer groups, so rows of different columns are interleaved
+            for (int i = 0; i < 100; i++) {
+                producer.emit(i % 3 == 0 ? null : "group", List.of(i));
+            }
+            producer.close();
+
+            assertThat(written).containsExactlyElementsOf(IntStream.range(0, 100).boxed().toList());
+            assertThatThrownBy(() -> producer.emit("group", List.of(100))).isInstanceOf(QueueException.class);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.kestra.jdbc.runner;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcQueueNotifierTest {
+    @Test
+    void shouldWakeUpOnSignal() throws InterruptedException {
+        JdbcQueueNotifier notifier = new JdbcQueueNotifier();
+        JdbcQueueNotifier.Signal signal = notifier.register("queue");
+        long generation = signal.generation();
+
+        Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            notifier.signal("queue");
+        });
+
+        long start = System.nanoTime();
+        signal.await(generation, Duration.ofSeconds(10));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(signal.generation()).isGreaterThan(generation);
+    }
+
+    @Test
+    void shouldNotWaitWhenSignaledDuringPoll() throws InterruptedException {
+        JdbcQueueNotifier notifier = new JdbcQueueNotifier();
+        JdbcQueueNotifier.Signal signal = notifier.register("queue");
+        long generation = signal.generation();
+
+        // a message produced between the read of the generation and the wait
+        notifier.signal("queue");
+
+        long start = System.nanoTime();
+        signal.await(generation, Duration.ofSeconds(10));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void shouldWaitUntilTimeoutWithoutSignal() throws InterruptedException {
+        JdbcQueueNotifier notifier = new JdbcQueueNotifier();
+        JdbcQueueNotifier.Signal signal = notifier.register("queue");
+        notifier.signal("another-queue");
+
+        long start = System.nanoTime();
+        signal.await(signal.generation(), Duration.ofMillis(100));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+    }
+}
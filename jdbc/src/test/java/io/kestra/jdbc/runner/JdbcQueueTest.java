@@ -20,8 +20,12 @@ import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import static io.kestra.core.utils.Rethrow.throwConsumer;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -40,6 +44,9 @@ abstract public class JdbcQueueTest {
     @Inject
     JdbcTestUtils jdbcTestUtils;
 
+    @Inject
+    JdbcQueue.Configuration configuration;
+
     @Test
     void noGroup() throws InterruptedException, QueueException {
         CountDownLatch countDownLatch = new CountDownLatch(2);
@@ -126,6 +133,81 @@ abstract public class JdbcQueueTest {
         assertThat(countDownLatch.getCount()).isEqualTo(0L);
     }
 
+    @Test
+    void emitAsyncByBatch() throws InterruptedException, QueueException {
+        List<String> namespaces = new CopyOnWriteArrayList<>();
+        CountDownLatch countDownLatch = new CountDownLatch(250);
+        Flux<FlowInterface> receive = TestsUtils.receive(flowQueue, "batch_group", either -> {
+            namespaces.add(either.getLeft().getNamespace());
+            countDownLatch.countDown();
+        });
+
+        flowQueue.emitAsync("batch_group", IntStream.range(0, 200).<FlowInterface>mapToObj(i -> builder("io.kestra.batch" + i)).toList());
+        for (int i = 200; i < 250; i++) {
+            flowQueue.emitAsync("batch_group", builder("io.kestra.batch" + i));
+        }
+
+        assertTrue(countDownLatch.await(10, TimeUnit.SECONDS));
+        receive.blockLast();
+
+        assertThat(countDownLatch.getCount()).isEqualTo(0L);
+        assertThat(namespaces).containsExactlyElementsOf(IntStream.range(0, 250).mapToObj(i -> "io.kestra.batch" + i).toList());
+    }
+
+    @Test
+    void binaryPayload() throws InterruptedException, QueueException {
+        List<String> namespaces = new CopyOnWriteArrayList<>();
+        CountDownLatch countDownLatch = new CountDownLatch(3);
+        Flux<FlowInterface> receive = TestsUtils.receive(flowQueue, "binary_group", either -> {
+            namespaces.add(either.getLeft().getNamespace());
+            countDownLatch.countDown();
+        });
+
+        // JSON and binary messages, compressed or not, are consumed together
+        flowQueue.emit("binary_group", builder("io.kestra.json"));
+        configuration.payloadFormat = JdbcQueue.PayloadFormat.SMILE;
+        try {
+            flowQueue.emit("binary_group", builder("io.kestra.binary"));
+            configuration.compressionThreshold = 1;
+            flowQueue.emit("binary_group", builder("io.kestra.compressed"));
+        } finally {
+            configuration.payloadFormat = JdbcQueue.PayloadFormat.JSON;
+            configuration.compressionThreshold = 16 * 1024;
+        }
+
+        assertTrue(countDownLatch.await(5, TimeUnit.SECONDS));
+        receive.blockLast();
+
+        assertThat(namespaces).containsExactly("io.kestra.json", "io.kestra.binary", "io.kestra.compressed");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void receiveWithMaxPollSize() throws InterruptedException, QueueException {
+        AtomicInteger maxPollSize = new AtomicInteger(0);
+        List<Integer> pollSizes = new CopyOnWriteArrayList<>();
+        CountDownLatch countDownLatch = new CountDownLatch(10);
+
+        Runnable cancel = ((JdbcQueue<FlowInterface>) flowQueue).receiveTransaction(null, Indexer.class, maxPollSize::get, (dslContext, eithers) -> {
+            pollSizes.add(eithers.size());
+            eithers.forEach(either -> countDownLatch.countDown());
+        });
+
+        for (int i = 0; i < 10; i++) {
+            flowQueue.emit(builder("io.kestra.capacity"));
+        }
+
+        // no capacity, nothing is claimed
+        assertThat(countDownLatch.await(500, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(countDownLatch.getCount()).isEqualTo(10L);
+
+        maxPollSize.set(3);
+        assertTrue(countDownLatch.await(5, TimeUnit.SECONDS));
+        cancel.run();
+
+        assertThat(pollSizes).isNotEmpty().allMatch(size -> size <= 3);
+    }
+
     private static FlowWithSource builder(String namespace) {
         return FlowWithSource.builder()
             .id(IdUtils.create())
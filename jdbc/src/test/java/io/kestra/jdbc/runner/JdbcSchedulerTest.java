@@ -0,0 +1,26 @@
+package io.kestra.jdbc.runner;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcSchedulerTest {
+    @Test
+    void shouldAssignEachKeyToASingleShard() {
+        List<String> keys = IntStream.range(0, 1000).mapToObj(i -> "main_io.kestra.unittest_flow-" + i + "_schedule").toList();
+
+        List<List<String>> shards = JdbcScheduler.shards(keys, 4);
+
+        assertThat(shards).hasSize(4).allSatisfy(shard -> assertThat(shard).isNotEmpty());
+        assertThat(shards.stream().flatMap(List::stream).toList()).hasSize(1000).containsExactlyInAnyOrderElementsOf(keys);
+
+        // a key always lands in the same shard, whatever the other due keys are
+        List<List<String>> others = JdbcScheduler.shards(keys.subList(500, 1000), 4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(shards.get(i)).containsAll(others.get(i));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.kestra.core.metrics;
+
+import io.kestra.core.models.executions.TaskRun;
+import io.kestra.core.runners.WorkerTaskResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.lang3.ArrayUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class MetricRegistryBenchmark {
+    private SimpleMeterRegistry meterRegistry;
+    private MetricRegistry metricRegistry;
+    private WorkerTaskResult workerTaskResult;
+
+    @Setup
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        MetricConfig metricConfig = new MetricConfig();
+        metricConfig.prefix = "kestra";
+        metricRegistry = new MetricRegistry(meterRegistry, metricConfig);
+
+        workerTaskResult = new WorkerTaskResult(TaskRun.builder()
+            .id("taskrun")
+            .tenantId("main")
+            .namespace("company.team")
+            .flowId("flow")
+            .taskId("task")
+            .state(new io.kestra.core.models.flows.State().withState(io.kestra.core.models.flows.State.Type.SUCCESS))
+            .build()
+        );
+    }
+
+    /**
+     * The metric of a message as it was done before meters were cached: tags concatenated and meter built on each call.
+     */
+    @Benchmark
+    public Counter baseline() {
+        TaskRun taskRun = workerTaskResult.getTaskRun();
+        String[] tags = ArrayUtils.addAll(
+            new String[0],
+            MetricRegistry.TAG_NAMESPACE_ID, taskRun.getNamespace(),
+            MetricRegistry.TAG_FLOW_ID, taskRun.getFlowId(),
+            MetricRegistry.TAG_STATE, taskRun.getState().getCurrent().name()
+        );
+        tags = ArrayUtils.addAll(tags, MetricRegistry.TAG_TENANT_ID, taskRun.getTenantId());
+
+        Counter counter = Counter.builder("kestra." + MetricRegistry.METRIC_EXECUTOR_TASKRUN_ENDED_COUNT)
+            .description(MetricRegistry.METRIC_EXECUTOR_TASKRUN_ENDED_COUNT_DESCRIPTION)
+            .tags(tags)
+            .register(meterRegistry);
+        counter.increment();
+        return counter;
+    }
+
+    @Benchmark
+    public Counter counter() {
+        Counter counter = metricRegistry.counter(
+            MetricRegistry.METRIC_EXECUTOR_TASKRUN_ENDED_COUNT,
+            MetricRegistry.METRIC_EXECUTOR_TASKRUN_ENDED_COUNT_DESCRIPTION,
+            metricRegistry.tags(workerTaskResult)
+        );
+        counter.increment();
+        return counter;
+    }
+}
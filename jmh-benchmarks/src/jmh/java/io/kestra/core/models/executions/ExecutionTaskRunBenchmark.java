@@ -0,0 +1,69 @@
+package io.kestra.core.models.executions;
+
+import io.kestra.core.exceptions.InternalException;
+import io.kestra.core.utils.IdUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ExecutionTaskRunBenchmark {
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private Execution execution;
+    private TaskRun last;
+    private TaskRun parent;
+
+    @Setup
+    public void setup() {
+        List<TaskRun> taskRuns = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            taskRuns.add(TaskRun.builder()
+                .id("taskrun-" + i)
+                .taskId("task-" + (i % 10))
+                .parentTaskRunId(i < 10 ? null : "taskrun-" + (i % 10))
+                .state(new io.kestra.core.models.flows.State())
+                .build()
+            );
+        }
+
+        execution = Execution.builder()
+            .id(IdUtils.create())
+            .state(new io.kestra.core.models.flows.State())
+            .taskRunList(taskRuns)
+            .build();
+        last = taskRuns.getLast();
+        parent = taskRuns.getFirst();
+    }
+
+    @Benchmark
+    public Execution withTaskRun() throws InternalException {
+        // chained like the executor does when it applies several worker task results
+        return execution.withTaskRun(last).withTaskRun(last);
+    }
+
+    @Benchmark
+    public TaskRun findTaskRunByTaskRunId() throws InternalException {
+        return execution.findTaskRunByTaskRunId(last.getId());
+    }
+
+    @Benchmark
+    public List<TaskRun> findTaskRunsByTaskId() {
+        return execution.findTaskRunsByTaskId("task-1");
+    }
+
+    @Benchmark
+    public List<TaskRun> findChildren() {
+        return execution.findChildren(parent);
+    }
+
+    @Benchmark
+    public List<TaskRun> findParents() {
+        return execution.findParents(last);
+    }
+}
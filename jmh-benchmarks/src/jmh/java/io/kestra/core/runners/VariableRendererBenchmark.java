@@ -0,0 +1,58 @@
+package io.kestra.core.runners;
+
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.runners.pebble.Extension;
+import io.micronaut.context.DefaultApplicationContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class VariableRendererBenchmark {
+    private VariableRenderer variableRenderer;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setup() {
+        // only the Kestra Pebble extension is needed, like in the documentation generator
+        DefaultApplicationContext applicationContext = new DefaultApplicationContext() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public <T> Collection<T> getBeansOfType(Class<T> beanType) {
+                return (Collection<T>) List.of(new Extension());
+            }
+        };
+        variableRenderer = new VariableRenderer(applicationContext, null);
+
+        variables = Map.of(
+            "flow", Map.of("id", "my-flow", "namespace", "company.team"),
+            "outputs", Map.of("download", Map.of("uri", "kestra:///company/team/my-flow/file.json", "size", 1024)),
+            "inputs", Map.of("items", List.of(1, 2, 3))
+        );
+    }
+
+    @Benchmark
+    public Object renderSimpleLookup() throws IllegalVariableEvaluationException {
+        return variableRenderer.render("{{ outputs.download.uri }}", variables);
+    }
+
+    @Benchmark
+    public Object renderTypedSimpleLookup() throws IllegalVariableEvaluationException {
+        return variableRenderer.renderTyped("{{ outputs.download.size }}", variables);
+    }
+
+    @Benchmark
+    public Object renderTemplate() throws IllegalVariableEvaluationException {
+        return variableRenderer.render("{{ flow.namespace }}/{{ flow.id }} has {{ inputs.items | length }} items", variables);
+    }
+
+    @Benchmark
+    public Object renderRawTags() throws IllegalVariableEvaluationException {
+        return variableRenderer.render("{% raw %}{{ not_rendered }}{% endraw %} {{ flow.id }}", variables);
+    }
+}
@@ -0,0 +1,69 @@
+package io.kestra.core.services;
+
+import io.kestra.core.models.flows.Flow;
+import io.kestra.core.models.flows.FlowWithException;
+import io.kestra.plugin.core.log.Log;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class FlowTriggerIndexBenchmark {
+    private static final int FLOW_TRIGGER_COUNT = 5;
+
+    @Param({"100", "1000", "5000"})
+    private int flowCount;
+
+    private List<Flow> flows;
+    private FlowTriggerIndex index;
+
+    @Setup
+    public void setup() {
+        flows = new ArrayList<>(flowCount);
+        for (int i = 0; i < flowCount; i++) {
+            Flow.FlowBuilder<?, ?> builder = Flow.builder()
+                .id("flow-" + i)
+                .namespace("company.team")
+                .tenantId("main")
+                .tasks(List.of(Log.builder().id("log").type(Log.class.getName()).message("Hello World").build()));
+
+            if (i % (flowCount / FLOW_TRIGGER_COUNT) == 0) {
+                builder.triggers(List.of(io.kestra.plugin.core.trigger.Flow.builder()
+                    .id("flowTrigger")
+                    .type(io.kestra.plugin.core.trigger.Flow.class.getName())
+                    .build()
+                ));
+            }
+
+            flows.add(builder.build());
+        }
+
+        index = new FlowTriggerService(null, null, null).index(flows);
+    }
+
+    /**
+     * The flow triggers to evaluate for an execution as it was done before the index: all flows visited on each state change.
+     */
+    @Benchmark
+    public List<FlowTriggerService.FlowWithFlowTrigger> baseline() {
+        return flows.stream()
+            .filter(flow -> !flow.isDisabled() && !(flow instanceof FlowWithException))
+            .filter(flow -> flow.getTriggers() != null && !flow.getTriggers().isEmpty())
+            .flatMap(flow -> flow.getTriggers().stream()
+                .filter(io.kestra.plugin.core.trigger.Flow.class::isInstance)
+                .map(io.kestra.plugin.core.trigger.Flow.class::cast)
+                .map(trigger -> new FlowTriggerService.FlowWithFlowTrigger(flow, trigger))
+            )
+            .filter(flowWithFlowTrigger -> flowWithFlowTrigger.getTrigger().getStates().contains(io.kestra.core.models.flows.State.Type.SUCCESS))
+            .toList();
+    }
+
+    @Benchmark
+    public List<FlowTriggerService.FlowWithFlowTrigger> index() {
+        return index.listening(io.kestra.core.models.flows.State.Type.SUCCESS);
+    }
+}
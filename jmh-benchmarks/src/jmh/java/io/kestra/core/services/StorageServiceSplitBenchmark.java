@@ -0,0 +1,116 @@
+package io.kestra.core.services;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits an ION file by chunks of 10MB, on the local disk only, to compare the reading and writing of the splits.
+ * The default file is 256MB, run with <code>-p fileSizeMb=5120</code> for a 5GB file.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class StorageServiceSplitBenchmark {
+    private static final long CHUNK_SIZE = 10L * 1024 * 1024;
+
+    @Param({"256"})
+    private int fileSizeMb;
+
+    private Path directory;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("split-benchmark");
+        file = directory.resolve("items.ion");
+
+        long size = (long) fileSizeMb * 1024 * 1024;
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            long written = 0;
+            for (int i = 0; written < size; i++) {
+                String row = "{id:" + i + ",name:\"item-" + i + "\",price:" + (i % 1000) + ".99,tags:[\"a\",\"b\"]}\n";
+                writer.write(row);
+                written = written + row.length();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var paths = Files.walk(directory)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * The split as it was done before: a line decoded to a String, then re-encoded and written with one call by row.
+     */
+    @Benchmark
+    public int baseline() throws IOException {
+        int chunks = 0;
+        RandomAccessFile write = null;
+        Path path = null;
+        long totalBytes = 0;
+        String row;
+
+        try (BufferedReader bufferedReader = Files.newBufferedReader(file)) {
+            while ((row = bufferedReader.readLine()) != null) {
+                if (write == null || totalBytes >= CHUNK_SIZE) {
+                    if (write != null) {
+                        write.close();
+                        Files.delete(path);
+                    }
+
+                    totalBytes = 0;
+                    path = Files.createTempFile(directory, "chunk", ".ion");
+                    write = new RandomAccessFile(path.toFile(), "rw");
+                    chunks++;
+                }
+
+                byte[] bytes = (row + "\n").getBytes(StandardCharsets.UTF_8);
+                write.getChannel().write(ByteBuffer.wrap(bytes));
+                totalBytes = totalBytes + bytes.length;
+            }
+        }
+
+        if (write != null) {
+            write.close();
+            Files.delete(path);
+        }
+
+        return chunks;
+    }
+
+    @Benchmark
+    public int split() throws IOException {
+        int[] chunks = {0};
+
+        try (InputStream input = Files.newInputStream(file)) {
+            StorageService.split(
+                input,
+                "\n".getBytes(StandardCharsets.UTF_8),
+                (bytes, rows) -> bytes >= CHUNK_SIZE,
+                () -> Files.createTempFile(directory, "chunk", ".ion"),
+                path -> {
+                    Files.delete(path);
+                    chunks[0]++;
+                }
+            );
+        }
+
+        return chunks[0];
+    }
+}
@@ -0,0 +1,89 @@
+package io.kestra.jdbc.runner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.kestra.core.models.Label;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.executions.TaskRun;
+import io.kestra.core.models.executions.TaskRunAttempt;
+import io.kestra.core.models.executions.Variables;
+import io.kestra.core.models.flows.State;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.jdbc.JdbcMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the serialization of an execution to a queue message, as produced then consumed, in JSON and in the binary payload.
+ * The execution mimics a flow of <code>size</code> task runs with a few outputs each.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class JdbcQueuePayloadBenchmark {
+    private static final ObjectMapper MAPPER = JdbcMapper.of();
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    @Param({"0", "16384"})
+    private int compressionThreshold;
+
+    private Execution execution;
+
+    @Setup
+    public void setup() throws IOException {
+        List<TaskRun> taskRuns = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            State state = new State().withState(State.Type.RUNNING).withState(State.Type.SUCCESS);
+            taskRuns.add(TaskRun.builder()
+                .id(IdUtils.create())
+                .executionId("execution")
+                .namespace("company.team")
+                .flowId("flow")
+                .taskId("task-" + (i % 10))
+                .parentTaskRunId(i < 10 ? null : "taskrun-" + (i % 10))
+                .value(i >= 10 ? "value-" + i : null)
+                .attempts(List.of(TaskRunAttempt.builder().state(state).build()))
+                .outputs(Variables.inMemory(Map.of(
+                    "uri", "kestra:///company/team/flow/executions/execution/tasks/task/" + i + "/output.ion",
+                    "size", i * 1024,
+                    "vars", Map.of("name", "item-" + i, "tags", List.of("a", "b", "c"))
+                )))
+                .state(state)
+                .build()
+            );
+        }
+
+        execution = Execution.builder()
+            .id(IdUtils.create())
+            .namespace("company.team")
+            .flowId("flow")
+            .flowRevision(1)
+            .inputs(Map.of("file", "kestra:///company/team/flow/executions/execution/inputs/file/data.csv", "count", size))
+            .labels(List.of(new Label("team", "data"), new Label("env", "production")))
+            .state(new State().withState(State.Type.RUNNING))
+            .taskRunList(taskRuns)
+            .build();
+    }
+
+    /**
+     * The message as it was produced then consumed before: a JSON String.
+     */
+    @Benchmark
+    public Execution json() throws IOException {
+        String value = new String(MAPPER.writeValueAsBytes(execution), StandardCharsets.UTF_8);
+        return MAPPER.readValue(value, Execution.class);
+    }
+
+    @Benchmark
+    public Execution binary() throws IOException {
+        byte[] payload = JdbcQueuePayload.encode(JdbcQueuePayload.serialize(execution), compressionThreshold);
+        return JdbcQueuePayload.decode(payload, Execution.class);
+    }
+}
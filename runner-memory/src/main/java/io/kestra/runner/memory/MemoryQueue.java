@@ -0,0 +1,385 @@
+package io.kestra.runner.memory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.CaseFormat;
+import io.kestra.core.exceptions.DeserializationException;
+import io.kestra.core.metrics.MetricRegistry;
+import io.kestra.core.queues.QueueException;
+import io.kestra.core.queues.QueueService;
+import io.kestra.core.utils.Either;
+import io.kestra.core.utils.ExecutorsUtils;
+import io.kestra.jdbc.JdbcMapper;
+import io.kestra.jdbc.JooqDSLContextWrapper;
+import io.kestra.jdbc.runner.BatchQueueInterface;
+import io.kestra.jdbc.runner.JdbcQueueIndexer;
+import io.micronaut.context.ApplicationContext;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.impl.DSL;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+import static io.kestra.core.utils.Rethrow.throwConsumer;
+import static io.kestra.core.utils.Rethrow.throwRunnable;
+
+/**
+ * A queue living in the memory of the current process, for standalone and local deployments.
+ * <p>
+ * Each consumer group has its own {@link MemoryRingBuffer}, consumers receiving with a queue type compete for the messages
+ * like the JDBC queue consumers do, consumers receiving without a queue type only see the messages emitted after they subscribed.
+ * <p>
+ * By default, a message is serialized when emitted and deserialized for each delivery, so consumers can't see each other's
+ * modifications, like with a database. With <code>kestra.queue.memory.zero-copy</code>, the emitted object is handed off as-is.
+ * <p>
+ * Messages are still indexed in the JDBC repositories when emitted, so the repositories stay consistent with the queues.
+ */
+@Slf4j
+public class MemoryQueue<T> implements BatchQueueInterface<T> {
+    private static final ObjectMapper MAPPER = JdbcMapper.of();
+
+    private final ExecutorService poolExecutor;
+    private final ExecutorService asyncPoolExecutor;
+    private final ExecutorService journalExecutor;
+
+    protected final Class<T> cls;
+    protected final QueueService queueService;
+    protected final MemoryQueueConfiguration configuration;
+    private final MetricRegistry metricRegistry;
+    private final JooqDSLContextWrapper dslContextWrapper;
+    private final JdbcQueueIndexer jdbcQueueIndexer;
+    private final MemoryQueueJournal journal;
+
+    private final Map<Optional<String>, MemoryRingBuffer<Entry<T>>> rings = new ConcurrentHashMap<>();
+    // named cursors restored from the journal, held until their first consumer subscribes so the restored messages are not overwritten
+    private final Map<Optional<String>, Map<String, MemoryRingBuffer.Cursor<Entry<T>>>> restoredCursors = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean isClosed = new AtomicBoolean(false);
+    private final AtomicBoolean isPaused = new AtomicBoolean(false);
+
+    public MemoryQueue(Class<T> cls, ApplicationContext applicationContext) {
+        ExecutorsUtils executorsUtils = applicationContext.getBean(ExecutorsUtils.class);
+        this.poolExecutor = executorsUtils.cachedThreadPool("memory-queue-" + cls.getSimpleName());
+        this.asyncPoolExecutor = executorsUtils.singleThreadExecutor("memory-queue-async-" + cls.getSimpleName());
+        this.journalExecutor = executorsUtils.singleThreadExecutor("memory-queue-journal-" + cls.getSimpleName());
+
+        this.cls = cls;
+        this.queueService = applicationContext.getBean(QueueService.class);
+        this.configuration = applicationContext.getBean(MemoryQueueConfiguration.class);
+        this.metricRegistry = applicationContext.getBean(MetricRegistry.class);
+        this.dslContextWrapper = applicationContext.getBean(JooqDSLContextWrapper.class);
+        this.jdbcQueueIndexer = applicationContext.getBean(JdbcQueueIndexer.class);
+
+        if (this.configuration.journalPath != null) {
+            try {
+                this.journal = new MemoryQueueJournal(
+                    this.configuration.journalPath,
+                    queueType(),
+                    this.configuration.journalFsync,
+                    this.configuration.capacity,
+                    this.configuration.journalCompactionSize,
+                    this.journalExecutor
+                );
+                this.restore(this.journal.open());
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to open the journal of the queue '" + queueType() + "'", e);
+            }
+        } else {
+            this.journal = null;
+        }
+    }
+
+    private void restore(Map<Optional<String>, MemoryQueueJournal.Group> groups) {
+        groups.forEach((consumerGroup, group) -> {
+            if (group.messages().size() > this.configuration.capacity) {
+                throw new IllegalStateException("Unable to restore the " + group.messages().size() + " unread messages of the queue '" + queueType() + "' " +
+                    "in ring buffers of " + this.configuration.capacity + " messages, 'kestra.queue.memory.capacity' must be increased");
+            }
+
+            MemoryRingBuffer<Entry<T>> ring = this.ring(consumerGroup);
+
+            // named cursors are acquired before publishing, so the messages they didn't read yet can't be overwritten
+            Map<String, MemoryRingBuffer.Cursor<Entry<T>>> cursors = new ConcurrentHashMap<>();
+            group.cursors().forEach((name, sequence) -> cursors.put(name, ring.namedCursor(name, sequence)));
+            this.restoredCursors.put(consumerGroup, cursors);
+
+            group.messages().forEach(message -> {
+                try {
+                    ring.publish(new Entry<>(message.key(), null, message.payload()));
+                } catch (TimeoutException | InterruptedException e) {
+                    throw new IllegalStateException("Unable to restore the queue '" + queueType() + "'", e);
+                }
+            });
+        });
+
+        if (!groups.isEmpty()) {
+            log.info("Restored {} messages of the queue '{}' from its journal", groups.values().stream().mapToInt(group -> group.messages().size()).sum(), queueType());
+        }
+    }
+
+    protected String queueType() {
+        return this.cls.getName();
+    }
+
+    private MemoryRingBuffer<Entry<T>> ring(Optional<String> consumerGroup) {
+        return this.rings.computeIfAbsent(consumerGroup, k -> new MemoryRingBuffer<>(this.configuration.capacity, this.configuration.producerTimeout));
+    }
+
+    private void produce(String consumerGroup, T message, boolean skipIndexer) throws QueueException {
+        if (this.isClosed.get()) {
+            throw new QueueException("Unable to emit a message, the queue is closed");
+        }
+
+        if (log.isTraceEnabled()) {
+            log.trace("New message: topic '{}', value {}", queueType(), message);
+        }
+
+        String key = queueService.key(message);
+        byte[] bytes = null;
+        if (!this.configuration.zeroCopy || this.journal != null) {
+            try {
+                bytes = MAPPER.writeValueAsBytes(message);
+            } catch (IOException e) {
+                throw new QueueException("Unable to serialize the message", e);
+            }
+        }
+
+        if (!skipIndexer && jdbcQueueIndexer.isIndexed(message)) {
+            dslContextWrapper.transaction(configuration -> jdbcQueueIndexer.accept(DSL.using(configuration), message));
+        }
+
+        long sequence;
+        try {
+            sequence = this.ring(Optional.ofNullable(consumerGroup))
+                .publish(new Entry<>(key, this.configuration.zeroCopy ? message : null, this.configuration.zeroCopy ? null : bytes));
+        } catch (TimeoutException e) {
+            throw new QueueException("Unable to emit a message to the queue '" + queueType() + "', it is full", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueueException("Interrupted while emitting a message to the queue '" + queueType() + "'", e);
+        }
+
+        if (this.journal != null) {
+            try {
+                this.journal.appendMessage(consumerGroup, sequence, key, bytes);
+            } catch (IOException e) {
+                throw new QueueException("Unable to write the message to the journal of the queue '" + queueType() + "'", e);
+            }
+        }
+
+        String[] tags = consumerGroup == null ? new String [] { MetricRegistry.TAG_QUEUE_TYPE, queueType() } :
+            new String [] { MetricRegistry.TAG_QUEUE_TYPE, queueType(), MetricRegistry.TAG_QUEUE_CONSUMER_GROUP, consumerGroup };
+        metricRegistry
+            .counter(MetricRegistry.METRIC_QUEUE_PRODUCE_COUNT, MetricRegistry.METRIC_QUEUE_PRODUCE_COUNT_DESCRIPTION, tags)
+            .increment();
+    }
+
+    @Override
+    public void emit(String consumerGroup, T message) throws QueueException {
+        this.produce(consumerGroup, message, false);
+    }
+
+    @Override
+    public void emitOnly(String consumerGroup, T message) throws QueueException {
+        this.produce(consumerGroup, message, true);
+    }
+
+    @Override
+    public void emitAsync(String consumerGroup, List<T> messages) throws QueueException {
+        // a single thread keeps the messages in the order they were emitted
+        this.asyncPoolExecutor.submit(throwRunnable(() -> messages.forEach(throwConsumer(message -> this.emit(consumerGroup, message)))));
+    }
+
+    @Override
+    public void delete(String consumerGroup, T message) throws QueueException {
+        // Just do nothing!
+        // Like for the JDBC queue, messages are consumed by moving the consumer cursor, then overwritten.
+    }
+
+    @Override
+    public void deleteByKey(String key) throws QueueException {
+        this.deleteByKeys(List.of(key));
+    }
+
+    @Override
+    public void deleteByKeys(List<String> keys) throws QueueException {
+        Set<String> toDelete = new HashSet<>(keys);
+        this.rings.values().forEach(ring -> ring.forEachPending(entry -> {
+            if (entry.key != null && toDelete.contains(entry.key)) {
+                entry.deleted = true;
+            }
+        }));
+
+        if (this.journal != null) {
+            try {
+                for (String key : keys) {
+                    this.journal.appendDelete(key);
+                }
+            } catch (IOException e) {
+                throw new QueueException("Unable to write the deletion to the journal of the queue '" + queueType() + "'", e);
+            }
+        }
+    }
+
+    @Override
+    public Runnable receive(String consumerGroup, Consumer<Either<T, DeserializationException>> consumer, boolean forUpdate) {
+        MemoryRingBuffer<Entry<T>> ring = this.ring(Optional.ofNullable(consumerGroup));
+
+        return this.poll(ring, ring.broadcastCursor(), null, consumerGroup, () -> this.configuration.pollSize, eithers -> eithers.forEach(consumer));
+    }
+
+    @Override
+    public Runnable receive(String consumerGroup, Class<?> queueType, Consumer<Either<T, DeserializationException>> consumer, boolean forUpdate) {
+        return this.receiveBatch(consumerGroup, queueType, eithers -> eithers.forEach(consumer));
+    }
+
+    @Override
+    public Runnable receiveBatch(String consumerGroup, Class<?> queueType, Consumer<List<Either<T, DeserializationException>>> consumer) {
+        return this.receiveBatch(consumerGroup, queueType, () -> this.configuration.pollSize, consumer);
+    }
+
+    /**
+     * Same as {@link #receiveBatch(String, Class, Consumer)} but each poll reads at most <code>maxPollSize</code> messages,
+     * evaluated before each poll. When it's zero or less, no messages are read until it becomes positive again.
+     */
+    protected Runnable receiveBatch(String consumerGroup, Class<?> queueType, IntSupplier maxPollSize, Consumer<List<Either<T, DeserializationException>>> consumer) {
+        Optional<String> group = Optional.ofNullable(consumerGroup);
+        String queueName = queueName(queueType);
+        MemoryRingBuffer<Entry<T>> ring = this.ring(group);
+        MemoryRingBuffer.Cursor<Entry<T>> cursor = ring.namedCursor(queueName, null);
+
+        // the cursor restored from the journal is now held by this consumer
+        MemoryRingBuffer.Cursor<Entry<T>> restored = this.restoredCursors.getOrDefault(group, Map.of()).remove(queueName);
+        if (restored != null) {
+            ring.release(restored);
+        }
+
+        return this.poll(ring, cursor, queueName, consumerGroup, maxPollSize, consumer);
+    }
+
+    protected String queueName(Class<?> queueType) {
+        return CaseFormat.UPPER_CAMEL.to(
+            CaseFormat.LOWER_UNDERSCORE,
+            queueType.getSimpleName()
+        );
+    }
+
+    private Runnable poll(MemoryRingBuffer<Entry<T>> ring, MemoryRingBuffer.Cursor<Entry<T>> cursor, String queueName, String consumerGroup, IntSupplier maxPollSize, Consumer<List<Either<T, DeserializationException>>> consumer) {
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        poolExecutor.execute(() -> {
+            try {
+                while (running.get() && !this.isClosed.get()) {
+                    if (this.isPaused.get()) {
+                        Thread.sleep(this.configuration.pollInterval);
+                        continue;
+                    }
+
+                    int limit = Math.min(maxPollSize.getAsInt(), this.configuration.pollSize);
+                    if (limit <= 0) {
+                        // the consumer is at full capacity, the messages are left to the other consumers
+                        Thread.sleep(this.configuration.pollInterval);
+                        continue;
+                    }
+
+                    MemoryRingBuffer.Batch<Entry<T>> batch = ring.poll(cursor, limit);
+                    if (batch.isEmpty()) {
+                        ring.await(cursor, this.configuration.pollInterval);
+                        continue;
+                    }
+
+                    try {
+                        List<Either<T, DeserializationException>> eithers = batch.elements().stream()
+                            .filter(entry -> !entry.deleted)
+                            .map(this::map)
+                            .toList();
+                        if (!eithers.isEmpty()) {
+                            consumer.accept(eithers);
+                        }
+                    } catch (Exception e) {
+                        // like a rolled back transaction of the JDBC queue, the messages will be delivered again
+                        cursor.fail(batch);
+                        log.error("Unable to process messages from the queue '{}', they will be delivered again", queueType(), e);
+                        Thread.sleep(this.configuration.pollInterval);
+                        continue;
+                    }
+
+                    cursor.commit(batch);
+                    if (queueName != null && this.journal != null) {
+                        try {
+                            this.journal.appendCommit(consumerGroup, queueName, cursor.committed());
+                        } catch (IOException e) {
+                            log.error("Unable to write the commit to the journal of the queue '{}'", queueType(), e);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                // a stopped consumer must not block the producers
+                ring.release(cursor);
+            }
+        });
+
+        return () -> {
+            running.set(false);
+            ring.wakeUp();
+        };
+    }
+
+    private Either<T, DeserializationException> map(Entry<T> entry) {
+        if (entry.message != null) {
+            return Either.left(entry.message);
+        }
+
+        try {
+            return Either.left(MAPPER.readValue(entry.bytes, cls));
+        } catch (IOException e) {
+            return Either.right(new DeserializationException(e, new String(entry.bytes)));
+        }
+    }
+
+    @Override
+    public void pause() {
+        this.isPaused.set(true);
+    }
+
+    @Override
+    public void resume() {
+        this.isPaused.set(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!this.isClosed.compareAndSet(false, true)) {
+            return;
+        }
+
+        this.rings.values().forEach(MemoryRingBuffer::wakeUp);
+        this.poolExecutor.shutdown();
+        this.asyncPoolExecutor.shutdown();
+
+        if (this.journal != null) {
+            this.journal.close();
+        }
+        this.journalExecutor.shutdown();
+    }
+
+    private static final class Entry<T> {
+        private final String key;
+        private final T message;
+        private final byte[] bytes;
+        private volatile boolean deleted = false;
+
+        private Entry(String key, T message, byte[] bytes) {
+            this.key = key;
+            this.message = message;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.kestra.runner.memory;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties("kestra.queue.memory")
+@Getter
+public class MemoryQueueConfiguration {
+    Boolean enabled = false;
+
+    // size of the ring buffer of each consumer group, must be a power of 2
+    Integer capacity = 65_536;
+    Integer pollSize = 100;
+    Duration pollInterval = Duration.ofMillis(100);
+
+    // producers are blocked at most this duration when a ring buffer is full
+    Duration producerTimeout = Duration.ofMinutes(1);
+
+    // hand off the emitted objects to the consumers instead of a serialized copy, consumers must then never mutate them
+    Boolean zeroCopy = false;
+
+    // when set, messages are written to an append-only journal in this directory and replayed on startup
+    Path journalPath;
+    Boolean journalFsync = false;
+
+    // the journal is compacted in the background each time it grew by this number of bytes
+    Long journalCompactionSize = 64L * 1024 * 1024;
+}
@@ -0,0 +1,160 @@
+package io.kestra.runner.memory;
+
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.executions.ExecutionKilled;
+import io.kestra.core.models.executions.LogEntry;
+import io.kestra.core.models.executions.MetricEntry;
+import io.kestra.core.models.flows.FlowInterface;
+import io.kestra.core.models.templates.Template;
+import io.kestra.core.models.triggers.Trigger;
+import io.kestra.core.queues.QueueFactoryInterface;
+import io.kestra.core.queues.QueueInterface;
+import io.kestra.core.queues.WorkerJobQueueInterface;
+import io.kestra.core.runners.*;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.apache.commons.lang3.NotImplementedException;
+
+/**
+ * Creates in-memory queues, enabled with <code>kestra.queue.memory.enabled: true</code> on top of a JDBC repository.
+ * Only suitable for a single Kestra process, as queues are not shared between processes.
+ */
+@Factory
+@Requires(property = "kestra.queue.memory.enabled", value = "true")
+public class MemoryQueueFactory implements QueueFactoryInterface {
+    @Inject
+    ApplicationContext applicationContext;
+
+    @Override
+    @Singleton
+    @Named(QueueFactoryInterface.EXECUTION_NAMED)
+    @Bean(preDestroy = "close")
+    public QueueInterface<Execution> execution() {
+        return new MemoryQueue<>(Execution.class, applicationContext);
+    }
+
+    @Override
+    @Singleton
+    @Named(QueueFactoryInterface.EXECUTOR_NAMED)
+    @Bean(preDestroy = "close")
+    public QueueInterface<Executor> executor() {
+        throw new NotImplementedException();
+    }
+
+    @Override
+    @Singleton
+    @Named(QueueFactoryInterface.WORKERJOB_NAMED)
+    @Bean(preDestroy = "close")
+    public WorkerJobQueueInterface workerJob() {
+        return new MemoryWorkerJobQueue(applicationContext);
+    }
+
+    @Override
+    @Singleton
+    @Named(QueueFactoryInterface.WORKERTASKRESULT_NAMED)
+    @Bean(preDestroy = "close")
+    public QueueInterface<WorkerTaskResult> workerTaskResult() {
+        return new MemoryQueue<>(WorkerTaskResult.class, applicationContext);
+    }
+
+    @Override
+    @Singleton
+    @Named(QueueFactoryInterface.WORKERTRIGGERRESULT_NAMED)
+    @Bean(preDestroy = "close")
+    public QueueInterface<WorkerTriggerResult> workerTriggerResult() {
+        return new MemoryWorkerTriggerResultQueue(applicationContext);
+    }
+
+    @Override
+    @Singleton
+    @Named(QueueFactoryInterface.WORKERTASKLOG_NAMED)
+    @Bean(preDestroy = "close")
+    public QueueInterface<LogEntry> logEntry() {
+        return new MemoryQueue<>(LogEntry.class, applicationContext);
+    }
+
+    @Override
+    @Singleton
+    @Named(QueueFactoryInterface.METRIC_QUEUE)
+    @Bean(preDestroy = "close")
+    public QueueInterface<MetricEntry> metricEntry() {
+        return new MemoryQueue<>(MetricEntry.class, applicationContext);
+    }
+
+    @Override
+    @Singleton
+    @Named(QueueFactoryInterface.FLOW_NAMED)
+    @Bean(preDestroy = "close")
+    public QueueInterface<FlowInterface> flow() {
+        return new MemoryQueue<>(FlowInterface.class, applicationContext);
+    }
+
+    @Override
+    @Singleton
+    @Named(QueueFactoryInterface.KILL_NAMED)
+    @Bean(preDestroy = "close")
+    public QueueInterface<ExecutionKilled> kill() {
+        return new MemoryQueue<>(ExecutionKilled.class, applicationContext);
+    }
+
+    @Override
+    @Singleton
+    @Named(QueueFactoryInterface.TEMPLATE_NAMED)
+    @Bean(preDestroy = "close")
+    public QueueInterface<Template> template() {
+        return new MemoryQueue<>(Template.class, applicationContext);
+    }
+
+    @Override
+    @Singleton
+    @Named(QueueFactoryInterface.WORKERINSTANCE_NAMED)
+    @Bean(preDestroy = "close")
+    public QueueInterface<WorkerInstance> workerInstance() {
+        return new MemoryQueue<>(WorkerInstance.class, applicationContext);
+    }
+
+    @Override
+    @Singleton
+    @Named(QueueFactoryInterface.WORKERJOBRUNNING_NAMED)
+    @Bean(preDestroy = "close")
+    public QueueInterface<WorkerJobRunning> workerJobRunning() {
+        return new MemoryQueue<>(WorkerJobRunning.class, applicationContext);
+    }
+
+    @Override
+    @Singleton
+    @Named(QueueFactoryInterface.TRIGGER_NAMED)
+    @Bean(preDestroy = "close")
+    public QueueInterface<Trigger> trigger() {
+        return new MemoryQueue<>(Trigger.class, applicationContext);
+    }
+
+    @Override
+    @Singleton
+    @Named(QueueFactoryInterface.SUBFLOWEXECUTIONRESULT_NAMED)
+    @Bean(preDestroy = "close")
+    public QueueInterface<SubflowExecutionResult> subflowExecutionResult() {
+        return new MemoryQueue<>(SubflowExecutionResult.class, applicationContext);
+    }
+
+    @Override
+    @Singleton
+    @Named(QueueFactoryInterface.SUBFLOWEXECUTIONEND_NAMED)
+    @Bean(preDestroy = "close")
+    public QueueInterface<SubflowExecutionEnd> subflowExecutionEnd() {
+        return new MemoryQueue<>(SubflowExecutionEnd.class, applicationContext);
+    }
+
+    @Override
+    @Singleton
+    @Named(QueueFactoryInterface.EXECUTION_RUNNING_NAMED)
+    @Bean(preDestroy = "close")
+    public QueueInterface<ExecutionRunning> executionRunning() {
+        return new MemoryQueue<>(ExecutionRunning.class, applicationContext);
+    }
+}
@@ -0,0 +1,356 @@
+package io.kestra.runner.memory;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of the messages of a {@link MemoryQueue}, so they survive a restart.
+ * <p>
+ * Each record is prefixed by its length and its CRC32, a record partially written during a crash is detected on replay
+ * and dropped with everything after it.
+ * Three kinds of records are written:
+ * <ul>
+ *     <li>a message, with its consumer group and its sequence in the ring buffer of this group,</li>
+ *     <li>a commit, with the sequence up to which a named consumer has read the messages of a consumer group,</li>
+ *     <li>a deletion of all the messages of a key.</li>
+ * </ul>
+ * On startup, the journal is replayed then compacted: only the messages not yet read by all the named consumers are rewritten,
+ * renumbered from zero like the ring buffers they are republished to.
+ * While running, the journal is compacted again in the background each time it grew by the compaction size, keeping the sequences
+ * of the running ring buffers. A consumer group without any named consumer only keeps the messages still in its ring buffer.
+ */
+@Slf4j
+class MemoryQueueJournal implements Closeable {
+    private static final byte MESSAGE = 'M';
+    private static final byte COMMIT = 'C';
+    private static final byte DELETE = 'D';
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    private final Path path;
+    private final boolean fsync;
+    private final int capacity;
+    private final long compactionSize;
+    private final Executor compactionExecutor;
+    private final AtomicBoolean compacting = new AtomicBoolean(false);
+    private FileChannel channel;
+    // the size of the journal, and its size after the last compaction
+    private long size;
+    private long compactedSize;
+
+    /**
+     * @param capacity the capacity of the ring buffers of the queue
+     * @param compactionSize the number of bytes appended to the journal after which it's compacted again
+     * @param compactionExecutor the executor running the compactions
+     */
+    MemoryQueueJournal(Path directory, String name, boolean fsync, int capacity, long compactionSize, Executor compactionExecutor) throws IOException {
+        Files.createDirectories(directory);
+        this.path = directory.resolve(name + ".journal");
+        this.fsync = fsync;
+        this.capacity = capacity;
+        this.compactionSize = compactionSize;
+        this.compactionExecutor = compactionExecutor;
+    }
+
+    /**
+     * Replays the journal, then rewrites it compacted and opens it for appending.
+     *
+     * @return the messages and the named cursors to restore, by consumer group
+     */
+    synchronized Map<Optional<String>, Group> open() throws IOException {
+        Map<Optional<String>, Group> groups = renumber(this.replay(Long.MAX_VALUE));
+
+        Path compacted = this.compactedPath();
+        try (FileChannel output = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(output, groups);
+            output.force(true);
+        }
+        Files.move(compacted, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        this.channel = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.size = this.channel.size();
+        this.compactedSize = this.size;
+
+        return groups;
+    }
+
+    synchronized void appendMessage(String consumerGroup, long sequence, String key, byte[] payload) throws IOException {
+        this.append(message(consumerGroup, sequence, key, payload));
+    }
+
+    synchronized void appendCommit(String consumerGroup, String cursor, long sequence) throws IOException {
+        this.append(commit(consumerGroup, cursor, sequence));
+    }
+
+    synchronized void appendDelete(String key) throws IOException {
+        this.append(record(DELETE, out -> out.writeUTF(key)));
+    }
+
+    private void append(byte[] record) throws IOException {
+        write(this.channel, record);
+        if (this.fsync) {
+            this.channel.force(false);
+        }
+
+        this.size = this.size + record.length;
+        if (this.size - this.compactedSize > this.compactionSize && this.compacting.compareAndSet(false, true)) {
+            this.compactionExecutor.execute(this::compact);
+        }
+    }
+
+    /**
+     * Rewrites the journal with only the messages not yet read by all the named consumers, keeping their sequences.
+     * The journal is replayed and rewritten while the records are still appended, the records appended in the meantime
+     * are then copied after the compacted ones.
+     */
+    void compact() {
+        Path compacted = this.compactedPath();
+        try {
+            long end;
+            synchronized (this) {
+                if (this.channel == null || !this.channel.isOpen()) {
+                    return;
+                }
+                end = this.size;
+            }
+
+            Map<Optional<String>, Group> groups = this.replay(end);
+            try (FileChannel output = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                write(output, groups);
+
+                synchronized (this) {
+                    if (!this.channel.isOpen()) {
+                        return;
+                    }
+
+                    try (FileChannel input = FileChannel.open(this.path, StandardOpenOption.READ)) {
+                        long position = end;
+                        while (position < this.size) {
+                            position = position + input.transferTo(position, this.size - position, output);
+                        }
+                    }
+                    output.force(true);
+                    output.close();
+
+                    Files.move(compacted, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    FileChannel previous = this.channel;
+                    this.channel = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                    previous.close();
+
+                    this.size = this.channel.size();
+                    this.compactedSize = this.size;
+                }
+            }
+        } catch (IOException e) {
+            log.error("Unable to compact the queue journal '{}'", this.path, e);
+        } finally {
+            try {
+                Files.deleteIfExists(compacted);
+            } catch (IOException e) {
+                log.warn("Unable to delete the compacted queue journal '{}'", compacted, e);
+            }
+            this.compacting.set(false);
+        }
+    }
+
+    /**
+     * Replays the records of the journal up to the given position.
+     *
+     * @return the messages not yet read by all the named consumers, with their sequences, and the named cursors, by consumer group
+     */
+    private Map<Optional<String>, Group> replay(long limit) throws IOException {
+        Map<Optional<String>, TreeMap<Long, Message>> messages = new HashMap<>();
+        Map<Optional<String>, Map<String, Long>> commits = new HashMap<>();
+
+        if (Files.exists(this.path)) {
+            long size = Files.size(this.path);
+            long position = 0;
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.path)))) {
+                while (position < limit) {
+                    byte[] body;
+                    try {
+                        int length = input.readInt();
+                        long crc = input.readLong();
+                        if (length < 0 || length > size) {
+                            log.warn("Corrupted record in queue journal '{}', ignoring it and the following ones", this.path);
+                            break;
+                        }
+                        body = new byte[length];
+                        input.readFully(body);
+
+                        if (crc(body) != crc) {
+                            log.warn("Corrupted record in queue journal '{}', ignoring it and the following ones", this.path);
+                            break;
+                        }
+                    } catch (EOFException e) {
+                        // end of file, or a record truncated by a crash
+                        break;
+                    }
+                    position = position + HEADER_SIZE + body.length;
+
+                    DataInputStream record = new DataInputStream(new ByteArrayInputStream(body));
+                    byte type = record.readByte();
+                    switch (type) {
+                        case MESSAGE -> {
+                            Optional<String> consumerGroup = Optional.ofNullable(readNullable(record));
+                            long sequence = record.readLong();
+                            String key = readNullable(record);
+                            byte[] payload = record.readAllBytes();
+                            messages.computeIfAbsent(consumerGroup, k -> new TreeMap<>()).put(sequence, new Message(sequence, key, payload));
+                        }
+                        case COMMIT -> {
+                            Optional<String> consumerGroup = Optional.ofNullable(readNullable(record));
+                            String cursor = record.readUTF();
+                            long sequence = record.readLong();
+                            commits.computeIfAbsent(consumerGroup, k -> new HashMap<>()).merge(cursor, sequence, Math::max);
+                        }
+                        case DELETE -> {
+                            String key = record.readUTF();
+                            messages.values().forEach(map -> map.values().removeIf(message -> key.equals(message.key())));
+                        }
+                        default -> log.warn("Unknown record type '{}' in queue journal '{}'", (char) type, this.path);
+                    }
+                }
+            }
+        }
+
+        Map<Optional<String>, Group> groups = new HashMap<>();
+        Set<Optional<String>> consumerGroups = new HashSet<>(messages.keySet());
+        consumerGroups.addAll(commits.keySet());
+        for (Optional<String> consumerGroup : consumerGroups) {
+            List<Message> pending = new ArrayList<>(messages.getOrDefault(consumerGroup, new TreeMap<>()).values());
+            Map<String, Long> cursors = commits.getOrDefault(consumerGroup, Map.of());
+
+            List<Message> kept;
+            if (cursors.isEmpty()) {
+                // without named consumers, the oldest messages are overwritten in the ring buffer
+                kept = pending.subList(Math.max(0, pending.size() - this.capacity), pending.size());
+            } else {
+                long minCursor = cursors.values().stream().min(Long::compare).orElseThrow();
+                kept = pending.stream().filter(message -> message.sequence() >= minCursor).toList();
+            }
+
+            groups.put(consumerGroup, new Group(List.copyOf(kept), cursors));
+        }
+
+        return groups;
+    }
+
+    /**
+     * Renumbers the messages from zero, and translates the cursors to the new numbering.
+     */
+    private static Map<Optional<String>, Group> renumber(Map<Optional<String>, Group> groups) {
+        Map<Optional<String>, Group> renumbered = new HashMap<>();
+        groups.forEach((consumerGroup, group) -> {
+            List<Message> messages = new ArrayList<>(group.messages().size());
+            for (int i = 0; i < group.messages().size(); i++) {
+                messages.add(new Message(i, group.messages().get(i).key(), group.messages().get(i).payload()));
+            }
+
+            Map<String, Long> cursors = new HashMap<>();
+            group.cursors().forEach((cursor, sequence) -> cursors.put(cursor, group.messages().stream().filter(message -> message.sequence() < sequence).count()));
+
+            renumbered.put(consumerGroup, new Group(messages, cursors));
+        });
+
+        return renumbered;
+    }
+
+    private static void write(FileChannel output, Map<Optional<String>, Group> groups) throws IOException {
+        for (Map.Entry<Optional<String>, Group> group : groups.entrySet()) {
+            for (Message message : group.getValue().messages()) {
+                write(output, message(group.getKey().orElse(null), message.sequence(), message.key(), message.payload()));
+            }
+            for (Map.Entry<String, Long> cursor : group.getValue().cursors().entrySet()) {
+                write(output, commit(group.getKey().orElse(null), cursor.getKey(), cursor.getValue()));
+            }
+        }
+    }
+
+    private Path compactedPath() {
+        return this.path.resolveSibling(this.path.getFileName() + ".compact");
+    }
+
+    private static byte[] message(String consumerGroup, long sequence, String key, byte[] payload) throws IOException {
+        return record(MESSAGE, out -> {
+            writeNullable(out, consumerGroup);
+            out.writeLong(sequence);
+            writeNullable(out, key);
+            out.write(payload);
+        });
+    }
+
+    private static byte[] commit(String consumerGroup, String cursor, long sequence) throws IOException {
+        return record(COMMIT, out -> {
+            writeNullable(out, consumerGroup);
+            out.writeUTF(cursor);
+            out.writeLong(sequence);
+        });
+    }
+
+    private static byte[] record(byte type, RecordWriter writer) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        out.writeByte(type);
+        writer.write(out);
+        out.flush();
+
+        byte[] bytes = body.toByteArray();
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + bytes.length);
+        record.putInt(bytes.length);
+        record.putLong(crc(bytes));
+        record.put(bytes);
+        return record.array();
+    }
+
+    private static void write(FileChannel channel, byte[] record) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static long crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.channel != null) {
+            this.channel.force(true);
+            this.channel.close();
+        }
+    }
+
+    record Message(long sequence, String key, byte[] payload) {}
+
+    record Group(List<Message> messages, Map<String, Long> cursors) {}
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,317 @@
+package io.kestra.runner.memory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * A bounded multi-producer, multi-consumer ring buffer.
+ * <p>
+ * Producers claim a sequence with a compare-and-set, then publish the element in the slot of this sequence.
+ * Consumers read through cursors: a named cursor is shared by all the consumers of the same name, which compete for
+ * the elements, so each element is delivered once per name.
+ * A broadcast cursor is private to its consumer and starts at the end of the buffer.
+ * <p>
+ * A batch read from a cursor must then be committed once processed, or failed so it's read again by the next poll of this cursor.
+ * Producers are blocked while the oldest uncommitted element of a named cursor is a full ring behind them.
+ * Broadcast cursors never block producers, a broadcast consumer that is too slow will skip the overwritten elements.
+ * <p>
+ * Named cursors are reference counted, when the last consumer of a name releases it, it stops blocking the producers and
+ * a later consumer of the same name starts from where it stopped, if these elements were not overwritten yet.
+ * <p>
+ * Producers don't take locks but wait while the ring is full, consumers only take the lock of their cursor to claim a batch
+ * and waiting consumers are parked on a monitor.
+ */
+class MemoryRingBuffer<E> {
+    private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong(0);
+    private final Map<String, Cursor<E>> namedCursors = new ConcurrentHashMap<>();
+    private final Map<String, Long> releasedCursors = new ConcurrentHashMap<>();
+    private final Object monitor = new Object();
+    private final AtomicInteger waiters = new AtomicInteger(0);
+    private final Duration producerTimeout;
+
+    MemoryRingBuffer(int capacity, Duration producerTimeout) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a power of 2, got " + capacity);
+        }
+
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            this.published.set(i, -1);
+        }
+        this.producerTimeout = producerTimeout;
+    }
+
+    /**
+     * Publishes an element, waiting while the buffer is full for the named cursors.
+     *
+     * @return the sequence of the element
+     * @throws TimeoutException if there was no room for the element after the producer timeout
+     */
+    long publish(E element) throws TimeoutException, InterruptedException {
+        long deadline = System.nanoTime() + this.producerTimeout.toNanos();
+        long sequence;
+        while (true) {
+            sequence = this.claimed.get();
+            if (sequence - this.minNamedCursor() >= this.capacity) {
+                // the sequence is only claimed when there is room for it, so a timed out producer never leaves a hole
+                if (System.nanoTime() > deadline) {
+                    throw new TimeoutException("No room in the ring buffer after " + this.producerTimeout);
+                }
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+            } else if (this.claimed.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+
+        this.slots.set(index(sequence), element);
+        this.published.set(index(sequence), sequence);
+
+        // waiters are registered before checking for new elements, so either they see this one or we see them
+        if (this.waiters.get() > 0) {
+            this.wakeUp();
+        }
+
+        return sequence;
+    }
+
+    /**
+     * Acquires the cursor shared by all the consumers of the given name, it must be released with {@link #release(Cursor)}.
+     * A new named cursor starts from where the last consumer of this name released it, or from the oldest element still in the buffer.
+     *
+     * @param initial the sequence to start from if the cursor doesn't exist yet and was never released, or <code>null</code> for the oldest one
+     */
+    Cursor<E> namedCursor(String name, Long initial) {
+        return this.namedCursors.compute(name, (key, cursor) -> {
+            if (cursor == null) {
+                Long released = this.releasedCursors.remove(key);
+                long start = released != null ? released : initial != null ? initial : 0;
+                cursor = new Cursor<>(key, Math.max(start, this.claimed.get() - this.capacity));
+            }
+
+            cursor.consumers++;
+            return cursor;
+        });
+    }
+
+    /**
+     * Returns a new cursor that only sees the elements published from now on.
+     */
+    Cursor<E> broadcastCursor() {
+        return new Cursor<>(null, this.claimed.get());
+    }
+
+    /**
+     * Releases a cursor acquired by a consumer, a named cursor stops blocking the producers once all its consumers released it.
+     */
+    void release(Cursor<E> cursor) {
+        if (cursor.name == null) {
+            return;
+        }
+
+        this.namedCursors.computeIfPresent(cursor.name, (key, current) -> {
+            if (current != cursor || --current.consumers > 0) {
+                return current;
+            }
+
+            this.releasedCursors.put(key, current.committed());
+            return null;
+        });
+    }
+
+    /**
+     * Reads up to <code>max</code> elements from the cursor. For a shared cursor, each element is read by only one consumer.
+     * A batch that failed is read again first, whatever its size.
+     *
+     * @return the elements read, empty if no element is available, with the sequence following the last one read
+     */
+    Batch<E> poll(Cursor<E> cursor, int max) {
+        Batch<E> failed = cursor.failed.poll();
+        if (failed != null) {
+            return failed;
+        }
+
+        synchronized (cursor) {
+            long start = cursor.next.get();
+            List<E> elements = new ArrayList<>(Math.min(max, 64));
+            long next = start;
+
+            while (next - start < max) {
+                int index = index(next);
+                long sequence = this.published.get(index);
+
+                if (sequence < next) {
+                    // not yet published
+                    break;
+                }
+
+                if (sequence > next) {
+                    // overwritten by a producer, only possible for broadcast cursors
+                    if (next == start) {
+                        start = Math.max(next + 1, sequence - this.capacity + 1);
+                        next = start;
+                        continue;
+                    }
+                    break;
+                }
+
+                E element = this.slots.get(index);
+                if (this.published.get(index) != next) {
+                    // overwritten while reading it
+                    continue;
+                }
+
+                if (element != null) {
+                    elements.add(element);
+                }
+                next++;
+            }
+
+            Batch<E> batch = new Batch<>(elements, start, next);
+            if (!batch.isEmpty()) {
+                // registered before moving the cursor, so the producers never see the batch as committed
+                cursor.uncommitted.add(start);
+            }
+            cursor.next.set(next);
+
+            return batch;
+        }
+    }
+
+    /**
+     * Waits for new elements to be published or for the timeout to elapse.
+     */
+    void await(Cursor<E> cursor, Duration timeout) throws InterruptedException {
+        this.waiters.incrementAndGet();
+        try {
+            synchronized (this.monitor) {
+                long next = cursor.next.get();
+                if (cursor.failed.isEmpty() && this.published.get(index(next)) < next) {
+                    TimeUnit.NANOSECONDS.timedWait(this.monitor, timeout.toNanos());
+                }
+            }
+        } finally {
+            this.waiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * Applies the action on each element not yet committed by all the named cursors.
+     */
+    void forEachPending(Consumer<E> action) {
+        long end = this.claimed.get();
+        for (long sequence = Math.max(this.minNamedCursor(), end - this.capacity); sequence < end; sequence++) {
+            int index = index(sequence);
+            E element = this.slots.get(index);
+            if (element != null && this.published.get(index) == sequence) {
+                action.accept(element);
+            }
+        }
+    }
+
+    /**
+     * Wakes up all the waiting consumers.
+     */
+    void wakeUp() {
+        synchronized (this.monitor) {
+            this.monitor.notifyAll();
+        }
+    }
+
+    long claimed() {
+        return this.claimed.get();
+    }
+
+    private long minNamedCursor() {
+        long min = Long.MAX_VALUE;
+        for (Cursor<E> cursor : this.namedCursors.values()) {
+            min = Math.min(min, cursor.committed());
+        }
+
+        // without named cursors, nobody will read the oldest elements, so they can be overwritten
+        return min == Long.MAX_VALUE ? this.claimed.get() - this.capacity + 1 : min;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & this.mask);
+    }
+
+    static final class Cursor<E> {
+        private final String name;
+        private final AtomicLong next;
+        // start of the batches read but not yet committed, they still hold back the producers
+        private final NavigableSet<Long> uncommitted = new ConcurrentSkipListSet<>();
+        private final Queue<Batch<E>> failed = new ConcurrentLinkedQueue<>();
+        // only updated while holding the lock of the map of the named cursors
+        private int consumers = 0;
+
+        private Cursor(String name, long start) {
+            this.name = name;
+            this.next = new AtomicLong(start);
+        }
+
+        /**
+         * Marks the batch as processed, its elements can then be overwritten.
+         */
+        void commit(Batch<E> batch) {
+            if (!batch.isEmpty()) {
+                this.uncommitted.remove(batch.start());
+            }
+        }
+
+        /**
+         * Gives back the batch, to be read again by the next poll of this cursor.
+         */
+        void fail(Batch<E> batch) {
+            if (!batch.isEmpty()) {
+                this.failed.add(batch);
+            }
+        }
+
+        /**
+         * @return the sequence up to which all the elements were committed
+         */
+        long committed() {
+            // read the position first: a batch read after is registered before moving it, so we see it
+            long next = this.next.get();
+            try {
+                return Math.min(next, this.uncommitted.first());
+            } catch (NoSuchElementException e) {
+                return next;
+            }
+        }
+    }
+
+    record Batch<E>(List<E> elements, long start, long next) {
+        boolean isEmpty() {
+            return this.next == this.start;
+        }
+    }
+}
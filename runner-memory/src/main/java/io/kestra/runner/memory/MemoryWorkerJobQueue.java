@@ -0,0 +1,60 @@
+package io.kestra.runner.memory;
+
+import io.kestra.core.exceptions.DeserializationException;
+import io.kestra.core.queues.WorkerJobQueueInterface;
+import io.kestra.core.runners.*;
+import io.kestra.core.utils.Either;
+import io.kestra.jdbc.JooqDSLContextWrapper;
+import io.kestra.jdbc.repository.AbstractJdbcWorkerJobRunningRepository;
+import io.micronaut.context.ApplicationContext;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * This specific queue is used to be able to save WorkerJobRunning for each WorkerJob
+ */
+@Slf4j
+public class MemoryWorkerJobQueue extends MemoryQueue<WorkerJob> implements WorkerJobQueueInterface {
+    private final AbstractJdbcWorkerJobRunningRepository jdbcWorkerJobRunningRepository;
+    private final JooqDSLContextWrapper dslContextWrapper;
+
+    public MemoryWorkerJobQueue(ApplicationContext applicationContext) {
+        super(WorkerJob.class, applicationContext);
+        this.jdbcWorkerJobRunningRepository = applicationContext.getBean(AbstractJdbcWorkerJobRunningRepository.class);
+        this.dslContextWrapper = applicationContext.getBean(JooqDSLContextWrapper.class);
+    }
+
+    @Override
+    public Runnable subscribe(String workerId, String workerGroup, IntSupplier capacity, Consumer<Either<WorkerJob, DeserializationException>> consumer) {
+        WorkerInstance workerInstance = new WorkerInstance(workerId, workerGroup);
+
+        return this.receiveBatch(workerGroup, Worker.class, capacity, eithers -> {
+            // the running jobs must be saved before processing them, so they are resubmitted if this worker dies
+            dslContextWrapper.transaction(configuration -> this.saveRunning(DSL.using(configuration), workerInstance, eithers));
+
+            eithers.forEach(consumer);
+        });
+    }
+
+    private void saveRunning(DSLContext context, WorkerInstance workerInstance, List<Either<WorkerJob, DeserializationException>> eithers) {
+        eithers.forEach(either -> {
+            if (either.isRight()) {
+                log.error("Unable to deserialize a worker job: {}", either.getRight().getMessage());
+                return;
+            }
+
+            WorkerJobRunning workerJobRunning = switch (either.getLeft()) {
+                case WorkerTask workerTask -> WorkerTaskRunning.of(workerTask, workerInstance, 0);
+                case WorkerTrigger workerTrigger -> WorkerTriggerRunning.of(workerTrigger, workerInstance, 0);
+                default -> throw new IllegalArgumentException("Message is of type " + either.getLeft().getClass() + " which should never occurs");
+            };
+
+            jdbcWorkerJobRunningRepository.save(workerJobRunning, context);
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package io.kestra.runner.memory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.kestra.core.exceptions.DeserializationException;
+import io.kestra.core.models.triggers.TriggerContext;
+import io.kestra.core.runners.WorkerJobRunningStateStore;
+import io.kestra.core.runners.WorkerTriggerResult;
+import io.kestra.core.utils.Either;
+import io.kestra.jdbc.JdbcMapper;
+import io.micronaut.context.ApplicationContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.Consumer;
+
+/**
+ * This specific queue is used to be able to purge WorkerJobRunning for triggers
+ */
+@Slf4j
+public class MemoryWorkerTriggerResultQueue extends MemoryQueue<WorkerTriggerResult> {
+    private static final ObjectMapper MAPPER = JdbcMapper.of();
+
+    private final WorkerJobRunningStateStore workerJobRunningStateStore;
+
+    public MemoryWorkerTriggerResultQueue(ApplicationContext applicationContext) {
+        super(WorkerTriggerResult.class, applicationContext);
+        this.workerJobRunningStateStore = applicationContext.getBean(WorkerJobRunningStateStore.class);
+    }
+
+    @Override
+    public Runnable receive(String consumerGroup, Class<?> queueType, Consumer<Either<WorkerTriggerResult, DeserializationException>> consumer) {
+        return super.receive(consumerGroup, queueType, either -> {
+            if (either.isRight()) {
+                log.error("Unable to deserialize a worker job: {}", either.getRight().getMessage());
+                try {
+                    JsonNode json = MAPPER.readTree(either.getRight().getRecord());
+                    var triggerContext = MAPPER.treeToValue(json.get("triggerContext"), TriggerContext.class);
+                    workerJobRunningStateStore.deleteByKey(triggerContext.uid());
+                } catch (JsonProcessingException | DeserializationException e) {
+                    // ignore the message if we cannot do anything about it
+                    log.error("Unexpected exception when trying to handle a deserialization error", e);
+                }
+            } else {
+                workerJobRunningStateStore.deleteByKey(either.getLeft().getTriggerContext().uid());
+            }
+            consumer.accept(either);
+        });
+    }
+}
@@ -0,0 +1,113 @@
+package io.kestra.runner.memory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemoryQueueJournalTest {
+    private static final int CAPACITY = 16;
+
+    @TempDir
+    Path directory;
+
+    private MemoryQueueJournal journal(long compactionSize) throws IOException {
+        // compactions run in the thread appending the record that triggers them
+        return new MemoryQueueJournal(directory, "queue", false, CAPACITY, compactionSize, Runnable::run);
+    }
+
+    @Test
+    void shouldReplayUnreadMessages() throws Exception {
+        try (MemoryQueueJournal journal = journal(Long.MAX_VALUE)) {
+            assertThat(journal.open()).isEmpty();
+
+            journal.appendMessage(null, 0, "a", "1".getBytes(StandardCharsets.UTF_8));
+            journal.appendMessage(null, 1, "b", "2".getBytes(StandardCharsets.UTF_8));
+            journal.appendMessage(null, 2, "c", "3".getBytes(StandardCharsets.UTF_8));
+            journal.appendMessage("group", 0, "d", "4".getBytes(StandardCharsets.UTF_8));
+            journal.appendCommit(null, "executor", 1);
+            journal.appendDelete("c");
+        }
+
+        try (MemoryQueueJournal journal = journal(Long.MAX_VALUE)) {
+            Map<Optional<String>, MemoryQueueJournal.Group> groups = journal.open();
+
+            MemoryQueueJournal.Group group = groups.get(Optional.<String>empty());
+            assertThat(group.messages()).hasSize(1);
+            assertThat(group.messages().getFirst().key()).isEqualTo("b");
+            assertThat(group.messages().getFirst().sequence()).isZero();
+            assertThat(group.cursors()).containsEntry("executor", 0L);
+
+            assertThat(groups.get(Optional.of("group")).messages()).hasSize(1);
+        }
+    }
+
+    @Test
+    void shouldCompactWhileRunning() throws Exception {
+        Path file = directory.resolve("queue.journal");
+
+        try (MemoryQueueJournal journal = journal(1024)) {
+            journal.open();
+            for (int i = 0; i < 100; i++) {
+                journal.appendMessage(null, i, "key-" + i, "payload".getBytes(StandardCharsets.UTF_8));
+                journal.appendCommit(null, "executor", i + 1);
+            }
+            journal.appendMessage(null, 100, "key-100", "payload".getBytes(StandardCharsets.UTF_8));
+
+            // only the last unread message and the cursor are left, with the records appended since the last compaction
+            assertThat(Files.size(file)).isLessThan(1024 * 2);
+        }
+
+        try (MemoryQueueJournal journal = journal(1024)) {
+            MemoryQueueJournal.Group group = journal.open().get(Optional.<String>empty());
+            assertThat(group.messages()).hasSize(1);
+            assertThat(group.messages().getFirst().key()).isEqualTo("key-100");
+            assertThat(group.cursors()).containsEntry("executor", 0L);
+        }
+    }
+
+    @Test
+    void shouldOnlyKeepRingCapacityWithoutNamedCursors() throws Exception {
+        try (MemoryQueueJournal journal = journal(Long.MAX_VALUE)) {
+            journal.open();
+            for (int i = 0; i < CAPACITY + 2; i++) {
+                journal.appendMessage("group", i, "key-" + i, "payload".getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        try (MemoryQueueJournal journal = journal(Long.MAX_VALUE)) {
+            MemoryQueueJournal.Group group = journal.open().get(Optional.of("group"));
+            assertThat(group.messages()).hasSize(CAPACITY);
+            assertThat(group.messages().getFirst().key()).isEqualTo("key-2");
+        }
+    }
+
+    @Test
+    void shouldIgnoreTruncatedRecord() throws Exception {
+        try (MemoryQueueJournal journal = journal(Long.MAX_VALUE)) {
+            journal.open();
+            journal.appendMessage(null, 0, "a", "1".getBytes(StandardCharsets.UTF_8));
+            journal.appendMessage(null, 1, "b", "2".getBytes(StandardCharsets.UTF_8));
+        }
+
+        // simulate a crash in the middle of the last record
+        Path file = directory.resolve("queue.journal");
+        byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length - 3), StandardOpenOption.TRUNCATE_EXISTING);
+
+        try (MemoryQueueJournal journal = journal(Long.MAX_VALUE)) {
+            MemoryQueueJournal.Group group = journal.open().get(Optional.<String>empty());
+            assertThat(group.messages()).hasSize(1);
+            assertThat(group.messages().getFirst().key()).isEqualTo("a");
+        }
+    }
+}
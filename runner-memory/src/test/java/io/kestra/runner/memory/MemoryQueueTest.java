@@ -0,0 +1,113 @@
+package io.kestra.runner.memory;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.executions.LogEntry;
+import io.kestra.core.queues.QueueException;
+import io.kestra.core.utils.Await;
+import io.kestra.core.utils.IdUtils;
+import io.micronaut.context.ApplicationContext;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@KestraTest
+class MemoryQueueTest {
+    @Inject
+    private ApplicationContext applicationContext;
+
+    @Test
+    void shouldDeliverInOrder() throws Exception {
+        try (MemoryQueue<LogEntry> queue = new MemoryQueue<>(LogEntry.class, applicationContext)) {
+            List<String> received = new CopyOnWriteArrayList<>();
+            Runnable cancel = queue.receiveBatch(null, MemoryQueueTest.class, eithers -> eithers.forEach(either -> received.add(either.getLeft().getMessage())));
+
+            emit(queue, null, 0, 500);
+
+            Await.until(() -> received.size() == 500, Duration.ofMillis(10), Duration.ofSeconds(10));
+            assertThat(received).containsExactlyElementsOf(messages(0, 500));
+            cancel.run();
+        }
+    }
+
+    @Test
+    void shouldDeliverToItsConsumerGroupOnly() throws Exception {
+        try (MemoryQueue<LogEntry> queue = new MemoryQueue<>(LogEntry.class, applicationContext)) {
+            List<String> first = new CopyOnWriteArrayList<>();
+            List<String> second = new CopyOnWriteArrayList<>();
+            Runnable cancelFirst = queue.receiveBatch("first", MemoryQueueTest.class, eithers -> eithers.forEach(either -> first.add(either.getLeft().getMessage())));
+            Runnable cancelSecond = queue.receiveBatch("second", MemoryQueueTest.class, eithers -> eithers.forEach(either -> second.add(either.getLeft().getMessage())));
+
+            emit(queue, "first", 0, 10);
+            emit(queue, "second", 10, 20);
+
+            Await.until(() -> first.size() == 10 && second.size() == 10, Duration.ofMillis(10), Duration.ofSeconds(10));
+            assertThat(first).containsExactlyElementsOf(messages(0, 10));
+            assertThat(second).containsExactlyElementsOf(messages(10, 20));
+            cancelFirst.run();
+            cancelSecond.run();
+        }
+    }
+
+    @Test
+    void shouldDeliverAgainWhenTheConsumerFails() throws Exception {
+        try (MemoryQueue<LogEntry> queue = new MemoryQueue<>(LogEntry.class, applicationContext)) {
+            List<String> received = new CopyOnWriteArrayList<>();
+            AtomicBoolean failed = new AtomicBoolean(false);
+            Runnable cancel = queue.receiveBatch(null, MemoryQueueTest.class, eithers -> {
+                if (failed.compareAndSet(false, true)) {
+                    throw new IllegalStateException("Failing the first delivery");
+                }
+                eithers.forEach(either -> received.add(either.getLeft().getMessage()));
+            });
+
+            emit(queue, null, 0, 10);
+
+            Await.until(() -> received.size() == 10, Duration.ofMillis(10), Duration.ofSeconds(10));
+            assertThat(failed.get()).isTrue();
+            assertThat(received).containsExactlyElementsOf(messages(0, 10));
+            cancel.run();
+        }
+    }
+
+    @Test
+    void shouldResumeFromTheReleasedCursor() throws Exception {
+        try (MemoryQueue<LogEntry> queue = new MemoryQueue<>(LogEntry.class, applicationContext)) {
+            List<String> received = new CopyOnWriteArrayList<>();
+            Runnable cancel = queue.receiveBatch(null, MemoryQueueTest.class, eithers -> eithers.forEach(either -> received.add(either.getLeft().getMessage())));
+
+            emit(queue, null, 0, 10);
+            Await.until(() -> received.size() == 10, Duration.ofMillis(10), Duration.ofSeconds(10));
+            cancel.run();
+
+            // emitted while nobody consumes, then delivered to the next consumer without the messages already consumed
+            emit(queue, null, 10, 20);
+            cancel = queue.receiveBatch(null, MemoryQueueTest.class, eithers -> eithers.forEach(either -> received.add(either.getLeft().getMessage())));
+
+            Await.until(() -> received.size() >= 20, Duration.ofMillis(10), Duration.ofSeconds(10));
+            assertThat(received).containsExactlyElementsOf(messages(0, 20));
+            cancel.run();
+        }
+    }
+
+    private static void emit(MemoryQueue<LogEntry> queue, String consumerGroup, int from, int to) throws QueueException {
+        for (String message : messages(from, to)) {
+            queue.emitOnly(consumerGroup, LogEntry.builder()
+                .namespace("io.kestra.unittest")
+                .flowId(IdUtils.create())
+                .message(message)
+                .build()
+            );
+        }
+    }
+
+    private static List<String> messages(int from, int to) {
+        return IntStream.range(from, to).mapToObj(String::valueOf).toList();
+    }
+}
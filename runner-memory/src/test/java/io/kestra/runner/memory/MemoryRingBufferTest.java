@@ -0,0 +1,151 @@
+package io.kestra.runner.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MemoryRingBufferTest {
+    @Test
+    void shouldDeliverOnceToCompetingConsumers() throws Exception {
+        MemoryRingBuffer<Integer> ring = new MemoryRingBuffer<>(1024, Duration.ofSeconds(10));
+        MemoryRingBuffer.Cursor<Integer> cursor = ring.namedCursor("executor", null);
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(4);
+
+        IntStream.range(0, 4).forEach(i -> Thread.ofVirtual().start(() -> {
+            while (received.size() < 10_000) {
+                MemoryRingBuffer.Batch<Integer> batch = ring.poll(cursor, 10);
+                received.addAll(batch.elements());
+                cursor.commit(batch);
+            }
+            done.countDown();
+        }));
+
+        for (int i = 0; i < 10_000; i++) {
+            ring.publish(i);
+        }
+
+        done.await();
+        assertThat(received).hasSize(10_000).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shouldDeliverToEachNamedCursor() throws Exception {
+        MemoryRingBuffer<Integer> ring = new MemoryRingBuffer<>(16, Duration.ofSeconds(10));
+        MemoryRingBuffer.Cursor<Integer> executor = ring.namedCursor("executor", null);
+        MemoryRingBuffer.Cursor<Integer> indexer = ring.namedCursor("indexer", null);
+
+        ring.publish(1);
+        ring.publish(2);
+
+        assertThat(ring.poll(executor, 10).elements()).containsExactly(1, 2);
+        assertThat(ring.poll(indexer, 10).elements()).containsExactly(1, 2);
+        assertThat(ring.poll(executor, 10).elements()).isEmpty();
+    }
+
+    @Test
+    void shouldOnlyDeliverNewElementsToBroadcastCursor() throws Exception {
+        MemoryRingBuffer<Integer> ring = new MemoryRingBuffer<>(16, Duration.ofSeconds(10));
+        ring.publish(1);
+
+        MemoryRingBuffer.Cursor<Integer> cursor = ring.broadcastCursor();
+        ring.publish(2);
+
+        assertThat(ring.poll(cursor, 10).elements()).containsExactly(2);
+    }
+
+    @Test
+    void shouldSkipOverwrittenElementsForBroadcastCursor() throws Exception {
+        MemoryRingBuffer<Integer> ring = new MemoryRingBuffer<>(4, Duration.ofSeconds(10));
+        MemoryRingBuffer.Cursor<Integer> cursor = ring.broadcastCursor();
+
+        for (int i = 0; i < 10; i++) {
+            ring.publish(i);
+        }
+
+        assertThat(ring.poll(cursor, 10).elements()).containsExactly(6, 7, 8, 9);
+    }
+
+    @Test
+    void shouldBlockProducersWhenFull() throws Exception {
+        MemoryRingBuffer<Integer> ring = new MemoryRingBuffer<>(4, Duration.ofMillis(100));
+        MemoryRingBuffer.Cursor<Integer> cursor = ring.namedCursor("executor", null);
+
+        for (int i = 0; i < 4; i++) {
+            ring.publish(i);
+        }
+        assertThrows(TimeoutException.class, () -> ring.publish(4));
+
+        MemoryRingBuffer.Batch<Integer> batch = ring.poll(cursor, 2);
+        assertThat(batch.elements()).containsExactly(0, 1);
+        assertThat(batch.next()).isEqualTo(2);
+
+        // read but not committed yet, the producer is still blocked
+        assertThrows(TimeoutException.class, () -> ring.publish(4));
+
+        cursor.commit(batch);
+        ring.publish(4);
+        assertThat(ring.poll(cursor, 10).elements()).containsExactly(2, 3, 4);
+    }
+
+    @Test
+    void shouldReadFailedBatchAgain() throws Exception {
+        MemoryRingBuffer<Integer> ring = new MemoryRingBuffer<>(16, Duration.ofSeconds(10));
+        MemoryRingBuffer.Cursor<Integer> cursor = ring.namedCursor("executor", null);
+
+        ring.publish(1);
+        ring.publish(2);
+
+        MemoryRingBuffer.Batch<Integer> batch = ring.poll(cursor, 10);
+        assertThat(batch.elements()).containsExactly(1, 2);
+        cursor.fail(batch);
+        ring.publish(3);
+
+        MemoryRingBuffer.Batch<Integer> again = ring.poll(cursor, 10);
+        assertThat(again.elements()).containsExactly(1, 2);
+        assertThat(cursor.committed()).isZero();
+
+        cursor.commit(again);
+        assertThat(ring.poll(cursor, 10).elements()).containsExactly(3);
+    }
+
+    @Test
+    void shouldNotBlockProducersOnceReleased() throws Exception {
+        MemoryRingBuffer<Integer> ring = new MemoryRingBuffer<>(4, Duration.ofMillis(100));
+        MemoryRingBuffer.Cursor<Integer> first = ring.namedCursor("executor", null);
+        MemoryRingBuffer.Cursor<Integer> second = ring.namedCursor("executor", null);
+        assertThat(second).isSameAs(first);
+
+        ring.publish(0);
+        MemoryRingBuffer.Batch<Integer> batch = ring.poll(first, 1);
+        first.commit(batch);
+        for (int i = 1; i < 5; i++) {
+            ring.publish(i);
+        }
+
+        // still a consumer on this name
+        ring.release(first);
+        assertThrows(TimeoutException.class, () -> ring.publish(5));
+
+        ring.release(second);
+        ring.publish(5);
+
+        // a new consumer starts from where the last one stopped, if it's still in the buffer
+        MemoryRingBuffer.Cursor<Integer> cursor = ring.namedCursor("executor", null);
+        assertThat(ring.poll(cursor, 10).elements()).containsExactly(2, 3, 4, 5);
+    }
+
+    @Test
+    void shouldRejectCapacityNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new MemoryRingBuffer<>(100, Duration.ofSeconds(1)));
+    }
+}
@@ -12,6 +12,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -73,6 +74,22 @@ public class LocalStorage implements StorageInterface {
         return new BufferedInputStream(new FileInputStream(getLocalPath(tenantId, uri).toAbsolutePath().toString()));
     }
 
+    @Override
+    public InputStream get(String tenantId, @Nullable String namespace, URI uri, long offset, long length) throws IOException {
+        FileInputStream inputStream = new FileInputStream(getLocalPath(tenantId, uri).toAbsolutePath().toString());
+        try {
+            inputStream.getChannel().position(offset);
+        } catch (IOException e) {
+            inputStream.close();
+            throw e;
+        }
+
+        return BoundedInputStream.builder()
+            .setInputStream(new BufferedInputStream(inputStream))
+            .setMaxCount(length)
+            .get();
+    }
+
     @Override
     public InputStream getInstanceResource(@Nullable String namespace, URI uri) throws IOException {
         return new BufferedInputStream(new FileInputStream(getInstancePath(uri).toAbsolutePath().toString()));
@@ -31,6 +31,7 @@ import io.kestra.core.storages.InternalNamespace;
 import io.kestra.core.storages.Namespace;
 import io.kestra.core.storages.StorageContext;
 import io.kestra.core.storages.StorageInterface;
+import io.kestra.core.storages.StorageRange;
 import io.kestra.core.tenant.TenantService;
 import io.kestra.core.test.flow.TaskFixture;
 import io.kestra.core.topologies.FlowTopologyService;
@@ -44,6 +45,7 @@ import io.kestra.webserver.responses.BulkErrorResponse;
 import io.kestra.webserver.responses.BulkResponse;
 import io.kestra.webserver.responses.PagedResults;
 import io.kestra.webserver.services.ExecutionDependenciesStreamingService;
+import io.kestra.webserver.services.ExecutionDeltaStreamingService;
 import io.kestra.webserver.services.ExecutionStreamingService;
 import io.kestra.webserver.utils.PageableUtils;
 import io.kestra.webserver.utils.RequestUtils;
@@ -161,6 +163,9 @@ public class ExecutionController {
     @Inject
     private ExecutionStreamingService streamingService;
 
+    @Inject
+    private ExecutionDeltaStreamingService deltaStreamingService;
+
     @Inject
     private FlowTopologyService flowTopologyService;
 
@@ -873,16 +878,16 @@ public class ExecutionController {
 
         InputStream fileHandler = switch (path.getScheme()) {
             case StorageContext.KESTRA_SCHEME ->
-                storageInterface.get(execution.get().getTenantId(), execution.get().getNamespace(), path);
+                StorageRange.get(storageInterface, execution.get().getTenantId(), execution.get().getNamespace(), path);
             case LocalPath.FILE_SCHEME -> localPathFactory.createLocalPath().get(path);
             case Namespace.NAMESPACE_FILE_SCHEME -> {
                 URI uri = nsFileToInternalStorageURI(path, execution.get());
-                yield storageInterface.get(execution.get().getTenantId(), execution.get().getNamespace(), uri);
+                yield StorageRange.get(storageInterface, execution.get().getTenantId(), execution.get().getNamespace(), uri);
             }
             default -> throw new IllegalArgumentException("Scheme not supported: " + path.getScheme());
         };
         return HttpResponse.ok(new StreamedFile(fileHandler, MediaType.APPLICATION_OCTET_STREAM_TYPE)
-            .attach(FilenameUtils.getName(path.toString()))
+            .attach(FilenameUtils.getName(StorageRange.file(path).toString()))
         );
     }
 
@@ -910,11 +915,11 @@ public class ExecutionController {
 
         long size = switch (path.getScheme()) {
             case StorageContext.KESTRA_SCHEME ->
-                storageInterface.getAttributes(execution.get().getTenantId(), execution.get().getNamespace(), path).getSize();
+                StorageRange.size(storageInterface, execution.get().getTenantId(), execution.get().getNamespace(), path);
             case LocalPath.FILE_SCHEME -> localPathFactory.createLocalPath().getAttributes(path).size();
             case Namespace.NAMESPACE_FILE_SCHEME -> {
                 URI uri = nsFileToInternalStorageURI(path, execution.get());
-                yield storageInterface.getAttributes(execution.get().getTenantId(), execution.get().getNamespace(), uri).getSize();
+                yield StorageRange.size(storageInterface, execution.get().getTenantId(), execution.get().getNamespace(), uri);
             }
             default -> throw new IllegalArgumentException("Scheme not supported: " + path.getScheme());
         };
@@ -1858,6 +1863,49 @@ public class ExecutionController {
             .doFinally(ignored -> streamingService.unregisterSubscriber(executionId, subscriberId));
     }
 
+    @ExecuteOn(TaskExecutors.IO)
+    @Get(uri = "/{executionId}/follow-delta", produces = MediaType.TEXT_EVENT_STREAM)
+    @Operation(
+        tags = {"Executions"},
+        summary = "Follow an execution by its changes",
+        description = "Send a snapshot of the execution, then only the changes of each new version of it as `ExecutionDeltaEvent`. " +
+            "A new snapshot is sent when a change cannot be expressed as a delta, or when the client was too slow to receive all the changes."
+    )
+    public Flux<Event<String>> followExecutionDelta(
+        @Parameter(description = "The execution id") @PathVariable String executionId
+    ) {
+        String subscriberId = UUID.randomUUID().toString();
+        return Flux.<Event<String>>create(emitter -> {
+                // Check if execution exists
+                try {
+                    Execution execution = Await.until(
+                        () -> executionRepository.findById(tenantService.resolveTenant(), executionId).orElse(null),
+                        Duration.ofMillis(500),
+                        Duration.ofSeconds(10)
+                    );
+
+                    Flow flow = flowRepository.findByExecutionWithoutAcl(execution);
+
+                    // Register for updates, this sends the current state
+                    deltaStreamingService.registerSubscriber(executionId, subscriberId, emitter, flow, execution);
+
+                    // Fetch again the execution to avoid race when execution is ended before we are subscribed
+                    executionRepository.findById(tenantService.resolveTenant(), executionId)
+                        .ifPresent(deltaStreamingService::update);
+                } catch (IllegalStateException e) {
+                    log.error(e.getMessage(), e);
+                    emitter.error(new HttpStatusException(HttpStatus.NOT_FOUND,
+                        "Unable to find flow for execution " + executionId));
+                } catch (Exception e) {
+                    log.error(e.getMessage(), e);
+                    emitter.error(new HttpStatusException(HttpStatus.NOT_FOUND,
+                        "Unable to find execution " + executionId));
+                }
+            }, FluxSink.OverflowStrategy.BUFFER)
+            .timeout(Duration.ofHours(1)) // avoid idle SSE sockets by setting a between-item timeout
+            .doFinally(ignored -> deltaStreamingService.unregisterSubscriber(executionId, subscriberId));
+    }
+
     @ExecuteOn(TaskExecutors.IO)
     @Get(uri = "/{executionId}/file/preview")
     @Operation(tags = {"Executions"}, summary = "Get file preview for an execution")
@@ -1874,7 +1922,7 @@ public class ExecutionController {
 
         this.validateFile(execution.get(), path, "/api/v1/" + this.getTenant() + "executions/{executionId}/file?path=" + path);
 
-        String extension = FilenameUtils.getExtension(path.toString());
+        String extension = FilenameUtils.getExtension(StorageRange.file(path).toString());
         Optional<Charset> charset;
 
         try {
@@ -1885,11 +1933,11 @@ public class ExecutionController {
 
         InputStream fileStream = switch (path.getScheme()) {
             case StorageContext.KESTRA_SCHEME ->
-                storageInterface.get(execution.get().getTenantId(), execution.get().getNamespace(), path);
+                StorageRange.get(storageInterface, execution.get().getTenantId(), execution.get().getNamespace(), path);
             case LocalPath.FILE_SCHEME -> localPathFactory.createLocalPath().get(path);
             case Namespace.NAMESPACE_FILE_SCHEME -> {
                 URI uri = nsFileToInternalStorageURI(path, execution.get());
-                yield storageInterface.get(execution.get().getTenantId(), execution.get().getNamespace(), uri);
+                yield StorageRange.get(storageInterface, execution.get().getTenantId(), execution.get().getNamespace(), uri);
             }
             default -> throw new IllegalArgumentException("Scheme not supported: " + path.getScheme());
         };
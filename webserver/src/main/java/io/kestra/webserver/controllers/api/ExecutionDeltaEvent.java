@@ -0,0 +1,97 @@
+package io.kestra.webserver.controllers.api;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.kestra.core.models.Label;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.executions.TaskRun;
+import io.kestra.core.models.flows.State;
+import io.kestra.core.serializers.ListOrMapOfLabelDeserializer;
+import io.kestra.core.serializers.ListOrMapOfLabelSerializer;
+import io.kestra.core.utils.ListUtils;
+import jakarta.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An event of the 'follow-delta' endpoint: either a snapshot of the whole execution, or the changes since the previous event.
+ * The version is incremented on each change of the execution, so a client applies the changes in order on its snapshot.
+ *
+ * @param version the version of the execution after this event
+ * @param execution the whole execution for a snapshot, null for changes
+ * @param state the state of the execution if changed
+ * @param taskRuns the new or changed task runs
+ * @param labels the labels of the execution if changed
+ * @param outputs the outputs of the execution if changed
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ExecutionDeltaEvent(
+    long version,
+    @Nullable Execution execution,
+    @Nullable State state,
+    @Nullable List<TaskRun> taskRuns,
+    @Nullable
+    @JsonSerialize(using = ListOrMapOfLabelSerializer.class)
+    @JsonDeserialize(using = ListOrMapOfLabelDeserializer.class)
+    List<Label> labels,
+    @Nullable Map<String, Object> outputs
+) {
+    public static ExecutionDeltaEvent snapshot(long version, Execution execution) {
+        return new ExecutionDeltaEvent(version, execution, null, null, null, null);
+    }
+
+    /**
+     * The changes from the previous to the current execution, or empty if they can't be sent as changes
+     * (a change outside the state, task runs, labels and outputs, or a removed task run), in which case a snapshot must be sent.
+     */
+    public static Optional<ExecutionDeltaEvent> delta(long version, Execution previous, Execution current) {
+        if (!withoutDelta(previous).equals(withoutDelta(current))) {
+            return Optional.empty();
+        }
+
+        Map<String, TaskRun> previousTaskRuns = new HashMap<>();
+        ListUtils.emptyOnNull(previous.getTaskRunList()).forEach(taskRun -> previousTaskRuns.put(taskRun.getId(), taskRun));
+
+        List<TaskRun> taskRuns = ListUtils.emptyOnNull(current.getTaskRunList())
+            .stream()
+            .filter(taskRun -> !taskRun.equals(previousTaskRuns.remove(taskRun.getId())))
+            .toList();
+
+        // removed task runs, for example by a restart, can't be sent as changes
+        if (!previousTaskRuns.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new ExecutionDeltaEvent(
+            version,
+            null,
+            current.getState().equals(previous.getState()) ? null : current.getState(),
+            taskRuns.isEmpty() ? null : taskRuns,
+            Objects.equals(current.getLabels(), previous.getLabels()) ? null : current.getLabels(),
+            Objects.equals(current.getOutputs(), previous.getOutputs()) ? null : current.getOutputs()
+        ));
+    }
+
+    /**
+     * Whether this event carries no change.
+     */
+    @JsonIgnore
+    public boolean isEmpty() {
+        return execution == null && state == null && taskRuns == null && labels == null && outputs == null;
+    }
+
+    private static Execution withoutDelta(Execution execution) {
+        return execution.toBuilder()
+            .state(null)
+            .taskRunList(null)
+            .labels(null)
+            .outputs(null)
+            .build();
+    }
+}
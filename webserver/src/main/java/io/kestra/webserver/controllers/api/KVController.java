@@ -38,6 +38,8 @@ public class KVController {
     @Inject
     private StorageInterface storageInterface;
     @Inject
+    private KVStoreCache kvStoreCache;
+    @Inject
     protected TenantService tenantService;
 
     @ExecuteOn(TaskExecutors.IO)
@@ -182,7 +184,7 @@ public class KVController {
     }
 
     private KVStore kvStore(String namespace) {
-        return new InternalKVStore(tenantService.resolveTenant(), namespace, storageInterface);
+        return new InternalKVStore(tenantService.resolveTenant(), namespace, storageInterface, kvStoreCache);
     }
 
     public record TypedValue(KVType type, Object value) {
@@ -0,0 +1,252 @@
+package io.kestra.webserver.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.flows.Flow;
+import io.kestra.core.queues.QueueFactoryInterface;
+import io.kestra.core.queues.QueueInterface;
+import io.kestra.core.services.ExecutionService;
+import io.kestra.core.utils.ListUtils;
+import io.kestra.webserver.controllers.api.ExecutionDeltaEvent;
+import io.micronaut.http.sse.Event;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.FluxSink;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This service offers a fanout mechanism so a single consumer of the execution queue can dispatch execution
+ * changes to multiple consumers.
+ * It is designed to be used for the 'follow-delta' endpoint that uses SSE to follow a flow execution:
+ * each subscriber receives a snapshot of the execution, then only the changes of each new version of it.
+ * <p>
+ * The events are serialized once for all the subscribers of an execution.
+ * A subscriber that doesn't consume its events fast enough stops receiving the changes,
+ * and receives a new snapshot once it catches up.
+ * <p>
+ * Consumers need first to register themselves via {@link #registerSubscriber(String, String, FluxSink, Flow, Execution)},
+ * then unregister (ideally in a finally block to avoid any memory leak) via {@link #unregisterSubscriber(String, String)}.
+ */
+@Slf4j
+@Singleton
+public class ExecutionDeltaStreamingService {
+    // events sent but not requested yet by a subscriber, after which it is considered behind
+    private static final long MAX_PENDING_EVENTS = 16;
+
+    private final Map<String, FollowedExecution> executions = new ConcurrentHashMap<>();
+    private final Object subscriberLock = new Object();
+
+    private final QueueInterface<Execution> executionQueue;
+    private final ExecutionService executionService;
+    private final ObjectMapper objectMapper;
+
+    private Runnable queueConsumer;
+
+    @Inject
+    public ExecutionDeltaStreamingService(
+        @Named(QueueFactoryInterface.EXECUTION_NAMED) QueueInterface<Execution> executionQueue,
+        ExecutionService executionService,
+        ObjectMapper objectMapper
+    ) {
+        this.executionQueue = executionQueue;
+        this.executionService = executionService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void startQueueConsumer() {
+        // Single queue consumer
+        this.queueConsumer = executionQueue.receive(either -> {
+            if (either.isRight()) {
+                log.error("Unable to deserialize execution: {}", either.getRight().getMessage());
+                return;
+            }
+
+            this.update(either.getLeft());
+        });
+    }
+
+    /**
+     * Register a subscriber to an execution, sending it a snapshot of the execution.
+     * All subscribers must ensure to call {@link #unregisterSubscriber(String, String)} to avoid any memory leak.
+     *
+     * @param execution the execution as loaded by the caller, used if nobody is following it yet
+     */
+    public void registerSubscriber(String executionId, String subscriberId, FluxSink<Event<String>> sink, Flow flow, Execution execution) {
+        FollowedExecution followed;
+        Subscriber subscriber = new Subscriber(sink, flow);
+        // it needs to be synchronized as we get and remove if empty, so we must be sure that nobody else is removing it
+        // before the subscriber is added, the lock on the followed execution is always taken after this one
+        synchronized (subscriberLock) {
+            followed = executions.computeIfAbsent(executionId, k -> new FollowedExecution(execution));
+
+            synchronized (followed) {
+                if (this.isStopFollow(flow, followed.execution)) {
+                    if (followed.subscribers.isEmpty()) {
+                        executions.remove(executionId);
+                    }
+
+                    sink.next(Event.of(followed.snapshot(objectMapper)).id("end"));
+                    sink.complete();
+                    return;
+                }
+
+                followed.subscribers.put(subscriberId, subscriber);
+                subscriber.send(followed.snapshot(objectMapper), "snapshot");
+            }
+        }
+
+        sink.onRequest(n -> this.request(followed, subscriber, n));
+    }
+
+    /**
+     * Unregister a subscribers.
+     * This is advised to do it in a finally block to be sure to free resources.
+     */
+    public void unregisterSubscriber(String executionId, String subscriberId) {
+        // it needs to be synchronized as we get and remove if empty, so we must be sure that nobody else is adding a new one in-between
+        synchronized (subscriberLock) {
+            FollowedExecution followed = executions.get(executionId);
+            if (followed != null) {
+                followed.subscribers.remove(subscriberId);
+                if (followed.subscribers.isEmpty()) {
+                    executions.remove(executionId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends the changes of an execution to its subscribers, if followed.
+     */
+    public void update(Execution execution) {
+        FollowedExecution followed = executions.get(execution.getId());
+        if (followed == null) {
+            return;
+        }
+
+        synchronized (followed) {
+            if (execution.equals(followed.execution)) {
+                return;
+            }
+
+            long version = followed.version + 1;
+            Optional<ExecutionDeltaEvent> delta = ExecutionDeltaEvent.delta(version, followed.execution, execution);
+            if (delta.isPresent() && delta.get().isEmpty()) {
+                return;
+            }
+
+            followed.execution = execution;
+            followed.version = version;
+            followed.snapshot = null;
+
+            String data;
+            String id;
+            try {
+                data = delta.isPresent() ? objectMapper.writeValueAsString(delta.get()) : followed.snapshot(objectMapper);
+                id = delta.isPresent() ? "delta" : "snapshot";
+            } catch (JsonProcessingException e) {
+                log.error("Unable to serialize the changes of execution {}", execution.getId(), e);
+                return;
+            }
+
+            followed.subscribers.values().forEach(subscriber -> {
+                try {
+                    if (this.isStopFollow(subscriber.flow, execution)) {
+                        // the last event is always sent, as a snapshot if behind
+                        subscriber.sink.next(Event.of(subscriber.behind ? followed.snapshot(objectMapper) : data).id("end"));
+                        subscriber.sink.complete();
+                    } else if (subscriber.pending() >= MAX_PENDING_EVENTS) {
+                        subscriber.behind = true;
+                    } else if (!subscriber.behind) {
+                        subscriber.send(data, id);
+                    }
+                } catch (Exception e) {
+                    log.error("Error sending execution update", e);
+                    subscriber.sink.error(e);
+                }
+            });
+        }
+    }
+
+    private void request(FollowedExecution followed, Subscriber subscriber, long n) {
+        synchronized (followed) {
+            subscriber.requested = n == Long.MAX_VALUE ? Long.MAX_VALUE : subscriber.requested + n;
+
+            // caught up, so resynchronized with a new snapshot
+            if (subscriber.behind && subscriber.pending() < MAX_PENDING_EVENTS) {
+                subscriber.behind = false;
+                subscriber.send(followed.snapshot(objectMapper), "snapshot");
+            }
+        }
+    }
+
+    /**
+     * Utility method to know if following an execution can be stopped.
+     */
+    public boolean isStopFollow(Flow flow, Execution execution) {
+        return executionService.isTerminated(flow, execution) &&
+            ListUtils.emptyOnNull(execution.getTaskRunList()).stream().allMatch(taskRun -> taskRun.getState().isTerminated());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (queueConsumer != null) {
+            queueConsumer.run();
+        }
+    }
+
+    private static class FollowedExecution {
+        private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+        private Execution execution;
+        private long version = 1;
+        // serialized once by version, when first needed
+        private String snapshot;
+
+        private FollowedExecution(Execution execution) {
+            this.execution = execution;
+        }
+
+        private String snapshot(ObjectMapper objectMapper) {
+            if (this.snapshot == null) {
+                try {
+                    this.snapshot = objectMapper.writeValueAsString(ExecutionDeltaEvent.snapshot(this.version, this.execution));
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException("Unable to serialize execution " + this.execution.getId(), e);
+                }
+            }
+
+            return this.snapshot;
+        }
+    }
+
+    private static class Subscriber {
+        private final FluxSink<Event<String>> sink;
+        private final Flow flow;
+        private long requested;
+        private long sent;
+        private boolean behind;
+
+        private Subscriber(FluxSink<Event<String>> sink, Flow flow) {
+            this.sink = sink;
+            this.flow = flow;
+        }
+
+        private long pending() {
+            return this.requested == Long.MAX_VALUE ? 0 : this.sent - this.requested;
+        }
+
+        private void send(String data, String id) {
+            this.sent++;
+            this.sink.next(Event.of(data).id(id));
+        }
+    }
+}
@@ -316,6 +316,48 @@ class ExecutionControllerRunnerTest {
         assertThat(results.getLast().getId()).isEqualTo("end");
     }
 
+    @Test
+    @LoadFlows({"flows/valids/inputs.yaml"})
+    void triggerExecutionAndFollowExecutionDelta() {
+        Execution result = triggerExecutionInputsFlowExecution(false);
+
+        List<Event<ExecutionDeltaEvent>> results = sseClient
+            .eventStream("/api/v1/main/executions/" + result.getId() + "/follow-delta", ExecutionDeltaEvent.class)
+            .collectList()
+            .block();
+
+        assertThat(results).isNotNull();
+        assertThat(results.size()).isGreaterThan(0);
+        assertThat(results.getFirst().getData().execution()).isNotNull();
+        assertThat(results.getFirst().getData().execution().getId()).isEqualTo(result.getId());
+        assertThat(results.getLast().getId()).isEqualTo("end");
+
+        State state = null;
+        long version = 0;
+        for (Event<ExecutionDeltaEvent> event : results) {
+            assertThat(event.getData().version()).isGreaterThan(version);
+            version = event.getData().version();
+
+            if (event.getData().execution() != null) {
+                state = event.getData().execution().getState();
+            } else if (event.getData().state() != null) {
+                state = event.getData().state();
+            }
+        }
+        assertThat(state).isNotNull();
+        assertThat(state.getCurrent()).isEqualTo(State.Type.SUCCESS);
+
+        // check that a second call work: calling follow on an already terminated execution.
+        results = sseClient
+            .eventStream("/api/v1/main/executions/" + result.getId() + "/follow-delta", ExecutionDeltaEvent.class)
+            .collectList()
+            .block();
+
+        assertThat(results).hasSize(1);
+        assertThat(results.getFirst().getId()).isEqualTo("end");
+        assertThat(results.getFirst().getData().execution().getState().getCurrent()).isEqualTo(State.Type.SUCCESS);
+    }
+
     @Test
     @LoadFlows({"flows/valids/each-sequential-nested.yaml"})
     void evalTaskRunExpression() throws TimeoutException, QueueException {